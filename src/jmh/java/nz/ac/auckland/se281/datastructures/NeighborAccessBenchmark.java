@@ -0,0 +1,105 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares reading every neighbor list of a graph through the copying {@link
+ * Graph#getNeighbors(Comparable)} with the views the searches use. Run with {@code -prof gc}: the
+ * view and callback benchmarks should report close to zero bytes allocated per operation once the
+ * lists have been sorted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NeighborAccessBenchmark {
+
+  @Param({"100000"})
+  private int vertexCount;
+
+  @Param({"8"})
+  private int averageDegree;
+
+  private Graph<String> graph;
+  private List<String> verticies;
+
+  /** Builds a random graph, and sorts its neighbor lists by reading each one once. */
+  @Setup
+  public void setUp() {
+    Random random = new Random(281);
+    Set<String> vertexSet = new HashSet<>();
+    for (int v = 0; v < vertexCount; v++) {
+      vertexSet.add(Integer.toString(v));
+    }
+    Set<Edge<String>> edges = new HashSet<>();
+    for (long i = 0; i < (long) vertexCount * averageDegree; i++) {
+      edges.add(
+          new Edge<>(
+              Integer.toString(random.nextInt(vertexCount)),
+              Integer.toString(random.nextInt(vertexCount))));
+    }
+    graph = new Graph<>(vertexSet, edges);
+    verticies = new ArrayList<>(vertexSet);
+    for (String vertex : verticies) {
+      graph.getSortedNeighbors(vertex);
+    }
+  }
+
+  /** The old hot path of the searches, which copied and then sorted every list it read. */
+  @Benchmark
+  public void copyAndSort(Blackhole blackhole) {
+    for (int v = 0; v < verticies.size(); v++) {
+      List<String> neighbors = graph.getNeighbors(verticies.get(v));
+      graph.sortList(neighbors);
+      for (int i = 0; i < neighbors.size(); i++) {
+        blackhole.consume(neighbors.get(i));
+      }
+    }
+  }
+
+  /** Reads the sorted views the searches now use. */
+  @Benchmark
+  public void sortedView(Blackhole blackhole) {
+    for (int v = 0; v < verticies.size(); v++) {
+      List<String> neighbors = graph.getSortedNeighbors(verticies.get(v));
+      for (int i = 0; i < neighbors.size(); i++) {
+        blackhole.consume(neighbors.get(i));
+      }
+    }
+  }
+
+  /** Reads the neighbors through the callback, with one consumer for the whole pass. */
+  @Benchmark
+  public void forEachNeighbor(Blackhole blackhole) {
+    Consumer<String> consumer = blackhole::consume;
+    for (int v = 0; v < verticies.size(); v++) {
+      graph.forEachNeighbor(verticies.get(v), consumer);
+    }
+  }
+
+  /** A whole breadth first search, whose remaining allocation is its queue and visited set. */
+  @Benchmark
+  public void breadthFirstSearch(Blackhole blackhole) {
+    graph.iterativeBreadthFirstSearch(blackhole::consume);
+  }
+}
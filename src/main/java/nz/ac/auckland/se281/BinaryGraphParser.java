@@ -0,0 +1,92 @@
+package nz.ac.auckland.se281;
+
+import com.paypal.digraph.parser.GraphEdge;
+import com.paypal.digraph.parser.GraphNode;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads a graph written by {@link GraphWriter#writeBinary}, into the same verticies and edges that
+ * the DOT parser reads from a test case, so that a binary graph can be opened like any other.
+ */
+class BinaryGraphParser {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private static final String WEIGHT_ATTRIBUTE = "weight";
+
+  private final Map<String, GraphNode> nodes = new LinkedHashMap<>();
+
+  private final Map<String, GraphEdge> edges = new LinkedHashMap<>();
+
+  /**
+   * Reads a binary graph from a stream, which is closed afterwards.
+   *
+   * @param input The stream to read the graph from.
+   * @throws IOException If the stream cannot be read or does not hold a binary graph.
+   */
+  BinaryGraphParser(final InputStream input) throws IOException {
+    try (DataInputStream data =
+        new DataInputStream(new BufferedInputStream(input, BUFFER_SIZE))) {
+      if (data.readInt() != GraphWriter.BINARY_MAGIC) {
+        throw new IOException("Not a binary graph");
+      }
+
+      final GraphNode[] verticies = new GraphNode[data.readInt()];
+
+      for (int v = 0; v < verticies.length; v++) {
+        verticies[v] = new GraphNode(data.readUTF());
+        nodes.put(verticies[v].getId(), verticies[v]);
+      }
+
+      final boolean weighted = data.readBoolean();
+      data.readLong();
+      int[] neighbors = new int[16];
+
+      for (final GraphNode source : verticies) {
+        final int degree = data.readInt();
+
+        if (degree > neighbors.length) {
+          neighbors = new int[Math.max(degree, neighbors.length * 2)];
+        }
+
+        for (int i = 0; i < degree; i++) {
+          neighbors[i] = data.readInt();
+        }
+
+        for (int i = 0; i < degree; i++) {
+          final GraphNode destination = verticies[neighbors[i]];
+          final String id = source.getId() + "->" + destination.getId();
+          final GraphEdge edge = new GraphEdge(id, source, destination);
+
+          if (weighted) {
+            edge.setAttribute(WEIGHT_ATTRIBUTE, data.readDouble());
+          }
+
+          edges.put(id, edge);
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the verticies of the graph.
+   *
+   * @return The verticies by their ids, in the order they were written.
+   */
+  Map<String, GraphNode> getNodes() {
+    return nodes;
+  }
+
+  /**
+   * Gets the edges of the graph.
+   *
+   * @return The edges by their ids, in the order they were written.
+   */
+  Map<String, GraphEdge> getEdges() {
+    return edges;
+  }
+}
@@ -17,7 +17,33 @@ public enum Command {
   CHECK_TRANSITIVITY(0, "Check transitivity of the graph"),
   CHECK_ANTISYMMETRY(0, "Check anti-symmetry of the graph"),
   CHECK_EQUIVALENCE(0, "Check equivalence of the graph"),
+  ESTIMATE_PROPERTY(
+      3,
+      "Check <PROPERTY> (symmetry, antisymmetry or transitivity) on every edge if it finishes in"
+          + " <MILLISECONDS>, otherwise estimate it from <SAMPLES> random edges"),
+  FIND_VIOLATIONS(
+      2,
+      "Count every violation of <PROPERTY> (symmetry, antisymmetry or transitivity) in one pass and"
+          + " list the first <LIMIT> of them"),
+  CLOSURE(
+      2,
+      "Build the smallest <CLOSURE> (reflexive, symmetric, transitive or equivalence) relation that"
+          + " contains the graph and write it to <FILENAME>, in binary if it ends in .bin"),
+  TRANSITIVE_REDUCTION(
+      1,
+      "Remove every edge that another path covers, keeping what each vertex reaches, and write the"
+          + " result to <FILENAME>, in binary if it ends in .bin"),
+  CONDENSATION(
+      1,
+      "Write the graph of the strongly connected components, each named by its first vertex, to"
+          + " <FILENAME>, in binary if it ends in .bin"),
   COMPUTE_EQUIVALENCE(1, "Compute equivalence class for a vertex in loaded file <VERTEX>"),
+  CHECK_ACYCLIC(0, "Check if the graph has no cycles"),
+  TOPOLOGICAL_ORDER(
+      0, "Order the vertices so that every edge goes forwards, if the graph is acyclic"),
+  TOPOLOGICAL_LEVELS(
+      0, "Group the vertices into levels that only have edges from earlier levels, in parallel"),
+  WEAK_COMPONENTS(0, "List the weakly connected components of the graph"),
 
   GRAPH_SEARCH_IBFS(
       0, "Perform a breadth-first search on the current loaded file, and display the BFS order"),
@@ -33,6 +59,44 @@ public enum Command {
       "Perform a recursive depth-first search on the current loaded file, and display the DFS"
           + " order"),
 
+  GRAPH_SEARCH_BFS_FROM(
+      2,
+      "Perform a breadth-first search from <VERTEX>, and display at most <COUNT> verticies of the"
+          + " BFS order"),
+  GRAPH_SEARCH_DFS_FROM(
+      2,
+      "Perform a depth-first search from <VERTEX>, and display at most <COUNT> verticies of the"
+          + " DFS order"),
+
+  SHORTEST_DISTANCES(
+      1,
+      "Compute the shortest distance from <VERTEX> to every vertex it reaches, using Dijkstra's"
+          + " algorithm"),
+  SHORTEST_PATH(2, "Find the shortest path from <SOURCE> to <TARGET>, using A* search"),
+  PREDECESSORS(1, "List the vertices with an edge to <VERTEX>, using the reversed edges"),
+  HOP_PATH(
+      2,
+      "Find the fewest hops from <SOURCE> to <TARGET> and the path taken, using a breadth-first"
+          + " search from both ends"),
+  HOP_DISTANCES(
+      1,
+      "Find the fewest hops from each of <SOURCES>, separated by commas, to every vertex, searching"
+          + " from all of them at once"),
+  DIAMETER(
+      1,
+      "Find the diameter and radius of the graph, or bounds on them after at most <MILLISECONDS>"
+          + " on large graphs"),
+  BETWEENNESS(
+      2,
+      "List the <COUNT> vertices most shortest paths pass through, estimated from <SAMPLES>"
+          + " random sources or exact if it is 0"),
+  PAGE_RANK(1, "List the <COUNT> vertices with the highest PageRank"),
+  REACHABILITY_INDEX(
+      0, "Build the reachability index of the graph, and report its build time and memory use"),
+  REACHES(2, "Check if <SOURCE> can reach <TARGET>, using the reachability index"),
+  VERTEX_ORDERINGS(
+      0, "Compare how close together each vertex ordering numbers the two ends of every edge"),
+
   HELP(0, "Print usage"),
   EXIT(0, "Exit the application");
 
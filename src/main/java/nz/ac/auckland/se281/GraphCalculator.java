@@ -3,117 +3,872 @@ package nz.ac.auckland.se281;
 import com.paypal.digraph.parser.GraphEdge;
 import com.paypal.digraph.parser.GraphNode;
 import com.paypal.digraph.parser.GraphParser;
+import java.io.Closeable;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
-import nz.ac.auckland.se281.datastructures.Edge;
-import nz.ac.auckland.se281.datastructures.Graph;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntToDoubleFunction;
+import nz.ac.auckland.se281.datastructures.Adjacency;
+import nz.ac.auckland.se281.datastructures.AdjacencyStorage;
+import nz.ac.auckland.se281.datastructures.BitMatrixGraph;
+import nz.ac.auckland.se281.datastructures.Closure;
+import nz.ac.auckland.se281.datastructures.CompactGraph;
+import nz.ac.auckland.se281.datastructures.GraphDiameter;
+import nz.ac.auckland.se281.datastructures.IntGraph;
+import nz.ac.auckland.se281.datastructures.LocalityMetrics;
+import nz.ac.auckland.se281.datastructures.NeighborCursor;
+import nz.ac.auckland.se281.datastructures.PageRank;
+import nz.ac.auckland.se281.datastructures.PropertyCheck;
+import nz.ac.auckland.se281.datastructures.ReachabilityIndex;
+import nz.ac.auckland.se281.datastructures.RelationProperty;
+import nz.ac.auckland.se281.datastructures.ShortestPaths;
+import nz.ac.auckland.se281.datastructures.VertexOrdering;
 
 /**
  * The calculator that reports properties of graphs to the user.
  *
  * <p>You should not modify this class.
  */
-public class GraphCalculator {
+public class GraphCalculator implements Closeable {
   private static final Path TESTCASES = Path.of("testcases");
 
+  private static final String WEIGHT_ATTRIBUTE = "weight";
+
+  private static final String POSITION_ATTRIBUTE = "pos";
+
+  private static final long BETWEENNESS_SEED = 281;
+
+  private static final long PROPERTY_SEED = 281;
+
+  private static final String BINARY_EXTENSION = ".bin";
+
   private final Path file;
 
-  private final Collection<GraphNode> verticies;
+  private final List<String> fileVerticies;
+
+  private final int[] fileSources;
+
+  private final int[] fileDestinations;
 
-  private final Collection<GraphEdge> edges;
+  private final IntGraph intGraph;
 
-  private final Graph<String> graph;
+  private final Map<String, double[]> positions;
+
+  private final double distanceScale;
+
+  private final AdjacencyStorage storage;
+
+  private final VertexOrdering ordering;
+
+  private final CompactGraph<String> storedGraph;
+
+  private final PrintStream out;
 
   /**
-   * Creates a new graph calculator.
+   * Creates a new graph calculator, keeping the graph on the heap as a bit matrix if it is dense
+   * and as lists of neighbors otherwise.
    *
    * @param filename The name of the test case to read.
    * @throws FileNotFoundException If the file does not exist.
    */
   public GraphCalculator(final String filename) throws FileNotFoundException {
+    this(filename, AdjacencyStorage.AUTO);
+  }
+
+  /**
+   * Creates a new graph calculator. Very large graphs can be compressed, or stored off the heap so
+   * that they do not slow down the garbage collector; the calculator must then be closed once it is
+   * no longer used.
+   *
+   * @param filename The name of the test case to read.
+   * @param storage How the edges used by the graph algorithms are stored.
+   * @throws FileNotFoundException If the file does not exist.
+   */
+  public GraphCalculator(final String filename, final AdjacencyStorage storage)
+      throws FileNotFoundException {
+    this(filename, storage, VertexOrdering.SEARCH);
+  }
+
+  /**
+   * Creates a new graph calculator that renumbers the verticies of the graph algorithms so that the
+   * verticies they visit together are close together in memory. The printed results are the same
+   * for every ordering.
+   *
+   * @param filename The name of the test case to read.
+   * @param storage How the edges used by the graph algorithms are stored.
+   * @param ordering The order the verticies used by the graph algorithms are numbered in.
+   * @throws FileNotFoundException If the file does not exist.
+   */
+  public GraphCalculator(
+      final String filename, final AdjacencyStorage storage, final VertexOrdering ordering)
+      throws FileNotFoundException {
     file = TESTCASES.resolve(filename);
+    final Collection<GraphNode> nodes;
+    final Collection<GraphEdge> parsedEdges;
+
+    if (filename.endsWith(BINARY_EXTENSION)) {
+      final BinaryGraphParser parser;
+
+      try {
+        parser = new BinaryGraphParser(new FileInputStream(file.toFile()));
+      } catch (final FileNotFoundException e) {
+        throw e;
+      } catch (final IOException e) {
+        throw new MalformedGraphException("it is not a readable binary graph", e);
+      }
+
+      nodes = parser.getNodes().values();
+      parsedEdges = parser.getEdges().values();
+    } else {
+      final GraphParser parser = new GraphParser(new FileInputStream(file.toFile()));
+
+      nodes = parser.getNodes().values();
+      parsedEdges = parser.getEdges().values();
+    }
+
+    // The edges are read into arrays of positions in the list of names, so that the stored graph
+    // is built without an object for each edge.
+    final List<String> names = new ArrayList<>(nodes.size());
+    final Map<String, Integer> index = new HashMap<>();
+
+    for (final GraphNode node : nodes) {
+      index.put(node.getId(), names.size());
+      names.add(node.getId());
+    }
+
+    final int[] sources = new int[parsedEdges.size()];
+    final int[] destinations = new int[parsedEdges.size()];
+    double[] weights = null;
+    int count = 0;
+
+    for (final GraphEdge edge : parsedEdges) {
+      final double weight = readWeight(edge);
+
+      if (weight != 1.0 && weights == null) {
+        weights = new double[sources.length];
+        Arrays.fill(weights, 0, count, 1.0);
+      }
+
+      sources[count] = positionOf(edge.getNode1().getId(), names, index);
+      destinations[count] = positionOf(edge.getNode2().getId(), names, index);
+
+      if (weights != null) {
+        weights[count] = weight;
+      }
+
+      count++;
+    }
+
+    positions = readPositions(nodes);
+    distanceScale =
+        calculateDistanceScale(positions, names, sources, destinations, weights, count);
+    this.storage = storage;
+    this.ordering = ordering;
+
+    // The graph is loaded once, as ints when every id is an int and its edges stay on the heap in
+    // search order, and as a compact graph of the ids otherwise. Every command is answered from it.
+    intGraph =
+        storage != AdjacencyStorage.OFF_HEAP
+                && storage != AdjacencyStorage.COMPRESSED
+                && ordering == VertexOrdering.SEARCH
+            ? toIntGraph(names, sources, destinations, weights, count, storage)
+            : null;
+    storedGraph =
+        intGraph != null
+            ? intGraph.toCompactGraph()
+            : store(CompactGraph.of(names, sources, destinations, weights, count, 0));
+
+    // Graphs on the heap keep the order of the file for listing their verticies and edges, at the
+    // cost of two ints per edge. Graphs too large for the heap are listed in search order instead.
+    final boolean keepFileOrder =
+        storage != AdjacencyStorage.OFF_HEAP && storage != AdjacencyStorage.COMPRESSED;
+    fileVerticies = keepFileOrder ? names : null;
+    fileSources = keepFileOrder ? sources : null;
+    fileDestinations = keepFileOrder ? destinations : null;
+
+    out = System.out;
+  }
+
+  /**
+   * Creates a graph calculator that shares the loaded graph of another calculator, but prints its
+   * reports to a different stream.
+   *
+   * @param calculator The calculator whose loaded graph is shared.
+   * @param out The stream to print reports to.
+   */
+  private GraphCalculator(final GraphCalculator calculator, final PrintStream out) {
+    this.file = calculator.file;
+    this.fileVerticies = calculator.fileVerticies;
+    this.fileSources = calculator.fileSources;
+    this.fileDestinations = calculator.fileDestinations;
+    this.intGraph = calculator.intGraph;
+    this.positions = calculator.positions;
+    this.distanceScale = calculator.distanceScale;
+    this.storage = calculator.storage;
+    this.ordering = calculator.ordering;
+    this.storedGraph = calculator.storedGraph;
+    this.out = out;
+  }
 
-    final GraphParser parser = new GraphParser(new FileInputStream(file.toFile()));
+  /**
+   * Builds the graph with int verticies if every vertex id is an int, so that the queries on it do
+   * not box any verticies.
+   *
+   * @param names The ids of the verticies.
+   * @param sources The position in the names of the vertex each edge starts from.
+   * @param destinations The position in the names of the vertex each edge ends at.
+   * @param weights The weight of each edge, or null if every edge has a weight of 1.
+   * @param edgeCount The number of edges.
+   * @param storage How the edges of the graph are stored.
+   * @return The graph, or null if any id is not an int.
+   */
+  private static IntGraph toIntGraph(
+      final List<String> names,
+      final int[] sources,
+      final int[] destinations,
+      final double[] weights,
+      final int edgeCount,
+      final AdjacencyStorage storage) {
+    final int[] ids = new int[names.size()];
 
-    this.verticies = parser.getNodes().values();
-    this.edges = parser.getEdges().values();
+    for (int v = 0; v < ids.length; v++) {
+      if (!IntGraph.isIntId(names.get(v))) {
+        return null;
+      }
 
-    final Set<String> verticies = new HashSet<>();
+      ids[v] = Integer.parseInt(names.get(v));
+    }
 
-    for (final GraphNode node : this.verticies) {
-      verticies.add(node.getId());
+    final int[] from = new int[edgeCount];
+    final int[] to = new int[edgeCount];
+
+    for (int i = 0; i < edgeCount; i++) {
+      from[i] = ids[sources[i]];
+      to[i] = ids[destinations[i]];
     }
 
-    final Set<Edge<String>> edges = new HashSet<>();
+    return new IntGraph(ids, from, to, weights, edgeCount, storage);
+  }
 
-    for (final GraphEdge edge : this.edges) {
-      edges.add(new Edge<>(edge.getNode1().getId(), edge.getNode2().getId()));
+  /**
+   * Finds the position of a vertex in the list of names, adding it if an edge names a vertex that
+   * was not listed on its own.
+   *
+   * @param id The id of the vertex.
+   * @param names The ids of the verticies found so far.
+   * @param index The position of each id in the names.
+   * @return The position of the vertex.
+   */
+  private static int positionOf(
+      final String id, final List<String> names, final Map<String, Integer> index) {
+    final Integer position = index.get(id);
+
+    if (position != null) {
+      return position;
     }
 
-    graph = new Graph<>(verticies, edges);
+    index.put(id, names.size());
+    names.add(id);
+    return names.size() - 1;
+  }
+
+  /**
+   * Renumbers a compact graph by the ordering of this calculator, and copies its edges into the
+   * storage of this calculator.
+   *
+   * @param compact The graph, numbered in search order with its edges on the heap.
+   * @return The graph the algorithms run on.
+   */
+  private CompactGraph<String> store(final CompactGraph<String> compact) {
+    final CompactGraph<String> ordered =
+        ordering == VertexOrdering.SEARCH ? compact : compact.reordered(ordering);
+    return ordered.withAdjacency(storage.store(ordered.getAdjacency()));
+  }
+
+  /**
+   * Gets the compact form of the graph numbered in search order, for the algorithms whose results
+   * depend on how ties between verticies are broken.
+   *
+   * @return The compact graph, which is the stored graph unless it was reordered, and otherwise a
+   *     copy of it numbered in search order again.
+   */
+  private CompactGraph<String> searchOrderedGraph() {
+    return storedGraph.isSearchOrdered()
+        ? storedGraph
+        : storedGraph.reordered(VertexOrdering.SEARCH);
+  }
+
+  /**
+   * Checks if a vertex is in the loaded graph.
+   *
+   * @param vertex The id of the vertex.
+   * @return True if the graph has the vertex, false otherwise.
+   */
+  private boolean containsVertex(final String vertex) {
+    return storedGraph.containsVertex(vertex);
+  }
+
+  /**
+   * Releases the memory of the graph if its storage needs to be closed. This calculator and every
+   * view of it must not be used afterwards.
+   */
+  @Override
+  public void close() {
+    if (storedGraph != null && storedGraph.getAdjacency() instanceof Closeable closeable) {
+      try {
+        closeable.close();
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /**
+   * Reads the weight attribute of an edge. Edges without a weight attribute have a weight of 1.
+   *
+   * @param edge The edge to read the weight of.
+   * @return The weight of the edge.
+   * @throws MalformedGraphException If the weight is not a number.
+   */
+  private static double readWeight(final GraphEdge edge) throws MalformedGraphException {
+    final Object weight = edge.getAttribute(WEIGHT_ATTRIBUTE);
+
+    if (weight == null) {
+      return 1.0;
+    }
+
+    try {
+      return Double.parseDouble(weight.toString());
+    } catch (final NumberFormatException e) {
+      throw new MalformedGraphException(
+          "the weight of "
+              + edge.getNode1().getId()
+              + " -> "
+              + edge.getNode2().getId()
+              + " is not a number: "
+              + weight,
+          e);
+    }
+  }
+
+  /**
+   * Reads the "x,y" position attribute of every vertex. If any vertex has no position, no positions
+   * are used at all, since the distance estimates of A* search need every vertex to have one.
+   *
+   * @param verticies The verticies of the graph.
+   * @return The x and y coordinates of each vertex, or an empty map.
+   * @throws MalformedGraphException If a position is not two numbers separated by a comma.
+   */
+  private static Map<String, double[]> readPositions(final Collection<GraphNode> verticies)
+      throws MalformedGraphException {
+    final Map<String, double[]> positions = new HashMap<>();
+
+    for (final GraphNode node : verticies) {
+      final Object position = node.getAttribute(POSITION_ATTRIBUTE);
+
+      if (position == null) {
+        return Map.of();
+      }
+
+      // Graphviz marks pinned positions with a trailing "!".
+      final String[] coordinates = position.toString().replace("!", "").split(",");
+
+      try {
+        if (coordinates.length != 2) {
+          throw new NumberFormatException("expected x,y but found " + position);
+        }
+
+        positions.put(
+            node.getId(),
+            new double[] {Double.parseDouble(coordinates[0]), Double.parseDouble(coordinates[1])});
+      } catch (final NumberFormatException e) {
+        throw new MalformedGraphException(
+            "the position of " + node.getId() + " is not two numbers: " + position, e);
+      }
+    }
+
+    return positions;
+  }
+
+  /**
+   * Calculates the largest factor the straight line distance between verticies can be multiplied by
+   * while staying no longer than any edge. Multiplying straight line distances by this factor gives
+   * A* search an estimate that never overshoots, whatever units the weights are in.
+   *
+   * @param positions The positions of the verticies.
+   * @param names The ids of the verticies.
+   * @param sources The position in the names of the vertex each edge starts from.
+   * @param destinations The position in the names of the vertex each edge ends at.
+   * @param weights The weight of each edge, or null if every edge has a weight of 1.
+   * @param edgeCount The number of edges.
+   * @return The factor, or 0 if there are no positions.
+   */
+  private static double calculateDistanceScale(
+      final Map<String, double[]> positions,
+      final List<String> names,
+      final int[] sources,
+      final int[] destinations,
+      final double[] weights,
+      final int edgeCount) {
+    if (positions.isEmpty()) {
+      return 0.0;
+    }
+
+    double scale = Double.POSITIVE_INFINITY;
+
+    for (int i = 0; i < edgeCount; i++) {
+      final double length =
+          distance(
+              positions.get(names.get(sources[i])), positions.get(names.get(destinations[i])));
+
+      if (length > 0) {
+        scale = Math.min(scale, (weights == null ? 1.0 : weights[i]) / length);
+      }
+    }
+
+    return Double.isInfinite(scale) ? 0.0 : Math.max(scale, 0.0);
+  }
+
+  /**
+   * Calculates the straight line distance between two positions.
+   *
+   * @param from The x and y coordinates of the first position.
+   * @param to The x and y coordinates of the second position.
+   * @return The distance.
+   */
+  private static double distance(final double[] from, final double[] to) {
+    return Math.hypot(from[0] - to[0], from[1] - to[1]);
+  }
+
+  /**
+   * Creates a view of this calculator that prints its reports to the given stream. The loaded graph
+   * is shared and never modified, so views can be used from different threads at the same time.
+   *
+   * @param out The stream to print reports to.
+   * @return A calculator sharing this calculator's graph.
+   */
+  public GraphCalculator withOutput(final PrintStream out) {
+    return new GraphCalculator(this, out);
   }
 
   /** Prints the filename of the test case that is loaded. */
   public void printInfo() {
-    MessageCli.INFO.printMessage(TESTCASES.relativize(file).toString());
+    MessageCli.INFO.printMessage(out, TESTCASES.relativize(file).toString());
+
+    if (ordering != VertexOrdering.SEARCH) {
+      MessageCli.ORDERING_INFO.printMessage(out, ordering.name());
+    }
+
+    if (storage != AdjacencyStorage.AUTO || ordering != VertexOrdering.SEARCH) {
+      final Adjacency adjacency = storedGraph.getAdjacency();
+      final double bytesPerEdge =
+          adjacency.edgeCount() == 0 ? 0 : (double) adjacency.sizeInBytes() / adjacency.edgeCount();
+      // A reordered graph picks its storage by density unless one was asked for.
+      final AdjacencyStorage stored =
+          storage != AdjacencyStorage.AUTO
+              ? storage
+              : adjacency instanceof BitMatrixGraph
+                  ? AdjacencyStorage.BIT_MATRIX
+                  : AdjacencyStorage.HEAP;
+      MessageCli.STORAGE_INFO.printMessage(
+          out,
+          stored.getDescription(),
+          String.valueOf(adjacency.sizeInBytes()),
+          String.format("%.2f", bytesPerEdge));
+    }
   }
 
-  /** Prints the set of verticies and edges in the graph. */
+  /**
+   * Prints the set of verticies and edges in the graph, in the order of the file if the graph is on
+   * the heap and in search order otherwise.
+   */
   public void printVerticiesEdges() {
     final StringBuilder sb = new StringBuilder("Verticies:").append(System.lineSeparator());
 
-    // Vertically print each vertex.
-    for (final GraphNode node : verticies) {
-      sb.append("\t").append(node.getId()).append(System.lineSeparator());
+    if (fileVerticies != null) {
+      // Vertically print each vertex.
+      for (final String vertex : fileVerticies) {
+        sb.append("\t").append(vertex).append(System.lineSeparator());
+      }
+
+      sb.append(System.lineSeparator()).append("Edges:").append(System.lineSeparator());
+
+      // Vertically print each edge between verticies.
+      for (int i = 0; i < fileSources.length; i++) {
+        appendEdge(sb, fileVerticies.get(fileSources[i]), fileVerticies.get(fileDestinations[i]));
+      }
+
+      out.print(sb.toString());
+      return;
+    }
+
+    final CompactGraph<String> compact = searchOrderedGraph();
+    final List<String> names = compact.getVerticies();
+
+    for (final String vertex : names) {
+      sb.append("\t").append(vertex).append(System.lineSeparator());
     }
 
     sb.append(System.lineSeparator()).append("Edges:").append(System.lineSeparator());
+    final NeighborCursor neighbors = compact.getAdjacency().cursor();
+
+    for (int v = 0; v < names.size(); v++) {
+      neighbors.moveTo(v);
 
-    // Vertically print each edge between verticies.
-    for (final GraphEdge edge : edges) {
-      sb.append("\t")
-          .append(edge.getNode1().getId())
-          .append(" -> ")
-          .append(edge.getNode2().getId())
-          .append(System.lineSeparator());
+      while (neighbors.hasNext()) {
+        appendEdge(sb, names.get(v), names.get(neighbors.next()));
+      }
     }
 
-    System.out.print(sb.toString());
+    out.print(sb.toString());
+  }
+
+  /**
+   * Adds a line for an edge to the listing of the verticies and edges.
+   *
+   * @param sb The listing.
+   * @param source The vertex the edge starts from.
+   * @param destination The vertex the edge ends at.
+   */
+  private static void appendEdge(
+      final StringBuilder sb, final String source, final String destination) {
+    sb.append("\t")
+        .append(source)
+        .append(" -> ")
+        .append(destination)
+        .append(System.lineSeparator());
   }
 
   /** Prints the set of verticies in the graph that are root verticies. */
   public void printRoots() {
-    System.out.println(graph.getRoots());
+    if (intGraph != null) {
+      out.println(Arrays.toString(intGraph.getRoots()));
+      return;
+    }
+
+    out.println(storedGraph.getRoots());
   }
 
   /** Prints if the set of verticies in the graph exhibit the reflexivity property. */
   public void printReflexitivity() {
-    MessageCli.GRAPH_REFLEXIVE.printMessage(prefixNot(graph.isReflexive()));
+    final boolean reflexive =
+        intGraph != null ? intGraph.isReflexive() : storedGraph.isReflexive();
+    MessageCli.GRAPH_REFLEXIVE.printMessage(out, prefixNot(reflexive));
   }
 
   /** Prints if the set of edges in the graph exhibit the symmetric property. */
   public void printSymmetry() {
-    MessageCli.GRAPH_SYMMETRIC.printMessage(prefixNot(graph.isSymmetric()));
+    final boolean symmetric =
+        intGraph != null ? intGraph.isSymmetric() : storedGraph.isSymmetric();
+    MessageCli.GRAPH_SYMMETRIC.printMessage(out, prefixNot(symmetric));
   }
 
   /** Prints if the set of edges in the graph exhibit transitivity. */
   public void printTransitivity() {
-    MessageCli.GRAPH_TRANSITIVE.printMessage(prefixNot(graph.isTransitive()));
+    final boolean transitive =
+        intGraph != null ? intGraph.isTransitive() : storedGraph.isTransitive();
+    MessageCli.GRAPH_TRANSITIVE.printMessage(out, prefixNot(transitive));
   }
 
   /** Prints if the set of edges in the graph exhibit anti-symmetry. */
   public void printAntiSymmetry() {
-    MessageCli.GRAPH_ANTI_SYMMETRIC.printMessage(prefixNot(graph.isAntiSymmetric()));
+    final boolean antiSymmetric =
+        intGraph != null ? intGraph.isAntiSymmetric() : storedGraph.isAntiSymmetric();
+    MessageCli.GRAPH_ANTI_SYMMETRIC.printMessage(out, prefixNot(antiSymmetric));
   }
 
   /** Prints if the entire graph is considered an equivalence relation. */
   public void printEquivalence() {
-    MessageCli.GRAPH_EQUIVALENCE.printMessage(prefixNot(graph.isEquivalence()));
+    final boolean equivalence =
+        intGraph != null ? intGraph.isEquivalence() : storedGraph.isEquivalence();
+    MessageCli.GRAPH_EQUIVALENCE.printMessage(out, prefixNot(equivalence));
+  }
+
+  /**
+   * Prints if the graph has a property, exactly if every edge can be checked within the budget and
+   * estimated from random edges otherwise. Any violation that is found is printed as well.
+   *
+   * @param property The property to check, which is symmetry, antisymmetry or transitivity.
+   * @param samples The number of random edges to test first.
+   * @param budget The most milliseconds to spend before settling for an estimate.
+   */
+  public void printPropertyEstimate(
+      final String property, final String samples, final String budget) {
+    final RelationProperty relationProperty = parseProperty(property);
+
+    if (relationProperty == null) {
+      MessageCli.INVALID_PROPERTY.printMessage(out, property);
+      return;
+    }
+
+    final int sampleCount = parseCount(samples);
+
+    if (sampleCount < 0) {
+      MessageCli.INVALID_COUNT.printMessage(out, samples);
+      return;
+    }
+
+    final long milliseconds = parseMilliseconds(budget);
+
+    if (milliseconds < 0) {
+      MessageCli.INVALID_BUDGET.printMessage(out, budget);
+      return;
+    }
+
+    final CompactGraph<String> compact = storedGraph;
+    final PropertyCheck check =
+        PropertyCheck.check(
+            compact.getAdjacency(),
+            relationProperty,
+            sampleCount,
+            PROPERTY_SEED,
+            TimeUnit.MILLISECONDS.toNanos(milliseconds));
+    final String adjective = relationProperty.getAdjective();
+
+    if (!check.isCertain()) {
+      MessageCli.PROPERTY_ESTIMATE.printMessage(
+          out,
+          adjective,
+          String.valueOf(check.getSamples()),
+          String.format("%.0f%%", PropertyCheck.CONFIDENCE * 100),
+          String.format("%.2f%%", check.getErrorBound() * 100));
+      return;
+    }
+
+    if (check.holds()) {
+      MessageCli.PROPERTY_HOLDS.printMessage(out, adjective);
+      return;
+    }
+
+    final String violation =
+        describeViolation(relationProperty, compact.verticiesOf(check.getViolation()));
+    MessageCli.PROPERTY_VIOLATED.printMessage(out, adjective, violation);
+  }
+
+  /**
+   * Prints how many violations of a property the graph has, and the first of them, from a single
+   * pass over the edges.
+   *
+   * @param property The property to check, which is symmetry, antisymmetry or transitivity.
+   * @param limit The most violations to print.
+   */
+  public void printViolations(final String property, final String limit) {
+    final RelationProperty relationProperty = parseProperty(property);
+
+    if (relationProperty == null) {
+      MessageCli.INVALID_PROPERTY.printMessage(out, property);
+      return;
+    }
+
+    final int violationLimit = parseCount(limit);
+
+    if (violationLimit < 0) {
+      MessageCli.INVALID_COUNT.printMessage(out, limit);
+      return;
+    }
+
+    final List<String> violations = new ArrayList<>();
+    final long count =
+        storedGraph
+            .streamViolations(
+                relationProperty,
+                violationLimit,
+                violation -> violations.add(describeViolation(relationProperty, violation)));
+
+    MessageCli.VIOLATION_COUNT.printMessage(
+        out, String.valueOf(count), relationProperty.getAdjective());
+
+    for (final String violation : violations) {
+      out.println(violation);
+    }
+  }
+
+  /**
+   * Builds the smallest graph with a property that contains the graph, and writes it to a file in
+   * the testcases folder so that it can be opened again. The file is binary if its name ends in
+   * {@code .bin}, and in the DOT format otherwise.
+   *
+   * @param closure The property to add, which is reflexive, symmetric, transitive or equivalence.
+   * @param filename The name of the file to write the closure to.
+   */
+  public void printClosure(final String closure, final String filename) {
+    Closure kind = null;
+
+    for (final Closure candidate : Closure.values()) {
+      if (candidate.getAdjective().equalsIgnoreCase(closure)) {
+        kind = candidate;
+      }
+    }
+
+    if (kind == null) {
+      MessageCli.INVALID_CLOSURE.printMessage(out, closure);
+      return;
+    }
+
+    final CompactGraph<String> compact = storedGraph;
+    final CompactGraph<String> result;
+
+    try {
+      result = compact.closure(kind);
+    } catch (final IllegalArgumentException e) {
+      MessageCli.CLOSURE_TOO_LARGE.printMessage(out, kind.getAdjective());
+      return;
+    }
+
+    if (!writeGraph(result, kind.getAdjective() + "_closure", filename)) {
+      return;
+    }
+
+    final Adjacency adjacency = result.getAdjacency();
+    final AdjacencyStorage stored =
+        adjacency instanceof BitMatrixGraph ? AdjacencyStorage.BIT_MATRIX : AdjacencyStorage.HEAP;
+    MessageCli.CLOSURE.printMessage(
+        out,
+        kind.getAdjective(),
+        String.valueOf(adjacency.edgeCount()),
+        String.valueOf(adjacency.edgeCount() - compact.getAdjacency().edgeCount()),
+        stored.getDescription(),
+        filename);
+  }
+
+  /**
+   * Builds the transitive reduction of the graph, which reaches the same verticies with the fewest
+   * edges, and writes it to a file in the testcases folder so that it can be opened again.
+   *
+   * @param filename The name of the file to write the reduction to, in binary if it ends in {@code
+   *     .bin}.
+   */
+  public void printTransitiveReduction(final String filename) {
+    // The edge kept between two components depends on the numbering, so use the same one always.
+    final CompactGraph<String> compact = searchOrderedGraph();
+    final CompactGraph<String> reduction = compact.transitiveReduction();
+
+    if (!writeGraph(reduction, "transitive_reduction", filename)) {
+      return;
+    }
+
+    MessageCli.TRANSITIVE_REDUCTION.printMessage(
+        out,
+        String.valueOf(reduction.getAdjacency().edgeCount()),
+        String.valueOf(
+            compact.getAdjacency().edgeCount() - reduction.getAdjacency().edgeCount()),
+        filename);
+  }
+
+  /**
+   * Builds the graph of the strongly connected components, each named by its first vertex, and
+   * writes it to a file in the testcases folder so that it can be opened again.
+   *
+   * @param filename The name of the file to write the condensation to, in binary if it ends in
+   *     {@code .bin}.
+   */
+  public void printCondensation(final String filename) {
+    final CompactGraph<String> condensation = searchOrderedGraph().condensation();
+
+    if (!writeGraph(condensation, "condensation", filename)) {
+      return;
+    }
+
+    MessageCli.CONDENSATION.printMessage(
+        out,
+        String.valueOf(condensation.getVerticies().size()),
+        String.valueOf(condensation.getAdjacency().edgeCount()),
+        filename);
+  }
+
+  /**
+   * Writes a graph to a file in the testcases folder, printing an error if it cannot be written.
+   * Names that are absolute or lead out of the testcases folder, such as through {@code ..}, are
+   * refused, so that a command cannot replace a file anywhere else.
+   *
+   * @param graph The graph to write.
+   * @param name The name of the digraph, for a DOT file.
+   * @param filename The name of the file, which is binary if it ends in {@code .bin} and in the DOT
+   *     format otherwise.
+   * @return True if the graph was written, false otherwise.
+   */
+  private boolean writeGraph(
+      final CompactGraph<String> graph, final String name, final String filename) {
+    final Path target;
+
+    try {
+      target = TESTCASES.resolve(filename).normalize();
+    } catch (final InvalidPathException e) {
+      MessageCli.WRITE_FAILED.printMessage(out, filename);
+      return false;
+    }
+
+    if (Path.of(filename).isAbsolute()
+        || !target.startsWith(TESTCASES)
+        || target.equals(TESTCASES)) {
+      MessageCli.WRITE_FAILED.printMessage(out, filename);
+      return false;
+    }
+
+    try {
+      if (filename.endsWith(BINARY_EXTENSION)) {
+        GraphWriter.writeBinary(graph, target);
+      } else {
+        GraphWriter.writeDot(graph, name, target);
+      }
+    } catch (final IOException e) {
+      MessageCli.WRITE_FAILED.printMessage(out, filename);
+      return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Finds the property that the user named, ignoring case and underscores.
+   *
+   * @param property The name of the property.
+   * @return The property, or null if there is no property with that name.
+   */
+  private static RelationProperty parseProperty(final String property) {
+    for (final RelationProperty candidate : RelationProperty.values()) {
+      if (candidate.name().replace("_", "").equalsIgnoreCase(property)) {
+        return candidate;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Describes a violation of a property for the user.
+   *
+   * @param property The property that is violated.
+   * @param verticies The verticies of the violation, as described by the property.
+   * @return The description of the violation.
+   */
+  private static String describeViolation(
+      final RelationProperty property, final List<String> verticies) {
+    final String[] names = verticies.toArray(new String[0]);
+
+    switch (property) {
+      case SYMMETRY:
+        return MessageCli.SYMMETRY_VIOLATION.getMessage(names);
+      case ANTI_SYMMETRY:
+        return MessageCli.ANTI_SYMMETRY_VIOLATION.getMessage(names);
+      default:
+        return MessageCli.TRANSITIVITY_VIOLATION.getMessage(
+            names[0], names[1], names[2], names[0], names[2]);
+    }
   }
 
   /**
@@ -122,29 +877,489 @@ public class GraphCalculator {
    * @param vertex The vertex to compute the equivalence class of.
    */
   public void printEquivalenceClass(final String vertex) {
-    final Object[] equivalenceClass = graph.getEquivalenceClass(vertex).toArray();
+    final Object[] equivalenceClass;
+
+    if (intGraph != null
+        && IntGraph.isIntId(vertex)
+        && intGraph.containsVertex(Integer.parseInt(vertex))) {
+      equivalenceClass =
+          Arrays.stream(intGraph.getEquivalenceClass(Integer.parseInt(vertex)))
+              .mapToObj(Integer::toString)
+              .toArray();
+    } else {
+      equivalenceClass = storedGraph.getEquivalenceClass(vertex).toArray();
+    }
+
+    // Sorted as text, the way the verticies of the graph of strings compare.
     Arrays.sort(equivalenceClass);
-    System.out.println(Arrays.toString(equivalenceClass));
+    out.println(Arrays.toString(equivalenceClass));
   }
 
   /** Prints the search order of an iterative breadth first search. */
   public void printIterativeBreadthFirstSearch() {
-    System.out.println(Arrays.toString(graph.iterativeBreadthFirstSearch().toArray()));
+    // The breadth first search has always warned on the error stream rather than the output.
+    printNoRoots(System.err, MessageCli.NO_ROOTS_WARNING);
+
+    if (intGraph != null) {
+      printIntSearchOrder(intGraph::iterativeBreadthFirstSearch);
+      return;
+    }
+
+    printSearchOrder(searchOrderedGraph()::iterativeBreadthFirstSearch);
   }
 
   /** Prints the search order of an iterative depth first search. */
   public void printDepthFirstSearch() {
-    System.out.println(Arrays.toString(graph.iterativeDepthFirstSearch().toArray()));
+    printNoRoots(out, MessageCli.NO_ROOTS_TO_SEARCH);
+
+    if (intGraph != null) {
+      printIntSearchOrder(intGraph::iterativeDepthFirstSearch);
+      return;
+    }
+
+    printSearchOrder(searchOrderedGraph()::iterativeDepthFirstSearch);
   }
 
   /** Prints the search order of a recursive breadth first search. */
   public void printRecursiveBreadthFirstSearch() {
-    System.out.println(Arrays.toString(graph.recursiveBreadthFirstSearch().toArray()));
+    printNoRoots(out, MessageCli.NO_ROOTS);
+    printSearchOrder(searchOrderedGraph()::recursiveBreadthFirstSearch);
   }
 
   /** Prints the search order of a recursive depth first search. */
   public void printRecursiveDepthFirstSearch() {
-    System.out.println(Arrays.toString(graph.recursiveDepthFirstSearch().toArray()));
+    printNoRoots(out, MessageCli.NO_ROOTS);
+    printSearchOrder(searchOrderedGraph()::recursiveDepthFirstSearch);
+  }
+
+  /**
+   * Tells the user before a search if the graph has no roots to start from.
+   *
+   * @param stream The stream to print the message to.
+   * @param message The message the search prints.
+   */
+  private void printNoRoots(final PrintStream stream, final MessageCli message) {
+    final boolean noRoots =
+        intGraph != null ? intGraph.getRoots().length == 0 : storedGraph.getRoots().isEmpty();
+
+    if (noRoots) {
+      message.printMessage(stream);
+    }
+  }
+
+  /**
+   * Prints the first verticies visited by a breadth first search from the given vertex.
+   *
+   * @param vertex The vertex to start searching from.
+   * @param count The maximum number of verticies to print.
+   */
+  public void printBreadthFirstSearchFrom(final String vertex, final String count) {
+    printSearchFrom(searchOrderedGraph()::breadthFirstSearchFrom, vertex, count);
+  }
+
+  /**
+   * Prints the first verticies visited by a depth first search from the given vertex.
+   *
+   * @param vertex The vertex to start searching from.
+   * @param count The maximum number of verticies to print.
+   */
+  public void printDepthFirstSearchFrom(final String vertex, final String count) {
+    printSearchFrom(searchOrderedGraph()::depthFirstSearchFrom, vertex, count);
+  }
+
+  /**
+   * Prints the first verticies of a lazy search, stopping the search once enough were printed.
+   *
+   * @param search The search, which is given the vertex to start from, the most verticies to visit
+   *     and the consumer to pass each vertex to as it is visited.
+   * @param vertex The vertex to start searching from.
+   * @param count The maximum number of verticies to print.
+   */
+  private void printSearchFrom(
+      final SearchFrom search,
+      final String vertex,
+      final String count) {
+    if (!containsVertex(vertex)) {
+      MessageCli.VERTEX_NOT_FOUND.printMessage(out, vertex);
+      return;
+    }
+
+    final int limit;
+
+    try {
+      limit = Integer.parseInt(count);
+    } catch (final NumberFormatException e) {
+      MessageCli.INVALID_COUNT.printMessage(out, count);
+      return;
+    }
+
+    if (limit < 0) {
+      MessageCli.INVALID_COUNT.printMessage(out, count);
+      return;
+    }
+
+    final SearchOrderWriter<String> writer = new SearchOrderWriter<>(out);
+    search.search(vertex, limit, writer);
+    writer.finish();
+  }
+
+  /**
+   * Prints the shortest distance from the given vertex to every vertex it reaches.
+   *
+   * @param vertex The vertex to start from.
+   */
+  public void printShortestDistances(final String vertex) {
+    if (!containsVertex(vertex)) {
+      MessageCli.VERTEX_NOT_FOUND.printMessage(out, vertex);
+      return;
+    }
+
+    try {
+      out.println(storedGraph.shortestDistances(vertex));
+    } catch (final IllegalArgumentException e) {
+      MessageCli.NEGATIVE_WEIGHT.printMessage(out);
+    }
+  }
+
+  /**
+   * Prints the verticies with an edge to the given vertex, read from the reversed edges.
+   *
+   * @param vertex The vertex to list the predecessors of.
+   */
+  public void printPredecessors(final String vertex) {
+    if (!containsVertex(vertex)) {
+      MessageCli.VERTEX_NOT_FOUND.printMessage(out, vertex);
+      return;
+    }
+
+    final List<String> predecessors = storedGraph.predecessors(vertex);
+    MessageCli.PREDECESSORS.printMessage(
+        out, vertex, String.valueOf(predecessors.size()), predecessors.toString());
+  }
+
+  /**
+   * Prints the shortest path between two verticies, found by A* search. When every vertex has a
+   * position the search is guided by the straight line distance to the target.
+   *
+   * @param source The vertex the path starts from.
+   * @param target The vertex the path ends at.
+   */
+  public void printShortestPath(final String source, final String target) {
+    for (final String vertex : new String[] {source, target}) {
+      if (!containsVertex(vertex)) {
+        MessageCli.VERTEX_NOT_FOUND.printMessage(out, vertex);
+        return;
+      }
+    }
+
+    final CompactGraph<String> compact = searchOrderedGraph();
+    final List<String> names = compact.getVerticies();
+    final int to = compact.indexOf(target);
+    final double[] targetPosition = positions.get(target);
+    final IntToDoubleFunction estimate =
+        targetPosition == null
+            ? v -> 0.0
+            : v -> distanceScale * distance(positions.get(names.get(v)), targetPosition);
+
+    final ShortestPaths paths;
+
+    try {
+      paths = ShortestPaths.aStar(compact.getAdjacency(), compact.indexOf(source), to, estimate);
+    } catch (final IllegalArgumentException e) {
+      MessageCli.NEGATIVE_WEIGHT.printMessage(out);
+      return;
+    }
+
+    if (!paths.reaches(to)) {
+      MessageCli.NO_PATH.printMessage(out, source, target);
+      return;
+    }
+
+    MessageCli.SHORTEST_PATH.printMessage(
+        out,
+        source,
+        target,
+        String.valueOf(paths.distanceTo(to)),
+        compact.verticiesOf(paths.pathTo(to)).toString());
+  }
+
+  /**
+   * Prints the fewest hops from one vertex to another and the path taken, found by searching from
+   * both verticies at once.
+   *
+   * @param source The vertex the path starts from.
+   * @param target The vertex the path ends at.
+   */
+  public void printHopPath(final String source, final String target) {
+    for (final String vertex : new String[] {source, target}) {
+      if (!containsVertex(vertex)) {
+        MessageCli.VERTEX_NOT_FOUND.printMessage(out, vertex);
+        return;
+      }
+    }
+
+    final List<String> path = searchOrderedGraph().shortestHopPath(source, target);
+
+    if (path.isEmpty()) {
+      MessageCli.NO_PATH.printMessage(out, source, target);
+      return;
+    }
+
+    MessageCli.HOP_PATH.printMessage(
+        out, source, target, String.valueOf(path.size() - 1), path.toString());
+  }
+
+  /**
+   * Prints the fewest hops from each of the given verticies to every vertex it reaches, searching
+   * from all of them in the same pass over the edges.
+   *
+   * @param sources The verticies to search from, separated by commas.
+   */
+  public void printHopDistances(final String sources) {
+    final List<String> sourceVerticies = Arrays.asList(sources.split(","));
+
+    for (final String vertex : sourceVerticies) {
+      if (!containsVertex(vertex)) {
+        MessageCli.VERTEX_NOT_FOUND.printMessage(out, vertex);
+        return;
+      }
+    }
+
+    final List<Map<String, Integer>> distances = storedGraph.hopDistances(sourceVerticies);
+
+    for (int i = 0; i < sourceVerticies.size(); i++) {
+      final Map<String, Integer> hops = distances.get(i);
+      MessageCli.HOP_DISTANCES.printMessage(
+          out,
+          sourceVerticies.get(i),
+          String.valueOf(hops.size()),
+          String.valueOf(hops.values().stream().mapToInt(Integer::intValue).max().orElse(0)),
+          hops.toString());
+    }
+  }
+
+  /**
+   * Prints the diameter and radius of the graph with its edges treated as having no direction.
+   * Small graphs are measured exactly, and large graphs are searched for at most the given time,
+   * after which the bounds found so far are printed.
+   *
+   * @param budget The most milliseconds to search a large graph for.
+   */
+  public void printDiameter(final String budget) {
+    final long milliseconds = parseMilliseconds(budget);
+
+    if (milliseconds < 0) {
+      MessageCli.INVALID_BUDGET.printMessage(out, budget);
+      return;
+    }
+
+    final GraphDiameter diameter =
+        GraphDiameter.measure(
+            storedGraph.getAdjacency(), TimeUnit.MILLISECONDS.toNanos(milliseconds));
+
+    if (diameter.isExact()) {
+      MessageCli.DIAMETER.printMessage(
+          out,
+          String.valueOf(diameter.getDiameterLower()),
+          String.valueOf(diameter.getRadiusLower()));
+      return;
+    }
+
+    MessageCli.DIAMETER_BOUNDS.printMessage(
+        out,
+        String.valueOf(diameter.getDiameterLower()),
+        String.valueOf(diameter.getDiameterUpper()),
+        String.valueOf(diameter.getRadiusLower()),
+        String.valueOf(diameter.getRadiusUpper()),
+        String.valueOf(diameter.getSearches()));
+  }
+
+  /**
+   * Prints the verticies that the most shortest paths pass through, and how many pass through each.
+   *
+   * @param count The most verticies to print.
+   * @param samples The number of random sources to estimate from, or 0 to search from every vertex.
+   */
+  public void printBetweenness(final String count, final String samples) {
+    final int limit = parseCount(count);
+    final int sampleCount = parseCount(samples);
+
+    if (limit < 0 || sampleCount < 0) {
+      MessageCli.INVALID_COUNT.printMessage(out, limit < 0 ? count : samples);
+      return;
+    }
+
+    final Map<String, String> top = new LinkedHashMap<>();
+    storedGraph
+        .topBetweenness(limit, sampleCount, BETWEENNESS_SEED)
+        .forEach((vertex, centrality) -> top.put(vertex, String.format("%.2f", centrality)));
+    final boolean estimated =
+        sampleCount > 0 && sampleCount < storedGraph.getVerticies().size();
+
+    MessageCli.BETWEENNESS.printMessage(
+        out, String.valueOf(top.size()), estimated ? "estimated" : "exact", top.toString());
+  }
+
+  /**
+   * Prints the verticies with the highest PageRank, and how fast the ranks were found.
+   *
+   * @param count The most verticies to print.
+   */
+  public void printPageRank(final String count) {
+    final int limit = parseCount(count);
+
+    if (limit < 0) {
+      MessageCli.INVALID_COUNT.printMessage(out, count);
+      return;
+    }
+
+    final PageRank ranks = storedGraph.pageRank();
+    final Map<String, String> top = new LinkedHashMap<>();
+    storedGraph
+        .topPageRank(ranks, limit)
+        .forEach((vertex, rank) -> top.put(vertex, String.format("%.4f", rank)));
+
+    MessageCli.PAGE_RANK.printMessage(out, String.valueOf(top.size()), top.toString());
+    MessageCli.PAGE_RANK_ITERATIONS.printMessage(
+        out,
+        ranks.isConverged() ? "converged" : "stopped",
+        String.valueOf(ranks.getIterations()),
+        String.format("%.1f", ranks.getIterationsPerSecond()));
+  }
+
+  /**
+   * Reads a count given by the user.
+   *
+   * @param count The count as the user typed it.
+   * @return The count, or -1 if it is not a number that is at least 0.
+   */
+  private static int parseCount(final String count) {
+    try {
+      return Math.max(-1, Integer.parseInt(count));
+    } catch (final NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Reads a number of milliseconds given by the user.
+   *
+   * @param milliseconds The milliseconds as the user typed them.
+   * @return The milliseconds, or -1 if they are not a number that is at least 0.
+   */
+  private static long parseMilliseconds(final String milliseconds) {
+    try {
+      return Math.max(-1, Long.parseLong(milliseconds));
+    } catch (final NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  /** Prints whether the graph has no cycles. */
+  public void printAcyclic() {
+    MessageCli.GRAPH_ACYCLIC.printMessage(out, prefixNot(storedGraph.isAcyclic()));
+  }
+
+  /** Prints the verticies of the graph in topological order, if the graph has no cycles. */
+  public void printTopologicalOrder() {
+    if (!storedGraph.isAcyclic()) {
+      MessageCli.NO_TOPOLOGICAL_ORDER.printMessage(out);
+      return;
+    }
+
+    out.println(searchOrderedGraph().topologicalOrder());
+  }
+
+  /** Prints the topological levels of the graph, if the graph has no cycles. */
+  public void printTopologicalLevels() {
+    if (!storedGraph.isAcyclic()) {
+      MessageCli.NO_TOPOLOGICAL_ORDER.printMessage(out);
+      return;
+    }
+
+    out.println(storedGraph.topologicalLevels());
+  }
+
+  /** Prints the number of weakly connected components of the graph, then the components. */
+  public void printWeaklyConnectedComponents() {
+    final List<List<String>> components = storedGraph.weaklyConnectedComponents();
+
+    MessageCli.WEAK_COMPONENTS.printMessage(out, String.valueOf(components.size()));
+    out.println(components);
+  }
+
+  /**
+   * Prints how close together the verticies at the ends of each edge are numbered by each vertex
+   * ordering, so the ordering that suits the graph best can be picked.
+   */
+  public void printVertexOrderings() {
+    final Adjacency adjacency = searchOrderedGraph().getAdjacency();
+
+    for (final VertexOrdering candidate : VertexOrdering.values()) {
+      final LocalityMetrics metrics =
+          LocalityMetrics.of(candidate.permutation(adjacency).relabel(adjacency));
+      MessageCli.VERTEX_ORDERING.printMessage(
+          out,
+          candidate.name(),
+          String.format("%.2f", metrics.getAverageGap()),
+          String.format("%.2f", metrics.getAverageLogGap()),
+          String.valueOf(metrics.getBandwidth()));
+    }
+  }
+
+  /**
+   * Builds the reachability index of the graph if it has not been built yet, and prints how long it
+   * took and how much memory it uses. The index is kept with the loaded graph for later queries.
+   */
+  public void printReachabilityIndex() {
+    final ReachabilityIndex index = storedGraph.getReachabilityIndex();
+
+    MessageCli.REACHABILITY_INDEX.printMessage(
+        out,
+        index.usesBitsets() ? "bitset" : "interval",
+        String.valueOf(index.componentCount()),
+        String.format("%.3f", index.getBuildNanos() / 1e6),
+        String.valueOf(index.memoryBytes()));
+  }
+
+  /**
+   * Prints whether one vertex reaches another, using the reachability index of the graph.
+   *
+   * @param source The vertex to start from.
+   * @param destination The vertex to reach.
+   */
+  public void printReaches(final String source, final String destination) {
+    for (final String vertex : new String[] {source, destination}) {
+      if (!containsVertex(vertex)) {
+        MessageCli.VERTEX_NOT_FOUND.printMessage(out, vertex);
+        return;
+      }
+    }
+
+    final boolean reaches = storedGraph.reaches(source, destination);
+    MessageCli.REACHES.printMessage(out, source, reaches ? "" : "not", destination);
+  }
+
+  /**
+   * Prints the verticies of a search as they are visited, without collecting the order first.
+   *
+   * @param search The search, which passes each vertex it visits to the given consumer.
+   */
+  private void printSearchOrder(final Consumer<Consumer<String>> search) {
+    final SearchOrderWriter<String> writer = new SearchOrderWriter<>(out);
+    search.accept(writer);
+    writer.finish();
+  }
+
+  /**
+   * Prints the int verticies of a search as they are visited, without boxing them.
+   *
+   * @param search The search, which passes each vertex it visits to the given consumer.
+   */
+  private void printIntSearchOrder(final Consumer<IntConsumer> search) {
+    final SearchOrderWriter<Integer> writer = new SearchOrderWriter<>(out);
+    search.accept(writer.asIntConsumer());
+    writer.finish();
   }
 
   /**
@@ -156,4 +1371,17 @@ public class GraphCalculator {
   private String prefixNot(final boolean isPropertyTrue) {
     return isPropertyTrue ? "" : "NOT ";
   }
+
+  /** A search from a single vertex that stops once enough verticies were visited. */
+  @FunctionalInterface
+  private interface SearchFrom {
+    /**
+     * Searches the graph from a vertex.
+     *
+     * @param root The vertex to start searching from.
+     * @param limit The most verticies to visit.
+     * @param visitor The consumer that is given the verticies in the order they were visited.
+     */
+    void search(String root, long limit, Consumer<String> visitor);
+  }
 }
@@ -0,0 +1,17 @@
+package nz.ac.auckland.se281;
+
+import java.io.FileNotFoundException;
+
+/** Loads the graph calculator for a test case, given the name of its file. */
+@FunctionalInterface
+public interface GraphLoader {
+
+  /**
+   * Loads the graph calculator for a test case.
+   *
+   * @param filename The name of the test case to read.
+   * @return The calculator for the loaded graph.
+   * @throws FileNotFoundException If the file does not exist.
+   */
+  GraphCalculator load(String filename) throws FileNotFoundException;
+}
@@ -0,0 +1,168 @@
+package nz.ac.auckland.se281;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A long-running graph calculator that serves commands to clients over a local socket.
+ *
+ * <p>Each client sends one command per line, using the same commands as the command line interface.
+ * The output of each command is followed by a line containing only {@link #END_OF_RESPONSE}. Graphs
+ * are loaded the first time any client opens them, and are then shared between all clients. A
+ * command that fails is reported to its client as an error, and the client stays connected.
+ */
+public class GraphServer implements Closeable {
+  public static final int DEFAULT_PORT = 2810;
+
+  public static final String END_OF_RESPONSE = ".";
+
+  private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+  public static void main(final String[] args) throws IOException {
+    final int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+
+    try (GraphServer server = new GraphServer(port)) {
+      System.out.println("Serving graph calculator on port " + server.getPort());
+      server.serve();
+    }
+  }
+
+  private final ServerSocket serverSocket;
+
+  private final ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+
+  private final Map<String, GraphCalculator> graphs = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new server listening on the loopback address.
+   *
+   * @param port The port to listen on, or 0 to pick any free port.
+   * @throws IOException If the port could not be opened.
+   */
+  public GraphServer(final int port) throws IOException {
+    this.serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+  }
+
+  /**
+   * Gets the port the server is listening on.
+   *
+   * @return The port number.
+   */
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Accepts clients until the server is closed. Each client is handled on its own virtual thread.
+   *
+   * @throws IOException If accepting a client fails for a reason other than the server closing.
+   */
+  public void serve() throws IOException {
+    while (!serverSocket.isClosed()) {
+      final Socket socket;
+
+      try {
+        socket = serverSocket.accept();
+      } catch (final SocketException e) {
+        // The server socket was closed while waiting for a client.
+        break;
+      }
+
+      clients.submit(() -> handle(socket));
+    }
+  }
+
+  /**
+   * Loads a graph calculator, reusing the one already loaded by any client for the same file.
+   *
+   * @param filename The name of the test case to read.
+   * @return The shared calculator for the file.
+   * @throws FileNotFoundException If the file does not exist.
+   */
+  GraphCalculator load(final String filename) throws FileNotFoundException {
+    final GraphCalculator loaded = graphs.get(filename);
+
+    if (loaded != null) {
+      return loaded;
+    }
+
+    // Two clients may load the same file at once, in which case the first one stored wins.
+    final GraphCalculator calculator = new GraphCalculator(filename);
+    final GraphCalculator previous = graphs.putIfAbsent(filename, calculator);
+
+    return previous == null ? calculator : previous;
+  }
+
+  /**
+   * Processes the commands of a single client until it exits or disconnects.
+   *
+   * @param socket The connection to the client.
+   */
+  private void handle(final Socket socket) {
+    try (socket;
+        BufferedReader in =
+            new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        PrintStream out =
+            new PrintStream(socket.getOutputStream(), false, StandardCharsets.UTF_8)) {
+      // Each client has its own open file, but the graphs themselves are shared.
+      final Main session = new Main(null, out, this::load);
+
+      String line;
+      boolean open = true;
+
+      while (open && (line = in.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+
+        try {
+          open = session.processCommand(line);
+        } catch (final RuntimeException e) {
+          // A failed command is reported to its client, who can carry on with the next one.
+          System.err.println("Command '" + line + "' failed: " + e);
+          MessageCli.COMMAND_FAILED.printMessage(out, line, String.valueOf(e.getMessage()));
+        }
+
+        out.println(END_OF_RESPONSE);
+        out.flush();
+      }
+    } catch (final IOException e) {
+      System.err.println("Client disconnected: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Stops accepting clients, disconnects the clients that are still connected, and closes the
+   * loaded graphs once their last commands have finished.
+   */
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+    clients.shutdownNow();
+    try {
+      if (!clients.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        // A command still running could read a graph as it is freed, so the collector frees them.
+        return;
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    graphs.values().forEach(GraphCalculator::close);
+  }
+}
@@ -0,0 +1,126 @@
+package nz.ac.auckland.se281;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import nz.ac.auckland.se281.datastructures.Adjacency;
+import nz.ac.auckland.se281.datastructures.CompactGraph;
+import nz.ac.auckland.se281.datastructures.NeighborCursor;
+
+/**
+ * Writes a compact graph to a file, a vertex at a time straight from its adjacency, so that a graph
+ * with far more edges than the original, such as a closure, never needs an object per edge.
+ *
+ * <p>A DOT file has the same layout as the test cases, so it can be opened again. A binary file
+ * holds the graph as compressed sparse rows, all big-endian: the int {@link #BINARY_MAGIC}, the
+ * number of verticies, the name of each vertex in modified UTF-8, a byte that is 1 if the edges
+ * have weights, the number of edges as a long, and then for each vertex its degree followed by the
+ * numbers of its neighbors and, if there are any, their weights as doubles.
+ */
+final class GraphWriter {
+  /** The first four bytes of a binary graph, which are "CSR1" in ASCII. */
+  static final int BINARY_MAGIC = 0x43535231;
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private GraphWriter() {}
+
+  /**
+   * Writes a graph in the DOT format, listing every vertex before the edges so that verticies with
+   * no edges are kept. The ids are written as they are, since the parser keeps any quotes around an
+   * id as part of it.
+   *
+   * @param graph The graph to write.
+   * @param name The name of the digraph in the file.
+   * @param file The file to write to, which is replaced if it exists.
+   * @throws IOException If the file cannot be written.
+   */
+  static void writeDot(final CompactGraph<String> graph, final String name, final Path file)
+      throws IOException {
+    final List<String> verticies = graph.getVerticies();
+    final Adjacency adjacency = graph.getAdjacency();
+
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write("// " + String.join(", ", verticies));
+      writer.newLine();
+      writer.write("digraph " + name + " {");
+      writer.newLine();
+
+      for (final String vertex : verticies) {
+        writer.write("  " + vertex + ";");
+        writer.newLine();
+      }
+
+      final NeighborCursor neighbors = adjacency.cursor();
+
+      for (int v = 0; v < verticies.size(); v++) {
+        final String source = "  " + verticies.get(v) + " -> ";
+        neighbors.moveTo(v);
+
+        while (neighbors.hasNext()) {
+          writer.write(source);
+          writer.write(verticies.get(neighbors.next()));
+
+          if (adjacency.isWeighted()) {
+            writer.write(" [weight=" + neighbors.weight() + "]");
+          }
+
+          writer.write(";");
+          writer.newLine();
+        }
+      }
+
+      writer.write("}");
+      writer.newLine();
+    }
+  }
+
+  /**
+   * Writes a graph in the binary format described by this class.
+   *
+   * @param graph The graph to write.
+   * @param file The file to write to, which is replaced if it exists.
+   * @throws IOException If the file cannot be written.
+   */
+  static void writeBinary(final CompactGraph<String> graph, final Path file) throws IOException {
+    final List<String> verticies = graph.getVerticies();
+    final Adjacency adjacency = graph.getAdjacency();
+
+    try (DataOutputStream output =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE))) {
+      output.writeInt(BINARY_MAGIC);
+      output.writeInt(verticies.size());
+
+      for (final String vertex : verticies) {
+        output.writeUTF(vertex);
+      }
+
+      output.writeBoolean(adjacency.isWeighted());
+      output.writeLong(adjacency.edgeCount());
+      final NeighborCursor neighbors = adjacency.cursor();
+
+      for (int v = 0; v < verticies.size(); v++) {
+        output.writeInt(adjacency.degree(v));
+        neighbors.moveTo(v);
+
+        while (neighbors.hasNext()) {
+          output.writeInt(neighbors.next());
+        }
+
+        if (adjacency.isWeighted()) {
+          neighbors.moveTo(v);
+
+          while (neighbors.hasNext()) {
+            neighbors.next();
+            output.writeDouble(neighbors.weight());
+          }
+        }
+      }
+    }
+  }
+}
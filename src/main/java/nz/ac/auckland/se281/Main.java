@@ -1,7 +1,12 @@
 package nz.ac.auckland.se281;
 
 import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
+import nz.ac.auckland.se281.datastructures.AdjacencyStorage;
+import nz.ac.auckland.se281.datastructures.VertexOrdering;
 
 /**
  * The entry point of the graph calculator command line interface.
@@ -11,8 +16,84 @@ import java.util.Scanner;
 public class Main {
   private static final String COMMAND_PREFIX = "graph-calculator> ";
 
+  private static final String ORDER_OPTION = "--order=";
+
   public static void main(final String[] args) {
-    new Main(new Scanner(System.in)).start();
+    // Very large graphs can be compressed with --compressed, or kept off the heap with --off-heap.
+    // Off-heap edges count against -XX:MaxDirectMemorySize, which defaults to the -Xmx heap size.
+    // Dense graphs are kept as a bit matrix unless --lists is given, which --matrix always does.
+    // Their verticies can be renumbered for the graph algorithms with --order=<ORDERING>.
+    final List<String> options = Arrays.asList(args);
+    final AdjacencyStorage storage;
+    VertexOrdering ordering = VertexOrdering.SEARCH;
+
+    if (options.contains("--off-heap")) {
+      storage = AdjacencyStorage.OFF_HEAP;
+    } else if (options.contains("--compressed")) {
+      storage = AdjacencyStorage.COMPRESSED;
+    } else if (options.contains("--matrix")) {
+      storage = AdjacencyStorage.BIT_MATRIX;
+    } else if (options.contains("--lists")) {
+      storage = AdjacencyStorage.HEAP;
+    } else {
+      storage = AdjacencyStorage.AUTO;
+    }
+
+    for (final String option : options) {
+      if (option.startsWith(ORDER_OPTION)) {
+        ordering = parseOrdering(option.substring(ORDER_OPTION.length()));
+
+        if (ordering == null) {
+          MessageCli.INVALID_ORDERING.printMessage(
+              option.substring(ORDER_OPTION.length()), orderingNames());
+          return;
+        }
+      }
+    }
+
+    final VertexOrdering vertexOrdering = ordering;
+
+    new Main(
+            new Scanner(System.in),
+            System.out,
+            filename -> new GraphCalculator(filename, storage, vertexOrdering),
+            true)
+        .start();
+  }
+
+  /**
+   * Finds the vertex ordering that the user named, ignoring case.
+   *
+   * @param name The name of the ordering.
+   * @return The ordering, or null if there is no ordering with that name.
+   */
+  private static VertexOrdering parseOrdering(final String name) {
+    for (final VertexOrdering candidate : VertexOrdering.values()) {
+      if (candidate.name().equalsIgnoreCase(name)) {
+        return candidate;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Lists the names of the vertex orderings, for the error printed when an ordering is not known.
+   *
+   * @return The names in lower case, separated by commas.
+   */
+  private static String orderingNames() {
+    final StringBuilder sb = new StringBuilder();
+
+    for (final VertexOrdering candidate : VertexOrdering.values()) {
+      if (sb.length() > 0) {
+        sb.append(", ");
+      }
+
+      sb.append(candidate.name().toLowerCase());
+    }
+
+    return sb.toString();
   }
 
   /**
@@ -44,6 +125,12 @@ public class Main {
 
   private final Scanner scanner;
 
+  private final PrintStream out;
+
+  private final GraphLoader loader;
+
+  private final boolean ownsGraphs;
+
   private GraphCalculator calculator;
 
   /**
@@ -52,18 +139,49 @@ public class Main {
    * @param scanner The scanner to read user input from.
    */
   public Main(final Scanner scanner) {
+    this(scanner, System.out, GraphCalculator::new, true);
+  }
+
+  /**
+   * Create a new command line interface that prints to the given stream, and opens files through
+   * the given loader. The loaded graphs belong to the loader, which may share them with others.
+   *
+   * @param scanner The scanner to read user input from.
+   * @param out The stream to print output to.
+   * @param loader The loader used to open files.
+   */
+  public Main(final Scanner scanner, final PrintStream out, final GraphLoader loader) {
+    this(scanner, out, loader, false);
+  }
+
+  /**
+   * Create a new command line interface.
+   *
+   * @param scanner The scanner to read user input from.
+   * @param out The stream to print output to.
+   * @param loader The loader used to open files.
+   * @param ownsGraphs If each loaded graph is closed when another file is opened or on exit.
+   */
+  private Main(
+      final Scanner scanner,
+      final PrintStream out,
+      final GraphLoader loader,
+      final boolean ownsGraphs) {
     this.scanner = scanner;
+    this.out = out;
+    this.loader = loader;
+    this.ownsGraphs = ownsGraphs;
   }
 
   /** Process commands from the user for the graph calculator command line interface. */
   public void start() {
-    System.out.println(help());
+    out.println(help());
 
     String command;
 
     // Prompt and process commands until the exit command.
     do {
-      System.out.print(COMMAND_PREFIX);
+      out.print(COMMAND_PREFIX);
       command = scanner.nextLine().trim();
     } while (processCommand(command));
   }
@@ -74,7 +192,7 @@ public class Main {
    * @param input The command entered by the user.
    * @return If the program should continue to wait for another command.
    */
-  private boolean processCommand(String input) {
+  boolean processCommand(String input) {
     // Remove whitespace at the beginning and end of the input.
     input = input.trim();
 
@@ -89,7 +207,7 @@ public class Main {
       // Command names correspond to the enum names.
       command = Command.valueOf(commandStr);
     } catch (final Exception e) {
-      MessageCli.COMMAND_NOT_FOUND.printMessage(commandStr);
+      MessageCli.COMMAND_NOT_FOUND.printMessage(out, commandStr);
       return true;
     }
 
@@ -97,7 +215,7 @@ public class Main {
     if (!checkArgs(command, args)) {
       final String numCommandArgs = String.valueOf(command.getNumArgs());
       final String plural = command.getNumArgs() > 1 ? "s" : "";
-      MessageCli.WRONG_ARGUMENT_COUNT.printMessage(numCommandArgs, plural, commandStr);
+      MessageCli.WRONG_ARGUMENT_COUNT.printMessage(out, numCommandArgs, plural, commandStr);
       return true;
     }
 
@@ -108,7 +226,7 @@ public class Main {
         && command != Command.OPEN_FILE
         && command != Command.EXIT
         && command != Command.HELP) {
-      MessageCli.FILE_NOT_OPEN.printMessage();
+      MessageCli.FILE_NOT_OPEN.printMessage(out);
       return true;
     }
 
@@ -117,10 +235,14 @@ public class Main {
         final String filename = args[1];
 
         try {
-          calculator = new GraphCalculator(filename);
-          MessageCli.OPENED_FILE_SUCCESSFULLY.printMessage(filename);
+          final GraphCalculator loaded = loader.load(filename).withOutput(out);
+          closeGraph();
+          calculator = loaded;
+          MessageCli.OPENED_FILE_SUCCESSFULLY.printMessage(out, filename);
+        } catch (MalformedGraphException e) {
+          MessageCli.FILE_MALFORMED.printMessage(out, filename, e.getMessage());
         } catch (FileNotFoundException e) {
-          MessageCli.FILE_NOT_FOUND.printMessage(filename);
+          MessageCli.FILE_NOT_FOUND.printMessage(out, filename);
         }
         break;
       case INFO:
@@ -147,6 +269,21 @@ public class Main {
       case CHECK_EQUIVALENCE:
         calculator.printEquivalence();
         break;
+      case ESTIMATE_PROPERTY:
+        calculator.printPropertyEstimate(args[1], args[2], args[3]);
+        break;
+      case FIND_VIOLATIONS:
+        calculator.printViolations(args[1], args[2]);
+        break;
+      case CLOSURE:
+        calculator.printClosure(args[1], args[2]);
+        break;
+      case TRANSITIVE_REDUCTION:
+        calculator.printTransitiveReduction(args[1]);
+        break;
+      case CONDENSATION:
+        calculator.printCondensation(args[1]);
+        break;
       case COMPUTE_EQUIVALENCE:
         calculator.printEquivalenceClass(args[1]);
         break;
@@ -162,13 +299,65 @@ public class Main {
       case GRAPH_SEARCH_RDFS:
         calculator.printRecursiveDepthFirstSearch();
         break;
+      case GRAPH_SEARCH_BFS_FROM:
+        calculator.printBreadthFirstSearchFrom(args[1], args[2]);
+        break;
+      case GRAPH_SEARCH_DFS_FROM:
+        calculator.printDepthFirstSearchFrom(args[1], args[2]);
+        break;
+      case SHORTEST_DISTANCES:
+        calculator.printShortestDistances(args[1]);
+        break;
+      case SHORTEST_PATH:
+        calculator.printShortestPath(args[1], args[2]);
+        break;
+      case PREDECESSORS:
+        calculator.printPredecessors(args[1]);
+        break;
+      case HOP_PATH:
+        calculator.printHopPath(args[1], args[2]);
+        break;
+      case HOP_DISTANCES:
+        calculator.printHopDistances(args[1]);
+        break;
+      case DIAMETER:
+        calculator.printDiameter(args[1]);
+        break;
+      case BETWEENNESS:
+        calculator.printBetweenness(args[1], args[2]);
+        break;
+      case PAGE_RANK:
+        calculator.printPageRank(args[1]);
+        break;
+      case CHECK_ACYCLIC:
+        calculator.printAcyclic();
+        break;
+      case TOPOLOGICAL_ORDER:
+        calculator.printTopologicalOrder();
+        break;
+      case TOPOLOGICAL_LEVELS:
+        calculator.printTopologicalLevels();
+        break;
+      case WEAK_COMPONENTS:
+        calculator.printWeaklyConnectedComponents();
+        break;
+      case REACHABILITY_INDEX:
+        calculator.printReachabilityIndex();
+        break;
+      case REACHES:
+        calculator.printReaches(args[1], args[2]);
+        break;
+      case VERTEX_ORDERINGS:
+        calculator.printVertexOrderings();
+        break;
       case EXIT:
-        MessageCli.END.printMessage();
+        closeGraph();
+        MessageCli.END.printMessage(out);
 
         // Signal that the program should exit.
         return false;
       case HELP:
-        System.out.println(help());
+        out.println(help());
         break;
     }
 
@@ -176,6 +365,13 @@ public class Main {
     return true;
   }
 
+  /** Closes the open graph, if this interface loaded it for itself. */
+  private void closeGraph() {
+    if (ownsGraphs && calculator != null) {
+      calculator.close();
+    }
+  }
+
   /**
    * Check that the correct number of arguments were provided for the command.
    *
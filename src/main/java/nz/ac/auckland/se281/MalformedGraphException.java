@@ -0,0 +1,24 @@
+package nz.ac.auckland.se281;
+
+import java.io.FileNotFoundException;
+
+/**
+ * Thrown when a test case exists but does not hold a graph that can be loaded, such as an edge
+ * whose weight is not a number. It is a {@link FileNotFoundException} so that it reaches every
+ * loader of graphs, but the command line tells the user what is wrong with the file instead of
+ * saying that it is missing.
+ */
+class MalformedGraphException extends FileNotFoundException {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Creates a new exception for a file that could not be loaded.
+   *
+   * @param reason What is wrong with the file.
+   * @param cause The error that was thrown while reading it.
+   */
+  MalformedGraphException(final String reason, final Throwable cause) {
+    super(reason);
+    initCause(cause);
+  }
+}
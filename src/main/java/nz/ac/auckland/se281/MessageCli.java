@@ -1,5 +1,7 @@
 package nz.ac.auckland.se281;
 
+import java.io.PrintStream;
+
 /**
  * Templates of messages that can be printed to the CLI.
  *
@@ -15,13 +17,65 @@ public enum MessageCli {
   OPENED_FILE_SUCCESSFULLY("Successfully opened graph from file %s"),
   FILE_NOT_OPEN("Error: no valid file open"),
   FILE_NOT_FOUND("Error: file '%s' not found in `testcases` folder"),
+  FILE_MALFORMED("Error: file '%s' in `testcases` folder is not a valid graph, as %s"),
   INFO("File name: %s"),
+  ORDERING_INFO("Verticies are numbered by %s ordering"),
+  STORAGE_INFO("Edges are stored %s in %s bytes, %s bytes per edge"),
+  VERTEX_NOT_FOUND("Error: vertex '%s' is not in the graph"),
+  INVALID_COUNT("Error: '%s' is not a valid number of verticies"),
+  INVALID_BUDGET("Error: '%s' is not a valid number of milliseconds"),
+  INVALID_PROPERTY(
+      "Error: '%s' is not a property that can be checked edge by edge, which are symmetry,"
+          + " antisymmetry and transitivity"),
+  INVALID_CLOSURE(
+      "Error: '%s' is not a closure, which are reflexive, symmetric, transitive and equivalence"),
+  CLOSURE_TOO_LARGE("Error: the %s closure has too many edges to store in memory"),
+  WRITE_FAILED("Error: could not write '%s' in `testcases` folder"),
+  INVALID_ORDERING("Error: '%s' is not a vertex ordering, which are %s"),
+  COMMAND_FAILED("Error: the command \"%s\" failed: %s"),
+  NEGATIVE_WEIGHT("Error: shortest paths cannot be found in a graph with negative edge weights"),
 
   GRAPH_REFLEXIVE("The graph is %sreflexive"),
   GRAPH_SYMMETRIC("The graph is %ssymmetric"),
   GRAPH_ANTI_SYMMETRIC("The graph is %santisymmetric"),
   GRAPH_EQUIVALENCE("The graph is %san equivalence relation"),
   GRAPH_TRANSITIVE("The graph is %stransitive"),
+  GRAPH_ACYCLIC("The graph is %sacyclic"),
+  PROPERTY_HOLDS("The graph is %s, checked on every edge"),
+  PROPERTY_VIOLATED("The graph is not %s: %s"),
+  PROPERTY_ESTIMATE(
+      "The graph is probably %s: no violation in %s random samples, so with %s confidence fewer"
+          + " than %s of samples would find one"),
+  SYMMETRY_VIOLATION("%s -> %s has no edge back"),
+  ANTI_SYMMETRY_VIOLATION("%s and %s have edges both ways"),
+  TRANSITIVITY_VIOLATION("%s -> %s -> %s has no edge from %s to %s"),
+  VIOLATION_COUNT("The graph has %s violations of being %s"),
+  CLOSURE("The %s closure has %s edges, %s of them added, stored %s and written to %s"),
+  TRANSITIVE_REDUCTION(
+      "The transitive reduction has %s edges, %s of them removed, and was written to %s"),
+  CONDENSATION("The condensation has %s components and %s edges, and was written to %s"),
+  WEAK_COMPONENTS("The graph has %s weakly connected components"),
+  NO_TOPOLOGICAL_ORDER("The graph has a cycle, so it has no topological order"),
+  NO_ROOTS_WARNING("Graph has no roots"),
+  NO_ROOTS_TO_SEARCH("There are no roots in this graph"),
+  NO_ROOTS("There are no root vertices in the graph"),
+
+  SHORTEST_PATH("The shortest path from %s to %s has length %s: %s"),
+  HOP_PATH("%s reaches %s in %s hops: %s"),
+  PREDECESSORS("%s has %s predecessors: %s"),
+  HOP_DISTANCES("%s reaches %s verticies in at most %s hops: %s"),
+  DIAMETER("The graph has diameter %s and radius %s"),
+  BETWEENNESS("The %s verticies with the highest %s betweenness are: %s"),
+  PAGE_RANK("The %s verticies with the highest PageRank are: %s"),
+  PAGE_RANK_ITERATIONS("PageRank %s after %s iterations, at %s iterations per second"),
+  DIAMETER_BOUNDS(
+      "The graph has diameter between %s and %s and radius between %s and %s, after %s searches"),
+  REACHES("%s can%s reach %s"),
+  REACHABILITY_INDEX(
+      "Built a %s reachability index over %s strongly connected components in %s ms, using %s"
+          + " bytes"),
+  NO_PATH("There is no path from %s to %s"),
+  VERTEX_ORDERING("%s ordering: average gap %s, %s bits per gap, bandwidth %s"),
 
   END("You closed the terminal. Goodbye.");
 
@@ -59,6 +113,17 @@ public enum MessageCli {
    * @param args The arguments to fill in the template.
    */
   public void printMessage(final String... args) {
-    System.out.println(getMessage(args));
+    printMessage(System.out, args);
+  }
+
+  /**
+   * Print the message to the given stream after filling the template using {@link
+   * #getMessage(String...)}.
+   *
+   * @param out The stream to print the message to.
+   * @param args The arguments to fill in the template.
+   */
+  public void printMessage(final PrintStream out, final String... args) {
+    out.println(getMessage(args));
   }
 }
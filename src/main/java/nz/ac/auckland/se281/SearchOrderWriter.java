@@ -0,0 +1,101 @@
+package nz.ac.auckland.se281;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Writes the verticies of a search to a stream as they are visited, in the same "[a, b, c]" format
+ * as {@link java.util.Arrays#toString(Object[])}. Only the buffer is held in memory, so the size of
+ * the search order does not matter.
+ *
+ * @param <T> The type of each vertex.
+ */
+class SearchOrderWriter<T> implements Consumer<T> {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final PrintStream out;
+
+  private final BufferedWriter writer;
+
+  private boolean first = true;
+
+  /**
+   * Creates a new writer and writes the opening bracket of the list.
+   *
+   * @param out The stream to write the search order to.
+   */
+  SearchOrderWriter(final PrintStream out) {
+    this.out = out;
+    this.writer = new BufferedWriter(new OutputStreamWriter(out, out.charset()), BUFFER_SIZE);
+    write("[");
+  }
+
+  /**
+   * Writes the next vertex of the search order.
+   *
+   * @param vertex The vertex that was visited.
+   */
+  @Override
+  public void accept(final T vertex) {
+    if (!first) {
+      write(", ");
+    }
+
+    first = false;
+    write(String.valueOf(vertex));
+  }
+
+  /**
+   * Gets a consumer that writes the verticies of a search over int verticies, without boxing them.
+   *
+   * @return The consumer, which writes to the same list as this writer.
+   */
+  IntConsumer asIntConsumer() {
+    return this::acceptInt;
+  }
+
+  /**
+   * Writes the next vertex of a search over int verticies.
+   *
+   * @param vertex The vertex that was visited.
+   */
+  private void acceptInt(final int vertex) {
+    if (!first) {
+      write(", ");
+    }
+
+    first = false;
+    write(Integer.toString(vertex));
+  }
+
+  /** Writes the closing bracket of the list, and flushes everything written to the stream. */
+  void finish() {
+    write("]" + System.lineSeparator());
+
+    try {
+      writer.flush();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    out.flush();
+  }
+
+  /**
+   * Writes text to the buffer.
+   *
+   * @param text The text to write.
+   */
+  private void write(final String text) {
+    try {
+      writer.write(text);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
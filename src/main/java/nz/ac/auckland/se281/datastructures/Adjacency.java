@@ -0,0 +1,91 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * The outgoing edges of a graph whose verticies are numbered from 0 to {@link #vertexCount()} - 1.
+ * The neighbors of each vertex are kept in ascending order of their numbers, which is how the
+ * searches over an adjacency decide which neighbor to visit first.
+ */
+public interface Adjacency {
+
+  /**
+   * Gets the number of verticies.
+   *
+   * @return The number of verticies.
+   */
+  int vertexCount();
+
+  /**
+   * Gets the number of edges.
+   *
+   * @return The number of edges.
+   */
+  long edgeCount();
+
+  /**
+   * Checks if the edges have weights, which are read through {@link NeighborCursor#weight()}.
+   *
+   * @return True if the edges have weights, false if every edge has a weight of 1.
+   */
+  default boolean isWeighted() {
+    return false;
+  }
+
+  /**
+   * Gets the memory used to store the edges.
+   *
+   * @return The size of the arrays or buffers that hold the edges, in bytes.
+   */
+  long sizeInBytes();
+
+  /**
+   * Gets the number of outgoing edges of a vertex.
+   *
+   * @param vertex The number of the vertex.
+   * @return The number of neighbors of the vertex.
+   */
+  int degree(int vertex);
+
+  /**
+   * Counts the incoming edges of every vertex in a single pass over the edges.
+   *
+   * @return A new array with the number of edges that end at each vertex.
+   */
+  default int[] inDegrees() {
+    int[] inDegrees = new int[vertexCount()];
+    NeighborCursor neighbors = cursor();
+    for (int v = 0; v < inDegrees.length; v++) {
+      neighbors.moveTo(v);
+      while (neighbors.hasNext()) {
+        inDegrees[neighbors.next()]++;
+      }
+    }
+    return inDegrees;
+  }
+
+  /**
+   * Creates a cursor over the neighbors of the verticies. A search creates one cursor and moves it
+   * from vertex to vertex, so that visiting neighbors does not allocate.
+   *
+   * @return A new cursor, which must be moved to a vertex before it is read.
+   */
+  NeighborCursor cursor();
+
+  /**
+   * Checks if there is an edge from the source to the destination.
+   *
+   * @param source The number of the vertex the edge starts from.
+   * @param destination The number of the vertex the edge ends at.
+   * @return True if the edge exists, false otherwise.
+   */
+  default boolean containsEdge(int source, int destination) {
+    NeighborCursor neighbors = cursor();
+    neighbors.moveTo(source);
+    while (neighbors.hasNext()) {
+      int neighbor = neighbors.next();
+      if (neighbor >= destination) {
+        return neighbor == destination;
+      }
+    }
+    return false;
+  }
+}
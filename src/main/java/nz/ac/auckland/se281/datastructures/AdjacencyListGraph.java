@@ -1,18 +1,25 @@
 package nz.ac.auckland.se281.datastructures;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.function.Consumer;
 
 /**
  * A graph implementation using an adjacency list representation.
  *
+ * <p>The searches read the neighbors of a vertex through {@link #getSortedNeighbors(Object)} or
+ * {@link #forEachNeighbor(Object, Consumer)}, which neither copy nor allocate once every list has
+ * been sorted. Each list is sorted in place the first time it is read after it changes.
+ *
  * @param <T> the type of elements in the graph
  */
 public class AdjacencyListGraph<T extends Comparable<T>> {
 
-  private Map<T, List<T>> adjacencyList;
+  private final Map<T, Neighbors<T>> adjacencyList;
+  private final VertexComparator<T> comparator = new VertexComparator<T>();
 
   /** Constructs an empty AdjacencyListGraph. */
   public AdjacencyListGraph() {
@@ -27,19 +34,33 @@ public class AdjacencyListGraph<T extends Comparable<T>> {
    */
   public void addEdge(T source, T destination) {
     // Add destination to source's adjacency list
-    List<T> sourceNeighbors = adjacencyList.computeIfAbsent(source, k -> new ArrayList<>());
+    Neighbors<T> sourceNeighbors = adjacencyList.computeIfAbsent(source, k -> new Neighbors<>());
     sourceNeighbors.add(destination);
   }
 
   /**
-   * Retrieves the neighbors (outgoing edges) of a vertex in the graph.
+   * Removes one edge between two vertices from the graph.
+   *
+   * @param source the source vertex
+   * @param destination the destination vertex
+   */
+  public void removeEdge(T source, T destination) {
+    Neighbors<T> sourceNeighbors = adjacencyList.get(source);
+    if (sourceNeighbors != null) {
+      sourceNeighbors.remove(destination);
+    }
+  }
+
+  /**
+   * Retrieves the neighbors (outgoing edges) of a vertex in the graph. The list is a copy that the
+   * caller may change, so the searches use {@link #getSortedNeighbors(Object)} instead.
    *
    * @param vertex the vertex for which to retrieve the neighbors
    * @return a list of neighbors (outgoing edges) of the vertex
    */
   public List<T> getNeighbors(T vertex) {
     // Retrieve the adjacency list of the vertex
-    List<T> neighbors = adjacencyList.get(vertex);
+    Neighbors<T> neighbors = adjacencyList.get(vertex);
 
     // If the adjacency list is null, return an empty list
     if (neighbors == null) {
@@ -47,6 +68,85 @@ public class AdjacencyListGraph<T extends Comparable<T>> {
     }
 
     // Return the neighbors as outgoing edges
-    return new ArrayList<>(neighbors);
+    return new ArrayList<>(neighbors.list);
+  }
+
+  /**
+   * Gets a read-only view of the neighbors of a vertex, in the order the searches visit them. The
+   * view is not copied, so it changes along with the graph.
+   *
+   * @param vertex the vertex for which to retrieve the neighbors
+   * @return the sorted neighbors of the vertex, which must not be modified
+   */
+  public List<T> getSortedNeighbors(T vertex) {
+    Neighbors<T> neighbors = adjacencyList.get(vertex);
+    if (neighbors == null) {
+      return Collections.emptyList();
+    }
+    return neighbors.sorted(comparator);
+  }
+
+  /**
+   * Passes each neighbor of a vertex to the action, in the order the searches visit them.
+   *
+   * @param vertex the vertex whose neighbors are visited
+   * @param action the action given each neighbor
+   */
+  public void forEachNeighbor(T vertex, Consumer<? super T> action) {
+    List<T> neighbors = getSortedNeighbors(vertex);
+    // Indexed, so that no iterator is created.
+    for (int i = 0; i < neighbors.size(); i++) {
+      action.accept(neighbors.get(i));
+    }
+  }
+
+  /**
+   * The neighbors of a single vertex, along with the read-only view that is handed out for them.
+   *
+   * @param <T> the type of elements in the graph
+   */
+  private static final class Neighbors<T> {
+    private final List<T> list = new ArrayList<>();
+    private final List<T> view = Collections.unmodifiableList(list);
+    // Written only while holding the lock, so a reader that sees true also sees the sorted list.
+    private volatile boolean sorted = true;
+
+    /**
+     * Adds a neighbor to the end of the list, which is sorted again when it is next read.
+     *
+     * @param neighbor the neighbor to add
+     */
+    synchronized void add(T neighbor) {
+      list.add(neighbor);
+      sorted = list.size() < 2;
+    }
+
+    /**
+     * Removes a neighbor, which leaves the list in the same order.
+     *
+     * @param neighbor the neighbor to remove
+     */
+    synchronized void remove(T neighbor) {
+      list.remove(neighbor);
+    }
+
+    /**
+     * Gets the view of the neighbors, sorting them first if they have changed since they were last
+     * sorted.
+     *
+     * @param comparator the order the searches visit the verticies in
+     * @return the sorted view
+     */
+    List<T> sorted(VertexComparator<T> comparator) {
+      if (!sorted) {
+        synchronized (this) {
+          if (!sorted) {
+            list.sort(comparator);
+            sorted = true;
+          }
+        }
+      }
+      return view;
+    }
   }
 }
@@ -0,0 +1,73 @@
+package nz.ac.auckland.se281.datastructures;
+
+/** The ways the edges of a loaded graph can be stored for the graph algorithms. */
+public enum AdjacencyStorage {
+  /** A bit matrix for dense unweighted graphs, and plain int arrays on the heap otherwise. */
+  AUTO("chosen by density") {
+    @Override
+    public Adjacency store(Adjacency adjacency) {
+      return BitMatrixGraph.isDense(adjacency) ? BitMatrixGraph.copyOf(adjacency) : adjacency;
+    }
+  },
+
+  /** Plain int arrays on the heap, which are the fastest to search. */
+  HEAP("on the heap") {
+    @Override
+    public Adjacency store(Adjacency adjacency) {
+      return adjacency;
+    }
+  },
+
+  /** Gap encoded bytes on the heap, which hold several times as many edges in the same heap. */
+  COMPRESSED("compressed on the heap") {
+    @Override
+    public Adjacency store(Adjacency adjacency) {
+      return CompressedCsrGraph.copyOf(adjacency);
+    }
+  },
+
+  /**
+   * Direct buffers outside the heap, which must be closed once they are no longer used. They are
+   * limited by {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size.
+   */
+  OFF_HEAP("off the heap") {
+    @Override
+    public Adjacency store(Adjacency adjacency) {
+      return OffHeapCsrGraph.copyOf(adjacency);
+    }
+  },
+
+  /**
+   * A bit per pair of verticies on the heap, which checks the properties of dense relations a word
+   * at a time. Weighted edges are kept as plain int arrays, since a bit cannot hold a weight.
+   */
+  BIT_MATRIX("as a bit matrix") {
+    @Override
+    public Adjacency store(Adjacency adjacency) {
+      return adjacency.isWeighted() ? adjacency : BitMatrixGraph.copyOf(adjacency);
+    }
+  };
+
+  private final String description;
+
+  private AdjacencyStorage(String description) {
+    this.description = description;
+  }
+
+  /**
+   * Copies the edges of a CSR adjacency into this kind of storage.
+   *
+   * @param adjacency The edges to store.
+   * @return The stored edges, which may be the given adjacency itself.
+   */
+  public abstract Adjacency store(Adjacency adjacency);
+
+  /**
+   * Gets where the edges are kept, for reporting to the user.
+   *
+   * @return The description of the storage.
+   */
+  public String getDescription() {
+    return description;
+  }
+}
@@ -0,0 +1,270 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The betweenness centrality of every vertex, which is how many shortest paths between other
+ * verticies pass through it. It is found with Brandes' algorithm over the unweighted, directed
+ * edges: a breadth-first search from each source counts the shortest paths to every vertex, and
+ * walking back through the search order adds up how much each vertex depends on the others.
+ *
+ * <p>The sources are split into ranges on a work-stealing fork-join pool. Each range borrows a
+ * workspace of primitive arrays for its searches from a pool kept for the one computation, reused
+ * from source to source and only reset where the last search reached, and adds into an array of
+ * centralities of its own. The arrays of two halves are summed where they were split, so the
+ * threads never write to the same memory and the sums are made in the same order however the
+ * ranges were stolen. Sampling a fixed number of sources estimates the centralities of a large
+ * graph in a fraction of the time.
+ */
+public final class BetweennessCentrality {
+  /** The fewest sources a task searches from itself instead of splitting them with another. */
+  private static final int SOURCES_PER_TASK = 8;
+
+  private static final int UNREACHED = -1;
+
+  private final double[] centralities;
+  private final int sourceCount;
+
+  /**
+   * Constructs the result of the searches.
+   *
+   * @param centralities The centrality of each vertex.
+   * @param sourceCount The number of sources that were searched from.
+   */
+  private BetweennessCentrality(double[] centralities, int sourceCount) {
+    this.centralities = centralities;
+    this.sourceCount = sourceCount;
+  }
+
+  /**
+   * Finds the exact centrality of every vertex, by searching from every vertex.
+   *
+   * @param adjacency The edges of the graph.
+   * @return The centralities.
+   */
+  public static BetweennessCentrality exact(Adjacency adjacency) {
+    int[] sources = new int[adjacency.vertexCount()];
+    Arrays.setAll(sources, v -> v);
+    return compute(adjacency, sources, 1.0);
+  }
+
+  /**
+   * Estimates the centrality of every vertex by searching from a random sample of the verticies,
+   * and scaling up the result by how many verticies each source stands for. The whole graph is
+   * searched when the sample is at least as large as it.
+   *
+   * @param adjacency The edges of the graph.
+   * @param samples The number of sources to search from.
+   * @param seed The seed of the random sample, so the same estimate can be made again.
+   * @return The estimated centralities.
+   */
+  public static BetweennessCentrality sampled(Adjacency adjacency, int samples, long seed) {
+    int vertexCount = adjacency.vertexCount();
+    if (samples >= vertexCount) {
+      return exact(adjacency);
+    }
+    // The first samples of a partial shuffle are a sample without repeats.
+    int[] verticies = new int[vertexCount];
+    Arrays.setAll(verticies, v -> v);
+    Random random = new Random(seed);
+    for (int i = 0; i < samples; i++) {
+      int other = i + random.nextInt(vertexCount - i);
+      int swap = verticies[i];
+      verticies[i] = verticies[other];
+      verticies[other] = swap;
+    }
+    return compute(adjacency, Arrays.copyOf(verticies, samples), (double) vertexCount / samples);
+  }
+
+  /**
+   * Searches from every source on the common fork-join pool, and sums the centralities that each
+   * range of sources found.
+   *
+   * @param adjacency The edges of the graph.
+   * @param sources The verticies to search from.
+   * @param scale The factor every centrality is multiplied by.
+   * @return The centralities.
+   */
+  private static BetweennessCentrality compute(Adjacency adjacency, int[] sources, double scale) {
+    // The workspaces are only reachable from the tasks, so they are freed with them.
+    Queue<Workspace> workspaces = new ConcurrentLinkedQueue<>();
+    double[] centralities =
+        ForkJoinPool.commonPool()
+            .invoke(new Sources(adjacency, sources, 0, sources.length, workspaces));
+    for (int v = 0; v < centralities.length; v++) {
+      centralities[v] *= scale;
+    }
+    return new BetweennessCentrality(centralities, sources.length);
+  }
+
+  /**
+   * Gets the centrality of a vertex.
+   *
+   * @param vertex The number of the vertex.
+   * @return The number of shortest paths through the vertex, counting a pair with several shortest
+   *     paths by the share of them that pass through it.
+   */
+  public double centralityOf(int vertex) {
+    return centralities[vertex];
+  }
+
+  /**
+   * Gets the number of sources that were searched from.
+   *
+   * @return The number of sources.
+   */
+  public int getSourceCount() {
+    return sourceCount;
+  }
+
+  /**
+   * Finds the verticies with the highest centralities.
+   *
+   * @param count The most verticies to find.
+   * @param rank The rank of each vertex number, which breaks ties between equal centralities.
+   * @return The numbers of the verticies, from the highest centrality down.
+   */
+  public int[] top(int count, int[] rank) {
+    return Scores.top(centralities, count, rank);
+  }
+
+  /**
+   * Splits a range of sources in half until it is small enough to search from directly, and sums
+   * the centralities of the two halves.
+   */
+  @SuppressWarnings("serial")
+  private static final class Sources extends RecursiveTask<double[]> {
+    private final Adjacency adjacency;
+    private final int[] sources;
+    private final int from;
+    private final int to;
+    private final Queue<Workspace> workspaces;
+
+    /**
+     * Constructs a task over a range of the sources.
+     *
+     * @param adjacency The edges of the graph.
+     * @param sources The verticies to search from.
+     * @param from The first position of the range.
+     * @param to The position after the last one of the range.
+     * @param workspaces The workspaces that are not in use by another range.
+     */
+    Sources(
+        Adjacency adjacency, int[] sources, int from, int to, Queue<Workspace> workspaces) {
+      this.adjacency = adjacency;
+      this.sources = sources;
+      this.from = from;
+      this.to = to;
+      this.workspaces = workspaces;
+    }
+
+    @Override
+    protected double[] compute() {
+      if (to - from <= SOURCES_PER_TASK) {
+        double[] centralities = new double[adjacency.vertexCount()];
+        Workspace workspace = workspaces.poll();
+        if (workspace == null) {
+          workspace = new Workspace(adjacency);
+        }
+        for (int i = from; i < to; i++) {
+          workspace.accumulate(sources[i], centralities);
+        }
+        workspaces.add(workspace);
+        return centralities;
+      }
+      int middle = (from + to) >>> 1;
+      Sources left = new Sources(adjacency, sources, from, middle, workspaces);
+      left.fork();
+      double[] right = new Sources(adjacency, sources, middle, to, workspaces).compute();
+      double[] centralities = left.join();
+      for (int v = 0; v < centralities.length; v++) {
+        centralities[v] += right[v];
+      }
+      return centralities;
+    }
+  }
+
+  /** The arrays a range of sources reuses for each of its searches. */
+  private static final class Workspace {
+    private final NeighborCursor neighbors;
+    // The verticies in the order the search reached them, which is walked back as a stack.
+    private final int[] order;
+    private final int[] hops;
+    private final double[] paths;
+    private final double[] dependency;
+
+    /**
+     * Allocates the arrays for searches over a graph.
+     *
+     * @param adjacency The edges of the graph.
+     */
+    Workspace(Adjacency adjacency) {
+      int vertexCount = adjacency.vertexCount();
+      this.neighbors = adjacency.cursor();
+      this.order = new int[vertexCount];
+      this.hops = new int[vertexCount];
+      this.paths = new double[vertexCount];
+      this.dependency = new double[vertexCount];
+      Arrays.fill(hops, UNREACHED);
+    }
+
+    /**
+     * Adds how much every vertex lies on the shortest paths from a source.
+     *
+     * @param source The vertex to search from.
+     * @param centralities The centralities to add to.
+     */
+    void accumulate(int source, double[] centralities) {
+      // Count the shortest paths to every vertex, in breadth-first order.
+      int reached = 0;
+      hops[source] = 0;
+      paths[source] = 1.0;
+      order[reached++] = source;
+      for (int head = 0; head < reached; head++) {
+        int vertex = order[head];
+        neighbors.moveTo(vertex);
+        while (neighbors.hasNext()) {
+          int neighbor = neighbors.next();
+          if (hops[neighbor] == UNREACHED) {
+            hops[neighbor] = hops[vertex] + 1;
+            order[reached++] = neighbor;
+          }
+          if (hops[neighbor] == hops[vertex] + 1) {
+            paths[neighbor] += paths[vertex];
+          }
+        }
+      }
+
+      // Walk back from the furthest verticies, passing each one's dependency to the verticies
+      // one hop before it on its shortest paths.
+      for (int i = reached - 1; i >= 0; i--) {
+        int vertex = order[i];
+        neighbors.moveTo(vertex);
+        double sum = 0.0;
+        while (neighbors.hasNext()) {
+          int neighbor = neighbors.next();
+          if (hops[neighbor] == hops[vertex] + 1) {
+            sum += (1.0 + dependency[neighbor]) / paths[neighbor];
+          }
+        }
+        dependency[vertex] = paths[vertex] * sum;
+        if (vertex != source) {
+          centralities[vertex] += dependency[vertex];
+        }
+      }
+
+      // Reset only what this search touched, so the next one starts clean.
+      for (int i = 0; i < reached; i++) {
+        int vertex = order[i];
+        hops[vertex] = UNREACHED;
+        paths[vertex] = 0.0;
+        dependency[vertex] = 0.0;
+      }
+    }
+  }
+}
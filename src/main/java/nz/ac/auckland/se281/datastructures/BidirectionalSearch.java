@@ -0,0 +1,127 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Finds the fewest hops between two verticies with a breadth-first search from each end at once.
+ * The search from the source follows the edges forwards and the search from the target follows
+ * them backwards, and whichever side has the smaller frontier is expanded by one level next. When
+ * the two searches meet, only the verticies near the two ends have been visited, instead of
+ * everything within the same distance of the source.
+ */
+public final class BidirectionalSearch {
+  private static final int UNVISITED = -1;
+
+  private BidirectionalSearch() {}
+
+  /**
+   * Finds a path with the fewest edges from the source to the target.
+   *
+   * @param forward The edges of the graph.
+   * @param reverse The edges of the graph reversed, as built by {@link CsrGraph#reverseOf}.
+   * @param source The vertex the path starts from.
+   * @param target The vertex the path ends at.
+   * @return The verticies on the path in order, starting with the source and ending with the
+   *     target, or an empty array if the target cannot be reached. The number of hops is one less
+   *     than the length of the path.
+   */
+  public static int[] findPath(Adjacency forward, Adjacency reverse, int source, int target) {
+    if (source == target) {
+      return new int[] {source};
+    }
+
+    int n = forward.vertexCount();
+    Side fromSource = new Side(forward, n, source);
+    Side fromTarget = new Side(reverse, n, target);
+
+    int meeting = UNVISITED;
+    while (meeting == UNVISITED && !fromSource.isFinished() && !fromTarget.isFinished()) {
+      if (fromSource.frontierSize <= fromTarget.frontierSize) {
+        meeting = fromSource.expand(fromTarget);
+      } else {
+        meeting = fromTarget.expand(fromSource);
+      }
+    }
+
+    if (meeting == UNVISITED) {
+      return new int[0];
+    }
+
+    // Walk back from the meeting vertex to each end.
+    int[] path = new int[fromSource.depth[meeting] + fromTarget.depth[meeting] + 1];
+    int position = fromSource.depth[meeting];
+    for (int v = meeting; v != UNVISITED; v = fromSource.parent[v]) {
+      path[position--] = v;
+    }
+    position = fromSource.depth[meeting];
+    for (int v = meeting; v != UNVISITED; v = fromTarget.parent[v]) {
+      path[position++] = v;
+    }
+    return path;
+  }
+
+  /** The state of the search from one end, with its frontier kept in a primitive array. */
+  private static final class Side {
+    private final NeighborCursor neighbors;
+    private final int[] depth;
+    private final int[] parent;
+    private int[] frontier;
+    private int[] nextFrontier;
+    private int frontierSize;
+    private int level;
+
+    private Side(Adjacency adjacency, int vertexCount, int start) {
+      this.neighbors = adjacency.cursor();
+      this.depth = new int[vertexCount];
+      this.parent = new int[vertexCount];
+      this.frontier = new int[vertexCount];
+      this.nextFrontier = new int[vertexCount];
+      Arrays.fill(depth, UNVISITED);
+      Arrays.fill(parent, UNVISITED);
+      depth[start] = 0;
+      frontier[frontierSize++] = start;
+    }
+
+    private boolean isFinished() {
+      return frontierSize == 0;
+    }
+
+    /**
+     * Visits the next level of this search. Every vertex the other search has reached on this level
+     * is a meeting point, and the one with the shortest path through it is kept. The whole level
+     * is finished first, since the first meeting point found is not always on a shortest path.
+     *
+     * @param other The search from the other end.
+     * @return The best meeting point, or {@link #UNVISITED} if the searches have not met.
+     */
+    private int expand(Side other) {
+      int meeting = UNVISITED;
+      int best = Integer.MAX_VALUE;
+      int size = 0;
+      level++;
+      for (int i = 0; i < frontierSize; i++) {
+        int current = frontier[i];
+        neighbors.moveTo(current);
+        while (neighbors.hasNext()) {
+          int neighbor = neighbors.next();
+          if (depth[neighbor] != UNVISITED) {
+            continue;
+          }
+          depth[neighbor] = level;
+          parent[neighbor] = current;
+          nextFrontier[size++] = neighbor;
+          if (other.depth[neighbor] != UNVISITED && level + other.depth[neighbor] < best) {
+            best = level + other.depth[neighbor];
+            meeting = neighbor;
+          }
+        }
+      }
+
+      int[] swap = frontier;
+      frontier = nextFrontier;
+      nextFrontier = swap;
+      frontierSize = size;
+      return meeting;
+    }
+  }
+}
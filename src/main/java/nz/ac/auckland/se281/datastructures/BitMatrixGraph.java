@@ -0,0 +1,326 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.function.Consumer;
+
+/**
+ * An immutable adjacency stored as a matrix of bits, with one row of longs per vertex where bit w
+ * of row v is set when there is an edge from v to w. A dense relation, such as an equivalence
+ * relation whose classes are nearly complete, takes a bit per pair of verticies instead of an int
+ * per edge, and its properties are checked 64 pairs at a time with whole word operations.
+ *
+ * <p>The matrix has no room for weights, so only unweighted edges can be stored in it.
+ */
+public final class BitMatrixGraph implements Adjacency {
+  /** The most verticies that are stored as a matrix without being asked to, 32 MiB of bits. */
+  static final int MAX_AUTOMATIC_VERTICIES = 1 << 14;
+
+  private final long[][] rows;
+  private final int[] degrees;
+  private final long edgeCount;
+  // Verticies with the same neighbors may share a row, so this can be fewer than the verticies.
+  private final int distinctRows;
+
+  private BitMatrixGraph(long[][] rows, int[] degrees, long edgeCount, int distinctRows) {
+    this.rows = rows;
+    this.degrees = degrees;
+    this.edgeCount = edgeCount;
+    this.distinctRows = distinctRows;
+  }
+
+  /**
+   * Wraps rows of bits without copying them. Since the matrix never changes, verticies with the
+   * same neighbors can share a row, so a matrix of a few large groups of verticies takes a row per
+   * group.
+   *
+   * @param rows The row of each vertex, with a bit for every vertex.
+   * @param degrees The number of bits set in each row.
+   * @param edgeCount The number of bits set in every row together.
+   * @param distinctRows The number of different row arrays.
+   * @return The matrix of the rows.
+   */
+  static BitMatrixGraph ofRows(long[][] rows, int[] degrees, long edgeCount, int distinctRows) {
+    return new BitMatrixGraph(rows, degrees, edgeCount, distinctRows);
+  }
+
+  /**
+   * Copies an unweighted adjacency into a matrix.
+   *
+   * @param adjacency The edges to copy.
+   * @return The matrix of the edges.
+   * @throws IllegalArgumentException if the edges have weights
+   */
+  public static BitMatrixGraph copyOf(Adjacency adjacency) {
+    if (adjacency.isWeighted()) {
+      throw new IllegalArgumentException("Weighted edges cannot be stored in a bit matrix");
+    }
+    int n = adjacency.vertexCount();
+    int words = wordsFor(n);
+    long[][] rows = new long[n][words];
+    int[] degrees = new int[n];
+    NeighborCursor neighbors = adjacency.cursor();
+    for (int v = 0; v < n; v++) {
+      neighbors.moveTo(v);
+      while (neighbors.hasNext()) {
+        int neighbor = neighbors.next();
+        rows[v][neighbor >>> 6] |= 1L << neighbor;
+      }
+      for (long word : rows[v]) {
+        degrees[v] += Long.bitCount(word);
+      }
+    }
+    return new BitMatrixGraph(rows, degrees, adjacency.edgeCount(), n);
+  }
+
+  /**
+   * Checks if an adjacency is dense enough that a matrix of it takes no more memory than its lists
+   * of neighbors, which is when about one in every 32 pairs of verticies has an edge.
+   *
+   * @param adjacency The edges to check.
+   * @return True if the edges are unweighted, dense and few enough to store as a matrix.
+   */
+  public static boolean isDense(Adjacency adjacency) {
+    int n = adjacency.vertexCount();
+    if (adjacency.isWeighted() || n > MAX_AUTOMATIC_VERTICIES) {
+      return false;
+    }
+    long matrixBytes = (long) Long.BYTES * n * wordsFor(n);
+    long listBytes = (long) Integer.BYTES * (n + 1 + adjacency.edgeCount());
+    return matrixBytes <= listBytes;
+  }
+
+  /**
+   * Gets the number of longs in a row of a matrix.
+   *
+   * @param vertexCount The number of verticies.
+   * @return The number of longs that hold a bit for every vertex.
+   */
+  private static int wordsFor(int vertexCount) {
+    return (vertexCount + Long.SIZE - 1) >>> 6;
+  }
+
+  @Override
+  public int vertexCount() {
+    return rows.length;
+  }
+
+  @Override
+  public long edgeCount() {
+    return edgeCount;
+  }
+
+  @Override
+  public long sizeInBytes() {
+    return (long) Long.BYTES * distinctRows * wordsFor(rows.length)
+        + (long) Integer.BYTES * degrees.length;
+  }
+
+  @Override
+  public int degree(int vertex) {
+    return degrees[vertex];
+  }
+
+  /**
+   * Checks if there is an edge from the source to the destination, by testing a single bit.
+   *
+   * @param source The number of the vertex the edge starts from.
+   * @param destination The number of the vertex the edge ends at.
+   * @return True if the edge exists, false otherwise.
+   */
+  @Override
+  public boolean containsEdge(int source, int destination) {
+    return (rows[source][destination >>> 6] & (1L << destination)) != 0;
+  }
+
+  @Override
+  public NeighborCursor cursor() {
+    return new NeighborCursor() {
+      private long[] row;
+      private int word;
+      // The bits of the current word that have not been returned yet.
+      private long remaining;
+
+      @Override
+      public void moveTo(int vertex) {
+        row = rows[vertex];
+        word = 0;
+        remaining = row.length == 0 ? 0 : row[0];
+      }
+
+      @Override
+      public boolean hasNext() {
+        while (remaining == 0 && word + 1 < row.length) {
+          remaining = row[++word];
+        }
+        return remaining != 0;
+      }
+
+      @Override
+      public int next() {
+        hasNext();
+        int neighbor = (word << 6) + Long.numberOfTrailingZeros(remaining);
+        remaining &= remaining - 1;
+        return neighbor;
+      }
+
+      @Override
+      public double weight() {
+        return 1.0;
+      }
+    };
+  }
+
+  /**
+   * Calculates if every vertex has an edge to itself.
+   *
+   * @return True if the graph is reflexive, false otherwise.
+   */
+  public boolean isReflexive() {
+    for (int v = 0; v < rows.length; v++) {
+      if (!containsEdge(v, v)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Calculates if every edge has an edge going back, by comparing each 64 by 64 block of the matrix
+   * with the transpose of the block on the other side of the diagonal.
+   *
+   * @return True if the graph is symmetric, false otherwise.
+   */
+  public boolean isSymmetric() {
+    long[] block = new long[Long.SIZE];
+    long[] mirror = new long[Long.SIZE];
+    int blocks = wordsFor(rows.length);
+    for (int i = 0; i < blocks; i++) {
+      for (int j = i; j < blocks; j++) {
+        loadBlock(i, j, block);
+        loadBlock(j, i, mirror);
+        transpose(block);
+        for (int k = 0; k < Long.SIZE; k++) {
+          if (block[k] != mirror[k]) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Calculates if no two different verticies have edges going both ways, by checking that each 64
+   * by 64 block of the matrix shares no bits with the transpose of the block across the diagonal
+   * other than the diagonal itself.
+   *
+   * @return True if the graph is anti-symmetric, false otherwise.
+   */
+  public boolean isAntiSymmetric() {
+    long[] block = new long[Long.SIZE];
+    long[] mirror = new long[Long.SIZE];
+    int blocks = wordsFor(rows.length);
+    for (int i = 0; i < blocks; i++) {
+      for (int j = i; j < blocks; j++) {
+        loadBlock(i, j, block);
+        loadBlock(j, i, mirror);
+        transpose(block);
+        for (int k = 0; k < Long.SIZE; k++) {
+          long both = block[k] & mirror[k];
+          if (i == j) {
+            // A vertex with an edge to itself is allowed.
+            both &= ~(1L << k);
+          }
+          if (both != 0) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Calculates if the graph is transitive, by checking that the row of every neighbor of a vertex
+   * is a subset of the row of the vertex, a word at a time.
+   *
+   * @return True if the graph is transitive, false otherwise.
+   */
+  public boolean isTransitive() {
+    NeighborCursor neighbors = cursor();
+    for (int u = 0; u < rows.length; u++) {
+      long[] row = rows[u];
+      neighbors.moveTo(u);
+      while (neighbors.hasNext()) {
+        long[] reached = rows[neighbors.next()];
+        for (int w = 0; w < row.length; w++) {
+          if ((reached[w] & ~row[w]) != 0) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Counts the paths of two edges that have no edge skipping the middle vertex, a word at a time:
+   * the missing edges from a vertex through one of its neighbors are the bits of the neighbor's row
+   * that are not in its own row.
+   *
+   * @param limit The most violations to give to the sink.
+   * @param sink The consumer that is given each path u, v, w that has no edge from u to w.
+   * @return The number of such paths.
+   */
+  long streamTransitivityViolations(long limit, Consumer<int[]> sink) {
+    NeighborCursor neighbors = cursor();
+    long count = 0;
+    for (int u = 0; u < rows.length; u++) {
+      long[] row = rows[u];
+      neighbors.moveTo(u);
+      while (neighbors.hasNext()) {
+        int v = neighbors.next();
+        long[] reached = rows[v];
+        for (int w = 0; w < row.length; w++) {
+          long missing = reached[w] & ~row[w];
+          for (; missing != 0 && count < limit; missing &= missing - 1, count++) {
+            sink.accept(new int[] {u, v, (w << 6) + Long.numberOfTrailingZeros(missing)});
+          }
+          count += Long.bitCount(missing);
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Copies a 64 by 64 block of the matrix, filling the rows past the last vertex with zeros.
+   *
+   * @param blockRow The index of the block down the matrix, which is the first row over 64.
+   * @param blockColumn The index of the block across the matrix, which is the word of each row.
+   * @param block The array to copy the 64 words of the block into.
+   */
+  private void loadBlock(int blockRow, int blockColumn, long[] block) {
+    for (int k = 0; k < Long.SIZE; k++) {
+      int row = (blockRow << 6) + k;
+      block[k] = row < rows.length ? rows[row][blockColumn] : 0;
+    }
+  }
+
+  /**
+   * Transposes a 64 by 64 block of bits in place, where bit l of word k is row k and column l. The
+   * block is split into quarters and the two off the diagonal are swapped, then the same is done
+   * inside each quarter, down to single bits, with 6 rounds of shifts and masks.
+   *
+   * @param block The 64 words of the block.
+   */
+  static void transpose(long[] block) {
+    long mask = 0x00000000FFFFFFFFL;
+    for (int j = 32; j != 0; j >>>= 1, mask ^= mask << j) {
+      for (int k = 0; k < Long.SIZE; k = ((k | j) + 1) & ~j) {
+        long swap = ((block[k] >>> j) ^ block[k | j]) & mask;
+        block[k] ^= swap << j;
+        block[k | j] ^= swap;
+      }
+    }
+  }
+}
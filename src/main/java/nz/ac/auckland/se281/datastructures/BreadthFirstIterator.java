@@ -0,0 +1,50 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.List;
+
+/**
+ * A lazy breadth first search, which visits the verticies in the same order as {@link
+ * Graph#iterativeBreadthFirstSearch()}. A vertex is marked as visited as soon as it is queued, so
+ * it can only be queued once.
+ *
+ * @param <T> The type of each vertex.
+ */
+public class BreadthFirstIterator<T extends Comparable<T>> extends TraversalIterator<T> {
+  private final QuickQueue<T> queue = new QuickQueue<T>();
+
+  /**
+   * Constructs a new breadth first search over the graph.
+   *
+   * @param graph The graph to traverse.
+   * @param roots The verticies to start searching from, in order.
+   */
+  public BreadthFirstIterator(Graph<T> graph, Iterable<T> roots) {
+    super(graph, roots);
+  }
+
+  @Override
+  protected T advance() {
+    // Start from the next root once everything reachable from the last one has been visited
+    if (queue.isEmpty()) {
+      T root = nextRoot();
+      if (root == null) {
+        return null;
+      }
+      markVisited(root);
+      queue.enqueue(root);
+    }
+
+    T currentVertex = queue.dequeue();
+
+    // Queue the neighbors in ascending order, skipping the ones that were already queued
+    List<T> neighbors = graph.getSortedNeighbors(currentVertex);
+    for (int i = 0; i < neighbors.size(); i++) {
+      T neighbor = neighbors.get(i);
+      if (markVisited(neighbor)) {
+        queue.enqueue(neighbor);
+      }
+    }
+
+    return currentVertex;
+  }
+}
@@ -0,0 +1,415 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * The smallest relation with a property that contains a given relation. Each closure is built
+ * straight into a new adjacency between the same vertex numbers, without an object per edge. The
+ * reflexive and symmetric closures keep the weights of the edges they copy, while the transitive
+ * and equivalence closures have no weights, since most of their edges stand for whole paths.
+ *
+ * <p>The transitive and equivalence closures can have an edge for nearly every pair of verticies.
+ * Their verticies fall into groups with the same neighbors, the strongly connected components and
+ * the equivalence classes, so when lists of neighbors would take more memory than a {@link
+ * BitMatrixGraph} they are stored as a matrix whose groups share a single row.
+ */
+public enum Closure {
+  /** Adds an edge from every vertex to itself, with a weight of 1 in a weighted relation. */
+  REFLEXIVE("reflexive") {
+    @Override
+    public Adjacency of(Adjacency adjacency) {
+      int n = adjacency.vertexCount();
+      int[] offsets = new int[n + 1];
+      for (int v = 0; v < n; v++) {
+        int added = adjacency.containsEdge(v, v) ? 0 : 1;
+        offsets[v + 1] = Math.addExact(offsets[v], adjacency.degree(v) + added);
+      }
+
+      // Merge each vertex into its own sorted run of neighbors.
+      int[] targets = new int[offsets[n]];
+      double[] weights = adjacency.isWeighted() ? new double[offsets[n]] : null;
+      NeighborCursor neighbors = adjacency.cursor();
+      for (int v = 0; v < n; v++) {
+        int position = offsets[v];
+        boolean placed = false;
+        neighbors.moveTo(v);
+        while (neighbors.hasNext()) {
+          int neighbor = neighbors.next();
+          if (!placed && neighbor >= v) {
+            if (neighbor != v) {
+              addEdge(targets, weights, position++, v, 1.0);
+            }
+            placed = true;
+          }
+          addEdge(targets, weights, position++, neighbor, neighbors.weight());
+        }
+        if (!placed) {
+          addEdge(targets, weights, position, v, 1.0);
+        }
+      }
+      return new CsrGraph(offsets, targets, weights);
+    }
+  },
+
+  /**
+   * Adds an edge back for every edge. In a weighted relation an added edge has the weight of the
+   * edge it goes back along, and an edge that was already there keeps its own.
+   */
+  SYMMETRIC("symmetric") {
+    @Override
+    public Adjacency of(Adjacency adjacency) {
+      if (!adjacency.isWeighted()) {
+        return CsrGraph.undirectedOf(adjacency);
+      }
+      int edgeCount = Math.toIntExact(2 * adjacency.edgeCount());
+      int[] sources = new int[edgeCount];
+      int[] destinations = new int[edgeCount];
+      double[] weights = new double[edgeCount];
+      int count = 0;
+      NeighborCursor neighbors = adjacency.cursor();
+      for (int v = 0; v < adjacency.vertexCount(); v++) {
+        neighbors.moveTo(v);
+        while (neighbors.hasNext()) {
+          int neighbor = neighbors.next();
+          sources[count] = v;
+          destinations[count] = neighbor;
+          weights[count++] = neighbors.weight();
+          if (!adjacency.containsEdge(neighbor, v)) {
+            sources[count] = neighbor;
+            destinations[count] = v;
+            weights[count++] = neighbors.weight();
+          }
+        }
+      }
+      return CsrGraph.fromEdges(adjacency.vertexCount(), sources, destinations, weights, count);
+    }
+  },
+
+  /**
+   * Adds an edge from every vertex to every vertex it reaches. Every vertex of a strongly connected
+   * component reaches the same verticies, so the closure is found over the graph of the components,
+   * and a vertex reaches itself when its component has a cycle.
+   */
+  TRANSITIVE("transitive") {
+    @Override
+    public Adjacency of(Adjacency adjacency) {
+      StronglyConnectedComponents components = new StronglyConnectedComponents(adjacency);
+      int n = adjacency.vertexCount();
+      int componentCount = components.componentCount();
+      int[] componentOf = new int[n];
+      int[] sizes = new int[componentCount];
+      for (int v = 0; v < n; v++) {
+        componentOf[v] = components.componentOf(v);
+        sizes[componentOf[v]]++;
+      }
+      boolean[] cyclic = new boolean[componentCount];
+      for (int v = 0; v < n; v++) {
+        cyclic[componentOf[v]] |= sizes[componentOf[v]] > 1 || adjacency.containsEdge(v, v);
+      }
+
+      CsrGraph condensation = components.condensation();
+      GroupReach reach =
+          componentCount <= BitMatrixGraph.MAX_AUTOMATIC_VERTICIES
+              ? reachBitsets(condensation, cyclic)
+              : reachBySearch(condensation, cyclic);
+      return fromGroups(componentOf, componentCount, reach);
+    }
+  },
+
+  /**
+   * Adds the edges that make the relation reflexive, symmetric and transitive. The verticies joined
+   * by edges either way are found with a union-find, and every vertex gets an edge to every vertex
+   * of its class.
+   */
+  EQUIVALENCE("equivalence") {
+    @Override
+    public Adjacency of(Adjacency adjacency) {
+      int n = adjacency.vertexCount();
+      int[] parent = new int[n];
+      int[] sizes = new int[n];
+      for (int v = 0; v < n; v++) {
+        parent[v] = v;
+        sizes[v] = 1;
+      }
+      NeighborCursor neighbors = adjacency.cursor();
+      for (int v = 0; v < n; v++) {
+        neighbors.moveTo(v);
+        while (neighbors.hasNext()) {
+          int a = find(parent, v);
+          int b = find(parent, neighbors.next());
+          if (a != b) {
+            // Hang the smaller class under the larger one, so that the trees stay shallow.
+            if (sizes[a] < sizes[b]) {
+              int swap = a;
+              a = b;
+              b = swap;
+            }
+            parent[b] = a;
+            sizes[a] += sizes[b];
+          }
+        }
+      }
+
+      // Number the classes in the order of their lowest vertex.
+      int[] classOf = new int[n];
+      int[] numbers = new int[n];
+      Arrays.fill(numbers, -1);
+      int classCount = 0;
+      for (int v = 0; v < n; v++) {
+        int root = find(parent, v);
+        if (numbers[root] < 0) {
+          numbers[root] = classCount++;
+        }
+        classOf[v] = numbers[root];
+      }
+      return fromGroups(classOf, classCount, (group, visitor) -> visitor.accept(group));
+    }
+  };
+
+  /** The most bytes a closure may take, as a fraction of the most memory the heap can grow to. */
+  private static final double MAX_MEMORY_FRACTION = 0.5;
+
+  // Arrays a little shorter than this cannot be allocated by every JVM.
+  private static final long MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+  private final String adjective;
+
+  private Closure(String adjective) {
+    this.adjective = adjective;
+  }
+
+  /**
+   * Gets the word for the property this closure adds, for reporting to the user.
+   *
+   * @return The adjective, such as transitive.
+   */
+  public String getAdjective() {
+    return adjective;
+  }
+
+  /**
+   * Builds the closure of a relation.
+   *
+   * @param adjacency The edges of the relation.
+   * @return The edges of the closure, between the same vertex numbers.
+   * @throws IllegalArgumentException if the closure would take too much memory to store
+   */
+  public abstract Adjacency of(Adjacency adjacency);
+
+  /**
+   * Puts an edge into the arrays of a closure.
+   *
+   * @param targets The neighbors of every vertex.
+   * @param weights The weight of each edge, or null if the closure has no weights.
+   * @param position Where the edge goes in the arrays.
+   * @param target The vertex the edge ends at.
+   * @param weight The weight of the edge.
+   */
+  private static void addEdge(
+      int[] targets, double[] weights, int position, int target, double weight) {
+    targets[position] = target;
+    if (weights != null) {
+      weights[position] = weight;
+    }
+  }
+
+  /**
+   * Finds the root of the union-find tree a vertex is in, pointing every other vertex on the way at
+   * its grandparent.
+   *
+   * @param parent The parent of each vertex, which is itself for a root.
+   * @param vertex The vertex to find the root of.
+   * @return The root.
+   */
+  private static int find(int[] parent, int vertex) {
+    while (parent[vertex] != vertex) {
+      parent[vertex] = parent[parent[vertex]];
+      vertex = parent[vertex];
+    }
+    return vertex;
+  }
+
+  /** The groups that a group of verticies reaches, which are the groups of its neighbors. */
+  @FunctionalInterface
+  private interface GroupReach {
+
+    /**
+     * Gives every group that a group reaches to a visitor, each once and in any order.
+     *
+     * @param group The group to start from.
+     * @param visitor The consumer that is given each group that is reached.
+     */
+    void forEach(int group, IntConsumer visitor);
+  }
+
+  /**
+   * Finds the components each component reaches as a bitset, in a single pass from the lowest
+   * component, since every edge of the condensation goes to a lower component whose bitset is
+   * already finished.
+   *
+   * @param condensation The edges between the components.
+   * @param cyclic Whether each component reaches itself.
+   * @return The components each component reaches.
+   */
+  private static GroupReach reachBitsets(CsrGraph condensation, boolean[] cyclic) {
+    int count = condensation.vertexCount();
+    int words = (count + Long.SIZE - 1) >>> 6;
+    long[][] reached = new long[count][];
+    NeighborCursor neighbors = condensation.cursor();
+    for (int c = 0; c < count; c++) {
+      long[] row = new long[words];
+      if (cyclic[c]) {
+        row[c >>> 6] |= 1L << c;
+      }
+      neighbors.moveTo(c);
+      while (neighbors.hasNext()) {
+        int next = neighbors.next();
+        row[next >>> 6] |= 1L << next;
+        long[] further = reached[next];
+        for (int w = 0; w < words; w++) {
+          row[w] |= further[w];
+        }
+      }
+      reached[c] = row;
+    }
+    return (group, visitor) -> {
+      long[] row = reached[group];
+      for (int w = 0; w < words; w++) {
+        for (long bits = row[w]; bits != 0; bits &= bits - 1) {
+          visitor.accept((w << 6) + Long.numberOfTrailingZeros(bits));
+        }
+      }
+    };
+  }
+
+  /**
+   * Finds the components each component reaches with a new search every time, for graphs with too
+   * many components to hold a bitset for each of them.
+   *
+   * @param condensation The edges between the components.
+   * @param cyclic Whether each component reaches itself.
+   * @return The components each component reaches.
+   */
+  private static GroupReach reachBySearch(CsrGraph condensation, boolean[] cyclic) {
+    int count = condensation.vertexCount();
+    // The search that last reached each component, so the marks never need to be cleared.
+    int[] reachedBy = new int[count];
+    int[] stack = new int[count];
+    NeighborCursor neighbors = condensation.cursor();
+    int[] searches = {0};
+    return (group, visitor) -> {
+      int search = ++searches[0];
+      if (cyclic[group]) {
+        visitor.accept(group);
+      }
+      int top = 0;
+      stack[top++] = group;
+      while (top > 0) {
+        neighbors.moveTo(stack[--top]);
+        while (neighbors.hasNext()) {
+          int next = neighbors.next();
+          if (reachedBy[next] != search) {
+            reachedBy[next] = search;
+            visitor.accept(next);
+            stack[top++] = next;
+          }
+        }
+      }
+    };
+  }
+
+  /**
+   * Builds a closure whose verticies fall into groups with the same neighbors, which are every
+   * vertex of every group their group reaches. The closure is stored as lists of neighbors, with
+   * the sorted neighbors of each group found once and copied to each of its verticies, unless a
+   * matrix whose groups share a row takes less memory.
+   *
+   * @param groupOf The group of each vertex.
+   * @param groupCount The number of groups.
+   * @param reach The groups each group reaches.
+   * @return The edges of the closure.
+   * @throws IllegalArgumentException if the closure would take too much memory to store
+   */
+  private static Adjacency fromGroups(int[] groupOf, int groupCount, GroupReach reach) {
+    int n = groupOf.length;
+    // The verticies of each group in ascending order, from a counting sort.
+    int[] memberStart = new int[groupCount + 1];
+    for (int v = 0; v < n; v++) {
+      memberStart[groupOf[v] + 1]++;
+    }
+    for (int g = 0; g < groupCount; g++) {
+      memberStart[g + 1] += memberStart[g];
+    }
+    int[] members = new int[n];
+    int[] next = Arrays.copyOf(memberStart, groupCount);
+    for (int v = 0; v < n; v++) {
+      members[next[groupOf[v]]++] = v;
+    }
+
+    int[] rowSizes = new int[groupCount];
+    long edgeCount = 0;
+    for (int g = 0; g < groupCount; g++) {
+      int[] size = {0};
+      reach.forEach(g, h -> size[0] += memberStart[h + 1] - memberStart[h]);
+      rowSizes[g] = size[0];
+      edgeCount += (long) size[0] * (memberStart[g + 1] - memberStart[g]);
+    }
+
+    int words = (n + Long.SIZE - 1) >>> 6;
+    long matrixBytes = (long) Long.BYTES * groupCount * words + (long) Integer.BYTES * n;
+    long listBytes = (long) Integer.BYTES * (n + 1 + edgeCount);
+    long bytes = Math.min(matrixBytes, listBytes);
+    if (bytes > Runtime.getRuntime().maxMemory() * MAX_MEMORY_FRACTION
+        || (matrixBytes > listBytes && edgeCount > MAX_ARRAY_LENGTH)) {
+      throw new IllegalArgumentException(
+          "A closure of " + edgeCount + " edges needs " + bytes + " bytes, more than is free");
+    }
+
+    if (matrixBytes <= listBytes) {
+      long[][] rows = new long[n][];
+      int[] degrees = new int[n];
+      for (int g = 0; g < groupCount; g++) {
+        long[] row = new long[words];
+        reach.forEach(
+            g,
+            h -> {
+              for (int i = memberStart[h]; i < memberStart[h + 1]; i++) {
+                row[members[i] >>> 6] |= 1L << members[i];
+              }
+            });
+        for (int i = memberStart[g]; i < memberStart[g + 1]; i++) {
+          rows[members[i]] = row;
+          degrees[members[i]] = rowSizes[g];
+        }
+      }
+      return BitMatrixGraph.ofRows(rows, degrees, edgeCount, groupCount);
+    }
+
+    int[] offsets = new int[n + 1];
+    for (int v = 0; v < n; v++) {
+      offsets[v + 1] = offsets[v] + rowSizes[groupOf[v]];
+    }
+    int[] targets = new int[offsets[n]];
+    for (int g = 0; g < groupCount; g++) {
+      if (rowSizes[g] == 0) {
+        continue;
+      }
+      // Gather the verticies of every group that is reached, then sort them once for the group.
+      int start = offsets[members[memberStart[g]]];
+      int[] length = {start};
+      reach.forEach(
+          g,
+          h -> {
+            int size = memberStart[h + 1] - memberStart[h];
+            System.arraycopy(members, memberStart[h], targets, length[0], size);
+            length[0] += size;
+          });
+      Arrays.sort(targets, start, length[0]);
+      for (int i = memberStart[g] + 1; i < memberStart[g + 1]; i++) {
+        System.arraycopy(targets, start, targets, offsets[members[i]], rowSizes[g]);
+      }
+    }
+    return new CsrGraph(offsets, targets, null);
+  }
+}
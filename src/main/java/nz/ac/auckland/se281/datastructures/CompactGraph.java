@@ -0,0 +1,934 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * An immutable graph that numbers its verticies in search order and stores its edges in a {@link
+ * CsrGraph}. It answers the same queries as {@link Graph}, with the same results, without
+ * allocating per vertex. Since it never changes, any number of threads can query it without
+ * locking.
+ *
+ * <p>A graph can be {@link #reordered(VertexOrdering) renumbered} so that its searches touch memory
+ * that is closer together. A renumbered graph still lists its verticies in search order wherever
+ * the result is a set, but its searches, topological order and paths break ties by the new
+ * numbers, so those only match {@link Graph} when the verticies are numbered in search order.
+ *
+ * @param <T> The type of each vertex, that have a total ordering.
+ */
+public class CompactGraph<T extends Comparable<T>> {
+
+  private final List<T> verticies;
+  private final Map<T, Integer> index;
+  private final Adjacency adjacency;
+  private final long version;
+  // The number of the vertex at each position in search order, or null if they are the same.
+  private final Permutation numbering;
+  // Built the first time it is needed. Two threads may both build it, which is harmless.
+  private volatile Adjacency reverseAdjacency;
+  private volatile ReachabilityIndex reachabilityIndex;
+
+  /**
+   * Constructs a CompactGraph from verticies that are already numbered.
+   *
+   * @param verticies The verticies, sorted in the order the searches visit them.
+   * @param adjacency The edges between the numbers of the verticies.
+   * @param version The version of the graph this is a snapshot of.
+   */
+  CompactGraph(List<T> verticies, Adjacency adjacency, long version) {
+    this(verticies, adjacency, version, null);
+  }
+
+  /**
+   * Constructs a CompactGraph from verticies that are numbered in any order.
+   *
+   * @param verticies The verticies, in the order of their numbers.
+   * @param adjacency The edges between the numbers of the verticies.
+   * @param version The version of the graph this is a snapshot of.
+   * @param numbering The number of the vertex at each position in search order, or null if the
+   *     verticies are numbered in search order.
+   */
+  private CompactGraph(
+      List<T> verticies, Adjacency adjacency, long version, Permutation numbering) {
+    this.verticies = verticies;
+    this.adjacency = adjacency;
+    this.version = version;
+    this.numbering = numbering;
+    this.index = new HashMap<>();
+    for (T vertex : verticies) {
+      index.put(vertex, index.size());
+    }
+  }
+
+  /**
+   * Builds a CompactGraph from the given verticies and edges.
+   *
+   * @param verticies The verticies of the graph.
+   * @param edges The edges of the graph, between verticies in the given set.
+   * @param version The version of the graph this is a snapshot of.
+   * @param <T> The type of each vertex.
+   * @return The graph.
+   */
+  public static <T extends Comparable<T>> CompactGraph<T> of(
+      Collection<T> verticies, Collection<Edge<T>> edges, long version) {
+    // Number the verticies in the order the searches compare them.
+    List<T> sorted = searchOrder(verticies);
+    Map<T, Integer> index = new HashMap<>();
+    for (T vertex : sorted) {
+      index.put(vertex, index.size());
+    }
+
+    int[] sources = new int[edges.size()];
+    int[] destinations = new int[edges.size()];
+    double[] weights = new double[edges.size()];
+    boolean weighted = false;
+    int count = 0;
+    for (Edge<T> edge : edges) {
+      sources[count] = index.get(edge.getSource());
+      destinations[count] = index.get(edge.getDestination());
+      weights[count] = edge.getWeight();
+      weighted |= edge.getWeight() != 1.0;
+      count++;
+    }
+
+    return new CompactGraph<>(
+        Collections.unmodifiableList(sorted),
+        CsrGraph.fromEdges(sorted.size(), sources, destinations, weighted ? weights : null, count),
+        version);
+  }
+
+  /**
+   * Builds a CompactGraph from edges between positions in a list of verticies, so that a graph can
+   * be loaded without an {@link Edge} for each of its edges.
+   *
+   * @param verticies The verticies of the graph, each listed once.
+   * @param sources The position in the list of the vertex each edge starts from.
+   * @param destinations The position in the list of the vertex each edge ends at.
+   * @param weights The weight of each edge, or null if every edge has a weight of 1.
+   * @param edgeCount The number of edges in the arrays that are used.
+   * @param version The version of the graph this is a snapshot of.
+   * @param <T> The type of each vertex.
+   * @return The graph.
+   */
+  public static <T extends Comparable<T>> CompactGraph<T> of(
+      List<T> verticies,
+      int[] sources,
+      int[] destinations,
+      double[] weights,
+      int edgeCount,
+      long version) {
+    List<T> sorted = searchOrder(verticies);
+    Map<T, Integer> index = new HashMap<>();
+    for (T vertex : sorted) {
+      index.put(vertex, index.size());
+    }
+    int[] numbers = new int[verticies.size()];
+    for (int i = 0; i < numbers.length; i++) {
+      numbers[i] = index.get(verticies.get(i));
+    }
+
+    int[] from = new int[edgeCount];
+    int[] to = new int[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      from[i] = numbers[sources[i]];
+      to[i] = numbers[destinations[i]];
+    }
+
+    return new CompactGraph<>(
+        Collections.unmodifiableList(sorted),
+        CsrGraph.fromEdges(sorted.size(), from, to, weights, edgeCount),
+        version);
+  }
+
+  /**
+   * Sorts verticies into the order the searches compare them. The searches only compare numbers,
+   * so verticies of any other kind, such as strings that are not numbers, are sorted by their
+   * natural ordering instead. Their graphs are numbered all the same, and the queries that do not
+   * depend on the order, such as the property checks, answer exactly as for any other graph.
+   *
+   * @param verticies The verticies to sort.
+   * @param <T> The type of each vertex.
+   * @return A new list of the verticies in order.
+   */
+  static <T extends Comparable<T>> List<T> searchOrder(Collection<T> verticies) {
+    List<T> sorted = new ArrayList<>(verticies);
+    try {
+      Collections.sort(sorted, new VertexComparator<T>());
+    } catch (IllegalArgumentException e) {
+      // Thrown for verticies that are not numbers, as a NumberFormatException for strings.
+      Collections.sort(sorted);
+    }
+    return sorted;
+  }
+
+  /**
+   * Creates a copy of this graph that stores its edges in a different adjacency, such as an {@link
+   * OffHeapCsrGraph}. The indexes built for this graph are not carried over.
+   *
+   * @param storage The same edges as this graph, between the same vertex numbers.
+   * @return The graph backed by the given adjacency.
+   */
+  public CompactGraph<T> withAdjacency(Adjacency storage) {
+    if (storage.vertexCount() != verticies.size()) {
+      throw new IllegalArgumentException("Adjacency has a different number of verticies");
+    }
+    return new CompactGraph<>(verticies, storage, version, numbering);
+  }
+
+  /**
+   * Creates a copy of this graph with its verticies renumbered by the given ordering, so that the
+   * verticies a search visits together are close together in memory. The edges are copied into a
+   * {@link CsrGraph}, and the indexes built for this graph are not carried over. Reordering by
+   * {@link VertexOrdering#SEARCH} numbers the verticies in search order again.
+   *
+   * @param ordering The ordering to number the verticies by.
+   * @return The renumbered graph.
+   */
+  public CompactGraph<T> reordered(VertexOrdering ordering) {
+    if (ordering == VertexOrdering.SEARCH) {
+      // Search order is how the graph was first numbered, so undo any earlier renumbering.
+      if (numbering == null) {
+        return this;
+      }
+      Permutation restore = numbering.inverse();
+      return new CompactGraph<>(
+          restore.relabel(verticies), restore.relabel(adjacency), version, null);
+    }
+    Permutation permutation = ordering.permutation(adjacency);
+    return new CompactGraph<>(
+        permutation.relabel(verticies),
+        permutation.relabel(adjacency),
+        version,
+        numbering == null ? permutation : numbering.then(permutation));
+  }
+
+  /**
+   * Checks if the verticies are numbered in the order the searches compare them, which is how
+   * every graph is numbered until it is {@link #reordered(VertexOrdering) reordered}.
+   *
+   * @return True if the numbers follow search order, false otherwise.
+   */
+  public boolean isSearchOrdered() {
+    return numbering == null;
+  }
+
+  /**
+   * Gets the version of the graph this is a snapshot of.
+   *
+   * @return The version number.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Gets the verticies of the graph, in the order the searches compare them.
+   *
+   * @return The verticies.
+   */
+  public List<T> getVerticies() {
+    return verticies;
+  }
+
+  /**
+   * Gets the edges between the numbers of the verticies.
+   *
+   * @return The adjacency.
+   */
+  public Adjacency getAdjacency() {
+    return adjacency;
+  }
+
+  /**
+   * Gets the edges between the numbers of the verticies, each going the other way.
+   *
+   * @return The reversed adjacency.
+   */
+  public Adjacency getReverseAdjacency() {
+    Adjacency reverse = reverseAdjacency;
+    if (reverse == null) {
+      reverse = CsrGraph.reverseOf(adjacency);
+      reverseAdjacency = reverse;
+    }
+    return reverse;
+  }
+
+  /**
+   * Gets the index that answers reachability queries, building it the first time it is needed.
+   *
+   * @return The reachability index of this graph.
+   */
+  public ReachabilityIndex getReachabilityIndex() {
+    ReachabilityIndex reachability = reachabilityIndex;
+    if (reachability == null) {
+      synchronized (this) {
+        reachability = reachabilityIndex;
+        if (reachability == null) {
+          reachability = new ReachabilityIndex(adjacency);
+          reachabilityIndex = reachability;
+        }
+      }
+    }
+    return reachability;
+  }
+
+  /**
+   * Checks if the source reaches the destination by following edges, using the reachability index.
+   *
+   * @param source The vertex to start from.
+   * @param destination The vertex to reach.
+   * @return True if there is a path from the source to the destination, false otherwise.
+   * @throws IllegalArgumentException if either vertex is not in the graph
+   */
+  public boolean reaches(T source, T destination) {
+    return getReachabilityIndex().reaches(indexOf(source), indexOf(destination));
+  }
+
+  /**
+   * Gets the number of a vertex, which is its position in {@link #getVerticies()}.
+   *
+   * @param vertex The vertex to look up.
+   * @return The number of the vertex.
+   * @throws IllegalArgumentException if the vertex is not in the graph
+   */
+  public int indexOf(T vertex) {
+    Integer number = index.get(vertex);
+    if (number == null) {
+      throw new IllegalArgumentException("Vertex is not in the graph: " + vertex);
+    }
+    return number;
+  }
+
+  /**
+   * Checks if the graph contains the given vertex.
+   *
+   * @param vertex The vertex to look for.
+   * @return True if the vertex is in the graph, false otherwise.
+   */
+  public boolean containsVertex(T vertex) {
+    return index.containsKey(vertex);
+  }
+
+  /**
+   * Checks if the graph contains an edge from the source to the destination.
+   *
+   * @param source The vertex the edge starts from.
+   * @param destination The vertex the edge ends at.
+   * @return True if the edge is in the graph, false otherwise.
+   */
+  public boolean containsEdge(T source, T destination) {
+    Integer from = index.get(source);
+    Integer to = index.get(destination);
+    return from != null && to != null && adjacency.containsEdge(from, to);
+  }
+
+  /**
+   * Gets the neighbors of a vertex, in ascending order.
+   *
+   * @param vertex The vertex to get the neighbors of.
+   * @return The neighbors of the vertex.
+   */
+  public List<T> getNeighbors(T vertex) {
+    NeighborCursor neighbors = adjacency.cursor();
+    neighbors.moveTo(indexOf(vertex));
+    List<T> result = new ArrayList<>();
+    while (neighbors.hasNext()) {
+      result.add(verticies.get(neighbors.next()));
+    }
+    return result;
+  }
+
+  /**
+   * Gets the verticies with an edge to a vertex, in the order the searches compare them. This looks
+   * them up in the reversed edges, so it takes time in the number of them rather than the edges.
+   *
+   * @param vertex The vertex to get the predecessors of.
+   * @return The predecessors of the vertex.
+   * @throws IllegalArgumentException if the vertex is not in the graph
+   */
+  public List<T> predecessors(T vertex) {
+    Adjacency reverse = getReverseAdjacency();
+    int number = indexOf(vertex);
+    int[] numbers = new int[reverse.degree(number)];
+    NeighborCursor incoming = reverse.cursor();
+    incoming.moveTo(number);
+    for (int i = 0; i < numbers.length; i++) {
+      numbers[i] = incoming.next();
+    }
+    return verticiesOf(inSearchOrder(numbers));
+  }
+
+  /**
+   * Gets the number of edges that end at a vertex, from the reversed edges.
+   *
+   * @param vertex The vertex to look up.
+   * @return The number of incoming edges of the vertex.
+   * @throws IllegalArgumentException if the vertex is not in the graph
+   */
+  public int inDegreeOf(T vertex) {
+    return getReverseAdjacency().degree(indexOf(vertex));
+  }
+
+  /**
+   * Gets the number of edges that end at each vertex, from the reversed edges.
+   *
+   * @return The in-degree of each vertex number, in a new array.
+   */
+  public int[] getInDegrees() {
+    Adjacency reverse = getReverseAdjacency();
+    int[] inDegrees = new int[verticies.size()];
+    for (int v = 0; v < inDegrees.length; v++) {
+      inDegrees[v] = reverse.degree(v);
+    }
+    return inDegrees;
+  }
+
+  /**
+   * Gets the verticies with the given numbers.
+   *
+   * @param numbers The numbers of the verticies.
+   * @return The verticies, in the same order as their numbers.
+   */
+  public List<T> verticiesOf(int[] numbers) {
+    List<T> result = new ArrayList<>(numbers.length);
+    for (int number : numbers) {
+      result.add(verticies.get(number));
+    }
+    return result;
+  }
+
+  /**
+   * Finds the shortest distance from a vertex to every vertex it reaches, using Dijkstra's
+   * algorithm over the weights of the edges.
+   *
+   * @param source The vertex to start from.
+   * @return The distance to each reached vertex, in the order the searches compare them.
+   * @throws IllegalArgumentException if a reached edge has a negative weight
+   */
+  public Map<T, Double> shortestDistances(T source) {
+    ShortestPaths paths = ShortestPaths.dijkstra(adjacency, indexOf(source));
+    Map<T, Double> distances = new LinkedHashMap<>();
+    for (int position = 0; position < verticies.size(); position++) {
+      int v = numberAt(position);
+      if (paths.reaches(v)) {
+        distances.put(verticies.get(v), paths.distanceTo(v));
+      }
+    }
+    return distances;
+  }
+
+  /**
+   * Finds a path with the fewest edges from the source to the target, searching from both ends at
+   * once with {@link BidirectionalSearch}.
+   *
+   * @param source The vertex the path starts from.
+   * @param target The vertex the path ends at.
+   * @return The verticies on the path, starting with the source and ending with the target, or an
+   *     empty list if there is no path. The number of hops is one less than the size of the list.
+   * @throws IllegalArgumentException if either vertex is not in the graph
+   */
+  public List<T> shortestHopPath(T source, T target) {
+    return verticiesOf(
+        BidirectionalSearch.findPath(
+            adjacency, getReverseAdjacency(), indexOf(source), indexOf(target)));
+  }
+
+  /**
+   * Finds the fewest hops from each source to every vertex it reaches, searching from all of the
+   * sources at once with {@link MultiSourceBfs}.
+   *
+   * @param sources The verticies to search from.
+   * @return The hops from each source to each vertex it reaches, in the order the searches compare
+   *     the verticies.
+   * @throws IllegalArgumentException if a source is not in the graph
+   */
+  public List<Map<T, Integer>> hopDistances(List<T> sources) {
+    int[] numbers = new int[sources.size()];
+    for (int i = 0; i < numbers.length; i++) {
+      numbers[i] = indexOf(sources.get(i));
+    }
+    int[][] hops = MultiSourceBfs.distances(adjacency, numbers);
+    List<Map<T, Integer>> result = new ArrayList<>(numbers.length);
+    for (int[] row : hops) {
+      Map<T, Integer> distances = new LinkedHashMap<>();
+      for (int position = 0; position < verticies.size(); position++) {
+        int v = numberAt(position);
+        if (row[v] != MultiSourceBfs.UNREACHED) {
+          distances.put(verticies.get(v), row[v]);
+        }
+      }
+      result.add(distances);
+    }
+    return result;
+  }
+
+  /**
+   * Finds the verticies that the most shortest paths pass through, with {@link
+   * BetweennessCentrality}.
+   *
+   * @param count The most verticies to return.
+   * @param samples The number of random sources to estimate the centralities from, or 0 to search
+   *     from every vertex.
+   * @param seed The seed of the random sources.
+   * @return The verticies with the highest centralities and their centralities, from the highest
+   *     down, with ties in the order the searches compare the verticies.
+   */
+  public Map<T, Double> topBetweenness(int count, int samples, long seed) {
+    BetweennessCentrality centrality =
+        samples == 0
+            ? BetweennessCentrality.exact(adjacency)
+            : BetweennessCentrality.sampled(adjacency, samples, seed);
+    Map<T, Double> top = new LinkedHashMap<>();
+    for (int v : centrality.top(count, searchRanks())) {
+      top.put(verticies.get(v), centrality.centralityOf(v));
+    }
+    return top;
+  }
+
+  /**
+   * Finds the PageRank of every vertex with {@link PageRank}, pulling along the reversed edges.
+   *
+   * @return The ranks, by vertex number.
+   */
+  public PageRank pageRank() {
+    return PageRank.compute(adjacency, getReverseAdjacency());
+  }
+
+  /**
+   * Finds the verticies with the highest PageRanks.
+   *
+   * @param ranks The PageRanks found by {@link #pageRank()}.
+   * @param count The most verticies to return.
+   * @return The verticies with the highest PageRanks and their PageRanks, from the highest down,
+   *     with ties in the order the searches compare the verticies.
+   */
+  public Map<T, Double> topPageRank(PageRank ranks, int count) {
+    Map<T, Double> top = new LinkedHashMap<>();
+    for (int v : ranks.top(count, searchRanks())) {
+      top.put(verticies.get(v), ranks.rankOf(v));
+    }
+    return top;
+  }
+
+  /**
+   * Find the set of root verticies in the graph, the same way as {@link Graph#getRoots()}.
+   *
+   * @return The ordered set of root verticies in the graph.
+   */
+  public Set<T> getRoots() {
+    boolean[] isRoot = rootFlags();
+    Set<T> roots = new LinkedHashSet<>();
+    for (int position = 0; position < isRoot.length; position++) {
+      int v = numberAt(position);
+      if (isRoot[v]) {
+        roots.add(verticies.get(v));
+      }
+    }
+    return roots;
+  }
+
+  /**
+   * Checks if the graph has no cycles, by trying to sort it topologically.
+   *
+   * @return True if the graph is acyclic, false otherwise.
+   */
+  public boolean isAcyclic() {
+    return TopologicalSort.sort(adjacency, adjacency.inDegrees()).isAcyclic();
+  }
+
+  /**
+   * Orders the verticies so that every edge goes from an earlier vertex to a later one, using
+   * Kahn's algorithm over the same in-degrees that {@link #getRoots()} counts.
+   *
+   * @return The verticies in topological order.
+   * @throws IllegalStateException if the graph has a cycle
+   */
+  public List<T> topologicalOrder() {
+    TopologicalSort sort = TopologicalSort.sort(adjacency, adjacency.inDegrees());
+    if (!sort.isAcyclic()) {
+      throw new IllegalStateException("Graph has a cycle");
+    }
+    return verticiesOf(sort.order());
+  }
+
+  /**
+   * Groups the verticies into topological levels, where each level only has edges coming in from
+   * earlier levels. Large levels are processed in parallel.
+   *
+   * @return The verticies of each level, each level in the order the searches compare them.
+   * @throws IllegalStateException if the graph has a cycle
+   */
+  public List<List<T>> topologicalLevels() {
+    TopologicalSort sort = TopologicalSort.sortInParallel(adjacency, adjacency.inDegrees());
+    if (!sort.isAcyclic()) {
+      throw new IllegalStateException("Graph has a cycle");
+    }
+    List<List<T>> levels = new ArrayList<>(sort.levelCount());
+    for (int level = 0; level < sort.levelCount(); level++) {
+      levels.add(verticiesOf(inSearchOrder(sort.level(level))));
+    }
+    return levels;
+  }
+
+  /**
+   * Finds the weakly connected components of the graph, which are the components it would have if
+   * its edges had no direction.
+   *
+   * @return The verticies of each component, ordered by their lowest vertex.
+   */
+  public List<List<T>> weaklyConnectedComponents() {
+    WeaklyConnectedComponents components = new WeaklyConnectedComponents(adjacency);
+    List<List<T>> result = new ArrayList<>(components.componentCount());
+    // The components are listed in the order their lowest vertex is found in search order.
+    int[] listed = new int[components.componentCount()];
+    Arrays.fill(listed, -1);
+    for (int position = 0; position < verticies.size(); position++) {
+      int v = numberAt(position);
+      int component = components.componentOf(v);
+      if (listed[component] < 0) {
+        listed[component] = result.size();
+        result.add(new ArrayList<>(components.componentSize(component)));
+      }
+      result.get(listed[component]).add(verticies.get(v));
+    }
+    return result;
+  }
+
+  /**
+   * Calculates if the entire graph is reflexive.
+   *
+   * @return True if a graph is reflexive, false otherwise.
+   */
+  public boolean isReflexive() {
+    return GraphAlgorithms.isReflexive(adjacency);
+  }
+
+  /**
+   * Calculates if the entire graph is symmetric.
+   *
+   * @return True if the entire graph is symmetric, false otherwise.
+   */
+  public boolean isSymmetric() {
+    return GraphAlgorithms.isSymmetric(adjacency);
+  }
+
+  /**
+   * Calculates if the entire graph is anti-symmetric.
+   *
+   * @return True if entire graph is anti-symmetric, false otherwise.
+   */
+  public boolean isAntiSymmetric() {
+    return GraphAlgorithms.isAntiSymmetric(adjacency);
+  }
+
+  /**
+   * Calculates if the entire graph is transitive, by checking every path of two edges.
+   *
+   * @return True if entire graph is transitive, false otherwise.
+   */
+  public boolean isTransitive() {
+    return GraphAlgorithms.isTransitive(adjacency);
+  }
+
+  /**
+   * Calculates if the entire graph is an Equivalence Relation.
+   *
+   * @return True if entire graph is an Equivalence Relation, false otherwise
+   */
+  public boolean isEquivalence() {
+    return isReflexive() && isSymmetric() && isTransitive();
+  }
+
+  /**
+   * Counts the violations of a property in the same pass that checks it, giving the first of them
+   * to a sink.
+   *
+   * @param property The property to check.
+   * @param limit The most violations to give to the sink.
+   * @param sink The consumer that is given the verticies of each violation, as described by {@link
+   *     RelationProperty}.
+   * @return The number of violations, which is 0 if and only if the graph has the property.
+   */
+  public long streamViolations(RelationProperty property, long limit, Consumer<List<T>> sink) {
+    return property.streamViolations(
+        adjacency, limit, violation -> sink.accept(verticiesOf(violation)));
+  }
+
+  /**
+   * Builds the smallest graph with a property that contains this graph, over the same verticies.
+   *
+   * @param closure The property to add.
+   * @return The closure, which has no weights.
+   * @throws IllegalArgumentException if the closure would take too much memory to store
+   */
+  public CompactGraph<T> closure(Closure closure) {
+    return new CompactGraph<>(verticies, closure.of(adjacency), version, numbering);
+  }
+
+  /**
+   * Builds the graph with the fewest edges that reaches the same verticies from every vertex as
+   * this graph, so that searches over it follow fewer edges.
+   *
+   * @return The transitive reduction, whose edges keep their weights.
+   */
+  public CompactGraph<T> transitiveReduction() {
+    return new CompactGraph<>(verticies, TransitiveReduction.of(adjacency), version, numbering);
+  }
+
+  /**
+   * Builds the graph of the strongly connected components, with an edge between two components
+   * whenever there is an edge between their verticies. Each component is named by its vertex that
+   * comes first in search order, so the components are in search order as well. An edge between
+   * two components of a weighted graph has the smallest weight of the edges it stands for.
+   *
+   * @return The condensation, which has no cycles.
+   */
+  public CompactGraph<T> condensation() {
+    StronglyConnectedComponents components = new StronglyConnectedComponents(adjacency);
+    int count = components.componentCount();
+    boolean[] named = new boolean[count];
+    int[] order = new int[count];
+    List<T> names = new ArrayList<>(count);
+    for (int position = 0; position < verticies.size(); position++) {
+      int v = numberAt(position);
+      int component = components.componentOf(v);
+      if (!named[component]) {
+        named[component] = true;
+        order[names.size()] = component;
+        names.add(verticies.get(v));
+      }
+    }
+    return new CompactGraph<>(
+        Collections.unmodifiableList(names),
+        Permutation.fromOrder(order).relabel(condense(components)),
+        version);
+  }
+
+  /**
+   * Builds the edges between the strongly connected components, keeping the smallest weight of
+   * the edges between each pair of components when the graph is weighted.
+   *
+   * @param components The strongly connected components of this graph.
+   * @return The edges between the components, numbered as the components are.
+   */
+  private CsrGraph condense(StronglyConnectedComponents components) {
+    if (!adjacency.isWeighted()) {
+      return components.condensation();
+    }
+    int edgeCount = Math.toIntExact(adjacency.edgeCount());
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    double[] weights = new double[edgeCount];
+    int count = 0;
+    NeighborCursor neighbors = adjacency.cursor();
+    for (int v = 0; v < adjacency.vertexCount(); v++) {
+      int from = components.componentOf(v);
+      neighbors.moveTo(v);
+      while (neighbors.hasNext()) {
+        int to = components.componentOf(neighbors.next());
+        if (from != to) {
+          sources[count] = from;
+          destinations[count] = to;
+          weights[count++] = neighbors.weight();
+        }
+      }
+    }
+    return CsrGraph.fromEdges(components.componentCount(), sources, destinations, weights, count);
+  }
+
+  /**
+   * Performs a breadth first search on the graph, in the same order as {@link
+   * Graph#iterativeBreadthFirstSearch()}.
+   *
+   * @return List containing the visited verticies in the order they were visited.
+   */
+  public List<T> iterativeBreadthFirstSearch() {
+    List<T> visited = new ArrayList<>();
+    iterativeBreadthFirstSearch(visited::add);
+    return visited;
+  }
+
+  /**
+   * Performs a breadth first search on the graph, passing each vertex to the visitor as soon as it
+   * is visited.
+   *
+   * @param visitor The consumer that is given the verticies in the order they were visited.
+   */
+  public void iterativeBreadthFirstSearch(Consumer<T> visitor) {
+    GraphAlgorithms.breadthFirstSearch(
+        adjacency, rootFlags(), v -> visitor.accept(verticies.get(v)));
+  }
+
+  /**
+   * Performs a depth first search on the graph, in the same order as {@link
+   * Graph#iterativeDepthFirstSearch()}.
+   *
+   * @return List containing the visited verticies in the order they were visited.
+   */
+  public List<T> iterativeDepthFirstSearch() {
+    List<T> visited = new ArrayList<>();
+    iterativeDepthFirstSearch(visited::add);
+    return visited;
+  }
+
+  /**
+   * Performs a depth first search on the graph, passing each vertex to the visitor as soon as it is
+   * visited. Like {@link QuickStack}, a vertex that is already on the stack is not pushed again.
+   *
+   * @param visitor The consumer that is given the verticies in the order they were visited.
+   */
+  public void iterativeDepthFirstSearch(Consumer<T> visitor) {
+    GraphAlgorithms.depthFirstSearch(adjacency, rootFlags(), v -> visitor.accept(verticies.get(v)));
+  }
+
+  /**
+   * Performs a recursive breadth first search on the graph, in the same order as {@link
+   * Graph#recursiveBreadthFirstSearch()}. A breadth first search visits the verticies in the same
+   * order however it is written, so this is the iterative search.
+   *
+   * @param visitor The consumer that is given the verticies in the order they were visited.
+   */
+  public void recursiveBreadthFirstSearch(Consumer<T> visitor) {
+    iterativeBreadthFirstSearch(visitor);
+  }
+
+  /**
+   * Performs a recursive depth first search on the graph, in the same order as {@link
+   * Graph#recursiveDepthFirstSearch()}, without using the call stack.
+   *
+   * @param visitor The consumer that is given the verticies in the order they were visited.
+   */
+  public void recursiveDepthFirstSearch(Consumer<T> visitor) {
+    GraphAlgorithms.recursiveDepthFirstSearch(
+        adjacency, rootFlags(), v -> visitor.accept(verticies.get(v)));
+  }
+
+  /**
+   * Performs a breadth first search from a single vertex, in the same order as {@link
+   * Graph#bfsIterator(Comparable)}, stopping once enough verticies were visited.
+   *
+   * @param root The vertex to start searching from.
+   * @param limit The most verticies to visit.
+   * @param visitor The consumer that is given the verticies in the order they were visited.
+   * @throws IllegalArgumentException if the root is not in the graph
+   */
+  public void breadthFirstSearchFrom(T root, long limit, Consumer<T> visitor) {
+    GraphAlgorithms.breadthFirstSearch(
+        adjacency, rootFlag(root), limit, v -> visitor.accept(verticies.get(v)));
+  }
+
+  /**
+   * Performs a depth first search from a single vertex, in the same order as {@link
+   * Graph#dfsIterator(Comparable)}, stopping once enough verticies were visited.
+   *
+   * @param root The vertex to start searching from.
+   * @param limit The most verticies to visit.
+   * @param visitor The consumer that is given the verticies in the order they were visited.
+   * @throws IllegalArgumentException if the root is not in the graph
+   */
+  public void depthFirstSearchFrom(T root, long limit, Consumer<T> visitor) {
+    GraphAlgorithms.depthFirstSearch(
+        adjacency, rootFlag(root), limit, v -> visitor.accept(verticies.get(v)));
+  }
+
+  /**
+   * Finds the verticies in the same equivalence class as a vertex, the same way as {@link
+   * Graph#getEquivalenceClass(Comparable)}. In an equivalence relation the neighbors of a vertex
+   * are exactly its class, and a vertex that is not in the graph is in a class of its own.
+   *
+   * @param vertex The vertex to find the class of.
+   * @return The verticies in the class, in order of their numbers, or an empty set if the graph is
+   *     not an equivalence relation.
+   */
+  public Set<T> getEquivalenceClass(T vertex) {
+    Set<T> equivalenceClass = new LinkedHashSet<>();
+    if (!isEquivalence()) {
+      return equivalenceClass;
+    }
+    if (!containsVertex(vertex)) {
+      equivalenceClass.add(vertex);
+      return equivalenceClass;
+    }
+    NeighborCursor neighbors = adjacency.cursor();
+    neighbors.moveTo(indexOf(vertex));
+    while (neighbors.hasNext()) {
+      equivalenceClass.add(verticies.get(neighbors.next()));
+    }
+    return equivalenceClass;
+  }
+
+  /**
+   * Marks a single vertex as the root of a search.
+   *
+   * @param root The vertex to search from.
+   * @return Whether each vertex is the root.
+   * @throws IllegalArgumentException if the root is not in the graph
+   */
+  private boolean[] rootFlag(T root) {
+    boolean[] isRoot = new boolean[verticies.size()];
+    isRoot[indexOf(root)] = true;
+    return isRoot;
+  }
+
+  /**
+   * Gets the number of the vertex at a position in search order.
+   *
+   * @param position The position of the vertex in search order.
+   * @return The number of the vertex.
+   */
+  private int numberAt(int position) {
+    return numbering == null ? position : numbering.newNumber(position);
+  }
+
+  /**
+   * Finds the position of every vertex in search order, to break ties between verticies.
+   *
+   * @return The position of each vertex number.
+   */
+  private int[] searchRanks() {
+    int[] rank = new int[verticies.size()];
+    for (int position = 0; position < rank.length; position++) {
+      rank[numberAt(position)] = position;
+    }
+    return rank;
+  }
+
+  /**
+   * Sorts vertex numbers into the order the searches compare their verticies in.
+   *
+   * @param numbers The numbers of the verticies, sorted in ascending order.
+   * @return The numbers in search order, which may be the given array.
+   */
+  private int[] inSearchOrder(int[] numbers) {
+    if (numbering == null) {
+      return numbers;
+    }
+    int[] positions = new int[numbers.length];
+    for (int i = 0; i < numbers.length; i++) {
+      positions[i] = numbering.oldNumber(numbers[i]);
+    }
+    Arrays.sort(positions);
+    for (int i = 0; i < numbers.length; i++) {
+      positions[i] = numbering.newNumber(positions[i]);
+    }
+    return positions;
+  }
+
+  /**
+   * Finds which verticies are roots, as {@link #getRoots()} does.
+   *
+   * @return Whether each vertex is a root.
+   */
+  private boolean[] rootFlags() {
+    return GraphAlgorithms.roots(adjacency, (a, b) -> verticies.get(a).compareTo(verticies.get(b)));
+  }
+}
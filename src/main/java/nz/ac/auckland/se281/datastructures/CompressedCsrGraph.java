@@ -0,0 +1,233 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * An immutable adjacency that stores the neighbors of each vertex as variable length gaps instead
+ * of whole ints. The block of a vertex starts with its degree, then the first neighbor as a signed
+ * distance from the vertex, then the gap from each neighbor to the next. Each number is written in
+ * 7 bit groups, with the high bit of a byte set when another byte follows, so most gaps between
+ * sorted neighbors take a single byte. The neighbors are decoded as a cursor moves over them.
+ */
+public final class CompressedCsrGraph implements Adjacency {
+  // The largest array most virtual machines can allocate.
+  private static final int MAX_LENGTH = Integer.MAX_VALUE - 8;
+
+  private final int[] offsets;
+  private final byte[] data;
+  private final long edgeCount;
+  // The position of the first edge of each vertex in the weights, or null if there are no weights.
+  private final int[] edgeOffsets;
+  private final double[] weights;
+
+  private CompressedCsrGraph(
+      int[] offsets, byte[] data, long edgeCount, int[] edgeOffsets, double[] weights) {
+    this.offsets = offsets;
+    this.data = data;
+    this.edgeCount = edgeCount;
+    this.edgeOffsets = edgeOffsets;
+    this.weights = weights;
+  }
+
+  /**
+   * Compresses an adjacency.
+   *
+   * @param adjacency The edges to compress.
+   * @return The compressed copy.
+   */
+  public static CompressedCsrGraph copyOf(Adjacency adjacency) {
+    int n = adjacency.vertexCount();
+    int[] offsets = new int[n + 1];
+    // Most gaps fit in a byte, so start with a byte per edge and a few per vertex.
+    byte[] data = new byte[(int) Math.min(MAX_LENGTH, adjacency.edgeCount() + 2L * n)];
+    boolean weighted = adjacency.isWeighted();
+    int[] edgeOffsets = weighted ? new int[n + 1] : null;
+    double[] weights = weighted ? new double[(int) adjacency.edgeCount()] : null;
+
+    NeighborCursor neighbors = adjacency.cursor();
+    int position = 0;
+    int edge = 0;
+    for (int v = 0; v < n; v++) {
+      offsets[v] = position;
+      if (weighted) {
+        edgeOffsets[v] = edge;
+      }
+      // A vertex needs at most 5 bytes for its degree and 5 more for each neighbor.
+      int degree = adjacency.degree(v);
+      long needed = position + 5 * (degree + 1L);
+      if (needed > data.length) {
+        if (needed > MAX_LENGTH) {
+          throw new IllegalArgumentException("Graph is too large to compress into one array");
+        }
+        data = Arrays.copyOf(data, (int) Math.min(MAX_LENGTH, Math.max(needed, 2L * data.length)));
+      }
+      position = writeVarint(data, position, degree);
+      neighbors.moveTo(v);
+      int previous = v;
+      boolean first = true;
+      while (neighbors.hasNext()) {
+        int neighbor = neighbors.next();
+        if (first) {
+          position = writeVarint(data, position, zigzag(neighbor - v));
+          first = false;
+        } else {
+          position = writeVarint(data, position, neighbor - previous);
+        }
+        previous = neighbor;
+        if (weighted) {
+          weights[edge] = neighbors.weight();
+        }
+        edge++;
+      }
+    }
+    offsets[n] = position;
+    if (weighted) {
+      edgeOffsets[n] = edge;
+    }
+    return new CompressedCsrGraph(
+        offsets, Arrays.copyOf(data, position), adjacency.edgeCount(), edgeOffsets, weights);
+  }
+
+  /**
+   * Writes a number in 7 bit groups, lowest group first.
+   *
+   * @param data The array to write to.
+   * @param position Where to write the number.
+   * @param value The number, treated as unsigned.
+   * @return The position after the number.
+   */
+  private static int writeVarint(byte[] data, int position, int value) {
+    while ((value & ~0x7F) != 0) {
+      data[position++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    data[position++] = (byte) value;
+    return position;
+  }
+
+  /**
+   * Maps a signed number to an unsigned one so that numbers close to zero stay small.
+   *
+   * @param value The signed number.
+   * @return 0, 1, 2, 3, 4 for 0, -1, 1, -2, 2 and so on.
+   */
+  private static int zigzag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  /**
+   * Reverses {@link #zigzag(int)}.
+   *
+   * @param value The unsigned number.
+   * @return The signed number.
+   */
+  private static int unzigzag(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * Gets the average number of bytes each edge takes, counting the offsets of the verticies and
+   * the weights if there are any.
+   *
+   * @return The bytes per edge.
+   */
+  public double bytesPerEdge() {
+    return edgeCount == 0 ? 0.0 : (double) sizeInBytes() / edgeCount;
+  }
+
+  @Override
+  public long sizeInBytes() {
+    long bytes = data.length + (long) Integer.BYTES * offsets.length;
+    if (weights != null) {
+      bytes += (long) Integer.BYTES * edgeOffsets.length + (long) Double.BYTES * weights.length;
+    }
+    return bytes;
+  }
+
+  @Override
+  public int vertexCount() {
+    return offsets.length - 1;
+  }
+
+  @Override
+  public long edgeCount() {
+    return edgeCount;
+  }
+
+  @Override
+  public boolean isWeighted() {
+    return weights != null;
+  }
+
+  @Override
+  public int degree(int vertex) {
+    // The degree is the first number in the block of the vertex.
+    int position = offsets[vertex];
+    int value = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte current = data[position++];
+      value |= (current & 0x7F) << shift;
+      if (current >= 0) {
+        return value;
+      }
+    }
+  }
+
+  @Override
+  public NeighborCursor cursor() {
+    return new NeighborCursor() {
+      private int position;
+      private int remaining;
+      private int previous;
+      private int edge;
+      // The first neighbor is already decoded by moveTo.
+      private boolean firstPending;
+
+      @Override
+      public void moveTo(int vertex) {
+        position = offsets[vertex];
+        remaining = readVarint();
+        edge = weights == null ? 0 : edgeOffsets[vertex];
+        // The first neighbor is a signed distance from the vertex, rather than a gap.
+        if (remaining > 0) {
+          previous = vertex + unzigzag(readVarint());
+          firstPending = true;
+        }
+      }
+
+      @Override
+      public boolean hasNext() {
+        return remaining > 0;
+      }
+
+      @Override
+      public int next() {
+        remaining--;
+        edge++;
+        if (firstPending) {
+          firstPending = false;
+        } else {
+          previous += readVarint();
+        }
+        return previous;
+      }
+
+      @Override
+      public double weight() {
+        return weights == null ? 1.0 : weights[edge - 1];
+      }
+
+      private int readVarint() {
+        int value = 0;
+        int shift = 0;
+        byte current;
+        do {
+          current = data[position++];
+          value |= (current & 0x7F) << shift;
+          shift += 7;
+        } while (current < 0);
+        return value;
+      }
+    };
+  }
+}
@@ -0,0 +1,221 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A graph that one thread updates while any number of other threads query it. Readers take an
+ * immutable {@link CompactGraph} snapshot with {@link #snapshot()}, which never blocks and never
+ * changes underneath them. Updates are collected into a batch, and each batch is copied together
+ * with the current snapshot into a new snapshot that replaces it.
+ *
+ * @param <T> The type of each vertex, that have a total ordering.
+ */
+public class ConcurrentGraph<T extends Comparable<T>> {
+
+  public static final int DEFAULT_BATCH_SIZE = 1024;
+
+  private final int batchSize;
+  private volatile CompactGraph<T> current;
+
+  // The updates since the last snapshot, only touched while holding the lock on this graph.
+  private final Set<T> addedVerticies = new LinkedHashSet<>();
+  private final Set<Edge<T>> addedEdges = new LinkedHashSet<>();
+  private final Set<Edge<T>> removedEdges = new HashSet<>();
+
+  /**
+   * Constructs a new ConcurrentGraph that publishes a snapshot every {@link #DEFAULT_BATCH_SIZE}
+   * updates.
+   *
+   * @param verticies The set of verticies in the first snapshot.
+   * @param edges The set of edges in the first snapshot.
+   */
+  public ConcurrentGraph(Set<T> verticies, Set<Edge<T>> edges) {
+    this(verticies, edges, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Constructs a new ConcurrentGraph.
+   *
+   * @param verticies The set of verticies in the first snapshot.
+   * @param edges The set of edges in the first snapshot.
+   * @param batchSize The number of updates that are collected before a new snapshot is published.
+   */
+  public ConcurrentGraph(Set<T> verticies, Set<Edge<T>> edges, int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+    }
+    this.batchSize = batchSize;
+    this.current = CompactGraph.of(verticies, edges, 0);
+  }
+
+  /**
+   * Gets the latest published snapshot. This is a single volatile read, so readers never wait for
+   * the writer.
+   *
+   * @return The latest snapshot.
+   */
+  public CompactGraph<T> snapshot() {
+    return current;
+  }
+
+  /**
+   * Adds a vertex in the next snapshot.
+   *
+   * @param vertex The vertex to add.
+   */
+  public synchronized void addVertex(T vertex) {
+    addedVerticies.add(vertex);
+    publishIfFull();
+  }
+
+  /**
+   * Adds an edge in the next snapshot, along with its verticies if they are not in the graph. An
+   * edge that is already in the graph is left as it is, keeping its weight.
+   *
+   * @param source The vertex the edge starts from.
+   * @param destination The vertex the edge ends at.
+   */
+  public synchronized void addEdge(T source, T destination) {
+    Edge<T> edge = new Edge<>(source, destination);
+    removedEdges.remove(edge);
+    if (!current.containsEdge(source, destination)) {
+      addedEdges.add(edge);
+    }
+    addedVerticies.add(source);
+    addedVerticies.add(destination);
+    publishIfFull();
+  }
+
+  /**
+   * Removes an edge in the next snapshot. Its verticies stay in the graph.
+   *
+   * @param source The vertex the edge starts from.
+   * @param destination The vertex the edge ends at.
+   */
+  public synchronized void removeEdge(T source, T destination) {
+    Edge<T> edge = new Edge<>(source, destination);
+    addedEdges.remove(edge);
+    removedEdges.add(edge);
+    publishIfFull();
+  }
+
+  /**
+   * Gets the number of updates waiting for the next snapshot.
+   *
+   * @return The number of updates in the batch.
+   */
+  public synchronized int pendingUpdates() {
+    return addedVerticies.size() + addedEdges.size() + removedEdges.size();
+  }
+
+  /**
+   * Publishes the updates collected so far as a new snapshot, even if the batch is not full.
+   *
+   * @return The new snapshot, or the current one if there were no updates.
+   */
+  public synchronized CompactGraph<T> publish() {
+    if (pendingUpdates() == 0) {
+      return current;
+    }
+
+    CompactGraph<T> previous = current;
+    List<T> oldVerticies = previous.getVerticies();
+    Adjacency oldAdjacency = previous.getAdjacency();
+
+    // Number the new verticies among the old ones, in the order the searches compare them.
+    List<T> combined = new ArrayList<>(oldVerticies);
+    for (T vertex : addedVerticies) {
+      if (!previous.containsVertex(vertex)) {
+        combined.add(vertex);
+      }
+    }
+    List<T> verticies = CompactGraph.searchOrder(combined);
+    Map<T, Integer> index = new HashMap<>();
+    for (T vertex : verticies) {
+      index.put(vertex, index.size());
+    }
+    int[] renumbered = new int[oldVerticies.size()];
+    for (int v = 0; v < renumbered.length; v++) {
+      renumbered[v] = index.get(oldVerticies.get(v));
+    }
+
+    // The removed edges as sorted pairs of new numbers, so the old edges can be checked against
+    // them without allocating.
+    long[] removed = new long[removedEdges.size()];
+    int removedCount = 0;
+    for (Edge<T> edge : removedEdges) {
+      Integer source = index.get(edge.getSource());
+      Integer destination = index.get(edge.getDestination());
+      if (source != null && destination != null) {
+        removed[removedCount++] = pair(source, destination);
+      }
+    }
+    Arrays.sort(removed, 0, removedCount);
+
+    // Copy the edges of the previous snapshot that were not removed, then add the new ones.
+    int capacity = (int) oldAdjacency.edgeCount() + addedEdges.size();
+    int[] sources = new int[capacity];
+    int[] destinations = new int[capacity];
+    double[] weights = new double[capacity];
+    boolean weighted = oldAdjacency.isWeighted();
+    int count = 0;
+    NeighborCursor neighbors = oldAdjacency.cursor();
+    for (int v = 0; v < oldVerticies.size(); v++) {
+      neighbors.moveTo(v);
+      while (neighbors.hasNext()) {
+        int source = renumbered[v];
+        int destination = renumbered[neighbors.next()];
+        if (Arrays.binarySearch(removed, 0, removedCount, pair(source, destination)) < 0) {
+          sources[count] = source;
+          destinations[count] = destination;
+          weights[count] = neighbors.weight();
+          count++;
+        }
+      }
+    }
+    for (Edge<T> edge : addedEdges) {
+      sources[count] = index.get(edge.getSource());
+      destinations[count] = index.get(edge.getDestination());
+      weights[count] = edge.getWeight();
+      weighted |= edge.getWeight() != 1.0;
+      count++;
+    }
+
+    current =
+        new CompactGraph<>(
+            Collections.unmodifiableList(verticies),
+            CsrGraph.fromEdges(
+                verticies.size(), sources, destinations, weighted ? weights : null, count),
+            previous.getVersion() + 1);
+    addedVerticies.clear();
+    addedEdges.clear();
+    removedEdges.clear();
+    return current;
+  }
+
+  /**
+   * Packs an edge between two vertex numbers into a single number.
+   *
+   * @param source The number of the vertex the edge starts from.
+   * @param destination The number of the vertex the edge ends at.
+   * @return The packed edge.
+   */
+  private static long pair(int source, int destination) {
+    return ((long) source << 32) | destination;
+  }
+
+  /** Publishes a new snapshot once the batch is full. */
+  private void publishIfFull() {
+    if (pendingUpdates() >= batchSize) {
+      publish();
+    }
+  }
+}
@@ -0,0 +1,353 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable adjacency in compressed sparse row form. The neighbors of every vertex are stored
+ * one after another in a single array, and a second array holds where the neighbors of each vertex
+ * start. A vertex with number v has the neighbors {@code targets[offsets[v]]} up to {@code
+ * targets[offsets[v + 1] - 1]}. Weighted graphs keep the weight of each edge at the same position
+ * in a parallel array.
+ */
+public final class CsrGraph implements Adjacency {
+  /** The fewest edges that are reversed in parallel, below which the threads cost more. */
+  private static final long PARALLEL_EDGES = 1 << 16;
+
+  private final int[] offsets;
+  private final int[] targets;
+  private final double[] weights;
+
+  /**
+   * Constructs a CsrGraph from its arrays, which are not copied.
+   *
+   * @param offsets Where the neighbors of each vertex start, with the number of edges at the end.
+   * @param targets The neighbors of every vertex, each run sorted in ascending order.
+   * @param weights The weight of each edge in the targets, or null if the edges have no weights.
+   */
+  CsrGraph(int[] offsets, int[] targets, double[] weights) {
+    this.offsets = offsets;
+    this.targets = targets;
+    this.weights = weights;
+  }
+
+  /**
+   * Builds a CsrGraph from a list of edges. Edges that appear more than once are only kept once.
+   *
+   * @param vertexCount The number of verticies.
+   * @param sources The vertex each edge starts from.
+   * @param destinations The vertex each edge ends at.
+   * @param edgeCount The number of edges in the two arrays that are used.
+   * @return The adjacency of the edges.
+   */
+  public static CsrGraph fromEdges(
+      int vertexCount, int[] sources, int[] destinations, int edgeCount) {
+    return fromEdges(vertexCount, sources, destinations, null, edgeCount);
+  }
+
+  /**
+   * Builds a weighted CsrGraph from a list of edges. When an edge appears more than once, only the
+   * copy with the smallest weight is kept.
+   *
+   * @param vertexCount The number of verticies.
+   * @param sources The vertex each edge starts from.
+   * @param destinations The vertex each edge ends at.
+   * @param edgeWeights The weight of each edge, or null if the edges have no weights.
+   * @param edgeCount The number of edges in the arrays that are used.
+   * @return The adjacency of the edges.
+   */
+  public static CsrGraph fromEdges(
+      int vertexCount, int[] sources, int[] destinations, double[] edgeWeights, int edgeCount) {
+    // Count the edges of each vertex, then turn the counts into where each run of neighbors starts.
+    int[] offsets = new int[vertexCount + 1];
+    for (int i = 0; i < edgeCount; i++) {
+      offsets[sources[i] + 1]++;
+    }
+    for (int v = 0; v < vertexCount; v++) {
+      offsets[v + 1] += offsets[v];
+    }
+
+    // Place each edge in the run of its source.
+    int[] next = Arrays.copyOf(offsets, vertexCount);
+    int[] targets = new int[edgeCount];
+    double[] weights = edgeWeights == null ? null : new double[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      int position = next[sources[i]]++;
+      targets[position] = destinations[i];
+      if (weights != null) {
+        weights[position] = edgeWeights[i];
+      }
+    }
+
+    // Sort every run and squeeze out repeated neighbors, moving the runs down to fill the gaps.
+    long[] keys = new long[0];
+    double[] scratch = new double[0];
+    int write = 0;
+    for (int v = 0; v < vertexCount; v++) {
+      int start = offsets[v];
+      int end = offsets[v + 1];
+      offsets[v] = write;
+
+      if (weights == null) {
+        Arrays.sort(targets, start, end);
+        for (int i = start; i < end; i++) {
+          if (i == start || targets[i] != targets[i - 1]) {
+            targets[write++] = targets[i];
+          }
+        }
+        continue;
+      }
+
+      // Sort the neighbors together with their weights, by sorting the neighbors packed with the
+      // position of their weight.
+      int length = end - start;
+      if (keys.length < length) {
+        keys = new long[Math.max(length, keys.length * 2)];
+        scratch = new double[keys.length];
+      }
+      for (int i = 0; i < length; i++) {
+        keys[i] = ((long) targets[start + i] << 32) | i;
+        scratch[i] = weights[start + i];
+      }
+      Arrays.sort(keys, 0, length);
+      for (int i = 0; i < length; i++) {
+        int target = (int) (keys[i] >>> 32);
+        double weight = scratch[(int) keys[i]];
+        if (i > 0 && targets[write - 1] == target) {
+          weights[write - 1] = Math.min(weights[write - 1], weight);
+        } else {
+          targets[write] = target;
+          weights[write] = weight;
+          write++;
+        }
+      }
+    }
+    offsets[vertexCount] = write;
+
+    if (write != edgeCount) {
+      targets = Arrays.copyOf(targets, write);
+      weights = weights == null ? null : Arrays.copyOf(weights, write);
+    }
+    return new CsrGraph(offsets, targets, weights);
+  }
+
+  /**
+   * Builds the reverse of an adjacency, which has an edge from v to u for every edge from u to v.
+   * Large adjacencies are reversed with a parallel counting sort.
+   *
+   * @param adjacency The edges to reverse.
+   * @return The reversed adjacency, with the same weights.
+   */
+  public static CsrGraph reverseOf(Adjacency adjacency) {
+    if (adjacency.edgeCount() >= PARALLEL_EDGES) {
+      return reverseInParallel(adjacency, ForkJoinPool.commonPool().getParallelism());
+    }
+
+    int vertexCount = adjacency.vertexCount();
+    int[] offsets = new int[vertexCount + 1];
+    NeighborCursor neighbors = adjacency.cursor();
+    for (int v = 0; v < vertexCount; v++) {
+      neighbors.moveTo(v);
+      while (neighbors.hasNext()) {
+        offsets[neighbors.next() + 1]++;
+      }
+    }
+    for (int v = 0; v < vertexCount; v++) {
+      offsets[v + 1] += offsets[v];
+    }
+
+    // The sources are visited in ascending order, so every run of the result is already sorted.
+    int[] next = Arrays.copyOf(offsets, vertexCount);
+    int[] targets = new int[offsets[vertexCount]];
+    double[] weights = adjacency.isWeighted() ? new double[targets.length] : null;
+    for (int v = 0; v < vertexCount; v++) {
+      neighbors.moveTo(v);
+      while (neighbors.hasNext()) {
+        int position = next[neighbors.next()]++;
+        targets[position] = v;
+        if (weights != null) {
+          weights[position] = neighbors.weight();
+        }
+      }
+    }
+    return new CsrGraph(offsets, targets, weights);
+  }
+
+  /**
+   * Builds the reverse of an adjacency with a counting sort spread over the common fork-join pool.
+   * The threads count the incoming edges of every vertex with atomic increments. Then each thread
+   * fills the runs of its own range of verticies, chosen so every range has about as many edges,
+   * by scanning every edge for the ones that end in its range. No two threads write to the same
+   * run, and the sources are scanned in ascending order, so every run is placed already sorted.
+   *
+   * @param adjacency The edges to reverse.
+   * @param ranges The number of ranges of verticies to fill in parallel.
+   * @return The reversed adjacency, with the same weights.
+   */
+  static CsrGraph reverseInParallel(Adjacency adjacency, int ranges) {
+    int vertexCount = adjacency.vertexCount();
+    // Each thread keeps its own cursor, since a cursor cannot be shared.
+    ThreadLocal<NeighborCursor> cursors = ThreadLocal.withInitial(adjacency::cursor);
+    AtomicIntegerArray counts = new AtomicIntegerArray(vertexCount + 1);
+    IntStream.range(0, vertexCount)
+        .parallel()
+        .forEach(
+            v -> {
+              NeighborCursor neighbors = cursors.get();
+              neighbors.moveTo(v);
+              while (neighbors.hasNext()) {
+                counts.incrementAndGet(neighbors.next() + 1);
+              }
+            });
+    int[] offsets = new int[vertexCount + 1];
+    for (int v = 0; v < vertexCount; v++) {
+      offsets[v + 1] = offsets[v] + counts.get(v + 1);
+    }
+
+    int[] bounds = new int[ranges + 1];
+    bounds[ranges] = vertexCount;
+    int bound = 0;
+    for (int r = 1; r < ranges; r++) {
+      long goal = (long) offsets[vertexCount] * r / ranges;
+      while (bound < vertexCount && offsets[bound] < goal) {
+        bound++;
+      }
+      bounds[r] = bound;
+    }
+
+    int[] targets = new int[offsets[vertexCount]];
+    double[] weights = adjacency.isWeighted() ? new double[targets.length] : null;
+    IntStream.range(0, ranges)
+        .parallel()
+        .forEach(
+            r -> {
+              int from = bounds[r];
+              int to = bounds[r + 1];
+              int[] next = Arrays.copyOfRange(offsets, from, to);
+              NeighborCursor neighbors = adjacency.cursor();
+              for (int v = 0; v < vertexCount && from < to; v++) {
+                neighbors.moveTo(v);
+                while (neighbors.hasNext()) {
+                  int neighbor = neighbors.next();
+                  if (neighbor >= from && neighbor < to) {
+                    int position = next[neighbor - from]++;
+                    targets[position] = v;
+                    if (weights != null) {
+                      weights[position] = neighbors.weight();
+                    }
+                  }
+                }
+              }
+            });
+    return new CsrGraph(offsets, targets, weights);
+  }
+
+  /**
+   * Builds the undirected form of an adjacency, which has edges both ways between every two
+   * verticies that have an edge between them in either direction. The weights are dropped.
+   *
+   * @param adjacency The edges to copy both ways.
+   * @return The undirected adjacency.
+   */
+  public static CsrGraph undirectedOf(Adjacency adjacency) {
+    int edgeCount = Math.toIntExact(2 * adjacency.edgeCount());
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    int count = 0;
+    NeighborCursor neighbors = adjacency.cursor();
+    for (int v = 0; v < adjacency.vertexCount(); v++) {
+      neighbors.moveTo(v);
+      while (neighbors.hasNext()) {
+        int neighbor = neighbors.next();
+        sources[count] = v;
+        destinations[count++] = neighbor;
+        sources[count] = neighbor;
+        destinations[count++] = v;
+      }
+    }
+    return fromEdges(adjacency.vertexCount(), sources, destinations, count);
+  }
+
+  @Override
+  public int vertexCount() {
+    return offsets.length - 1;
+  }
+
+  @Override
+  public long edgeCount() {
+    return targets.length;
+  }
+
+  @Override
+  public boolean isWeighted() {
+    return weights != null;
+  }
+
+  @Override
+  public long sizeInBytes() {
+    long bytes = (long) Integer.BYTES * (offsets.length + targets.length);
+    return weights == null ? bytes : bytes + (long) Double.BYTES * weights.length;
+  }
+
+  @Override
+  public int degree(int vertex) {
+    return offsets[vertex + 1] - offsets[vertex];
+  }
+
+  /**
+   * Checks if there is an edge from the source to the destination, by a binary search of the
+   * neighbors of the source.
+   *
+   * @param source The number of the vertex the edge starts from.
+   * @param destination The number of the vertex the edge ends at.
+   * @return True if the edge exists, false otherwise.
+   */
+  @Override
+  public boolean containsEdge(int source, int destination) {
+    return edgeIndex(source, destination) >= 0;
+  }
+
+  /**
+   * Finds the position of an edge among all the edges, by a binary search of the neighbors of the
+   * source.
+   *
+   * @param source The number of the vertex the edge starts from.
+   * @param destination The number of the vertex the edge ends at.
+   * @return The position of the edge, or a negative number if there is no such edge.
+   */
+  int edgeIndex(int source, int destination) {
+    int index = Arrays.binarySearch(targets, offsets[source], offsets[source + 1], destination);
+    return index >= 0 ? index : -1;
+  }
+
+  @Override
+  public NeighborCursor cursor() {
+    return new NeighborCursor() {
+      private int position;
+      private int end;
+
+      @Override
+      public void moveTo(int vertex) {
+        position = offsets[vertex];
+        end = offsets[vertex + 1];
+      }
+
+      @Override
+      public boolean hasNext() {
+        return position < end;
+      }
+
+      @Override
+      public int next() {
+        return targets[position++];
+      }
+
+      @Override
+      public double weight() {
+        return weights == null ? 1.0 : weights[position - 1];
+      }
+    };
+  }
+}
@@ -0,0 +1,49 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.List;
+
+/**
+ * A lazy depth first search, which visits the verticies in the same order as {@link
+ * Graph#iterativeDepthFirstSearch()}. A vertex is marked as visited when it is popped off the
+ * stack.
+ *
+ * @param <T> The type of each vertex.
+ */
+public class DepthFirstIterator<T extends Comparable<T>> extends TraversalIterator<T> {
+  private final QuickStack<T> stack = new QuickStack<T>();
+
+  /**
+   * Constructs a new depth first search over the graph.
+   *
+   * @param graph The graph to traverse.
+   * @param roots The verticies to start searching from, in order.
+   */
+  public DepthFirstIterator(Graph<T> graph, Iterable<T> roots) {
+    super(graph, roots);
+  }
+
+  @Override
+  protected T advance() {
+    while (true) {
+      // Start from the next root once everything reachable from the last one has been visited
+      if (stack.isEmpty()) {
+        T root = nextRoot();
+        if (root == null) {
+          return null;
+        }
+        stack.push(root);
+      }
+
+      // Skip the verticies that were already visited after they were pushed
+      T currentVertex = stack.pop();
+      if (markVisited(currentVertex)) {
+        // Push the neighbors in descending order, so the smallest one is visited first
+        List<T> neighbors = graph.getSortedNeighbors(currentVertex);
+        for (int i = neighbors.size() - 1; i >= 0; i--) {
+          stack.push(neighbors.get(i));
+        }
+        return currentVertex;
+      }
+    }
+  }
+}
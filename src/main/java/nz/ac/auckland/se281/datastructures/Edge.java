@@ -1,5 +1,7 @@
 package nz.ac.auckland.se281.datastructures;
 
+import java.util.Objects;
+
 /**
  * An edge in a graph that connects two verticies.
  *
@@ -10,10 +12,23 @@ package nz.ac.auckland.se281.datastructures;
 public class Edge<T> {
   private T source;
   private T destination;
+  private double weight;
 
   public Edge(T source, T destination) {
+    this(source, destination, 1.0);
+  }
+
+  /**
+   * Constructs an edge with a weight, such as the length of a road between two places.
+   *
+   * @param source The node that the edge starts from.
+   * @param destination The node that the edge ends at.
+   * @param weight The weight of the edge.
+   */
+  public Edge(T source, T destination, double weight) {
     this.source = source;
     this.destination = destination;
+    this.weight = weight;
   }
 
   /**
@@ -33,4 +48,37 @@ public class Edge<T> {
   public T getDestination() {
     return destination;
   }
+
+  /**
+   * Getter which gets the weight of the edge, which is 1 unless the edge was given one.
+   *
+   * @return The weight of the edge.
+   */
+  public double getWeight() {
+    return weight;
+  }
+
+  /**
+   * Two edges are equal if they connect the same verticies in the same direction, whatever their
+   * weights are.
+   *
+   * @param obj The object to compare to.
+   * @return True if the object is an edge with the same source and destination.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Edge)) {
+      return false;
+    }
+    Edge<?> other = (Edge<?>) obj;
+    return Objects.equals(source, other.source) && Objects.equals(destination, other.destination);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(source, destination);
+  }
 }
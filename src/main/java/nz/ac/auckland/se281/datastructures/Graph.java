@@ -2,13 +2,13 @@ package nz.ac.auckland.se281.datastructures;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * A graph that is composed of a set of verticies and edges.
@@ -19,9 +19,12 @@ import java.util.Set;
  */
 public class Graph<T extends Comparable<T>> {
 
-  private Set<T> verticies;
-  private Set<Edge<T>> edges;
-  private AdjacencyListGraph<T> adjacencyListGraph;
+  private final Set<T> verticies;
+  private final Set<Edge<T>> edges;
+  private final AdjacencyListGraph<T> adjacencyListGraph;
+  private final Map<T, Integer> vertexIndex;
+  private final AdjacencyStorage storage;
+  private volatile CompactGraph<T> compactGraph;
 
   /**
    * Constructs a new Graph with the given verticies and edges.
@@ -30,13 +33,174 @@ public class Graph<T extends Comparable<T>> {
    * @param edges The set of edges in the graph.
    */
   public Graph(Set<T> verticies, Set<Edge<T>> edges) {
+    this(verticies, edges, false);
+  }
+
+  /**
+   * Constructs a new Graph with the given verticies and edges, and optionally builds the reversed
+   * edges straight away so that the first predecessor query does not wait for them.
+   *
+   * @param verticies The set of verticies in the graph.
+   * @param edges The set of edges in the graph.
+   * @param indexPredecessors True to build the reversed edges now, false to build them when they
+   *     are first needed.
+   */
+  public Graph(Set<T> verticies, Set<Edge<T>> edges, boolean indexPredecessors) {
+    this(verticies, edges, AdjacencyStorage.AUTO, indexPredecessors);
+  }
+
+  /**
+   * Constructs a new Graph with the given verticies and edges, whose compact form stores its edges
+   * in the given storage. By default dense graphs are stored as a {@link BitMatrixGraph}, and
+   * either representation can be forced with {@link AdjacencyStorage#BIT_MATRIX} or {@link
+   * AdjacencyStorage#HEAP}.
+   *
+   * @param verticies The set of verticies in the graph.
+   * @param edges The set of edges in the graph.
+   * @param storage How the compact form stores its edges, which must be on the heap.
+   * @param indexPredecessors True to build the reversed edges now, false to build them when they
+   *     are first needed.
+   * @throws IllegalArgumentException if the storage is off the heap
+   */
+  public Graph(
+      Set<T> verticies, Set<Edge<T>> edges, AdjacencyStorage storage, boolean indexPredecessors) {
+    if (storage == AdjacencyStorage.OFF_HEAP) {
+      throw new IllegalArgumentException("Graph cannot store its edges off the heap");
+    }
     this.verticies = verticies;
     this.edges = edges;
+    this.storage = storage;
     this.adjacencyListGraph = new AdjacencyListGraph<T>();
     // populate adjacencyListGraph with edges
     for (Edge<T> edge : edges) {
       this.adjacencyListGraph.addEdge(edge.getSource(), edge.getDestination());
     }
+    // number the verticies, so that searches can keep track of them in a bitmap
+    this.vertexIndex = new HashMap<>();
+    for (T vertex : verticies) {
+      this.vertexIndex.put(vertex, this.vertexIndex.size());
+    }
+    if (indexPredecessors) {
+      compact().getReverseAdjacency();
+    }
+  }
+
+  /**
+   * Checks if the graph contains the given vertex.
+   *
+   * @param vertex The vertex to look for.
+   * @return True if the vertex is in the graph, false otherwise.
+   */
+  public boolean containsVertex(T vertex) {
+    return vertexIndex.containsKey(vertex);
+  }
+
+  /**
+   * Gets the number that identifies a vertex in bitmaps of the verticies.
+   *
+   * @param vertex The vertex to look up.
+   * @return The number of the vertex, between 0 and the number of verticies.
+   * @throws IllegalArgumentException if the vertex is not in the graph
+   */
+  int indexOf(T vertex) {
+    Integer index = vertexIndex.get(vertex);
+    if (index == null) {
+      throw new IllegalArgumentException("Vertex is not in the graph: " + vertex);
+    }
+    return index;
+  }
+
+  /**
+   * Gets a compact copy of this graph, which the weighted and numbered algorithms run on. The copy
+   * is built the first time it is needed and then kept until the graph changes. Its edges are
+   * stored the way this graph was constructed with.
+   *
+   * @return The compact copy of this graph.
+   */
+  public CompactGraph<T> toCompactGraph() {
+    return compact();
+  }
+
+  // Private so that the constructor can build the copy without calling an overridable method.
+  private CompactGraph<T> compact() {
+    CompactGraph<T> compact = compactGraph;
+    if (compact == null) {
+      synchronized (this) {
+        compact = compactGraph;
+        if (compact == null) {
+          compact = CompactGraph.of(verticies, edges, 0);
+          compact = compact.withAdjacency(storage.store(compact.getAdjacency()));
+          compactGraph = compact;
+        }
+      }
+    }
+    return compact;
+  }
+
+  /**
+   * Checks if the graph contains an edge from the source to the destination. This is a constant
+   * time lookup when the set of edges is a hash set.
+   *
+   * @param source The vertex the edge starts from.
+   * @param destination The vertex the edge ends at.
+   * @return True if the edge is in the graph, false otherwise.
+   */
+  public boolean containsEdge(T source, T destination) {
+    return edges.contains(new Edge<T>(source, destination));
+  }
+
+  /**
+   * Adds a vertex to the sets backing this graph. Only used by {@link MutableGraph}.
+   *
+   * @param vertex The vertex to add.
+   * @return True if the vertex was not already in the graph, false otherwise.
+   */
+  boolean insertVertex(T vertex) {
+    if (!verticies.add(vertex)) {
+      return false;
+    }
+    vertexIndex.put(vertex, vertexIndex.size());
+    compactGraph = null;
+    return true;
+  }
+
+  /**
+   * Adds an edge to the sets backing this graph. Only used by {@link MutableGraph}.
+   *
+   * @param edge The edge to add, between verticies that are already in the graph.
+   * @return True if the edge was not already in the graph, false otherwise.
+   */
+  boolean insertEdge(Edge<T> edge) {
+    if (!edges.add(edge)) {
+      return false;
+    }
+    adjacencyListGraph.addEdge(edge.getSource(), edge.getDestination());
+    compactGraph = null;
+    return true;
+  }
+
+  /**
+   * Removes an edge from the sets backing this graph. Only used by {@link MutableGraph}.
+   *
+   * @param edge The edge to remove.
+   * @return True if the edge was in the graph, false otherwise.
+   */
+  boolean deleteEdge(Edge<T> edge) {
+    if (!edges.remove(edge)) {
+      return false;
+    }
+    adjacencyListGraph.removeEdge(edge.getSource(), edge.getDestination());
+    compactGraph = null;
+    return true;
+  }
+
+  /**
+   * Gets the set of verticies in the graph.
+   *
+   * @return The verticies, which must not be modified.
+   */
+  Set<T> getVerticies() {
+    return verticies;
   }
 
   public List<T> getNeighbors(T vertex) {
@@ -44,34 +208,69 @@ public class Graph<T extends Comparable<T>> {
   }
 
   /**
-   * Find the set of root verticies in the graph. Creates a hashmap.
+   * Gets a read-only view of the neighbors of a vertex, sorted in the order the searches visit
+   * them. Unlike {@link #getNeighbors(Comparable)} the neighbors are not copied, so the searches
+   * do not allocate for each vertex they visit.
+   *
+   * @param vertex The vertex whose neighbors are wanted.
+   * @return The sorted neighbors of the vertex, which must not be modified.
+   */
+  public List<T> getSortedNeighbors(T vertex) {
+    return adjacencyListGraph.getSortedNeighbors(vertex);
+  }
+
+  /**
+   * Passes each neighbor of a vertex to the action, in the order the searches visit them, without
+   * copying the neighbors.
+   *
+   * @param vertex The vertex whose neighbors are visited.
+   * @param action The action given each neighbor.
+   */
+  public void forEachNeighbor(T vertex, Consumer<? super T> action) {
+    adjacencyListGraph.forEachNeighbor(vertex, action);
+  }
+
+  /**
+   * Find the set of root verticies in the graph, from the in-degrees of the reversed edges.
    *
    * @return The set of root verticies in the graph.
    */
   public Set<T> getRoots() {
-    // Create a hashmap with T for the verticies and Integer for the number of edges.
-    Map<T, Integer> mapForVertice = new HashMap<>();
-    for (T vertex : verticies) {
-      mapForVertice.put(vertex, 0);
-    }
-    // Check the number of edges for each vertex.
-    for (Edge<T> edge : edges) {
-      T destination = edge.getDestination();
-      mapForVertice.put(destination, mapForVertice.get(destination) + 1);
-    }
-    // Add the verticies with no edges to the set of roots.
+    // The in-degrees come from the reversed edges, which are kept until the graph changes.
+    CompactGraph<T> compact = toCompactGraph();
+    int[] inDegrees = compact.getInDegrees();
     Set<T> roots = new HashSet<>();
-    // Iterate through the hashmap and add the verticies with no edges to the set of roots.
-    for (Map.Entry<T, Integer> entry : mapForVertice.entrySet()) {
-      if (entry.getValue() == 0) {
-        roots.add(entry.getKey());
+    for (int v = 0; v < inDegrees.length; v++) {
+      if (inDegrees[v] == 0) {
+        roots.add(compact.getVerticies().get(v));
       }
     }
-    // See if the node is an equivalance class and if it is return the minimum vertex.
-    for (T vertex : verticies) {
-      Set<T> equivalenceClass = getEquivalenceClass(vertex);
-      if (equivalenceClass.size() > 0) {
-        T minVertex = Collections.min(equivalenceClass);
+    return completeRoots(roots);
+  }
+
+  /**
+   * Gets the verticies with an edge to a vertex, in O(in-degree) once the reversed edges are built.
+   *
+   * @param vertex The vertex to get the predecessors of.
+   * @return The predecessors of the vertex, in the order the searches compare them.
+   * @throws IllegalArgumentException if the vertex is not in the graph
+   */
+  public List<T> predecessors(T vertex) {
+    return toCompactGraph().predecessors(vertex);
+  }
+
+  /**
+   * Adds the minimum vertex of every equivalence class to the verticies with no incoming edges, and
+   * orders the resulting roots.
+   *
+   * @param roots The verticies with no incoming edges.
+   * @return The ordered set of root verticies in the graph.
+   */
+  protected Set<T> completeRoots(Set<T> roots) {
+    // If the graph is an equivalence relation, add the minimum vertex of each class.
+    if (isEquivalence()) {
+      for (T vertex : verticies) {
+        T minVertex = Collections.min(depthFirstSearchForEquiv(vertex));
         roots.add(minVertex);
       }
     }
@@ -86,114 +285,39 @@ public class Graph<T extends Comparable<T>> {
   }
 
   /**
-   * Calculates if the entire graph is reflexive.
+   * Calculates if the entire graph is reflexive, over the compact form of the graph.
    *
    * @return True if a graph is reflexive, false otherwise.
    */
   public boolean isReflexive() {
-    // Loop through the verticies
-    for (T vertex : verticies) {
-      boolean hasSelfLoop = false;
-      // Loop through the edges and check if there is a self loop.
-      for (Edge<T> edge : edges) {
-        if (edge.getSource().equals(vertex) && edge.getDestination().equals(vertex)) {
-          hasSelfLoop = true;
-          break;
-        }
-      }
-      if (!hasSelfLoop) {
-        return false;
-      }
-    }
-    // Return true if there is a self loop.
-    return true;
+    return toCompactGraph().isReflexive();
   }
 
   /**
-   * Calculates if the entire graph is symmetric.
+   * Calculates if the entire graph is symmetric, over the compact form of the graph.
    *
    * @return True if the entire graph is symmetric, false otherwise.
    */
   public boolean isSymmetric() {
-    // Iterate through the edges and check if there is a reverse edge.
-    for (Edge<T> edge : edges) {
-      boolean hasReverseEdge = false;
-      T source = edge.getSource();
-      T destination = edge.getDestination();
-
-      for (Edge<T> otherEdge : edges) {
-        if (otherEdge.getSource().equals(destination)
-            && otherEdge.getDestination().equals(source)) {
-          hasReverseEdge = true;
-          break;
-        }
-      }
-      if (!hasReverseEdge) {
-        return false;
-      }
-    }
-    return true;
+    return toCompactGraph().isSymmetric();
   }
 
   /**
-   * Calculates if the entire graph is Transitive.
+   * Calculates if the entire graph is Transitive, over the compact form of the graph.
    *
    * @return True if entire graph is transitive, false otherwise.
    */
   public boolean isTransitive() {
-    // Iterate through the edges edge 1
-    for (Edge<T> edge1 : edges) {
-      // Iterate through the edges edge 2
-      for (Edge<T> edge2 : edges) {
-        // Check if the destination of edge 1 is the same as the source of edge 2
-        if (edge1.getDestination().equals(edge2.getSource())) {
-          T source = edge1.getSource();
-          T destination = edge2.getDestination();
-
-          boolean hasDirectEdge = false;
-          // If it is check if there is a direct edge between the source and destination
-          for (Edge<T> edge3 : edges) {
-            if (edge3.getSource().equals(source) && edge3.getDestination().equals(destination)) {
-              hasDirectEdge = true;
-              break;
-            }
-          }
-          if (!hasDirectEdge) {
-            return false;
-          }
-        }
-      }
-    }
-    // Return true if there is a direct edge.
-    return true;
+    return toCompactGraph().isTransitive();
   }
 
   /**
-   * Calculates if the entire graph is AntiSymmetric.
+   * Calculates if the entire graph is AntiSymmetric, over the compact form of the graph.
    *
    * @return True if entire graph is AntiSymmetric, false otherwise.
    */
   public boolean isAntiSymmetric() {
-    // Iterate through the edges and check if there is a reverse edge.
-    for (Edge<T> edge : edges) {
-      // Create variables that store the edges source and destination
-      T source = edge.getSource();
-      T destination = edge.getDestination();
-      // If the loop has a self-edge then we should count this as an anti-symmetric edge.
-      if (source.equals(destination)) {
-        continue;
-      }
-      // Check if the source and destination are the same
-
-      for (Edge<T> edge1 : edges) {
-        if (edge1.getSource().equals(destination) && edge1.getDestination().equals(source)) {
-          // If they are the same return false
-          return false;
-        }
-      }
-    }
-    // Return true if there is no reverse edge.
-    return true;
+    return toCompactGraph().isAntiSymmetric();
   }
 
   /**
@@ -205,6 +329,69 @@ public class Graph<T extends Comparable<T>> {
     return isReflexive() && isSymmetric() && isTransitive();
   }
 
+  /**
+   * Builds the smallest graph with a property that contains this graph, over the compact form of
+   * the graph. The closure of a graph that fails {@link #isEquivalence()} under {@link
+   * Closure#EQUIVALENCE} is the smallest equivalence relation that contains it.
+   *
+   * @param closure The property to add.
+   * @return The closure, which has no weights.
+   * @throws IllegalArgumentException if the closure would take too much memory to store
+   */
+  public CompactGraph<T> closure(Closure closure) {
+    return toCompactGraph().closure(closure);
+  }
+
+  /**
+   * Calculates if the graph has no cycles, in O(V + E) over the compact form of the graph.
+   *
+   * @return True if the graph is acyclic, false otherwise.
+   */
+  public boolean isAcyclic() {
+    return toCompactGraph().isAcyclic();
+  }
+
+  /**
+   * Orders the verticies so that every edge goes from an earlier vertex to a later one.
+   *
+   * @return The verticies in topological order.
+   * @throws IllegalStateException if the graph has a cycle
+   */
+  public List<T> topologicalOrder() {
+    return toCompactGraph().topologicalOrder();
+  }
+
+  /**
+   * Groups the verticies into topological levels, where each level only has edges coming in from
+   * earlier levels.
+   *
+   * @return The verticies of each level.
+   * @throws IllegalStateException if the graph has a cycle
+   */
+  public List<List<T>> topologicalLevels() {
+    return toCompactGraph().topologicalLevels();
+  }
+
+  /**
+   * Finds the weakly connected components of the graph, which are the components it would have if
+   * its edges had no direction.
+   *
+   * @return The verticies of each component.
+   */
+  public List<List<T>> getWeaklyConnectedComponents() {
+    return toCompactGraph().weaklyConnectedComponents();
+  }
+
+  /**
+   * Calculates the betweenness centrality of every vertex, which is how many shortest paths between
+   * other verticies pass through it.
+   *
+   * @return The centrality of every vertex, from the highest down.
+   */
+  public Map<T, Double> getBetweennessCentrality() {
+    return toCompactGraph().topBetweenness(verticies.size(), 0, 0);
+  }
+
   /**
    * Calculates vertex is an equivalance and if so returns a set of all the other verticies that are
    * in the same equivalence class.
@@ -249,14 +436,10 @@ public class Graph<T extends Comparable<T>> {
       if (!visited.contains(currentVertex)) {
         visited.add(currentVertex);
 
-        // Add all the vertices that are adjacent to the currentVertex to the stack.
-        List<T> neighbors = getNeighbors(currentVertex);
-        sortList(neighbors);
-        Collections.reverse(neighbors);
-
-        // Add all the neighbors to the stack
-        for (T neighbor : neighbors) {
-          stack.push(neighbor);
+        // Add all the vertices that are adjacent to the currentVertex to the stack, largest first.
+        List<T> neighbors = getSortedNeighbors(currentVertex);
+        for (int i = neighbors.size() - 1; i >= 0; i--) {
+          stack.push(neighbors.get(i));
         }
       }
     }
@@ -271,6 +454,18 @@ public class Graph<T extends Comparable<T>> {
    * @return List containing the visited verticies in the order they were visited.
    */
   public List<T> iterativeBreadthFirstSearch() {
+    List<T> visited = new ArrayList<T>();
+    iterativeBreadthFirstSearch(visited::add);
+    return visited;
+  }
+
+  /**
+   * Performs a breadth first search on the graph, passing each vertex to the visitor as soon as it
+   * is visited instead of collecting the search order into a list.
+   *
+   * @param visitor The consumer that is given the verticies in the order they were visited.
+   */
+  public void iterativeBreadthFirstSearch(Consumer<T> visitor) {
     // Retrieve the roots of the graph
     Set<T> roots = getRoots();
 
@@ -279,47 +474,23 @@ public class Graph<T extends Comparable<T>> {
       System.err.println("Graph has no roots");
     }
 
-    // Initialize the visited vertices list and the queue
-    List<T> visited = new ArrayList<T>();
-    QuickQueue<T> queue = new QuickQueue<T>();
-
-    // Process each root in the graph
-    for (T root : roots) {
-      // Check if the root has been visited before
-      if (!visited.contains(root)) {
-        // Add the root to the queue
-        queue.enqueue(root);
+    // Search from each root in turn, skipping the ones that were already visited
+    new BreadthFirstIterator<T>(this, roots).forEachRemaining(visitor);
+  }
 
-        // Perform breadth-first search
-        while (!queue.isEmpty()) {
-          // Dequeue the current vertex from the queue
-          T currentVertex = queue.dequeue();
-
-          // Check if the current vertex has not been visited before
-          if (!visited.contains(currentVertex)) {
-            // Add the current vertex to the visited list
-            visited.add(currentVertex);
-
-            // Get the neighbors of the current vertex
-            List<T> neighbors = getNeighbors(currentVertex);
-
-            // By using my sortList helper function I am going to sort the list. while the list has
-            // class T I know it is either a string or an integer.
-            sortList(neighbors);
-
-            // Visit each neighbor and enqueue it if it hasn't been visited before
-            for (T neighbor : neighbors) {
-              if (!visited.contains(neighbor) && !queue.contains(neighbor)) {
-                queue.enqueue(neighbor);
-              }
-            }
-          }
-        }
-      }
+  /**
+   * Starts a lazy breadth first search from a single vertex. The verticies are visited in the same
+   * order as {@link #iterativeBreadthFirstSearch()}, but only when the iterator is advanced.
+   *
+   * @param root The vertex to start searching from.
+   * @return An iterator over the verticies reachable from the root, in breadth first order.
+   * @throws IllegalArgumentException if the root is not in the graph
+   */
+  public TraversalIterator<T> bfsIterator(T root) {
+    if (!containsVertex(root)) {
+      throw new IllegalArgumentException("Vertex is not in the graph: " + root);
     }
-
-    // Return the visited vertices in the order they were visited
-    return visited;
+    return new BreadthFirstIterator<T>(this, List.of(root));
   }
 
   /**
@@ -329,42 +500,41 @@ public class Graph<T extends Comparable<T>> {
    * @return List containing the visited verticies in the order they were visited.
    */
   public List<T> iterativeDepthFirstSearch() {
+    List<T> visited = new ArrayList<T>();
+    iterativeDepthFirstSearch(visited::add);
+    return visited;
+  }
+
+  /**
+   * Performs an iterative depth first search on the graph, passing each vertex to the visitor as
+   * soon as it is visited instead of collecting the search order into a list.
+   *
+   * @param visitor The consumer that is given the verticies in the order they were visited.
+   */
+  public void iterativeDepthFirstSearch(Consumer<T> visitor) {
     // Get the roots of the graph
     Set<T> roots = getRoots();
     // If the graph has no roots then return "There are no roots in this graph"
     if (roots.isEmpty()) {
       System.out.println("There are no roots in this graph");
     }
-    // Create a new list to store the visited vertices.
-    List<T> visited = new ArrayList<T>();
-    // Create a new stack to store the vertices that are to be visited.
-    QuickStack<T> stack = new QuickStack<T>();
-    // Loop through each root
-    for (T root : roots) {
-      if (!visited.contains(root)) {
-        // Add the root to the stack
-        stack.push(root);
-
-        while (!stack.isEmpty()) {
-          // Pop the top vertex off the stack and set it as the currentVertex
-          T currentVertex = stack.pop();
-          if (!visited.contains(currentVertex)) {
-            visited.add(currentVertex);
-            // Add all the vertices that are adjacent to the currentVertex to the stack.
-            List<T> neighbors = getNeighbors(currentVertex);
-            sortList(neighbors);
-            Collections.reverse(neighbors);
-
-            // Add all the neighbors to the stack
-            for (T neighbor : neighbors) {
-              stack.push(neighbor);
-            }
-          }
-        }
-      }
+    // Search from each root in turn, skipping the ones that were already visited
+    new DepthFirstIterator<T>(this, roots).forEachRemaining(visitor);
+  }
+
+  /**
+   * Starts a lazy depth first search from a single vertex. The verticies are visited in the same
+   * order as {@link #iterativeDepthFirstSearch()}, but only when the iterator is advanced.
+   *
+   * @param root The vertex to start searching from.
+   * @return An iterator over the verticies reachable from the root, in depth first order.
+   * @throws IllegalArgumentException if the root is not in the graph
+   */
+  public TraversalIterator<T> dfsIterator(T root) {
+    if (!containsVertex(root)) {
+      throw new IllegalArgumentException("Vertex is not in the graph: " + root);
     }
-    // Return the visited list
-    return visited;
+    return new DepthFirstIterator<T>(this, List.of(root));
   }
 
   /**
@@ -376,31 +546,7 @@ public class Graph<T extends Comparable<T>> {
    * @throws IllegalArgumentException if the elements are not of type String or Integer
    */
   public void sortList(List<T> list) {
-    Collections.sort(
-        list,
-        new Comparator<T>() {
-          @Override
-          public int compare(T obj1, T obj2) {
-            // Compare elements based on their types
-            if (obj1 instanceof String && obj2 instanceof String) {
-              // If both elements are strings, parse them into integers and compare
-              String str1 = (String) obj1;
-              String str2 = (String) obj2;
-              Integer int1 = Integer.parseInt(str1);
-              Integer int2 = Integer.parseInt(str2);
-              return int1.compareTo(int2);
-            } else if (obj1 instanceof Integer && obj2 instanceof Integer) {
-              // If both elements are integers, compare them directly
-              Integer int1 = (Integer) obj1;
-              Integer int2 = (Integer) obj2;
-              return int1.compareTo(int2);
-            } else {
-              // Throw an exception if the elements are not of type String or Integer
-              throw new IllegalArgumentException(
-                  "Invalid type comparison: " + obj1.getClass() + " and " + obj2.getClass());
-            }
-          }
-        });
+    Collections.sort(list, new VertexComparator<T>());
   }
 
   /**
@@ -412,25 +558,36 @@ public class Graph<T extends Comparable<T>> {
    * @return List containing the visited verticies in the order they were visited.
    */
   public List<T> recursiveBreadthFirstSearch() {
+    List<T> visited = new ArrayList<>();
+    recursiveBreadthFirstSearch(visited::add);
+    return visited;
+  }
+
+  /**
+   * Performs a recursive breadth first search on the graph, passing each vertex to the visitor as
+   * soon as it is visited instead of collecting the search order into a list.
+   *
+   * @param visitor The consumer that is given the verticies in the order they were visited.
+   */
+  public void recursiveBreadthFirstSearch(Consumer<T> visitor) {
     // Get the roots of the graph
     Set<T> roots = getRoots();
     // If there are no roots then return that there are no root vertices in the graph
     if (roots.isEmpty()) {
       System.out.println("There are no root vertices in the graph");
     }
-    // Create a new list to store the visited vertices.
-    List<T> visited = new ArrayList<>();
+    // Create a new set to store the visited vertices.
+    Set<T> visited = new HashSet<>();
     QuickQueue<T> queue = new QuickQueue<>();
     // Loop through each root
     for (T root : roots) {
-      // If the root has not been visited then add it to the queue and the visited list
-      if (!visited.contains(root)) {
+      // If the root has not been visited then add it to the queue and visit it
+      if (visited.add(root)) {
         queue.enqueue(root);
-        visited.add(root);
-        recursiveBreadthFirstSearch(queue, visited);
+        visitor.accept(root);
+        recursiveBreadthFirstSearch(queue, visited, visitor);
       }
     }
-    return visited;
   }
 
   /**
@@ -441,27 +598,38 @@ public class Graph<T extends Comparable<T>> {
    * @param visited The list that will be used to keep track of the visited vertices.
    */
   public void recursiveBreadthFirstSearch(QuickQueue<T> queue, List<T> visited) {
+    recursiveBreadthFirstSearch(queue, new HashSet<>(visited), visited::add);
+  }
+
+  /**
+   * The helper method for the recursive breadth first search, which visits the neighbors of the
+   * vertex at the front of the queue and then calls itself for the rest of the queue.
+   *
+   * @param queue The queue that will be used to keep track of the vertices.
+   * @param visited The set of vertices that have already been visited.
+   * @param visitor The consumer that is given the verticies in the order they were visited.
+   */
+  private void recursiveBreadthFirstSearch(
+      QuickQueue<T> queue, Set<T> visited, Consumer<T> visitor) {
     // Base case: if the queue is not empty, continue the search
     if (!queue.isEmpty()) {
       // Dequeue the vertex from the queue
       T vertex = queue.dequeue();
 
-      // Using the getNeighbors method, get the neighbors of the vertex.
-      List<T> neighbors = getNeighbors(vertex);
-
-      // Using my sortList method, sort the neighbors in ascending order
-      sortList(neighbors);
+      // Get the neighbors of the vertex in ascending order, without copying them.
+      List<T> neighbors = getSortedNeighbors(vertex);
 
       // Visit each neighbor and enqueue it if it hasn't been visited before
-      for (T neighbor : neighbors) {
-        if (!visited.contains(neighbor)) {
-          visited.add(neighbor);
+      for (int i = 0; i < neighbors.size(); i++) {
+        T neighbor = neighbors.get(i);
+        if (visited.add(neighbor)) {
+          visitor.accept(neighbor);
           queue.enqueue(neighbor);
         }
       }
 
       // Recursive call to continue the breadth-first search
-      recursiveBreadthFirstSearch(queue, visited);
+      recursiveBreadthFirstSearch(queue, visited, visitor);
     }
   }
 
@@ -474,36 +642,48 @@ public class Graph<T extends Comparable<T>> {
    * @return List containing the visited verticies in the order they were visited.
    */
   public List<T> recursiveDepthFirstSearch() {
+    List<T> visited = new ArrayList<>();
+    recursiveDepthFirstSearch(visited::add);
+    return visited;
+  }
+
+  /**
+   * Performs a recursive depth first search on the graph, passing each vertex to the visitor as
+   * soon as it is visited instead of collecting the search order into a list.
+   *
+   * @param visitor The consumer that is given the verticies in the order they were visited.
+   */
+  public void recursiveDepthFirstSearch(Consumer<T> visitor) {
     Set<T> roots = getRoots();
     if (roots.isEmpty()) {
       System.out.println("There are no root vertices in the graph");
     }
-    // Create a new list that contains the visited vertices
-    List<T> visited = new ArrayList<>();
+    // Create a new set that contains the visited vertices
+    Set<T> visited = new HashSet<>();
     for (T root : roots) {
       if (!visited.contains(root)) {
         // Perform the recursive DFS
-        recursiveDepthFirstSearch(root, visited);
+        recursiveDepthFirstSearch(root, visited, visitor);
       }
     }
-    return visited;
   }
 
   /**
    * The helper method for the recursive depth first search. This method will be called recursively
    * to perform the recursive function
    *
-   * @param currentVertex The current vertex that is being visited
-   * @param visited The list that will be used to keep track of the visited vertices
+   * @param root The current vertex that is being visited
+   * @param visited The set that will be used to keep track of the visited vertices
+   * @param visitor The consumer that is given the verticies in the order they were visited
    */
-  private void recursiveDepthFirstSearch(T root, List<T> visited) {
+  private void recursiveDepthFirstSearch(T root, Set<T> visited, Consumer<T> visitor) {
     visited.add(root);
-    // Assume getNeighbors is a method that returns a list of neighbors
-    List<T> neighbors = getNeighbors(root);
-    sortList(neighbors);
-    for (T neighbor : neighbors) {
+    visitor.accept(root);
+    List<T> neighbors = getSortedNeighbors(root);
+    for (int i = 0; i < neighbors.size(); i++) {
+      T neighbor = neighbors.get(i);
       if (!visited.contains(neighbor)) {
-        recursiveDepthFirstSearch(neighbor, visited);
+        recursiveDepthFirstSearch(neighbor, visited, visitor);
       }
     }
   }
@@ -0,0 +1,322 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+
+/**
+ * The queries shared by the graphs that number their verticies, written once over an {@link
+ * Adjacency}. Verticies are numbered in the order the searches compare them, so visiting numbers in
+ * ascending order visits the verticies in the same order as {@link Graph}.
+ */
+final class GraphAlgorithms {
+
+  private GraphAlgorithms() {}
+
+  /**
+   * Finds the root verticies, the same way as {@link Graph#getRoots()}: every vertex with no
+   * incoming edges, and if the graph is an equivalence relation the lowest vertex of each class.
+   *
+   * @param adjacency The edges of the graph.
+   * @param compare How to compare two vertex numbers when picking the lowest vertex of a class.
+   * @return Whether each vertex is a root.
+   */
+  static boolean[] roots(Adjacency adjacency, IntBinaryOperator compare) {
+    int n = adjacency.vertexCount();
+    boolean[] isRoot = new boolean[n];
+    int[] inDegrees = adjacency.inDegrees();
+    for (int v = 0; v < n; v++) {
+      isRoot[v] = inDegrees[v] == 0;
+    }
+
+    // In an equivalence relation the neighbors of a vertex are exactly its equivalence class.
+    if (isEquivalence(adjacency)) {
+      NeighborCursor neighbors = adjacency.cursor();
+      for (int v = 0; v < n; v++) {
+        neighbors.moveTo(v);
+        int min = v;
+        while (neighbors.hasNext()) {
+          int neighbor = neighbors.next();
+          if (compare.applyAsInt(neighbor, min) < 0) {
+            min = neighbor;
+          }
+        }
+        isRoot[min] = true;
+      }
+    }
+    return isRoot;
+  }
+
+  /**
+   * Calculates if the entire graph is reflexive.
+   *
+   * @param adjacency The edges of the graph.
+   * @return True if a graph is reflexive, false otherwise.
+   */
+  static boolean isReflexive(Adjacency adjacency) {
+    if (adjacency instanceof BitMatrixGraph matrix) {
+      return matrix.isReflexive();
+    }
+    for (int v = 0; v < adjacency.vertexCount(); v++) {
+      if (!adjacency.containsEdge(v, v)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Calculates if the entire graph is symmetric.
+   *
+   * @param adjacency The edges of the graph.
+   * @return True if the entire graph is symmetric, false otherwise.
+   */
+  static boolean isSymmetric(Adjacency adjacency) {
+    if (adjacency instanceof BitMatrixGraph matrix) {
+      return matrix.isSymmetric();
+    }
+    NeighborCursor neighbors = adjacency.cursor();
+    for (int v = 0; v < adjacency.vertexCount(); v++) {
+      neighbors.moveTo(v);
+      while (neighbors.hasNext()) {
+        if (!adjacency.containsEdge(neighbors.next(), v)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Calculates if the entire graph is anti-symmetric.
+   *
+   * @param adjacency The edges of the graph.
+   * @return True if entire graph is anti-symmetric, false otherwise.
+   */
+  static boolean isAntiSymmetric(Adjacency adjacency) {
+    if (adjacency instanceof BitMatrixGraph matrix) {
+      return matrix.isAntiSymmetric();
+    }
+    NeighborCursor neighbors = adjacency.cursor();
+    for (int v = 0; v < adjacency.vertexCount(); v++) {
+      neighbors.moveTo(v);
+      while (neighbors.hasNext()) {
+        int neighbor = neighbors.next();
+        if (neighbor != v && adjacency.containsEdge(neighbor, v)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Calculates if the entire graph is transitive, by checking every path of two edges.
+   *
+   * @param adjacency The edges of the graph.
+   * @return True if entire graph is transitive, false otherwise.
+   */
+  static boolean isTransitive(Adjacency adjacency) {
+    if (adjacency instanceof BitMatrixGraph matrix) {
+      return matrix.isTransitive();
+    }
+    NeighborCursor first = adjacency.cursor();
+    NeighborCursor second = adjacency.cursor();
+    for (int u = 0; u < adjacency.vertexCount(); u++) {
+      first.moveTo(u);
+      while (first.hasNext()) {
+        second.moveTo(first.next());
+        while (second.hasNext()) {
+          if (!adjacency.containsEdge(u, second.next())) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Calculates if the entire graph is an Equivalence Relation.
+   *
+   * @param adjacency The edges of the graph.
+   * @return True if entire graph is an Equivalence Relation, false otherwise
+   */
+  static boolean isEquivalence(Adjacency adjacency) {
+    return isReflexive(adjacency) && isSymmetric(adjacency) && isTransitive(adjacency);
+  }
+
+  /**
+   * Performs a breadth first search from each root in ascending order, in the same order as {@link
+   * Graph#iterativeBreadthFirstSearch()}.
+   *
+   * @param adjacency The edges of the graph.
+   * @param isRoot Whether each vertex is a root.
+   * @param visitor The consumer that is given the vertex numbers in the order they were visited.
+   */
+  static void breadthFirstSearch(Adjacency adjacency, boolean[] isRoot, IntConsumer visitor) {
+    breadthFirstSearch(adjacency, isRoot, Long.MAX_VALUE, visitor);
+  }
+
+  /**
+   * Performs a breadth first search from each root in ascending order, stopping once the given
+   * number of verticies were visited.
+   *
+   * @param adjacency The edges of the graph.
+   * @param isRoot Whether each vertex is a root.
+   * @param limit The most verticies to visit.
+   * @param visitor The consumer that is given the vertex numbers in the order they were visited.
+   */
+  static void breadthFirstSearch(
+      Adjacency adjacency, boolean[] isRoot, long limit, IntConsumer visitor) {
+    int n = adjacency.vertexCount();
+    long remaining = limit;
+    boolean[] discovered = new boolean[n];
+    // Every vertex is queued at most once, so the queue never holds more than n verticies.
+    int[] queue = new int[n];
+    NeighborCursor neighbors = adjacency.cursor();
+
+    for (int start = 0; start < n; start++) {
+      if (!isRoot[start] || discovered[start]) {
+        continue;
+      }
+      discovered[start] = true;
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = start;
+      while (head < tail) {
+        if (remaining-- == 0) {
+          return;
+        }
+        int current = queue[head++];
+        visitor.accept(current);
+        neighbors.moveTo(current);
+        while (neighbors.hasNext()) {
+          int neighbor = neighbors.next();
+          if (!discovered[neighbor]) {
+            discovered[neighbor] = true;
+            queue[tail++] = neighbor;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Performs a depth first search from each root in ascending order, in the same order as {@link
+   * Graph#iterativeDepthFirstSearch()}. Like {@link QuickStack}, a vertex that is already on the
+   * stack is not pushed again.
+   *
+   * @param adjacency The edges of the graph.
+   * @param isRoot Whether each vertex is a root.
+   * @param visitor The consumer that is given the vertex numbers in the order they were visited.
+   */
+  static void depthFirstSearch(Adjacency adjacency, boolean[] isRoot, IntConsumer visitor) {
+    depthFirstSearch(adjacency, isRoot, Long.MAX_VALUE, visitor);
+  }
+
+  /**
+   * Performs a depth first search from each root in ascending order, stopping once the given
+   * number of verticies were visited.
+   *
+   * @param adjacency The edges of the graph.
+   * @param isRoot Whether each vertex is a root.
+   * @param limit The most verticies to visit.
+   * @param visitor The consumer that is given the vertex numbers in the order they were visited.
+   */
+  static void depthFirstSearch(
+      Adjacency adjacency, boolean[] isRoot, long limit, IntConsumer visitor) {
+    int n = adjacency.vertexCount();
+    long remaining = limit;
+    boolean[] visited = new boolean[n];
+    boolean[] onStack = new boolean[n];
+    int[] stack = new int[n];
+    int[] buffer = new int[16];
+    NeighborCursor neighbors = adjacency.cursor();
+
+    for (int start = 0; start < n; start++) {
+      if (!isRoot[start] || visited[start]) {
+        continue;
+      }
+      int top = 0;
+      stack[top++] = start;
+      onStack[start] = true;
+      while (top > 0) {
+        int current = stack[--top];
+        onStack[current] = false;
+        if (visited[current]) {
+          continue;
+        }
+        if (remaining-- == 0) {
+          return;
+        }
+        visited[current] = true;
+        visitor.accept(current);
+
+        // Read the neighbors in ascending order, then push them in descending order.
+        int degree = adjacency.degree(current);
+        if (degree > buffer.length) {
+          buffer = new int[Math.max(degree, buffer.length * 2)];
+        }
+        neighbors.moveTo(current);
+        for (int i = 0; i < degree; i++) {
+          buffer[i] = neighbors.next();
+        }
+        for (int i = degree - 1; i >= 0; i--) {
+          if (!onStack[buffer[i]]) {
+            onStack[buffer[i]] = true;
+            stack[top++] = buffer[i];
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Performs a depth first search from each root in ascending order, in the same order as {@link
+   * Graph#recursiveDepthFirstSearch()}: a vertex is visited as soon as it is reached, and its
+   * neighbors are searched in ascending order before the search backs up. The path back is kept as
+   * a cursor per vertex on it instead of on the call stack, so a long path cannot overflow it.
+   *
+   * @param adjacency The edges of the graph.
+   * @param isRoot Whether each vertex is a root.
+   * @param visitor The consumer that is given the vertex numbers in the order they were visited.
+   */
+  static void recursiveDepthFirstSearch(
+      Adjacency adjacency, boolean[] isRoot, IntConsumer visitor) {
+    int n = adjacency.vertexCount();
+    boolean[] visited = new boolean[n];
+    // The cursors are kept for the next search to reuse, since most paths are short.
+    NeighborCursor[] path = new NeighborCursor[16];
+
+    for (int start = 0; start < n; start++) {
+      if (!isRoot[start] || visited[start]) {
+        continue;
+      }
+      visited[start] = true;
+      visitor.accept(start);
+      int depth = 0;
+      path[0] = path[0] == null ? adjacency.cursor() : path[0];
+      path[0].moveTo(start);
+
+      while (depth >= 0) {
+        NeighborCursor neighbors = path[depth];
+        if (!neighbors.hasNext()) {
+          depth--;
+          continue;
+        }
+        int neighbor = neighbors.next();
+        if (visited[neighbor]) {
+          continue;
+        }
+        visited[neighbor] = true;
+        visitor.accept(neighbor);
+        if (++depth == path.length) {
+          path = Arrays.copyOf(path, path.length * 2);
+        }
+        path[depth] = path[depth] == null ? adjacency.cursor() : path[depth];
+        path[depth].moveTo(neighbor);
+      }
+    }
+  }
+}
@@ -0,0 +1,401 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * The diameter and radius of a graph whose edges are treated as having no direction. The diameter
+ * is the most hops between any two verticies that are connected, and the radius is the fewest hops
+ * within which a vertex of the largest component reaches the rest of that component.
+ *
+ * <p>Small graphs are measured exactly, with a breadth-first search from every vertex run by {@link
+ * MultiSourceBfs}. Large graphs keep a lower and an upper bound on the eccentricity of every
+ * vertex, starting with a double sweep and then searching from the verticies whose bounds could
+ * still change the answer, in the manner of iFUB. Every search tightens the bounds, so the longer
+ * it runs the closer the bounds are, and once no vertex can change them they are exact. Several
+ * searches run at once on a fork-join pool.
+ */
+public final class GraphDiameter {
+  /** The largest number of verticies that are always measured exactly. */
+  public static final int EXACT_LIMIT = 4096;
+
+  private static final int UNREACHED = -1;
+
+  private final int diameterLower;
+  private final int diameterUpper;
+  private final int radiusLower;
+  private final int radiusUpper;
+  private final int searches;
+
+  /**
+   * Constructs the result of a measurement.
+   *
+   * @param diameterLower The lower bound on the diameter.
+   * @param diameterUpper The upper bound on the diameter.
+   * @param radiusLower The lower bound on the radius.
+   * @param radiusUpper The upper bound on the radius.
+   * @param searches The number of breadth-first searches that were run.
+   */
+  private GraphDiameter(
+      int diameterLower, int diameterUpper, int radiusLower, int radiusUpper, int searches) {
+    this.diameterLower = diameterLower;
+    this.diameterUpper = diameterUpper;
+    this.radiusLower = radiusLower;
+    this.radiusUpper = radiusUpper;
+    this.searches = searches;
+  }
+
+  /**
+   * Measures the diameter and radius of a graph, exactly if it is small or if there is time. The
+   * double sweep that starts the bounds on a large graph always runs, whatever the budget.
+   *
+   * @param adjacency The edges of the graph, whose directions are ignored.
+   * @param budgetNanos How long large graphs are searched for before the bounds found so far are
+   *     returned.
+   * @return The bounds on the diameter and radius.
+   */
+  public static GraphDiameter measure(Adjacency adjacency, long budgetNanos) {
+    return measure(adjacency, budgetNanos, EXACT_LIMIT);
+  }
+
+  /**
+   * Measures the diameter and radius of a graph, choosing how small a graph must be to search from
+   * every vertex.
+   *
+   * @param adjacency The edges of the graph, whose directions are ignored.
+   * @param budgetNanos How long large graphs are searched for.
+   * @param exactLimit The largest number of verticies that are searched from every vertex.
+   * @return The bounds on the diameter and radius.
+   */
+  static GraphDiameter measure(Adjacency adjacency, long budgetNanos, int exactLimit) {
+    CsrGraph undirected = CsrGraph.undirectedOf(adjacency);
+    WeaklyConnectedComponents components = new WeaklyConnectedComponents(undirected);
+    if (undirected.vertexCount() <= exactLimit) {
+      return exact(undirected, components);
+    }
+    return new Bounds(undirected, components).refine(System.nanoTime() + budgetNanos);
+  }
+
+  /**
+   * Measures a graph exactly, by searching from every vertex in batches of sources that run in
+   * parallel.
+   *
+   * @param undirected The edges of the graph, both ways.
+   * @param components The components of the graph.
+   * @return The exact diameter and radius.
+   */
+  private static GraphDiameter exact(CsrGraph undirected, WeaklyConnectedComponents components) {
+    int vertexCount = undirected.vertexCount();
+    int[] eccentricities = new int[vertexCount];
+    int batchSize = MultiSourceBfs.SOURCES_PER_PASS;
+    int batches = (vertexCount + batchSize - 1) / batchSize;
+    ForkJoinPool.commonPool()
+        .submit(
+            () ->
+                IntStream.range(0, batches)
+                    .parallel()
+                    .forEach(
+                        batch -> {
+                          int first = batch * batchSize;
+                          int last = Math.min(vertexCount, first + batchSize);
+                          int[] sources = IntStream.range(first, last).toArray();
+                          int[] found = MultiSourceBfs.eccentricities(undirected, sources);
+                          System.arraycopy(found, 0, eccentricities, first, found.length);
+                        }))
+        .join();
+
+    int largest = largestComponent(components);
+    int diameter = 0;
+    int radius = Integer.MAX_VALUE;
+    for (int v = 0; v < vertexCount; v++) {
+      diameter = Math.max(diameter, eccentricities[v]);
+      if (components.componentOf(v) == largest) {
+        radius = Math.min(radius, eccentricities[v]);
+      }
+    }
+    radius = vertexCount == 0 ? 0 : radius;
+    return new GraphDiameter(diameter, diameter, radius, radius, vertexCount);
+  }
+
+  /**
+   * Finds the component with the most verticies, preferring the lowest numbered one.
+   *
+   * @param components The components of the graph.
+   * @return The number of the largest component, or -1 if there are none.
+   */
+  private static int largestComponent(WeaklyConnectedComponents components) {
+    int largest = -1;
+    for (int c = 0; c < components.componentCount(); c++) {
+      if (largest < 0 || components.componentSize(c) > components.componentSize(largest)) {
+        largest = c;
+      }
+    }
+    return largest;
+  }
+
+  /**
+   * Gets the most hops the diameter can be.
+   *
+   * @return The upper bound on the diameter.
+   */
+  public int getDiameterUpper() {
+    return diameterUpper;
+  }
+
+  /**
+   * Gets the fewest hops the diameter can be, which is the length of a shortest path that was
+   * found.
+   *
+   * @return The lower bound on the diameter.
+   */
+  public int getDiameterLower() {
+    return diameterLower;
+  }
+
+  /**
+   * Gets the most hops the radius can be.
+   *
+   * @return The upper bound on the radius.
+   */
+  public int getRadiusUpper() {
+    return radiusUpper;
+  }
+
+  /**
+   * Gets the fewest hops the radius can be.
+   *
+   * @return The lower bound on the radius.
+   */
+  public int getRadiusLower() {
+    return radiusLower;
+  }
+
+  /**
+   * Gets the number of breadth-first searches that were run, counting each source of a batch.
+   *
+   * @return The number of searches.
+   */
+  public int getSearches() {
+    return searches;
+  }
+
+  /**
+   * Checks if the bounds have met, so the diameter and radius are known exactly.
+   *
+   * @return True if both bounds are exact, false otherwise.
+   */
+  public boolean isExact() {
+    return diameterLower == diameterUpper && radiusLower == radiusUpper;
+  }
+
+  /** The bounds on the eccentricity of every vertex of a large graph, refined by each search. */
+  private static final class Bounds {
+    private final CsrGraph undirected;
+    private final WeaklyConnectedComponents components;
+    private final int largest;
+    private final int[] lower;
+    private final int[] upper;
+    private final int parallelism = ForkJoinPool.commonPool().getParallelism();
+    private int searches;
+
+    /**
+     * Starts every vertex with the bounds that hold before any search: no hops at least, and one
+     * less than the size of its component at most.
+     *
+     * @param undirected The edges of the graph, both ways.
+     * @param components The components of the graph.
+     */
+    Bounds(CsrGraph undirected, WeaklyConnectedComponents components) {
+      this.undirected = undirected;
+      this.components = components;
+      this.largest = largestComponent(components);
+      int vertexCount = undirected.vertexCount();
+      lower = new int[vertexCount];
+      upper = new int[vertexCount];
+      for (int v = 0; v < vertexCount; v++) {
+        upper[v] = components.componentSize(components.componentOf(v)) - 1;
+      }
+    }
+
+    /**
+     * Searches until the bounds are exact or the deadline passes.
+     *
+     * @param deadline The {@link System#nanoTime()} after which no more searches are started.
+     * @return The bounds found.
+     */
+    GraphDiameter refine(long deadline) {
+      // A double sweep: the vertex furthest from a hub is often at one end of a longest path.
+      int hub = 0;
+      for (int v = 0; v < undirected.vertexCount(); v++) {
+        if (components.componentOf(v) == largest && undirected.degree(v) > undirected.degree(hub)) {
+          hub = v;
+        }
+      }
+      int[] fromHub = search(hub);
+      apply(new int[] {hub}, new int[][] {fromHub});
+      int far = hub;
+      for (int v = 0; v < fromHub.length; v++) {
+        if (fromHub[v] > fromHub[far]) {
+          far = v;
+        }
+      }
+      apply(new int[] {far}, new int[][] {search(far)});
+
+      while (System.nanoTime() < deadline) {
+        int[] chosen = choose();
+        if (chosen.length == 0) {
+          break;
+        }
+        int[][] hops = new int[chosen.length][];
+        ForkJoinPool.commonPool()
+            .submit(
+                () ->
+                    IntStream.range(0, chosen.length)
+                        .parallel()
+                        .forEach(i -> hops[i] = search(chosen[i])))
+            .join();
+        apply(chosen, hops);
+      }
+      return result();
+    }
+
+    /**
+     * Picks the next verticies to search from, out of those whose bounds could still change the
+     * answer. Half have the highest upper bounds, which could raise the diameter, and half have the
+     * lowest lower bounds in the largest component, which could lower the radius.
+     *
+     * @return The verticies to search from, or an empty array if the bounds are exact.
+     */
+    private int[] choose() {
+      int diameterLower = Arrays.stream(lower).max().orElse(0);
+      int radiusUpper = radiusBound(upper);
+      long[] byUpper = new long[lower.length];
+      long[] byLower = new long[lower.length];
+      int upperCount = 0;
+      int lowerCount = 0;
+      for (int v = 0; v < lower.length; v++) {
+        if (lower[v] == upper[v]) {
+          continue;
+        }
+        if (upper[v] > diameterLower) {
+          byUpper[upperCount++] = ((long) (Integer.MAX_VALUE - upper[v]) << 32) | v;
+        }
+        if (components.componentOf(v) == largest && lower[v] < radiusUpper) {
+          byLower[lowerCount++] = ((long) lower[v] << 32) | v;
+        }
+      }
+      Arrays.sort(byUpper, 0, upperCount);
+      Arrays.sort(byLower, 0, lowerCount);
+
+      int wanted = Math.max(2, parallelism);
+      int[] chosen = new int[Math.min(wanted, upperCount + lowerCount)];
+      int count = 0;
+      int nextUpper = 0;
+      int nextLower = 0;
+      boolean[] taken = new boolean[lower.length];
+      while (count < chosen.length && (nextUpper < upperCount || nextLower < lowerCount)) {
+        boolean raisesDiameter =
+            (count % 2 == 0 && nextUpper < upperCount) || nextLower >= lowerCount;
+        int v = (int) (raisesDiameter ? byUpper[nextUpper++] : byLower[nextLower++]);
+        if (!taken[v]) {
+          taken[v] = true;
+          chosen[count++] = v;
+        }
+      }
+      return Arrays.copyOf(chosen, count);
+    }
+
+    /**
+     * Tightens the bounds of every vertex with the hops found by some searches. A vertex w at d
+     * hops from a source with eccentricity e has an eccentricity of at least max(d, e - d) and at
+     * most e + d.
+     *
+     * @param sources The verticies that were searched from.
+     * @param hops The hops from each source to every vertex.
+     */
+    private void apply(int[] sources, int[][] hops) {
+      int[] eccentricities = new int[sources.length];
+      for (int i = 0; i < sources.length; i++) {
+        eccentricities[i] = Arrays.stream(hops[i]).max().orElse(0);
+      }
+      ForkJoinPool.commonPool()
+          .submit(
+              () ->
+                  IntStream.range(0, lower.length)
+                      .parallel()
+                      .forEach(
+                          w -> {
+                            for (int i = 0; i < sources.length; i++) {
+                              int d = hops[i][w];
+                              if (d != UNREACHED) {
+                                int e = eccentricities[i];
+                                lower[w] = Math.max(lower[w], Math.max(d, e - d));
+                                upper[w] = Math.min(upper[w], e + d);
+                              }
+                            }
+                          }))
+          .join();
+      searches += sources.length;
+    }
+
+    /**
+     * Finds the hops from a vertex to every vertex with a breadth-first search.
+     *
+     * @param source The vertex to search from.
+     * @return The hops to each vertex, or -1 if it is not connected to the source.
+     */
+    private int[] search(int source) {
+      int[] hops = new int[undirected.vertexCount()];
+      Arrays.fill(hops, UNREACHED);
+      int[] queue = new int[hops.length];
+      int head = 0;
+      int tail = 0;
+      hops[source] = 0;
+      queue[tail++] = source;
+      NeighborCursor neighbors = undirected.cursor();
+      while (head < tail) {
+        int vertex = queue[head++];
+        neighbors.moveTo(vertex);
+        while (neighbors.hasNext()) {
+          int neighbor = neighbors.next();
+          if (hops[neighbor] == UNREACHED) {
+            hops[neighbor] = hops[vertex] + 1;
+            queue[tail++] = neighbor;
+          }
+        }
+      }
+      return hops;
+    }
+
+    /**
+     * Finds the smallest of some bounds over the largest component.
+     *
+     * @param bounds The bound of every vertex.
+     * @return The smallest bound in the largest component, or 0 if the graph is empty.
+     */
+    private int radiusBound(int[] bounds) {
+      int radius = Integer.MAX_VALUE;
+      for (int v = 0; v < bounds.length; v++) {
+        if (components.componentOf(v) == largest) {
+          radius = Math.min(radius, bounds[v]);
+        }
+      }
+      return radius == Integer.MAX_VALUE ? 0 : radius;
+    }
+
+    /**
+     * Collects the bounds of every vertex into bounds on the diameter and radius.
+     *
+     * @return The bounds found.
+     */
+    private GraphDiameter result() {
+      return new GraphDiameter(
+          Arrays.stream(lower).max().orElse(0),
+          Arrays.stream(upper).max().orElse(0),
+          radiusBound(lower),
+          radiusBound(upper),
+          searches);
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A priority queue of vertex numbers ordered by a double key, kept as a 4-ary heap in primitive
+ * arrays. Each vertex is in the heap at most once, and its position is tracked so that its key can
+ * be decreased in place instead of adding a second entry.
+ */
+public class IndexedMinHeap {
+  private static final int ARITY = 4;
+
+  private final int[] heap;
+  private final int[] positions;
+  private final double[] keys;
+  private int size;
+
+  /**
+   * Constructs an empty heap for the verticies numbered from 0 to capacity - 1.
+   *
+   * @param capacity The number of verticies.
+   */
+  public IndexedMinHeap(int capacity) {
+    this.heap = new int[capacity];
+    this.positions = new int[capacity];
+    this.keys = new double[capacity];
+    Arrays.fill(positions, -1);
+  }
+
+  /**
+   * Checks if the heap is empty.
+   *
+   * @return true if the heap is empty, false otherwise.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Checks if a vertex is in the heap.
+   *
+   * @param vertex The vertex to check.
+   * @return true if the vertex is in the heap, false otherwise.
+   */
+  public boolean contains(int vertex) {
+    return positions[vertex] >= 0;
+  }
+
+  /**
+   * Gets the key of a vertex in the heap.
+   *
+   * @param vertex A vertex in the heap.
+   * @return The key of the vertex.
+   */
+  public double keyOf(int vertex) {
+    return keys[vertex];
+  }
+
+  /**
+   * Adds a vertex to the heap, or lowers its key if it is already in the heap with a larger key.
+   *
+   * @param vertex The vertex to add.
+   * @param key The key of the vertex.
+   */
+  public void insertOrDecrease(int vertex, double key) {
+    if (!contains(vertex)) {
+      keys[vertex] = key;
+      heap[size] = vertex;
+      positions[vertex] = size;
+      siftUp(size++);
+    } else if (key < keys[vertex]) {
+      keys[vertex] = key;
+      siftUp(positions[vertex]);
+    }
+  }
+
+  /**
+   * Removes the vertex with the smallest key from the heap.
+   *
+   * @return The vertex with the smallest key.
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public int removeMin() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+    int min = heap[0];
+    positions[min] = -1;
+    size--;
+    if (size > 0) {
+      heap[0] = heap[size];
+      positions[heap[0]] = 0;
+      siftDown(0);
+    }
+    return min;
+  }
+
+  /**
+   * Moves the vertex at a position up until its parent has a smaller key.
+   *
+   * @param position The position of the vertex in the heap.
+   */
+  private void siftUp(int position) {
+    int vertex = heap[position];
+    double key = keys[vertex];
+    while (position > 0) {
+      int parent = (position - 1) / ARITY;
+      if (keys[heap[parent]] <= key) {
+        break;
+      }
+      heap[position] = heap[parent];
+      positions[heap[position]] = position;
+      position = parent;
+    }
+    heap[position] = vertex;
+    positions[vertex] = position;
+  }
+
+  /**
+   * Moves the vertex at a position down until all of its children have larger keys.
+   *
+   * @param position The position of the vertex in the heap.
+   */
+  private void siftDown(int position) {
+    int vertex = heap[position];
+    double key = keys[vertex];
+    while (true) {
+      int first = position * ARITY + 1;
+      if (first >= size) {
+        break;
+      }
+      // Find the child with the smallest key.
+      int smallest = first;
+      int last = Math.min(first + ARITY, size);
+      for (int child = first + 1; child < last; child++) {
+        if (keys[heap[child]] < keys[heap[smallest]]) {
+          smallest = child;
+        }
+      }
+      if (keys[heap[smallest]] >= key) {
+        break;
+      }
+      heap[position] = heap[smallest];
+      positions[heap[position]] = position;
+      position = smallest;
+    }
+    heap[position] = vertex;
+    positions[vertex] = position;
+  }
+}
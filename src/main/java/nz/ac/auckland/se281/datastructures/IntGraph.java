@@ -0,0 +1,394 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * A graph whose verticies are ints, answering the same queries as {@link Graph} without boxing a
+ * single vertex. The verticies are kept in a sorted int array, their edges in a {@link CsrGraph}
+ * or, when dense, a {@link BitMatrixGraph} between positions in that array, and searches use int
+ * queues, int stacks and boolean arrays.
+ *
+ * <p>Results are the same as a {@link Graph} of the verticies written as decimal strings, including
+ * where {@link Graph} compares those strings as text, such as when picking the root of an
+ * equivalence class.
+ */
+public class IntGraph {
+  private final int[] verticies;
+  private final Adjacency adjacency;
+  private volatile CompactGraph<String> compactGraph;
+
+  /**
+   * Constructs a new IntGraph.
+   *
+   * @param verticies The verticies of the graph, in any order and possibly repeated.
+   * @param sources The vertex each edge starts from.
+   * @param destinations The vertex each edge ends at.
+   * @param edgeCount The number of edges in the two arrays that are used.
+   * @throws IllegalArgumentException if an edge has a vertex that is not in the graph
+   */
+  public IntGraph(int[] verticies, int[] sources, int[] destinations, int edgeCount) {
+    this(verticies, sources, destinations, edgeCount, AdjacencyStorage.AUTO);
+  }
+
+  /**
+   * Constructs a new IntGraph whose edges are kept in the given storage.
+   *
+   * @param verticies The verticies of the graph, in any order and possibly repeated.
+   * @param sources The vertex each edge starts from.
+   * @param destinations The vertex each edge ends at.
+   * @param edgeCount The number of edges in the two arrays that are used.
+   * @param storage How the edges are stored, which must be on the heap.
+   * @throws IllegalArgumentException if an edge has a vertex that is not in the graph, or the
+   *     storage is off the heap
+   */
+  public IntGraph(
+      int[] verticies,
+      int[] sources,
+      int[] destinations,
+      int edgeCount,
+      AdjacencyStorage storage) {
+    this(verticies, sources, destinations, null, edgeCount, storage);
+  }
+
+  /**
+   * Constructs a new IntGraph with weighted edges, kept in the given storage.
+   *
+   * @param verticies The verticies of the graph, in any order and possibly repeated.
+   * @param sources The vertex each edge starts from.
+   * @param destinations The vertex each edge ends at.
+   * @param weights The weight of each edge, or null if every edge has a weight of 1.
+   * @param edgeCount The number of edges in the arrays that are used.
+   * @param storage How the edges are stored, which must be on the heap.
+   * @throws IllegalArgumentException if an edge has a vertex that is not in the graph, or the
+   *     storage is off the heap
+   */
+  public IntGraph(
+      int[] verticies,
+      int[] sources,
+      int[] destinations,
+      double[] weights,
+      int edgeCount,
+      AdjacencyStorage storage) {
+    if (storage == AdjacencyStorage.OFF_HEAP) {
+      throw new IllegalArgumentException("IntGraph cannot store its edges off the heap");
+    }
+    int[] sorted = verticies.clone();
+    Arrays.sort(sorted);
+    int count = 0;
+    for (int i = 0; i < sorted.length; i++) {
+      if (i == 0 || sorted[i] != sorted[i - 1]) {
+        sorted[count++] = sorted[i];
+      }
+    }
+    this.verticies = Arrays.copyOf(sorted, count);
+
+    int[] from = new int[edgeCount];
+    int[] to = new int[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      from[i] = indexOf(this.verticies, sources[i]);
+      to[i] = indexOf(this.verticies, destinations[i]);
+    }
+    this.adjacency = storage.store(CsrGraph.fromEdges(count, from, to, weights, edgeCount));
+  }
+
+  /**
+   * Checks if a vertex id is a plain decimal int, written the way {@link Integer#toString(int)}
+   * writes it, so that it can be stored as an int and written back unchanged.
+   *
+   * @param id The id to check.
+   * @return True if the id is an int, false otherwise.
+   */
+  public static boolean isIntId(String id) {
+    int length = id.length();
+    if (length == 0 || length > 11) {
+      return false;
+    }
+    int start = id.charAt(0) == '-' ? 1 : 0;
+    if (start == length || (id.charAt(start) == '0' && (length - start > 1 || start == 1))) {
+      // Empty after the sign, a leading zero, or negative zero.
+      return false;
+    }
+    for (int i = start; i < length; i++) {
+      if (id.charAt(i) < '0' || id.charAt(i) > '9') {
+        return false;
+      }
+    }
+    long value = Long.parseLong(id);
+    return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+  }
+
+  /**
+   * Compares two verticies the way {@link String#compareTo(String)} compares their decimal text,
+   * which is how {@link Graph} of strings orders them in a few places.
+   *
+   * @param a The first vertex.
+   * @param b The second vertex.
+   * @return A negative number, zero, or a positive number as the first text is before, the same as,
+   *     or after the second.
+   */
+  static int compareAsText(int a, int b) {
+    return a == b ? 0 : Integer.toString(a).compareTo(Integer.toString(b));
+  }
+
+  /**
+   * Gets the verticies of the graph.
+   *
+   * @return The verticies in ascending order.
+   */
+  public int[] getVerticies() {
+    return verticies.clone();
+  }
+
+  /**
+   * Gets the edges between the positions of the verticies in {@link #getVerticies()}.
+   *
+   * @return The adjacency.
+   */
+  public Adjacency getAdjacency() {
+    return adjacency;
+  }
+
+  /**
+   * Gets this graph as a {@link CompactGraph} of the verticies written as decimal strings, for the
+   * algorithms that only run on compact graphs. The view shares the edges of this graph, so no copy
+   * of them is made, and it is built the first time it is needed.
+   *
+   * @return The compact graph, numbered the same way as this graph.
+   */
+  public CompactGraph<String> toCompactGraph() {
+    CompactGraph<String> compact = compactGraph;
+    if (compact == null) {
+      synchronized (this) {
+        compact = compactGraph;
+        if (compact == null) {
+          // Ascending ints are in the order the searches compare their decimal strings.
+          List<String> names = new ArrayList<>(verticies.length);
+          for (int vertex : verticies) {
+            names.add(Integer.toString(vertex));
+          }
+          compact = new CompactGraph<>(Collections.unmodifiableList(names), adjacency, 0);
+          compactGraph = compact;
+        }
+      }
+    }
+    return compact;
+  }
+
+  /**
+   * Gets the position of a vertex in {@link #getVerticies()}.
+   *
+   * @param vertex The vertex to look up.
+   * @return The position of the vertex.
+   * @throws IllegalArgumentException if the vertex is not in the graph
+   */
+  public int indexOf(int vertex) {
+    return indexOf(verticies, vertex);
+  }
+
+  // Static so that the constructor can look up verticies without calling an overridable method.
+  private static int indexOf(int[] verticies, int vertex) {
+    int index = Arrays.binarySearch(verticies, vertex);
+    if (index < 0) {
+      throw new IllegalArgumentException("Vertex is not in the graph: " + vertex);
+    }
+    return index;
+  }
+
+  /**
+   * Checks if the graph contains the given vertex.
+   *
+   * @param vertex The vertex to look for.
+   * @return True if the vertex is in the graph, false otherwise.
+   */
+  public boolean containsVertex(int vertex) {
+    return Arrays.binarySearch(verticies, vertex) >= 0;
+  }
+
+  /**
+   * Checks if the graph contains an edge from the source to the destination.
+   *
+   * @param source The vertex the edge starts from.
+   * @param destination The vertex the edge ends at.
+   * @return True if the edge is in the graph, false otherwise.
+   */
+  public boolean containsEdge(int source, int destination) {
+    int from = Arrays.binarySearch(verticies, source);
+    int to = Arrays.binarySearch(verticies, destination);
+    return from >= 0 && to >= 0 && adjacency.containsEdge(from, to);
+  }
+
+  /**
+   * Gets the neighbors of a vertex.
+   *
+   * @param vertex The vertex to get the neighbors of.
+   * @return The neighbors of the vertex, in ascending order.
+   */
+  public int[] getNeighbors(int vertex) {
+    int index = indexOf(vertex);
+    int[] neighbors = new int[adjacency.degree(index)];
+    NeighborCursor cursor = adjacency.cursor();
+    cursor.moveTo(index);
+    for (int i = 0; i < neighbors.length; i++) {
+      neighbors[i] = verticies[cursor.next()];
+    }
+    return neighbors;
+  }
+
+  /**
+   * Find the set of root verticies in the graph, the same way as {@link Graph#getRoots()}.
+   *
+   * @return The root verticies, in ascending order.
+   */
+  public int[] getRoots() {
+    return verticiesOf(rootFlags());
+  }
+
+  /**
+   * Finds which verticies are roots, as {@link #getRoots()} does.
+   *
+   * @return Whether each position is a root.
+   */
+  private boolean[] rootFlags() {
+    return GraphAlgorithms.roots(adjacency, (a, b) -> compareAsText(verticies[a], verticies[b]));
+  }
+
+  /**
+   * Calculates if the entire graph is reflexive.
+   *
+   * @return True if a graph is reflexive, false otherwise.
+   */
+  public boolean isReflexive() {
+    return GraphAlgorithms.isReflexive(adjacency);
+  }
+
+  /**
+   * Calculates if the entire graph is symmetric.
+   *
+   * @return True if the entire graph is symmetric, false otherwise.
+   */
+  public boolean isSymmetric() {
+    return GraphAlgorithms.isSymmetric(adjacency);
+  }
+
+  /**
+   * Calculates if the entire graph is anti-symmetric.
+   *
+   * @return True if entire graph is anti-symmetric, false otherwise.
+   */
+  public boolean isAntiSymmetric() {
+    return GraphAlgorithms.isAntiSymmetric(adjacency);
+  }
+
+  /**
+   * Calculates if the entire graph is transitive.
+   *
+   * @return True if entire graph is transitive, false otherwise.
+   */
+  public boolean isTransitive() {
+    return GraphAlgorithms.isTransitive(adjacency);
+  }
+
+  /**
+   * Calculates if the entire graph is an Equivalence Relation.
+   *
+   * @return True if entire graph is an Equivalence Relation, false otherwise
+   */
+  public boolean isEquivalence() {
+    return GraphAlgorithms.isEquivalence(adjacency);
+  }
+
+  /**
+   * Gets the equivalence class of a vertex. In an equivalence relation these are exactly the
+   * neighbors of the vertex.
+   *
+   * @param vertex The vertex to get the equivalence class of.
+   * @return The verticies in the class in ascending order, or an empty array if the graph is not an
+   *     equivalence relation.
+   */
+  public int[] getEquivalenceClass(int vertex) {
+    return isEquivalence() ? getNeighbors(vertex) : new int[0];
+  }
+
+  /**
+   * Performs a breadth first search on the graph, in the same order as {@link
+   * Graph#iterativeBreadthFirstSearch()}.
+   *
+   * @return The verticies in the order they were visited.
+   */
+  public int[] iterativeBreadthFirstSearch() {
+    IntCollector visited = new IntCollector(verticies.length);
+    iterativeBreadthFirstSearch(visited);
+    return visited.toArray();
+  }
+
+  /**
+   * Performs a breadth first search on the graph, passing each vertex to the visitor as soon as it
+   * is visited.
+   *
+   * @param visitor The consumer that is given the verticies in the order they were visited.
+   */
+  public void iterativeBreadthFirstSearch(IntConsumer visitor) {
+    GraphAlgorithms.breadthFirstSearch(adjacency, rootFlags(), v -> visitor.accept(verticies[v]));
+  }
+
+  /**
+   * Performs a depth first search on the graph, in the same order as {@link
+   * Graph#iterativeDepthFirstSearch()}.
+   *
+   * @return The verticies in the order they were visited.
+   */
+  public int[] iterativeDepthFirstSearch() {
+    IntCollector visited = new IntCollector(verticies.length);
+    iterativeDepthFirstSearch(visited);
+    return visited.toArray();
+  }
+
+  /**
+   * Performs a depth first search on the graph, passing each vertex to the visitor as soon as it is
+   * visited.
+   *
+   * @param visitor The consumer that is given the verticies in the order they were visited.
+   */
+  public void iterativeDepthFirstSearch(IntConsumer visitor) {
+    GraphAlgorithms.depthFirstSearch(adjacency, rootFlags(), v -> visitor.accept(verticies[v]));
+  }
+
+  /**
+   * Gets the verticies at the positions that are set.
+   *
+   * @param flags Whether each position is included.
+   * @return The included verticies, in ascending order.
+   */
+  private int[] verticiesOf(boolean[] flags) {
+    IntCollector result = new IntCollector(flags.length);
+    for (int v = 0; v < flags.length; v++) {
+      if (flags[v]) {
+        result.accept(verticies[v]);
+      }
+    }
+    return result.toArray();
+  }
+
+  /** Collects ints into an array that is only as long as it needs to be at the end. */
+  private static final class IntCollector implements IntConsumer {
+    private final int[] values;
+    private int size;
+
+    private IntCollector(int capacity) {
+      this.values = new int[capacity];
+    }
+
+    @Override
+    public void accept(int value) {
+      values[size++] = value;
+    }
+
+    private int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * Measures how close together the numbers at the two ends of each edge are, which is how close
+ * together in memory a search finds the entries of the verticies it visits. Lower is better for
+ * every measure, so orderings of the same graph can be compared with each other.
+ */
+public final class LocalityMetrics {
+  private final double averageGap;
+  private final double averageLogGap;
+  private final long bandwidth;
+
+  /**
+   * Constructs the metrics from their values.
+   *
+   * @param averageGap The average distance between the numbers at the ends of each edge.
+   * @param averageLogGap The average number of bits in the gaps between neighbors.
+   * @param bandwidth The largest distance between the numbers at the ends of any edge.
+   */
+  private LocalityMetrics(double averageGap, double averageLogGap, long bandwidth) {
+    this.averageGap = averageGap;
+    this.averageLogGap = averageLogGap;
+    this.bandwidth = bandwidth;
+  }
+
+  /**
+   * Measures the locality of the edges of a graph, with one pass over its edges.
+   *
+   * @param adjacency The edges of the graph.
+   * @return The metrics of the graph.
+   */
+  public static LocalityMetrics of(Adjacency adjacency) {
+    long edgeCount = adjacency.edgeCount();
+    if (edgeCount == 0) {
+      return new LocalityMetrics(0.0, 0.0, 0);
+    }
+
+    long totalGap = 0;
+    double totalBits = 0.0;
+    long bandwidth = 0;
+    NeighborCursor neighbors = adjacency.cursor();
+    for (int v = 0; v < adjacency.vertexCount(); v++) {
+      neighbors.moveTo(v);
+      // The first neighbor is measured from the vertex, and every other one from the neighbor
+      // before it, which is how a gap encoded adjacency stores them.
+      int previous = v;
+      while (neighbors.hasNext()) {
+        int neighbor = neighbors.next();
+        long gap = Math.abs((long) neighbor - v);
+        totalGap += gap;
+        bandwidth = Math.max(bandwidth, gap);
+        totalBits += 64 - Long.numberOfLeadingZeros(Math.abs((long) neighbor - previous));
+        previous = neighbor;
+      }
+    }
+    return new LocalityMetrics((double) totalGap / edgeCount, totalBits / edgeCount, bandwidth);
+  }
+
+  /**
+   * Gets the average distance between the numbers at the two ends of each edge.
+   *
+   * @return The average gap.
+   */
+  public double getAverageGap() {
+    return averageGap;
+  }
+
+  /**
+   * Gets the average number of bits needed to store the gap from each neighbor to the one before
+   * it, which estimates how well the adjacency compresses.
+   *
+   * @return The average bits per gap.
+   */
+  public double getAverageLogGap() {
+    return averageLogGap;
+  }
+
+  /**
+   * Gets the largest distance between the numbers at the two ends of any edge.
+   *
+   * @return The bandwidth.
+   */
+  public long getBandwidth() {
+    return bandwidth;
+  }
+}
@@ -0,0 +1,150 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Runs breadth-first searches from many sources at once, sharing a single pass over the edges
+ * between them. Every vertex has a bitmask with one bit per source, for the sources that have seen
+ * it, that are visiting it in the current level, and that will visit it in the next level. Each
+ * level then costs one scan of the edges of the visited verticies however many sources are
+ * visiting them, instead of one scan per source.
+ *
+ * <p>Up to {@link #SOURCES_PER_PASS} sources share a pass, with the masks of each vertex spread
+ * over several longs. More sources than that are searched in several passes.
+ */
+public final class MultiSourceBfs {
+  /** The number of longs in the masks of each vertex, which is 64 sources for each long. */
+  public static final int WORDS_PER_PASS = 4;
+
+  public static final int SOURCES_PER_PASS = WORDS_PER_PASS * Long.SIZE;
+
+  public static final int UNREACHED = -1;
+
+  /** Receives the hops from each source to every vertex it reaches, as the searches find them. */
+  @FunctionalInterface
+  public interface HopVisitor {
+    /**
+     * Called once for every source and vertex the source reaches, in order of the hops.
+     *
+     * @param source The position of the source in the array of sources.
+     * @param vertex The vertex that was reached.
+     * @param hops The fewest edges from the source to the vertex.
+     */
+    void visit(int source, int vertex, int hops);
+  }
+
+  private MultiSourceBfs() {}
+
+  /**
+   * Searches from every source, passing each vertex to the visitor as soon as a source reaches it.
+   *
+   * @param adjacency The edges to search.
+   * @param sources The verticies to search from, which may repeat.
+   * @param visitor The visitor given the hops from each source to each vertex it reaches.
+   */
+  public static void run(Adjacency adjacency, int[] sources, HopVisitor visitor) {
+    int vertexCount = adjacency.vertexCount();
+    int width = Math.min(WORDS_PER_PASS, (sources.length + Long.SIZE - 1) / Long.SIZE);
+    long[] seen = new long[Math.multiplyExact(vertexCount, width)];
+    long[] visit = new long[seen.length];
+    long[] next = new long[seen.length];
+    NeighborCursor neighbors = adjacency.cursor();
+
+    for (int first = 0; first < sources.length; first += SOURCES_PER_PASS) {
+      int batch = Math.min(SOURCES_PER_PASS, sources.length - first);
+      Arrays.fill(seen, 0L);
+      Arrays.fill(visit, 0L);
+      for (int i = 0; i < batch; i++) {
+        int index = sources[first + i] * width + (i >>> 6);
+        seen[index] |= 1L << i;
+        visit[index] |= 1L << i;
+        visitor.visit(first + i, sources[first + i], 0);
+      }
+
+      boolean active = batch > 0;
+      for (int hops = 1; active; hops++) {
+        // Every source visiting a vertex visits its neighbors next.
+        for (int v = 0; v < vertexCount; v++) {
+          int base = v * width;
+          if (isEmpty(visit, base, width)) {
+            continue;
+          }
+          neighbors.moveTo(v);
+          while (neighbors.hasNext()) {
+            int neighborBase = neighbors.next() * width;
+            for (int w = 0; w < width; w++) {
+              next[neighborBase + w] |= visit[base + w];
+            }
+          }
+        }
+
+        // Keep the sources that had not seen each vertex yet, and report them.
+        active = false;
+        for (int v = 0; v < vertexCount; v++) {
+          int base = v * width;
+          for (int w = 0; w < width; w++) {
+            long reached = next[base + w] & ~seen[base + w];
+            next[base + w] = 0L;
+            visit[base + w] = reached;
+            if (reached == 0L) {
+              continue;
+            }
+            seen[base + w] |= reached;
+            active = true;
+            for (long bits = reached; bits != 0L; bits &= bits - 1) {
+              visitor.visit(first + w * Long.SIZE + Long.numberOfTrailingZeros(bits), v, hops);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Finds the fewest hops from every source to every vertex.
+   *
+   * @param adjacency The edges to search.
+   * @param sources The verticies to search from.
+   * @return The hops from each source to each vertex, or {@link #UNREACHED} if the source does not
+   *     reach the vertex.
+   */
+  public static int[][] distances(Adjacency adjacency, int[] sources) {
+    int[][] distances = new int[sources.length][adjacency.vertexCount()];
+    for (int[] row : distances) {
+      Arrays.fill(row, UNREACHED);
+    }
+    run(adjacency, sources, (source, vertex, hops) -> distances[source][vertex] = hops);
+    return distances;
+  }
+
+  /**
+   * Finds the eccentricity of every source, which is the most hops to any vertex it reaches.
+   *
+   * @param adjacency The edges to search.
+   * @param sources The verticies to search from.
+   * @return The eccentricity of each source.
+   */
+  public static int[] eccentricities(Adjacency adjacency, int[] sources) {
+    int[] eccentricities = new int[sources.length];
+    // The searches report verticies in order of hops, so the last report is the furthest.
+    run(adjacency, sources, (source, vertex, hops) -> eccentricities[source] = hops);
+    return eccentricities;
+  }
+
+  /**
+   * Checks if no source is in the masks of a vertex.
+   *
+   * @param masks The masks of every vertex.
+   * @param base Where the masks of the vertex start.
+   * @param width The number of longs in the masks of each vertex.
+   * @return True if every mask of the vertex is zero.
+   */
+  private static boolean isEmpty(long[] masks, int base, int width) {
+    for (int w = 0; w < width; w++) {
+      if (masks[base + w] != 0L) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,260 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A graph that verticies and edges can be added to and removed from after it is constructed. The
+ * counts behind reflexivity, symmetry, anti-symmetry, transitivity and the root verticies are
+ * updated with every change, so those properties are answered without scanning the edges again.
+ *
+ * <p>The class is final so that the constructor can add the given verticies and edges without a
+ * subclass seeing itself before it is initialized.
+ *
+ * @param <T> The type of each vertex, that have a total ordering.
+ */
+public final class MutableGraph<T extends Comparable<T>> extends Graph<T> {
+
+  private final Map<T, Set<T>> predecessors = new HashMap<>();
+  private final Map<T, Set<T>> successors = new HashMap<>();
+  private final Set<T> verticiesWithNoIncomingEdges = new HashSet<>();
+  // The number of verticies with an edge to themselves.
+  private int selfLoops;
+  // The number of edges between two different verticies that have no edge going back.
+  private int unmatchedEdges;
+  // The number of pairs of different verticies that have edges going both ways.
+  private int mutualPairs;
+  // The number of paths u -> v -> w with no edge from u to w, each of which breaks transitivity.
+  private long missingShortcuts;
+
+  /** Constructs a new, empty MutableGraph. */
+  public MutableGraph() {
+    super(new HashSet<T>(), new HashSet<Edge<T>>());
+  }
+
+  /**
+   * Constructs a new MutableGraph that starts with the given verticies and edges. The given sets
+   * are copied, and are not changed by later updates to the graph.
+   *
+   * @param verticies The set of verticies in the graph.
+   * @param edges The set of edges in the graph.
+   */
+  public MutableGraph(Set<T> verticies, Set<Edge<T>> edges) {
+    this();
+    for (T vertex : verticies) {
+      addVertex(vertex);
+    }
+    for (Edge<T> edge : edges) {
+      addEdge(edge.getSource(), edge.getDestination());
+    }
+  }
+
+  /**
+   * Adds a vertex with no edges to the graph.
+   *
+   * @param vertex The vertex to add.
+   * @return True if the vertex was added, false if it was already in the graph.
+   */
+  public boolean addVertex(T vertex) {
+    if (!insertVertex(vertex)) {
+      return false;
+    }
+    predecessors.put(vertex, new HashSet<T>());
+    successors.put(vertex, new HashSet<T>());
+    verticiesWithNoIncomingEdges.add(vertex);
+    return true;
+  }
+
+  /**
+   * Adds an edge to the graph in O(degree) of its verticies, adding its verticies first if they are
+   * not in the graph.
+   *
+   * @param source The vertex the edge starts from.
+   * @param destination The vertex the edge ends at.
+   * @return True if the edge was added, false if it was already in the graph.
+   */
+  public boolean addEdge(T source, T destination) {
+    addVertex(source);
+    addVertex(destination);
+    if (containsEdge(source, destination)) {
+      return false;
+    }
+
+    // The paths that the new edge is a shortcut for no longer break transitivity.
+    missingShortcuts -= countPaths(source, destination);
+    insertEdge(new Edge<T>(source, destination));
+    successors.get(source).add(destination);
+    Set<T> incoming = predecessors.get(destination);
+    incoming.add(source);
+    missingShortcuts += countMissingShortcuts(source, destination);
+
+    // The destination has an incoming edge, so it is no longer a root candidate.
+    if (incoming.size() == 1) {
+      verticiesWithNoIncomingEdges.remove(destination);
+    }
+
+    if (source.equals(destination)) {
+      selfLoops++;
+    } else if (containsEdge(destination, source)) {
+      // The reverse edge was unmatched until now, and the two verticies now point at each other.
+      unmatchedEdges--;
+      mutualPairs++;
+    } else {
+      unmatchedEdges++;
+    }
+    return true;
+  }
+
+  /**
+   * Removes an edge from the graph in O(degree) of its verticies. Its verticies stay in the graph.
+   *
+   * @param source The vertex the edge starts from.
+   * @param destination The vertex the edge ends at.
+   * @return True if the edge was removed, false if it was not in the graph.
+   */
+  public boolean removeEdge(T source, T destination) {
+    if (!containsEdge(source, destination)) {
+      return false;
+    }
+
+    // The paths through the edge no longer break transitivity, but the paths it was a shortcut for
+    // now do.
+    missingShortcuts -= countMissingShortcuts(source, destination);
+    deleteEdge(new Edge<T>(source, destination));
+    successors.get(source).remove(destination);
+    Set<T> incoming = predecessors.get(destination);
+    incoming.remove(source);
+    missingShortcuts += countPaths(source, destination);
+
+    if (incoming.isEmpty()) {
+      verticiesWithNoIncomingEdges.add(destination);
+    }
+
+    if (source.equals(destination)) {
+      selfLoops--;
+    } else if (containsEdge(destination, source)) {
+      // The reverse edge is left without a match.
+      unmatchedEdges++;
+      mutualPairs--;
+    } else {
+      unmatchedEdges--;
+    }
+    return true;
+  }
+
+  /**
+   * Counts the paths of two edges from the source to the destination, in O(degree) of the smaller
+   * of the two sides.
+   *
+   * @param source The vertex the paths start from.
+   * @param destination The vertex the paths end at.
+   * @return The number of verticies with an edge from the source and an edge to the destination.
+   */
+  private long countPaths(T source, T destination) {
+    Set<T> outgoing = successors.get(source);
+    Set<T> incoming = predecessors.get(destination);
+    Set<T> smaller = outgoing.size() <= incoming.size() ? outgoing : incoming;
+    Set<T> larger = smaller == outgoing ? incoming : outgoing;
+    long paths = 0;
+    for (T middle : smaller) {
+      if (larger.contains(middle)) {
+        paths++;
+      }
+    }
+    return paths;
+  }
+
+  /**
+   * Counts the paths of two edges that go through an edge of the graph and have no shortcut, in
+   * O(in-degree) of the source plus O(out-degree) of the destination.
+   *
+   * @param source The vertex the edge starts from.
+   * @param destination The vertex the edge ends at.
+   * @return The number of paths through the edge with no edge from their start to their end.
+   */
+  private long countMissingShortcuts(T source, T destination) {
+    long missing = 0;
+    Set<T> outgoing = successors.get(source);
+    for (T after : successors.get(destination)) {
+      if (!outgoing.contains(after)) {
+        missing++;
+      }
+    }
+    for (T before : predecessors.get(source)) {
+      if (!containsEdge(before, destination)) {
+        missing++;
+      }
+    }
+    return missing;
+  }
+
+  /**
+   * Gets the number of edges that end at a vertex.
+   *
+   * @param vertex The vertex to look up.
+   * @return The number of incoming edges of the vertex.
+   * @throws IllegalArgumentException if the vertex is not in the graph
+   */
+  public int getInDegree(T vertex) {
+    Set<T> incoming = predecessors.get(vertex);
+    if (incoming == null) {
+      throw new IllegalArgumentException("Vertex is not in the graph: " + vertex);
+    }
+    return incoming.size();
+  }
+
+  /**
+   * Find the set of root verticies in the graph, starting from the verticies that are kept up to
+   * date as having no incoming edges.
+   *
+   * @return The set of root verticies in the graph.
+   */
+  @Override
+  public Set<T> getRoots() {
+    return completeRoots(new HashSet<T>(verticiesWithNoIncomingEdges));
+  }
+
+  /**
+   * Checks if every vertex has an edge to itself, in O(1).
+   *
+   * @return True if a graph is reflexive, false otherwise.
+   */
+  @Override
+  public boolean isReflexive() {
+    return selfLoops == getVerticies().size();
+  }
+
+  /**
+   * Checks if every edge has an edge going back, in O(1).
+   *
+   * @return True if the entire graph is symmetric, false otherwise.
+   */
+  @Override
+  public boolean isSymmetric() {
+    return unmatchedEdges == 0;
+  }
+
+  /**
+   * Checks if every path of two edges has an edge from its start to its end, in O(1). Together with
+   * the other counts, this keeps {@link #getRoots()} from rebuilding the compact graph to decide if
+   * the graph is an equivalence relation.
+   *
+   * @return True if entire graph is transitive, false otherwise.
+   */
+  @Override
+  public boolean isTransitive() {
+    return missingShortcuts == 0;
+  }
+
+  /**
+   * Checks if no two different verticies have edges going both ways, in O(1).
+   *
+   * @return True if entire graph is AntiSymmetric, false otherwise.
+   */
+  @Override
+  public boolean isAntiSymmetric() {
+    return mutualPairs == 0;
+  }
+}
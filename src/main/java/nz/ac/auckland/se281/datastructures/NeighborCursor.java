@@ -0,0 +1,35 @@
+package nz.ac.auckland.se281.datastructures;
+
+/** A reusable position in the neighbors of a vertex of an {@link Adjacency}. */
+public interface NeighborCursor {
+
+  /**
+   * Moves the cursor to the first neighbor of a vertex.
+   *
+   * @param vertex The number of the vertex whose neighbors are read next.
+   */
+  void moveTo(int vertex);
+
+  /**
+   * Checks if the vertex has neighbors that have not been read yet.
+   *
+   * @return True if {@link #next()} can be called, false otherwise.
+   */
+  boolean hasNext();
+
+  /**
+   * Reads the next neighbor, in ascending order.
+   *
+   * @return The number of the neighbor.
+   */
+  int next();
+
+  /**
+   * Gets the weight of the edge to the neighbor that was read last.
+   *
+   * @return The weight of the edge, which is 1 if the adjacency has no weights.
+   */
+  default double weight() {
+    return 1.0;
+  }
+}
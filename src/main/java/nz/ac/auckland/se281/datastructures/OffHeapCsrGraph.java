@@ -0,0 +1,250 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compressed sparse row adjacency like {@link CsrGraph}, stored outside the Java heap in direct
+ * buffers. The garbage collector only sees the few buffer objects, never the edges themselves, so
+ * its pauses do not grow with the size of the graph.
+ *
+ * <p>A single buffer holds less than 2 GiB, so the arrays are split into chunks, and the offsets
+ * are stored as longs so that a graph can have more than 2<sup>31</sup> edges. The memory belongs
+ * to whoever built the adjacency, and is freed by {@link #close()}. A cursor or query used after
+ * that throws an {@link IllegalStateException}, but close must still not race with another thread
+ * that is reading the adjacency, since the checks are not atomic with the reads behind them.
+ *
+ * <p>Direct buffers count against {@code -XX:MaxDirectMemorySize}, which defaults to the maximum
+ * heap size given by {@code -Xmx}. A graph larger than the heap therefore needs that option as
+ * well, or its copy fails with an {@link OutOfMemoryError}.
+ */
+public final class OffHeapCsrGraph implements Adjacency, Closeable {
+  // Each chunk holds 2^27 values, which is 512 MiB of targets or 1 GiB of offsets or weights. A
+  // chunk of 2^28 longs or doubles would be 2 GiB, one byte more than a buffer can hold.
+  static final int MAX_CHUNK_SHIFT = 27;
+
+  // Frees a direct buffer at once rather than when it is collected, if this JDK allows it.
+  private static final MethodHandle INVOKE_CLEANER = findCleaner();
+
+  private final int vertexCount;
+  private final long edgeCount;
+  private final int chunkShift;
+  private final int chunkMask;
+  private final boolean weighted;
+  private final LongBuffer[] offsets;
+  private final IntBuffer[] targets;
+  private final DoubleBuffer[] weights;
+  private final List<ByteBuffer> memory = new ArrayList<>();
+  private volatile boolean closed;
+
+  private OffHeapCsrGraph(int vertexCount, long edgeCount, int chunkShift, boolean weighted) {
+    this.vertexCount = vertexCount;
+    this.edgeCount = edgeCount;
+    this.chunkShift = chunkShift;
+    this.chunkMask = (1 << chunkShift) - 1;
+    this.weighted = weighted;
+    this.offsets = new LongBuffer[chunkCount(vertexCount + 1L)];
+    for (int c = 0; c < offsets.length; c++) {
+      offsets[c] = allocate(chunkLength(vertexCount + 1L, c), Long.BYTES).asLongBuffer();
+    }
+    this.targets = new IntBuffer[chunkCount(edgeCount)];
+    for (int c = 0; c < targets.length; c++) {
+      targets[c] = allocate(chunkLength(edgeCount, c), Integer.BYTES).asIntBuffer();
+    }
+    this.weights = new DoubleBuffer[weighted ? targets.length : 0];
+    for (int c = 0; c < weights.length; c++) {
+      weights[c] = allocate(chunkLength(edgeCount, c), Double.BYTES).asDoubleBuffer();
+    }
+  }
+
+  /**
+   * Copies an adjacency off the heap.
+   *
+   * @param adjacency The edges to copy.
+   * @return The copy, which must be closed once it is no longer used.
+   */
+  public static OffHeapCsrGraph copyOf(Adjacency adjacency) {
+    return copyOf(adjacency, MAX_CHUNK_SHIFT);
+  }
+
+  /**
+   * Copies an adjacency off the heap, with chunks of the given size.
+   *
+   * @param adjacency The edges to copy.
+   * @param chunkShift The base 2 logarithm of the number of values in each chunk, at most {@link
+   *     #MAX_CHUNK_SHIFT}.
+   * @return The copy.
+   * @throws IllegalArgumentException if the chunks would be too large for a buffer
+   */
+  static OffHeapCsrGraph copyOf(Adjacency adjacency, int chunkShift) {
+    if (chunkShift < 0 || chunkShift > MAX_CHUNK_SHIFT) {
+      throw new IllegalArgumentException("Chunk shift must be between 0 and 27: " + chunkShift);
+    }
+    OffHeapCsrGraph copy =
+        new OffHeapCsrGraph(
+            adjacency.vertexCount(), adjacency.edgeCount(), chunkShift, adjacency.isWeighted());
+    NeighborCursor neighbors = adjacency.cursor();
+    long position = 0;
+    for (int v = 0; v < copy.vertexCount; v++) {
+      copy.putOffset(v, position);
+      neighbors.moveTo(v);
+      while (neighbors.hasNext()) {
+        int chunk = (int) (position >>> chunkShift);
+        int index = (int) position & copy.chunkMask;
+        copy.targets[chunk].put(index, neighbors.next());
+        if (copy.weighted) {
+          copy.weights[chunk].put(index, neighbors.weight());
+        }
+        position++;
+      }
+    }
+    copy.putOffset(copy.vertexCount, position);
+    return copy;
+  }
+
+  private ByteBuffer allocate(int length, int bytes) {
+    ByteBuffer buffer =
+        ByteBuffer.allocateDirect(Math.multiplyExact(length, bytes)).order(ByteOrder.nativeOrder());
+    memory.add(buffer);
+    return buffer;
+  }
+
+  private static MethodHandle findCleaner() {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field unsafe = unsafeClass.getDeclaredField("theUnsafe");
+      unsafe.setAccessible(true);
+      return MethodHandles.lookup()
+          .findVirtual(
+              unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+          .bindTo(unsafe.get(null));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // Without it the memory is only returned once the buffers are collected.
+      return null;
+    }
+  }
+
+  private int chunkCount(long length) {
+    return (int) ((length + chunkMask) >>> chunkShift);
+  }
+
+  private int chunkLength(long length, int chunk) {
+    return (int) Math.min(length - ((long) chunk << chunkShift), 1L << chunkShift);
+  }
+
+  private void putOffset(int vertex, long offset) {
+    offsets[vertex >>> chunkShift].put(vertex & chunkMask, offset);
+  }
+
+  private long offset(int vertex) {
+    return offsets[vertex >>> chunkShift].get(vertex & chunkMask);
+  }
+
+  /**
+   * Gets the number of bytes held outside the heap.
+   *
+   * @return The size of the offsets, targets and weights in bytes.
+   */
+  @Override
+  public long sizeInBytes() {
+    long bytesPerEdge = Integer.BYTES + (weighted ? Double.BYTES : 0);
+    return Long.BYTES * (vertexCount + 1L) + bytesPerEdge * edgeCount;
+  }
+
+  @Override
+  public int vertexCount() {
+    return vertexCount;
+  }
+
+  @Override
+  public long edgeCount() {
+    return edgeCount;
+  }
+
+  @Override
+  public boolean isWeighted() {
+    return weighted;
+  }
+
+  @Override
+  public int degree(int vertex) {
+    checkOpen();
+    return (int) (offset(vertex + 1) - offset(vertex));
+  }
+
+  @Override
+  public NeighborCursor cursor() {
+    checkOpen();
+    return new NeighborCursor() {
+      private long position;
+      private long end;
+
+      @Override
+      public void moveTo(int vertex) {
+        checkOpen();
+        position = offset(vertex);
+        end = offset(vertex + 1);
+      }
+
+      @Override
+      public boolean hasNext() {
+        return position < end;
+      }
+
+      @Override
+      public int next() {
+        checkOpen();
+        long current = position++;
+        return targets[(int) (current >>> chunkShift)].get((int) current & chunkMask);
+      }
+
+      @Override
+      public double weight() {
+        if (!weighted) {
+          return 1.0;
+        }
+        checkOpen();
+        long current = position - 1;
+        return weights[(int) (current >>> chunkShift)].get((int) current & chunkMask);
+      }
+    };
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("Off-heap adjacency has been closed");
+    }
+  }
+
+  /**
+   * Frees the buffers, returning their memory to the system straight away where the JDK allows it
+   * and otherwise once the buffer objects are collected. Closing twice does nothing.
+   */
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (INVOKE_CLEANER != null) {
+      for (ByteBuffer buffer : memory) {
+        try {
+          INVOKE_CLEANER.invokeExact(buffer);
+        } catch (Throwable e) {
+          throw new IllegalStateException("Could not free off-heap adjacency", e);
+        }
+      }
+    }
+    memory.clear();
+  }
+}
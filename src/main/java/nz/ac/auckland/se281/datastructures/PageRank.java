@@ -0,0 +1,266 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The PageRank of every vertex, found by power iteration. Each round, every vertex pulls the rank
+ * of the verticies with edges to it through the reversed edges, so each vertex is only written by
+ * the thread that owns it and no locks or atomic updates are needed. The rank of verticies with no
+ * outgoing edges is spread evenly over the whole graph, so the ranks always add up to 1.
+ *
+ * <p>The verticies are split into ranges on a work-stealing fork-join pool. The passes that touch
+ * every vertex once are plain loops over {@code double[]} arrays, which the JIT compiles to vector
+ * instructions.
+ */
+public final class PageRank {
+  public static final double DEFAULT_DAMPING = 0.85;
+
+  public static final double DEFAULT_TOLERANCE = 1e-9;
+
+  public static final int DEFAULT_MAX_ITERATIONS = 200;
+
+  /** The fewest verticies a task updates itself instead of splitting them with another. */
+  private static final int VERTICIES_PER_TASK = 4096;
+
+  private final double[] ranks;
+  private final int iterations;
+  private final boolean converged;
+  private final long nanos;
+
+  /**
+   * Constructs the result of the iterations.
+   *
+   * @param ranks The rank of each vertex.
+   * @param iterations The number of iterations that were run.
+   * @param converged Whether the ranks stopped changing before the most iterations were run.
+   * @param nanos The time the iterations took.
+   */
+  private PageRank(double[] ranks, int iterations, boolean converged, long nanos) {
+    this.ranks = ranks;
+    this.iterations = iterations;
+    this.converged = converged;
+    this.nanos = nanos;
+  }
+
+  /**
+   * Finds the PageRank of every vertex with the usual damping and tolerance.
+   *
+   * @param adjacency The edges of the graph.
+   * @param reverse The same edges, each going the other way.
+   * @return The ranks.
+   */
+  public static PageRank compute(Adjacency adjacency, Adjacency reverse) {
+    return compute(adjacency, reverse, DEFAULT_DAMPING, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+  }
+
+  /**
+   * Finds the PageRank of every vertex, iterating until the ranks change by less than the tolerance
+   * in total or the most iterations have run.
+   *
+   * @param adjacency The edges of the graph.
+   * @param reverse The same edges, each going the other way.
+   * @param damping The chance of following an edge rather than jumping to a random vertex.
+   * @param tolerance The total change in the ranks of one iteration that counts as converged.
+   * @param maxIterations The most iterations to run.
+   * @return The ranks.
+   */
+  public static PageRank compute(
+      Adjacency adjacency, Adjacency reverse, double damping, double tolerance, int maxIterations) {
+    long start = System.nanoTime();
+    int vertexCount = adjacency.vertexCount();
+    if (vertexCount == 0) {
+      return new PageRank(new double[0], 0, true, 0);
+    }
+
+    // Each vertex gives an equal share of its rank to every vertex it has an edge to.
+    double[] share = new double[vertexCount];
+    for (int v = 0; v < vertexCount; v++) {
+      int degree = adjacency.degree(v);
+      share[v] = degree == 0 ? 0.0 : 1.0 / degree;
+    }
+
+    Iteration iteration = new Iteration(reverse, share, damping);
+    Arrays.fill(iteration.ranks, 1.0 / vertexCount);
+    int iterations = 0;
+    boolean converged = false;
+    while (iterations < maxIterations && !converged) {
+      converged = iteration.run() < tolerance;
+      iterations++;
+    }
+    return new PageRank(iteration.ranks, iterations, converged, System.nanoTime() - start);
+  }
+
+  /**
+   * Gets the rank of a vertex.
+   *
+   * @param vertex The number of the vertex.
+   * @return The chance of a random walk being at the vertex.
+   */
+  public double rankOf(int vertex) {
+    return ranks[vertex];
+  }
+
+  /**
+   * Gets the number of iterations that were run.
+   *
+   * @return The number of iterations.
+   */
+  public int getIterations() {
+    return iterations;
+  }
+
+  /**
+   * Checks if the ranks stopped changing before the most iterations were run.
+   *
+   * @return True if the ranks converged, false otherwise.
+   */
+  public boolean isConverged() {
+    return converged;
+  }
+
+  /**
+   * Gets how fast the iterations were run, including setting them up.
+   *
+   * @return The number of iterations per second.
+   */
+  public double getIterationsPerSecond() {
+    return nanos == 0 ? 0.0 : iterations * 1e9 / nanos;
+  }
+
+  /**
+   * Finds the verticies with the highest ranks.
+   *
+   * @param count The most verticies to find.
+   * @param rank The rank of each vertex number in search order, which breaks ties between equal
+   *     PageRanks.
+   * @return The numbers of the verticies, from the highest PageRank down.
+   */
+  public int[] top(int count, int[] rank) {
+    return Scores.top(ranks, count, rank);
+  }
+
+  /** The arrays that are reused from one iteration to the next. */
+  private static final class Iteration {
+    private final Adjacency reverse;
+    private final double[] share;
+    private final double damping;
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+    private double[] ranks;
+    private double[] next;
+    // The rank each vertex passes along each of its edges this iteration.
+    private final double[] contributions;
+    // The rank every vertex gets before pulling from its edges this iteration.
+    private double base;
+
+    /**
+     * Allocates the arrays for iterating over a graph.
+     *
+     * @param reverse The edges of the graph, each going the other way.
+     * @param share The share of its rank each vertex passes along each edge.
+     * @param damping The chance of following an edge rather than jumping to a random vertex.
+     */
+    Iteration(Adjacency reverse, double[] share, double damping) {
+      this.reverse = reverse;
+      this.share = share;
+      this.damping = damping;
+      this.ranks = new double[share.length];
+      this.next = new double[share.length];
+      this.contributions = new double[share.length];
+    }
+
+    /**
+     * Runs one iteration, replacing the ranks with the next ones.
+     *
+     * @return The total change in the ranks.
+     */
+    double run() {
+      // The rank held by verticies with no edges, which every vertex gets an equal share of.
+      double dangling = pool.invoke(new Ranges(this, true, 0, ranks.length));
+      base = (1.0 - damping + damping * dangling) / ranks.length;
+      double change = pool.invoke(new Ranges(this, false, 0, ranks.length));
+      double[] swap = ranks;
+      ranks = next;
+      next = swap;
+      return change;
+    }
+
+    /**
+     * Finds the rank each vertex in a range passes along its edges.
+     *
+     * @param from The first vertex of the range.
+     * @param to The vertex after the last one of the range.
+     * @return The total rank of the verticies in the range with no edges.
+     */
+    double spread(int from, int to) {
+      double dangling = 0.0;
+      for (int v = from; v < to; v++) {
+        contributions[v] = ranks[v] * share[v];
+        dangling += share[v] == 0.0 ? ranks[v] : 0.0;
+      }
+      return dangling;
+    }
+
+    /**
+     * Finds the next rank of each vertex in a range, pulling from the verticies with edges to it.
+     *
+     * @param from The first vertex of the range.
+     * @param to The vertex after the last one of the range.
+     * @return The total change in the ranks of the range.
+     */
+    double pull(int from, int to) {
+      NeighborCursor incoming = reverse.cursor();
+      for (int v = from; v < to; v++) {
+        incoming.moveTo(v);
+        double sum = 0.0;
+        while (incoming.hasNext()) {
+          sum += contributions[incoming.next()];
+        }
+        next[v] = sum;
+      }
+      double change = 0.0;
+      for (int v = from; v < to; v++) {
+        next[v] = base + damping * next[v];
+        change += Math.abs(next[v] - ranks[v]);
+      }
+      return change;
+    }
+  }
+
+  /** Splits a range of verticies in half until it is small enough to update directly. */
+  @SuppressWarnings("serial")
+  private static final class Ranges extends RecursiveTask<Double> {
+    private final Iteration iteration;
+    private final boolean spread;
+    private final int from;
+    private final int to;
+
+    /**
+     * Constructs a task over a range of the verticies.
+     *
+     * @param iteration The iteration being run.
+     * @param spread True to find what each vertex passes along, false to pull the next ranks.
+     * @param from The first vertex of the range.
+     * @param to The vertex after the last one of the range.
+     */
+    Ranges(Iteration iteration, boolean spread, int from, int to) {
+      this.iteration = iteration;
+      this.spread = spread;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected Double compute() {
+      if (to - from <= VERTICIES_PER_TASK) {
+        return spread ? iteration.spread(from, to) : iteration.pull(from, to);
+      }
+      int middle = (from + to) >>> 1;
+      Ranges left = new Ranges(iteration, spread, from, middle);
+      left.fork();
+      double right = new Ranges(iteration, spread, middle, to).compute();
+      return left.join() + right;
+    }
+  }
+}
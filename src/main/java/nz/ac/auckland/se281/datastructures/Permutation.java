@@ -0,0 +1,143 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A renumbering of the verticies of a graph, which gives every old vertex number a new one. It is
+ * kept in both directions, so results found with the new numbers can be mapped back to the old
+ * ones.
+ */
+public final class Permutation {
+  // The new number of each old number, and the old number of each new number.
+  private final int[] newNumbers;
+  private final int[] oldNumbers;
+
+  /**
+   * Constructs a Permutation from its two directions, which are not copied.
+   *
+   * @param newNumbers The new number of each old number.
+   * @param oldNumbers The old number of each new number.
+   */
+  private Permutation(int[] newNumbers, int[] oldNumbers) {
+    this.newNumbers = newNumbers;
+    this.oldNumbers = oldNumbers;
+  }
+
+  /**
+   * Builds the permutation that numbers the verticies in the given order.
+   *
+   * @param order The old number of each vertex, in the order they are given their new numbers.
+   * @return The permutation.
+   * @throws IllegalArgumentException if the order does not list every number exactly once
+   */
+  public static Permutation fromOrder(int[] order) {
+    int[] newNumbers = new int[order.length];
+    boolean[] seen = new boolean[order.length];
+    for (int v = 0; v < order.length; v++) {
+      int old = order[v];
+      if (old < 0 || old >= order.length || seen[old]) {
+        throw new IllegalArgumentException("Not a permutation: " + old + " at " + v);
+      }
+      seen[old] = true;
+      newNumbers[old] = v;
+    }
+    return new Permutation(newNumbers, order.clone());
+  }
+
+  /**
+   * Gets the number of verticies that are renumbered.
+   *
+   * @return The number of verticies.
+   */
+  public int size() {
+    return newNumbers.length;
+  }
+
+  /**
+   * Gets the new number of a vertex.
+   *
+   * @param oldNumber The number the vertex had before.
+   * @return The number the vertex has now.
+   */
+  public int newNumber(int oldNumber) {
+    return newNumbers[oldNumber];
+  }
+
+  /**
+   * Gets the old number of a vertex.
+   *
+   * @param newNumber The number the vertex has now.
+   * @return The number the vertex had before.
+   */
+  public int oldNumber(int newNumber) {
+    return oldNumbers[newNumber];
+  }
+
+  /**
+   * Builds the permutation that applies this one and then the given one.
+   *
+   * @param next The permutation applied to the new numbers of this one.
+   * @return The combined permutation.
+   */
+  public Permutation then(Permutation next) {
+    int[] order = new int[size()];
+    for (int v = 0; v < order.length; v++) {
+      order[v] = oldNumber(next.oldNumber(v));
+    }
+    return fromOrder(order);
+  }
+
+  /**
+   * Builds the permutation that undoes this one.
+   *
+   * @return The permutation from the new numbers back to the old ones.
+   */
+  public Permutation inverse() {
+    return new Permutation(oldNumbers, newNumbers);
+  }
+
+  /**
+   * Copies an adjacency with every vertex renumbered. The neighbors of each vertex are sorted by
+   * their new numbers, and the weights move with their edges.
+   *
+   * @param adjacency The edges between the old numbers.
+   * @return The same edges between the new numbers.
+   */
+  public CsrGraph relabel(Adjacency adjacency) {
+    int edgeCount = Math.toIntExact(adjacency.edgeCount());
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    double[] weights = adjacency.isWeighted() ? new double[edgeCount] : null;
+    int count = 0;
+    NeighborCursor neighbors = adjacency.cursor();
+    for (int v = 0; v < size(); v++) {
+      neighbors.moveTo(v);
+      while (neighbors.hasNext()) {
+        sources[count] = newNumbers[v];
+        destinations[count] = newNumbers[neighbors.next()];
+        if (weights != null) {
+          weights[count] = neighbors.weight();
+        }
+        count++;
+      }
+    }
+    return CsrGraph.fromEdges(size(), sources, destinations, weights, count);
+  }
+
+  /**
+   * Moves the items of a list numbered by the old numbers to their new numbers.
+   *
+   * @param items The item of each old number.
+   * @param <T> The type of each item.
+   * @return The item of each new number.
+   */
+  public <T> List<T> relabel(List<T> items) {
+    List<T> result = new ArrayList<>(items.size());
+    for (int v = 0; v < size(); v++) {
+      result.add(items.get(oldNumbers[v]));
+    }
+    return Collections.unmodifiableList(result);
+  }
+}
@@ -0,0 +1,145 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The answer to whether a relation has a {@link RelationProperty}, found exactly when there is time
+ * and estimated from random edges otherwise.
+ *
+ * <p>A fixed number of edges are tested first, each picked uniformly at random with a seeded
+ * random number generator, since a violation found by chance settles the answer at once. If none
+ * is found, every edge is searched until the time budget runs out. If the search finishes, the
+ * answer is exact. Otherwise the samples bound how common violations can be: if a fraction p of
+ * the samples would find one, then k samples all miss with a chance of (1 - p)^k, so with the
+ * given confidence fewer than ln(1 / (1 - confidence)) / k of them do.
+ */
+public final class PropertyCheck {
+  public static final double CONFIDENCE = 0.95;
+
+  private final RelationProperty property;
+  private final int[] violation;
+  private final boolean complete;
+  private final int samples;
+
+  /**
+   * Constructs the answer of a check.
+   *
+   * @param property The property that was checked.
+   * @param violation The verticies of a violation, or null if none was found.
+   * @param complete Whether every edge was checked.
+   * @param samples The number of random edges that were tested.
+   */
+  private PropertyCheck(
+      RelationProperty property, int[] violation, boolean complete, int samples) {
+    this.property = property;
+    this.violation = violation;
+    this.complete = complete;
+    this.samples = samples;
+  }
+
+  /**
+   * Checks if a relation has a property, exactly if every edge can be checked in time.
+   *
+   * @param adjacency The edges of the relation.
+   * @param property The property to check.
+   * @param samples The number of random edges to test before searching every edge.
+   * @param seed The seed of the random edges, so the same check can be made again.
+   * @param budgetNanos The most time the check may take before it settles for an estimate.
+   * @return The answer.
+   */
+  public static PropertyCheck check(
+      Adjacency adjacency, RelationProperty property, int samples, long seed, long budgetNanos) {
+    long start = System.nanoTime();
+    if (adjacency.edgeCount() == 0) {
+      return new PropertyCheck(property, null, true, 0);
+    }
+
+    // The number of edges before each vertex, to pick an edge by its position among all of them.
+    int n = adjacency.vertexCount();
+    long[] edgesBefore = new long[n + 1];
+    for (int v = 0; v < n; v++) {
+      edgesBefore[v + 1] = edgesBefore[v] + adjacency.degree(v);
+    }
+    Random random = new Random(seed);
+    for (int i = 0; i < samples; i++) {
+      long edge = random.nextLong(edgesBefore[n]);
+      int source = Arrays.binarySearch(edgesBefore, edge);
+      // A vertex with no edges shares its start with the next vertex, so find the last of them.
+      source = source < 0 ? -source - 2 : source;
+      while (edgesBefore[source + 1] == edge) {
+        source++;
+      }
+      int destination =
+          RelationProperty.neighborAt(adjacency, source, (int) (edge - edgesBefore[source]));
+      int[] violation = property.violationAt(adjacency, source, destination, random);
+      if (violation != null) {
+        return new PropertyCheck(property, violation, false, i + 1);
+      }
+    }
+
+    int[] violation = property.findViolation(adjacency, start + budgetNanos);
+    if (violation == null) {
+      return new PropertyCheck(property, null, false, samples);
+    }
+    return new PropertyCheck(property, violation.length == 0 ? null : violation, true, samples);
+  }
+
+  /**
+   * Gets the property that was checked.
+   *
+   * @return The property.
+   */
+  public RelationProperty getProperty() {
+    return property;
+  }
+
+  /**
+   * Checks if the relation was shown to have the property, or was estimated to when the answer is
+   * not exact.
+   *
+   * @return True if no violation was found, false otherwise.
+   */
+  public boolean holds() {
+    return violation == null;
+  }
+
+  /**
+   * Checks if the answer is certain, which it is when a violation was found or every edge was
+   * checked.
+   *
+   * @return True if the answer is certain, false if it is an estimate.
+   */
+  public boolean isCertain() {
+    return complete || violation != null;
+  }
+
+  /**
+   * Gets the violation that was found.
+   *
+   * @return The vertex numbers of the violation, as described by its property, or null if none
+   *     was found.
+   */
+  public int[] getViolation() {
+    return violation == null ? null : violation.clone();
+  }
+
+  /**
+   * Gets the number of random edges that were tested.
+   *
+   * @return The number of samples.
+   */
+  public int getSamples() {
+    return samples;
+  }
+
+  /**
+   * Gets how common violations can be, for an estimated answer.
+   *
+   * @return The fraction of samples that find a violation, which is lower than this with {@link
+   *     #CONFIDENCE}, or 1 if no samples were tested.
+   */
+  public double getErrorBound() {
+    return samples == 0 ? 1.0 : Math.min(1.0, -Math.log(1.0 - CONFIDENCE) / samples);
+  }
+}
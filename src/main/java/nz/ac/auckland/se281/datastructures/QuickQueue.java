@@ -1,5 +1,8 @@
 package nz.ac.auckland.se281.datastructures;
 
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * A QuickQueue data structure which is a singly-linked list, implemented off my ListLinked class.
  *
@@ -7,6 +10,8 @@ package nz.ac.auckland.se281.datastructures;
  */
 public class QuickQueue<T> {
   private ListLinked<T> list = new ListLinked<T>();
+  // Tracks the elements in the list, so that membership checks do not walk the list.
+  private Set<T> members = new HashSet<T>();
 
   /**
    * Enqueues an element to the end of the queue in O(1).
@@ -15,7 +20,7 @@ public class QuickQueue<T> {
    */
   public void enqueue(T elem) {
     // If the element is not already in the queue, add it to the end.
-    if (!list.contains(elem)) {
+    if (members.add(elem)) {
       list.addLast(elem);
     }
   }
@@ -23,12 +28,13 @@ public class QuickQueue<T> {
   // Removes an element from the front of the queue in O(1)
   public T dequeue() {
     T elem = list.removeFirst();
+    members.remove(elem);
     return elem;
   }
 
-  // Checks if an element exists in the queue in O(n)
+  // Checks if an element exists in the queue in O(1)
   public boolean contains(T elem) {
-    return list.contains(elem);
+    return members.contains(elem);
   }
 
   // Checks if the queue is empty in O(1)
@@ -1,5 +1,8 @@
 package nz.ac.auckland.se281.datastructures;
 
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * A QuickStack data structure which is a singly-linked list, implemented off my ListLinked class.
  *
@@ -7,6 +10,8 @@ package nz.ac.auckland.se281.datastructures;
  */
 public class QuickStack<T> {
   private ListLinked<T> list = new ListLinked<T>();
+  // Tracks the elements in the list, so that membership checks do not walk the list.
+  private Set<T> members = new HashSet<T>();
 
   /**
    * Pushes an element to the top of the stack in O(1).
@@ -15,19 +20,21 @@ public class QuickStack<T> {
    */
   public void push(T elem) {
     // If the element is not already in the stack, add it to the top.
-    if (!contains(elem)) {
+    if (members.add(elem)) {
       list.addFirst(elem);
     }
   }
 
   // Removes an element from the top of the stack in O(1)
   public T pop() {
-    return list.removeFirst();
+    T elem = list.removeFirst();
+    members.remove(elem);
+    return elem;
   }
 
-  // Checks if an element exists in the stack in O(n)
+  // Checks if an element exists in the stack in O(1)
   public boolean contains(T elem) {
-    return list.contains(elem);
+    return members.contains(elem);
   }
 
   // Checks if the stack is empty in O(1)
@@ -0,0 +1,307 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * An index that answers whether one vertex reaches another without searching the whole graph. The
+ * strongly connected components are condensed into a graph with no cycles, since every vertex of a
+ * component reaches exactly the same verticies.
+ *
+ * <p>When there are at most {@link #DEFAULT_BITSET_LIMIT} components, the index stores the set of
+ * components each component reaches as a bitset, and every query is a single bit lookup. Larger
+ * graphs are labelled GRAIL-style instead: each of {@link #LABEL_COUNT} randomised depth first
+ * searches of the components gives each component an interval that holds the intervals of
+ * everything it reaches. A query whose intervals do not nest is answered at once, and the rest fall
+ * back to a search of the components that is cut short by the same intervals.
+ */
+public final class ReachabilityIndex {
+  public static final int DEFAULT_BITSET_LIMIT = 8192;
+
+  public static final int LABEL_COUNT = 3;
+
+  private static final long SEED = 281;
+
+  private final StronglyConnectedComponents components;
+  private final Adjacency dag;
+  private final int vertexCount;
+  // The components each component reaches, or null if the graph is labelled with intervals.
+  private final long[][] closure;
+  private final int[][] lows;
+  private final int[][] posts;
+  private final long buildNanos;
+
+  /**
+   * Builds the index of an adjacency, choosing bitsets when the components are few enough.
+   *
+   * @param adjacency The edges of the graph.
+   */
+  public ReachabilityIndex(Adjacency adjacency) {
+    this(adjacency, DEFAULT_BITSET_LIMIT);
+  }
+
+  /**
+   * Builds the index of an adjacency.
+   *
+   * @param adjacency The edges of the graph.
+   * @param bitsetLimit The largest number of components that are indexed with bitsets.
+   */
+  public ReachabilityIndex(Adjacency adjacency, int bitsetLimit) {
+    long start = System.nanoTime();
+    this.vertexCount = adjacency.vertexCount();
+    this.components = new StronglyConnectedComponents(adjacency);
+    this.dag = components.condensation();
+
+    if (components.componentCount() <= bitsetLimit) {
+      this.closure = buildClosure();
+      this.lows = null;
+      this.posts = null;
+    } else {
+      this.closure = null;
+      this.lows = new int[LABEL_COUNT][];
+      this.posts = new int[LABEL_COUNT][];
+      Random random = new Random(SEED);
+      for (int label = 0; label < LABEL_COUNT; label++) {
+        buildLabel(label, random);
+      }
+    }
+    this.buildNanos = System.nanoTime() - start;
+  }
+
+  /**
+   * Builds the set of components each component reaches. The components are numbered in reverse
+   * topological order, so the sets of the components an edge leads to are always built first, and a
+   * component only ever reaches components with lower numbers.
+   *
+   * @return The bitset of each component, only as long as its own number needs.
+   */
+  private long[][] buildClosure() {
+    int count = components.componentCount();
+    long[][] reached = new long[count][];
+    NeighborCursor neighbors = dag.cursor();
+    for (int c = 0; c < count; c++) {
+      long[] words = new long[(c >>> 6) + 1];
+      words[c >>> 6] |= 1L << c;
+      neighbors.moveTo(c);
+      while (neighbors.hasNext()) {
+        long[] other = reached[neighbors.next()];
+        for (int i = 0; i < other.length; i++) {
+          words[i] |= other[i];
+        }
+      }
+      reached[c] = words;
+    }
+    return reached;
+  }
+
+  /**
+   * Labels every component with an interval from a depth first search that starts from the
+   * components, and visits the children of each component, in a random order. The interval of a
+   * component runs from the lowest finishing rank of anything it reaches to its own finishing rank.
+   *
+   * @param label Which of the labellings to build.
+   * @param random The source of the random orders.
+   */
+  private void buildLabel(int label, Random random) {
+    int count = components.componentCount();
+    int[] low = new int[count];
+    int[] post = new int[count];
+    Arrays.fill(low, Integer.MAX_VALUE);
+
+    int[] starts = new int[count];
+    for (int c = 0; c < count; c++) {
+      starts[c] = c;
+    }
+    shuffle(starts, 0, count, random);
+
+    // The children of every component on the search path, shuffled, stacked one after the other.
+    int[] children = new int[(int) dag.edgeCount()];
+    int[] callStack = new int[count];
+    int[] next = new int[count];
+    int[] end = new int[count];
+    NeighborCursor neighbors = dag.cursor();
+    int rank = 0;
+
+    for (int start : starts) {
+      if (low[start] != Integer.MAX_VALUE) {
+        continue;
+      }
+      int depth = 0;
+      int top = 0;
+      int component = start;
+      while (true) {
+        if (component != -1) {
+          // Enter the component, stacking its children in a random order.
+          low[component] = Integer.MAX_VALUE - 1;
+          callStack[depth] = component;
+          next[depth] = top;
+          neighbors.moveTo(component);
+          while (neighbors.hasNext()) {
+            children[top++] = neighbors.next();
+          }
+          shuffle(children, next[depth], top, random);
+          end[depth] = top;
+          depth++;
+          component = -1;
+        }
+
+        int current = callStack[depth - 1];
+        if (next[depth - 1] < end[depth - 1]) {
+          int child = children[next[depth - 1]++];
+          if (low[child] == Integer.MAX_VALUE) {
+            component = child;
+          } else {
+            low[current] = Math.min(low[current], low[child]);
+          }
+          continue;
+        }
+
+        // Leave the component, giving it the next finishing rank.
+        post[current] = rank++;
+        low[current] = Math.min(low[current], post[current]);
+        top = end[depth - 1] - dag.degree(current);
+        depth--;
+        if (depth == 0) {
+          break;
+        }
+        int parent = callStack[depth - 1];
+        low[parent] = Math.min(low[parent], low[current]);
+      }
+    }
+    lows[label] = low;
+    posts[label] = post;
+  }
+
+  /**
+   * Shuffles part of an array in place.
+   *
+   * @param values The array to shuffle.
+   * @param from The first position to shuffle.
+   * @param to The position after the last one to shuffle.
+   * @param random The source of the random order.
+   */
+  private static void shuffle(int[] values, int from, int to, Random random) {
+    for (int i = to - 1; i > from; i--) {
+      int j = from + random.nextInt(i - from + 1);
+      int swap = values[i];
+      values[i] = values[j];
+      values[j] = swap;
+    }
+  }
+
+  /**
+   * Checks if the source reaches the destination by following edges. Every vertex reaches itself.
+   *
+   * @param source The number of the vertex to start from.
+   * @param destination The number of the vertex to reach.
+   * @return True if there is a path from the source to the destination, false otherwise.
+   */
+  public boolean reaches(int source, int destination) {
+    int from = components.componentOf(source);
+    int to = components.componentOf(destination);
+    if (from == to) {
+      return true;
+    }
+    if (to > from) {
+      // Edges between components only ever lead to lower component numbers.
+      return false;
+    }
+    if (closure != null) {
+      return (closure[from][to >>> 6] & (1L << to)) != 0;
+    }
+    if (!contains(from, to)) {
+      return false;
+    }
+
+    // The intervals nest, which does not prove a path, so search the components that could lead to
+    // the destination.
+    BitSet visited = new BitSet();
+    int[] stack = new int[16];
+    int top = 0;
+    stack[top++] = from;
+    visited.set(from);
+    NeighborCursor neighbors = dag.cursor();
+    while (top > 0) {
+      neighbors.moveTo(stack[--top]);
+      while (neighbors.hasNext()) {
+        int child = neighbors.next();
+        if (child == to) {
+          return true;
+        }
+        if (child > to && !visited.get(child) && contains(child, to)) {
+          visited.set(child);
+          if (top == stack.length) {
+            stack = Arrays.copyOf(stack, top * 2);
+          }
+          stack[top++] = child;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks if the intervals of one component hold the intervals of another in every labelling,
+   * which they always do when the first reaches the second.
+   *
+   * @param outer The component that may reach the other.
+   * @param inner The component that may be reached.
+   * @return False if the first component certainly does not reach the second, true otherwise.
+   */
+  private boolean contains(int outer, int inner) {
+    for (int label = 0; label < LABEL_COUNT; label++) {
+      if (lows[label][inner] < lows[label][outer] || posts[label][inner] > posts[label][outer]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks if the index stores the reached components of each component as a bitset.
+   *
+   * @return True for bitsets, false for interval labels.
+   */
+  public boolean usesBitsets() {
+    return closure != null;
+  }
+
+  /**
+   * Gets the number of strongly connected components the graph was condensed into.
+   *
+   * @return The number of components.
+   */
+  public int componentCount() {
+    return components.componentCount();
+  }
+
+  /**
+   * Gets how long the index took to build.
+   *
+   * @return The build time in nanoseconds.
+   */
+  public long getBuildNanos() {
+    return buildNanos;
+  }
+
+  /**
+   * Estimates the memory held by the index, counting its arrays but not the graph it was built
+   * from.
+   *
+   * @return The size of the index in bytes.
+   */
+  public long memoryBytes() {
+    int count = components.componentCount();
+    // The component of each vertex, and the offsets and targets of the condensed graph.
+    long bytes = 4L * vertexCount + 4L * (count + 1) + 4L * dag.edgeCount();
+    if (closure != null) {
+      for (long[] words : closure) {
+        bytes += 8L * words.length;
+      }
+    } else {
+      bytes += 2L * LABEL_COUNT * 4L * count;
+    }
+    return bytes;
+  }
+}
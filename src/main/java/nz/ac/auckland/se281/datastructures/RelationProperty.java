@@ -0,0 +1,241 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * A property of a relation that is broken by a few of its edges, so that it can be checked exactly
+ * by searching every edge for one that breaks it, or estimated by testing random edges. A violation
+ * is given as the verticies of the edges that break the property.
+ *
+ * <p>When a relation does not have a property, {@link #streamViolations} finds out why in the same
+ * pass that decides it, giving the first violations to a sink and counting the rest.
+ */
+public enum RelationProperty {
+  /** Every edge has an edge going back. A violation is an edge u to v with no edge back. */
+  SYMMETRY("symmetric") {
+    @Override
+    int[] violationAt(Adjacency adjacency, int source, int destination, Random random) {
+      return adjacency.containsEdge(destination, source) ? null : new int[] {source, destination};
+    }
+
+    @Override
+    int[] findViolation(Adjacency adjacency, long deadline) {
+      return findEdgeViolation(adjacency, deadline);
+    }
+
+    @Override
+    public long streamViolations(Adjacency adjacency, long limit, Consumer<int[]> sink) {
+      NeighborCursor neighbors = adjacency.cursor();
+      long count = 0;
+      for (int u = 0; u < adjacency.vertexCount(); u++) {
+        neighbors.moveTo(u);
+        while (neighbors.hasNext()) {
+          int v = neighbors.next();
+          if (!adjacency.containsEdge(v, u) && count++ < limit) {
+            sink.accept(new int[] {u, v});
+          }
+        }
+      }
+      return count;
+    }
+  },
+
+  /**
+   * No two different verticies have edges both ways. A violation is such a pair u and v, and is
+   * counted once even though both of its edges break the property.
+   */
+  ANTI_SYMMETRY("antisymmetric") {
+    @Override
+    int[] violationAt(Adjacency adjacency, int source, int destination, Random random) {
+      return source != destination && adjacency.containsEdge(destination, source)
+          ? new int[] {source, destination}
+          : null;
+    }
+
+    @Override
+    int[] findViolation(Adjacency adjacency, long deadline) {
+      return findEdgeViolation(adjacency, deadline);
+    }
+
+    @Override
+    public long streamViolations(Adjacency adjacency, long limit, Consumer<int[]> sink) {
+      NeighborCursor neighbors = adjacency.cursor();
+      long count = 0;
+      for (int u = 0; u < adjacency.vertexCount(); u++) {
+        neighbors.moveTo(u);
+        while (neighbors.hasNext()) {
+          int v = neighbors.next();
+          // The pair is found again from v, so only the edge to the higher vertex counts it.
+          if (u < v && adjacency.containsEdge(v, u) && count++ < limit) {
+            sink.accept(new int[] {u, v});
+          }
+        }
+      }
+      return count;
+    }
+  },
+
+  /**
+   * Every path of two edges has an edge that skips the middle vertex. A violation is a path u to v
+   * to w with no edge from u to w.
+   */
+  TRANSITIVITY("transitive") {
+    @Override
+    int[] violationAt(Adjacency adjacency, int source, int destination, Random random) {
+      // Follow a random edge on from the destination to make a path of two edges.
+      int degree = adjacency.degree(destination);
+      if (degree == 0) {
+        return null;
+      }
+      int next = neighborAt(adjacency, destination, random.nextInt(degree));
+      return adjacency.containsEdge(source, next) ? null : new int[] {source, destination, next};
+    }
+
+    @Override
+    int[] findViolation(Adjacency adjacency, long deadline) {
+      NeighborCursor first = adjacency.cursor();
+      NeighborCursor second = adjacency.cursor();
+      long checked = 0;
+      for (int u = 0; u < adjacency.vertexCount(); u++) {
+        first.moveTo(u);
+        while (first.hasNext()) {
+          int v = first.next();
+          second.moveTo(v);
+          while (second.hasNext()) {
+            int w = second.next();
+            if (!adjacency.containsEdge(u, w)) {
+              return new int[] {u, v, w};
+            }
+            if (++checked % DEADLINE_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+              return null;
+            }
+          }
+        }
+      }
+      return NO_VIOLATION;
+    }
+
+    @Override
+    public long streamViolations(Adjacency adjacency, long limit, Consumer<int[]> sink) {
+      if (adjacency instanceof BitMatrixGraph matrix) {
+        return matrix.streamTransitivityViolations(limit, sink);
+      }
+      NeighborCursor first = adjacency.cursor();
+      NeighborCursor second = adjacency.cursor();
+      long count = 0;
+      for (int u = 0; u < adjacency.vertexCount(); u++) {
+        first.moveTo(u);
+        while (first.hasNext()) {
+          int v = first.next();
+          second.moveTo(v);
+          while (second.hasNext()) {
+            int w = second.next();
+            if (!adjacency.containsEdge(u, w) && count++ < limit) {
+              sink.accept(new int[] {u, v, w});
+            }
+          }
+        }
+      }
+      return count;
+    }
+  };
+
+  /** What {@link #findViolation} returns when every edge was checked and none broke it. */
+  static final int[] NO_VIOLATION = new int[0];
+
+  /** How many edges are checked between looking at the clock. */
+  private static final int DEADLINE_INTERVAL = 4096;
+
+  private final String adjective;
+
+  private RelationProperty(String adjective) {
+    this.adjective = adjective;
+  }
+
+  /**
+   * Gets the word for a relation with this property, for reporting to the user.
+   *
+   * @return The adjective, such as symmetric.
+   */
+  public String getAdjective() {
+    return adjective;
+  }
+
+  /**
+   * Tests a single edge, picking any further edges the test needs at random.
+   *
+   * @param adjacency The edges of the graph.
+   * @param source The vertex the edge starts from.
+   * @param destination The vertex the edge ends at.
+   * @param random The source of any further edges.
+   * @return The verticies of a violation, or null if none was found.
+   */
+  abstract int[] violationAt(Adjacency adjacency, int source, int destination, Random random);
+
+  /**
+   * Searches every edge for a violation, until the deadline passes.
+   *
+   * @param adjacency The edges of the graph.
+   * @param deadline The {@link System#nanoTime()} to give up at.
+   * @return The verticies of the first violation, {@link #NO_VIOLATION} if there is none, or null
+   *     if the deadline passed first.
+   */
+  abstract int[] findViolation(Adjacency adjacency, long deadline);
+
+  /**
+   * Counts every violation in a single pass over the edges, giving the first of them to a sink in
+   * ascending order of their first vertex. Only the violations given to the sink are allocated, so
+   * counting a relation that is far from having the property costs no more than checking it.
+   *
+   * @param adjacency The edges of the graph.
+   * @param limit The most violations to give to the sink.
+   * @param sink The consumer that is given the verticies of each violation.
+   * @return The number of violations, which is 0 if and only if the graph has the property.
+   */
+  public abstract long streamViolations(Adjacency adjacency, long limit, Consumer<int[]> sink);
+
+  /**
+   * Searches every edge for a violation with {@link #violationAt}, which must not need any
+   * further edges.
+   *
+   * @param adjacency The edges of the graph.
+   * @param deadline The {@link System#nanoTime()} to give up at.
+   * @return The verticies of the first violation, {@link #NO_VIOLATION} if there is none, or null
+   *     if the deadline passed first.
+   */
+  int[] findEdgeViolation(Adjacency adjacency, long deadline) {
+    NeighborCursor neighbors = adjacency.cursor();
+    long checked = 0;
+    for (int u = 0; u < adjacency.vertexCount(); u++) {
+      neighbors.moveTo(u);
+      while (neighbors.hasNext()) {
+        int[] violation = violationAt(adjacency, u, neighbors.next(), null);
+        if (violation != null) {
+          return violation;
+        }
+        if (++checked % DEADLINE_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+          return null;
+        }
+      }
+    }
+    return NO_VIOLATION;
+  }
+
+  /**
+   * Gets a neighbor of a vertex by its position among the neighbors.
+   *
+   * @param adjacency The edges of the graph.
+   * @param vertex The vertex to get a neighbor of.
+   * @param position The position of the neighbor, less than the degree of the vertex.
+   * @return The neighbor.
+   */
+  static int neighborAt(Adjacency adjacency, int vertex, int position) {
+    NeighborCursor neighbors = adjacency.cursor();
+    neighbors.moveTo(vertex);
+    for (int i = 0; i < position; i++) {
+      neighbors.next();
+    }
+    return neighbors.next();
+  }
+}
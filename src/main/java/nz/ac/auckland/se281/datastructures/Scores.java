@@ -0,0 +1,52 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/** Helpers for a score given to every vertex number, such as a centrality or a rank. */
+final class Scores {
+  /** The lowest bits of the fraction of a score, which are rounded off before scores are ranked. */
+  private static final int ROUNDED_BITS = 20;
+
+  private Scores() {}
+
+  /**
+   * Finds the verticies with the highest scores.
+   *
+   * @param scores The score of each vertex number.
+   * @param count The most verticies to find.
+   * @param rank The rank of each vertex number, which breaks ties between scores that are equal
+   *     once rounded by {@link #round(double)}.
+   * @return The numbers of the verticies, from the highest score down.
+   */
+  static int[] top(double[] scores, int count, int[] rank) {
+    double[] rounded = new double[scores.length];
+    Arrays.setAll(rounded, v -> round(scores[v]));
+    Integer[] verticies = new Integer[scores.length];
+    Arrays.setAll(verticies, v -> v);
+    Arrays.sort(
+        verticies,
+        (a, b) -> {
+          int byScore = Double.compare(rounded[b], rounded[a]);
+          return byScore != 0 ? byScore : Integer.compare(rank[a], rank[b]);
+        });
+    int[] top = new int[Math.min(count, verticies.length)];
+    for (int i = 0; i < top.length; i++) {
+      top[i] = verticies[i];
+    }
+    return top;
+  }
+
+  /**
+   * Rounds a score to the nearest multiple of 2^20 units in its last place. Sums of the same terms
+   * in a different order, such as after the verticies are renumbered, can differ in the last few
+   * bits, and scores that are equal but for those bits should tie instead of ranking by chance.
+   *
+   * @param score The score to round.
+   * @return The rounded score.
+   */
+  static double round(double score) {
+    long bits = Double.doubleToRawLongBits(score);
+    long half = 1L << (ROUNDED_BITS - 1);
+    return Double.longBitsToDouble((bits + half) & -(1L << ROUNDED_BITS));
+  }
+}
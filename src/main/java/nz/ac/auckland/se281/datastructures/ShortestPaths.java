@@ -0,0 +1,157 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * The shortest distances from a source vertex over the weighted edges of an {@link Adjacency},
+ * along with the edges that the shortest paths take. Edge weights must not be negative.
+ */
+public class ShortestPaths {
+  private final int source;
+  private final double[] distances;
+  private final int[] previous;
+
+  /**
+   * Constructs the result of a shortest path search.
+   *
+   * @param source The vertex the paths start from.
+   * @param distances The distance to each vertex, or infinity if it is not reached.
+   * @param previous The vertex before each vertex on its shortest path, or -1 if there is none.
+   */
+  private ShortestPaths(int source, double[] distances, int[] previous) {
+    this.source = source;
+    this.distances = distances;
+    this.previous = previous;
+  }
+
+  /**
+   * Finds the shortest distances from the source to every vertex with Dijkstra's algorithm.
+   *
+   * @param adjacency The weighted edges to search.
+   * @param source The vertex to start from.
+   * @return The shortest paths from the source.
+   * @throws IllegalArgumentException if an edge that is reached has a negative weight
+   */
+  public static ShortestPaths dijkstra(Adjacency adjacency, int source) {
+    return search(adjacency, source, -1, vertex -> 0.0);
+  }
+
+  /**
+   * Finds the shortest path from the source to the target with A* search. The search stops as soon
+   * as the target is settled, so only the distances of the verticies settled before it are final.
+   *
+   * @param adjacency The weighted edges to search.
+   * @param source The vertex to start from.
+   * @param target The vertex to find the path to.
+   * @param estimate A lower bound of the distance from each vertex to the target, which must never
+   *     drop by more than the weight of an edge when following that edge.
+   * @return The shortest paths from the source, which include the path to the target.
+   * @throws IllegalArgumentException if an edge that is reached has a negative weight
+   */
+  public static ShortestPaths aStar(
+      Adjacency adjacency, int source, int target, IntToDoubleFunction estimate) {
+    return search(adjacency, source, target, estimate);
+  }
+
+  /**
+   * Runs A* search, which is Dijkstra's algorithm when the estimate is always zero.
+   *
+   * @param adjacency The weighted edges to search.
+   * @param source The vertex to start from.
+   * @param target The vertex to stop at, or -1 to settle every reachable vertex.
+   * @param estimate A lower bound of the distance from each vertex to the target.
+   * @return The shortest paths from the source.
+   */
+  private static ShortestPaths search(
+      Adjacency adjacency, int source, int target, IntToDoubleFunction estimate) {
+    int n = adjacency.vertexCount();
+    double[] distances = new double[n];
+    int[] previous = new int[n];
+    boolean[] settled = new boolean[n];
+    Arrays.fill(distances, Double.POSITIVE_INFINITY);
+    Arrays.fill(previous, -1);
+
+    IndexedMinHeap heap = new IndexedMinHeap(n);
+    NeighborCursor neighbors = adjacency.cursor();
+    distances[source] = 0.0;
+    heap.insertOrDecrease(source, estimate.applyAsDouble(source));
+
+    while (!heap.isEmpty()) {
+      int current = heap.removeMin();
+      settled[current] = true;
+      if (current == target) {
+        break;
+      }
+
+      neighbors.moveTo(current);
+      while (neighbors.hasNext()) {
+        int neighbor = neighbors.next();
+        double weight = neighbors.weight();
+        if (weight < 0) {
+          throw new IllegalArgumentException(
+              "Negative edge weight " + weight + " from vertex " + current);
+        }
+        double distance = distances[current] + weight;
+        if (!settled[neighbor] && distance < distances[neighbor]) {
+          distances[neighbor] = distance;
+          previous[neighbor] = current;
+          heap.insertOrDecrease(neighbor, distance + estimate.applyAsDouble(neighbor));
+        }
+      }
+    }
+
+    return new ShortestPaths(source, distances, previous);
+  }
+
+  /**
+   * Gets the vertex the paths start from.
+   *
+   * @return The source vertex.
+   */
+  public int getSource() {
+    return source;
+  }
+
+  /**
+   * Gets the shortest distance from the source to a vertex.
+   *
+   * @param vertex The vertex to get the distance to.
+   * @return The distance, or infinity if the vertex is not reached.
+   */
+  public double distanceTo(int vertex) {
+    return distances[vertex];
+  }
+
+  /**
+   * Checks if there is a path from the source to a vertex.
+   *
+   * @param vertex The vertex to check.
+   * @return True if the vertex is reached, false otherwise.
+   */
+  public boolean reaches(int vertex) {
+    return distances[vertex] != Double.POSITIVE_INFINITY;
+  }
+
+  /**
+   * Gets the verticies on the shortest path from the source to a vertex.
+   *
+   * @param vertex The vertex at the end of the path.
+   * @return The verticies on the path in order, starting with the source, or an empty array if the
+   *     vertex is not reached.
+   */
+  public int[] pathTo(int vertex) {
+    if (!reaches(vertex)) {
+      return new int[0];
+    }
+    int length = 1;
+    for (int v = vertex; v != source; v = previous[v]) {
+      length++;
+    }
+    int[] path = new int[length];
+    for (int v = vertex, i = length - 1; i >= 0; v = previous[v], i--) {
+      path[i] = v;
+    }
+    return path;
+  }
+}
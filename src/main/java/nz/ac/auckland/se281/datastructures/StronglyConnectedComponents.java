@@ -0,0 +1,149 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The strongly connected components of an {@link Adjacency}, found with an iterative version of
+ * Tarjan's algorithm. Tarjan's algorithm finishes a component only after every component it
+ * reaches, so the components are numbered in reverse topological order: an edge between two
+ * different components always goes from a higher number to a lower one.
+ */
+public final class StronglyConnectedComponents {
+  private final int[] componentOf;
+  private final int componentCount;
+  private final CsrGraph condensation;
+
+  /**
+   * Finds the strongly connected components of an adjacency.
+   *
+   * @param adjacency The edges of the graph.
+   */
+  public StronglyConnectedComponents(Adjacency adjacency) {
+    int n = adjacency.vertexCount();
+    int[] order = new int[n];
+    int[] low = new int[n];
+    boolean[] onStack = new boolean[n];
+    int[] stack = new int[n];
+    int[] callStack = new int[n];
+    // One cursor per level of the search, so that each level can carry on where it left off.
+    List<NeighborCursor> cursors = new ArrayList<>();
+    componentOf = new int[n];
+    Arrays.fill(order, -1);
+
+    int counter = 0;
+    int components = 0;
+    int top = 0;
+    for (int root = 0; root < n; root++) {
+      if (order[root] != -1) {
+        continue;
+      }
+      int depth = 0;
+      int vertex = root;
+      while (true) {
+        if (vertex != -1) {
+          // Enter the vertex.
+          order[vertex] = counter;
+          low[vertex] = counter;
+          counter++;
+          stack[top++] = vertex;
+          onStack[vertex] = true;
+          callStack[depth] = vertex;
+          if (cursors.size() == depth) {
+            cursors.add(adjacency.cursor());
+          }
+          cursors.get(depth).moveTo(vertex);
+          depth++;
+          vertex = -1;
+        }
+
+        int current = callStack[depth - 1];
+        NeighborCursor neighbors = cursors.get(depth - 1);
+        if (neighbors.hasNext()) {
+          int neighbor = neighbors.next();
+          if (order[neighbor] == -1) {
+            vertex = neighbor;
+          } else if (onStack[neighbor]) {
+            low[current] = Math.min(low[current], order[neighbor]);
+          }
+          continue;
+        }
+
+        // Leave the vertex, closing its component if it is the first vertex of one.
+        if (low[current] == order[current]) {
+          int member;
+          do {
+            member = stack[--top];
+            onStack[member] = false;
+            componentOf[member] = components;
+          } while (member != current);
+          components++;
+        }
+        depth--;
+        if (depth == 0) {
+          break;
+        }
+        int parent = callStack[depth - 1];
+        low[parent] = Math.min(low[parent], low[current]);
+      }
+    }
+    componentCount = components;
+    condensation = condense(adjacency);
+  }
+
+  /**
+   * Builds the graph of the components, with an edge between two components whenever there is an
+   * edge between their verticies.
+   *
+   * @param adjacency The edges of the graph.
+   * @return The edges between the components, without loops.
+   */
+  private CsrGraph condense(Adjacency adjacency) {
+    int capacity = (int) Math.min(adjacency.edgeCount(), Integer.MAX_VALUE);
+    int[] sources = new int[capacity];
+    int[] destinations = new int[capacity];
+    int count = 0;
+    NeighborCursor neighbors = adjacency.cursor();
+    for (int v = 0; v < componentOf.length; v++) {
+      neighbors.moveTo(v);
+      while (neighbors.hasNext()) {
+        int neighbor = neighbors.next();
+        if (componentOf[v] != componentOf[neighbor]) {
+          sources[count] = componentOf[v];
+          destinations[count] = componentOf[neighbor];
+          count++;
+        }
+      }
+    }
+    return CsrGraph.fromEdges(componentCount, sources, destinations, count);
+  }
+
+  /**
+   * Gets the number of components.
+   *
+   * @return The number of components.
+   */
+  public int componentCount() {
+    return componentCount;
+  }
+
+  /**
+   * Gets the component a vertex belongs to.
+   *
+   * @param vertex The number of the vertex.
+   * @return The number of its component.
+   */
+  public int componentOf(int vertex) {
+    return componentOf[vertex];
+  }
+
+  /**
+   * Gets the graph of the components, which has no cycles.
+   *
+   * @return The edges between the components, which always go to a lower component number.
+   */
+  public CsrGraph condensation() {
+    return condensation;
+  }
+}
@@ -0,0 +1,164 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * A topological order of the verticies of an {@link Adjacency}, found with Kahn's algorithm. A
+ * vertex is placed once every edge into it has been placed, so the order only covers every vertex
+ * when the graph has no cycles. The verticies that are left out are the ones on or after a cycle.
+ *
+ * <p>The order is grouped into levels: the first level holds the verticies with no incoming edges,
+ * and each later level holds the verticies whose incoming edges all come from earlier levels.
+ */
+public final class TopologicalSort {
+  // Levels with fewer verticies than this are not worth splitting between threads.
+  private static final int PARALLEL_THRESHOLD = 1024;
+
+  private final int[] order;
+  private final int[] levelStarts;
+  private final int levelCount;
+  private final int sortedCount;
+
+  private TopologicalSort(int[] order, int[] levelStarts, int levelCount, int sortedCount) {
+    this.order = order;
+    this.levelStarts = levelStarts;
+    this.levelCount = levelCount;
+    this.sortedCount = sortedCount;
+  }
+
+  /**
+   * Sorts the verticies one at a time, using a queue of the verticies whose incoming edges have all
+   * been placed. The in-degrees are counted down in place, and the queue is the order itself, so
+   * nothing is allocated per vertex.
+   *
+   * @param adjacency The edges of the graph.
+   * @param inDegrees The number of incoming edges of each vertex, as counted by {@link
+   *     Adjacency#inDegrees()}. The array is used up by the sort.
+   * @return The topological order.
+   */
+  public static TopologicalSort sort(Adjacency adjacency, int[] inDegrees) {
+    int n = adjacency.vertexCount();
+    int[] order = new int[n];
+    int[] levelStarts = new int[n + 1];
+    int tail = 0;
+    for (int v = 0; v < n; v++) {
+      if (inDegrees[v] == 0) {
+        order[tail++] = v;
+      }
+    }
+
+    NeighborCursor neighbors = adjacency.cursor();
+    int levelCount = 0;
+    int head = 0;
+    while (head < tail) {
+      // Everything queued so far is one level, and everything it frees is the next.
+      levelStarts[levelCount++] = head;
+      int levelEnd = tail;
+      while (head < levelEnd) {
+        neighbors.moveTo(order[head++]);
+        while (neighbors.hasNext()) {
+          int neighbor = neighbors.next();
+          if (--inDegrees[neighbor] == 0) {
+            order[tail++] = neighbor;
+          }
+        }
+      }
+    }
+    levelStarts[levelCount] = tail;
+    return new TopologicalSort(order, levelStarts, levelCount, tail);
+  }
+
+  /**
+   * Sorts the verticies level by level, splitting the verticies of each large level between
+   * threads. The in-degrees are counted down atomically, and whichever thread takes a vertex's
+   * count to zero places it in the next level. Each level is then sorted, so the result does not
+   * depend on how the threads were scheduled.
+   *
+   * @param adjacency The edges of the graph.
+   * @param inDegrees The number of incoming edges of each vertex, as counted by {@link
+   *     Adjacency#inDegrees()}.
+   * @return The topological order.
+   */
+  public static TopologicalSort sortInParallel(Adjacency adjacency, int[] inDegrees) {
+    int n = adjacency.vertexCount();
+    int[] order = new int[n];
+    int[] levelStarts = new int[n + 1];
+    AtomicIntegerArray remaining = new AtomicIntegerArray(inDegrees);
+    AtomicInteger tail = new AtomicInteger();
+    for (int v = 0; v < n; v++) {
+      if (inDegrees[v] == 0) {
+        order[tail.getAndIncrement()] = v;
+      }
+    }
+
+    // Each thread keeps its own cursor, since a cursor cannot be shared.
+    ThreadLocal<NeighborCursor> cursors = ThreadLocal.withInitial(adjacency::cursor);
+    int levelCount = 0;
+    int head = 0;
+    while (head < tail.get()) {
+      int levelStart = head;
+      int levelEnd = tail.get();
+      levelStarts[levelCount++] = levelStart;
+      IntStream level = IntStream.range(levelStart, levelEnd);
+      if (levelEnd - levelStart >= PARALLEL_THRESHOLD) {
+        level = level.parallel();
+      }
+      level.forEach(
+          i -> {
+            NeighborCursor neighbors = cursors.get();
+            neighbors.moveTo(order[i]);
+            while (neighbors.hasNext()) {
+              int neighbor = neighbors.next();
+              if (remaining.decrementAndGet(neighbor) == 0) {
+                order[tail.getAndIncrement()] = neighbor;
+              }
+            }
+          });
+      head = levelEnd;
+      // The threads placed the next level in whatever order they finished.
+      Arrays.sort(order, levelEnd, tail.get());
+    }
+    levelStarts[levelCount] = tail.get();
+    return new TopologicalSort(order, levelStarts, levelCount, tail.get());
+  }
+
+  /**
+   * Checks if every vertex was placed, which is only possible if the graph has no cycles.
+   *
+   * @return True if the graph is acyclic, false otherwise.
+   */
+  public boolean isAcyclic() {
+    return sortedCount == order.length;
+  }
+
+  /**
+   * Gets the verticies that were placed, in topological order.
+   *
+   * @return The numbers of the verticies, which is every vertex if the graph is acyclic.
+   */
+  public int[] order() {
+    return Arrays.copyOf(order, sortedCount);
+  }
+
+  /**
+   * Gets the number of levels.
+   *
+   * @return The number of levels.
+   */
+  public int levelCount() {
+    return levelCount;
+  }
+
+  /**
+   * Gets the verticies of a level.
+   *
+   * @param level The number of the level, starting from 0.
+   * @return The numbers of the verticies in the level.
+   */
+  public int[] level(int level) {
+    return Arrays.copyOfRange(order, levelStarts[level], levelStarts[level + 1]);
+  }
+}
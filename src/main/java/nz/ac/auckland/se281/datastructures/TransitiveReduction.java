@@ -0,0 +1,192 @@
+package nz.ac.auckland.se281.datastructures;
+
+/**
+ * The transitive reduction of a graph, the graph with the fewest edges that reaches the same
+ * verticies from every vertex. A search over the reduction visits the same verticies as over the
+ * graph, but follows far fewer edges when the graph has many redundant ones.
+ *
+ * <p>The strongly connected components are condensed first. The verticies of each component are
+ * joined by a single cycle in ascending order, and the graph of the components, which has no
+ * cycles, keeps only the edges between components that no other path covers. Each kept edge
+ * between two components is replaced by the lowest edge of the graph between their verticies, so
+ * a graph with no cycles is reduced to a subset of its own edges.
+ *
+ * <p>The kept edges keep their weights. An edge of a cycle that joins a component is only in the
+ * graph when the component already had it, and has a weight of 1 otherwise.
+ */
+public final class TransitiveReduction {
+
+  private TransitiveReduction() {}
+
+  /**
+   * Builds the transitive reduction of a graph.
+   *
+   * @param adjacency The edges of the graph.
+   * @return The edges of the reduction, between the same vertex numbers and with their weights.
+   */
+  public static CsrGraph of(Adjacency adjacency) {
+    StronglyConnectedComponents components = new StronglyConnectedComponents(adjacency);
+    int n = adjacency.vertexCount();
+    int componentCount = components.componentCount();
+    CsrGraph reduced = reduce(components.condensation());
+
+    // The verticies of each component in ascending order, from a counting sort.
+    int[] memberStart = new int[componentCount + 1];
+    for (int v = 0; v < n; v++) {
+      memberStart[components.componentOf(v) + 1]++;
+    }
+    for (int c = 0; c < componentCount; c++) {
+      memberStart[c + 1] += memberStart[c];
+    }
+    int[] members = new int[n];
+    int[] next = new int[componentCount];
+    for (int v = 0; v < n; v++) {
+      int c = components.componentOf(v);
+      members[memberStart[c] + next[c]++] = v;
+    }
+
+    int capacity = Math.toIntExact(n + reduced.edgeCount());
+    int[] sources = new int[capacity];
+    int[] destinations = new int[capacity];
+    double[] weights = adjacency.isWeighted() ? new double[capacity] : null;
+    int count = 0;
+    NeighborCursor neighbors = adjacency.cursor();
+    for (int c = 0; c < componentCount; c++) {
+      int size = memberStart[c + 1] - memberStart[c];
+      int first = members[memberStart[c]];
+      if (size == 1 && adjacency.containsEdge(first, first)) {
+        sources[count] = first;
+        destinations[count++] = first;
+      }
+      for (int i = 0; size > 1 && i < size; i++) {
+        sources[count] = members[memberStart[c] + i];
+        destinations[count++] = members[memberStart[c] + (i + 1) % size];
+      }
+    }
+    // Each vertex starts at most one of these edges, so looking up their weights visits each edge
+    // of the graph at most once.
+    for (int i = 0; weights != null && i < count; i++) {
+      weights[i] = weightOf(neighbors, sources[i], destinations[i]);
+    }
+
+    // The edges are visited in ascending order, so the first edge found between two components is
+    // the lowest one.
+    boolean[] placed = new boolean[Math.toIntExact(reduced.edgeCount())];
+    for (int u = 0; u < n; u++) {
+      int from = components.componentOf(u);
+      neighbors.moveTo(u);
+      while (neighbors.hasNext()) {
+        int v = neighbors.next();
+        int edge = reduced.edgeIndex(from, components.componentOf(v));
+        if (edge >= 0 && !placed[edge]) {
+          placed[edge] = true;
+          if (weights != null) {
+            weights[count] = neighbors.weight();
+          }
+          sources[count] = u;
+          destinations[count++] = v;
+        }
+      }
+    }
+    return CsrGraph.fromEdges(n, sources, destinations, weights, count);
+  }
+
+  /**
+   * Finds the weight of an edge by going through the neighbors of its source.
+   *
+   * @param neighbors A cursor over the edges of the graph.
+   * @param source The vertex the edge starts from.
+   * @param destination The vertex the edge ends at.
+   * @return The weight of the edge, or 1 if the graph has no such edge.
+   */
+  private static double weightOf(NeighborCursor neighbors, int source, int destination) {
+    neighbors.moveTo(source);
+    while (neighbors.hasNext()) {
+      if (neighbors.next() == destination) {
+        return neighbors.weight();
+      }
+    }
+    return 1.0;
+  }
+
+  /**
+   * Finds the transitive reduction of a graph with no cycles whose edges all go to a lower vertex
+   * number, like the graph of strongly connected components.
+   *
+   * <p>The verticies are reduced from the lowest number up, so everything a vertex reaches has been
+   * reduced before it. The neighbors of a vertex are taken from the highest number down, since a
+   * neighbor can only reach lower ones: an edge is kept unless an earlier neighbor reaches its end,
+   * and what the vertex reaches builds up as the neighbors are taken. Graphs with few enough
+   * verticies keep a bitset of what each vertex reaches, and larger ones search again from each
+   * kept neighbor instead.
+   *
+   * @param dag The edges of the graph, each from a higher number to a lower one.
+   * @return The edges of the reduction.
+   */
+  static CsrGraph reduce(CsrGraph dag) {
+    int n = dag.vertexCount();
+    int edgeCount = Math.toIntExact(dag.edgeCount());
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    int count = 0;
+    int[] row = new int[16];
+    NeighborCursor neighbors = dag.cursor();
+    NeighborCursor search = dag.cursor();
+
+    boolean bitsets = n <= BitMatrixGraph.MAX_AUTOMATIC_VERTICIES;
+    int words = (n + Long.SIZE - 1) >>> 6;
+    long[][] reached = bitsets ? new long[n][] : null;
+    // For the searches, the vertex whose neighbors last reached each vertex, plus one.
+    int[] reachedBy = bitsets ? null : new int[n];
+    int[] stack = bitsets ? null : new int[n];
+
+    for (int v = 0; v < n; v++) {
+      int degree = dag.degree(v);
+      if (degree > row.length) {
+        row = new int[Math.max(degree, row.length * 2)];
+      }
+      neighbors.moveTo(v);
+      for (int i = 0; i < degree; i++) {
+        row[i] = neighbors.next();
+      }
+
+      long[] covered = bitsets ? new long[words] : null;
+      for (int i = degree - 1; i >= 0; i--) {
+        int neighbor = row[i];
+        if (bitsets) {
+          if ((covered[neighbor >>> 6] & (1L << neighbor)) != 0) {
+            continue;
+          }
+          covered[neighbor >>> 6] |= 1L << neighbor;
+          long[] further = reached[neighbor];
+          for (int w = 0; w < words; w++) {
+            covered[w] |= further[w];
+          }
+        } else {
+          if (reachedBy[neighbor] == v + 1) {
+            continue;
+          }
+          reachedBy[neighbor] = v + 1;
+          int top = 0;
+          stack[top++] = neighbor;
+          while (top > 0) {
+            search.moveTo(stack[--top]);
+            while (search.hasNext()) {
+              int next = search.next();
+              if (reachedBy[next] != v + 1) {
+                reachedBy[next] = v + 1;
+                stack[top++] = next;
+              }
+            }
+          }
+        }
+        sources[count] = v;
+        destinations[count++] = neighbor;
+      }
+      if (bitsets) {
+        reached[v] = covered;
+      }
+    }
+    return CsrGraph.fromEdges(n, sources, destinations, count);
+  }
+}
@@ -0,0 +1,174 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * An iterator that traverses a graph lazily, only visiting the next vertex when it is asked for.
+ * The traversal state is kept between calls, so a search can be stopped early and resumed later.
+ *
+ * @param <T> The type of each vertex.
+ */
+public abstract class TraversalIterator<T extends Comparable<T>> implements Iterator<T> {
+  protected final Graph<T> graph;
+
+  private final Iterator<T> roots;
+
+  private final BitSet visited = new BitSet();
+
+  private T next;
+
+  private long remaining = Long.MAX_VALUE;
+
+  private Predicate<T> condition = vertex -> true;
+
+  private T target;
+
+  private boolean targetFound;
+
+  private boolean stopped;
+
+  /**
+   * Constructs a new iterator that searches from each of the roots in turn, skipping the roots
+   * that were already reached from an earlier root.
+   *
+   * @param graph The graph to traverse.
+   * @param roots The verticies to start searching from.
+   */
+  protected TraversalIterator(Graph<T> graph, Iterable<T> roots) {
+    this.graph = graph;
+    this.roots = roots.iterator();
+  }
+
+  /**
+   * Finds the next vertex in the search order, advancing the traversal by one vertex.
+   *
+   * @return The next vertex, or null if every vertex reachable from the roots has been visited.
+   */
+  protected abstract T advance();
+
+  /**
+   * Marks a vertex in the visited bitmap.
+   *
+   * @param vertex The vertex to mark.
+   * @return True if the vertex was not marked before, false otherwise.
+   */
+  protected boolean markVisited(T vertex) {
+    int index = graph.indexOf(vertex);
+    if (visited.get(index)) {
+      return false;
+    }
+    visited.set(index);
+    return true;
+  }
+
+  /**
+   * Checks if a vertex is marked in the visited bitmap.
+   *
+   * @param vertex The vertex to check.
+   * @return True if the vertex is marked, false otherwise.
+   */
+  protected boolean isVisited(T vertex) {
+    return visited.get(graph.indexOf(vertex));
+  }
+
+  /**
+   * Finds the next root that has not been visited yet.
+   *
+   * @return The next root to search from, or null if there are no roots left.
+   */
+  protected T nextRoot() {
+    while (roots.hasNext()) {
+      T root = roots.next();
+      if (!isVisited(root)) {
+        return root;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Stops the iterator after the given number of further verticies. Calling this again after the
+   * limit is reached resumes the search for another batch of verticies.
+   *
+   * @param count The maximum number of verticies to return from now on.
+   * @return This iterator.
+   */
+  public TraversalIterator<T> limit(long count) {
+    if (count < 0) {
+      throw new IllegalArgumentException("Limit must not be negative: " + count);
+    }
+    remaining = count;
+    return this;
+  }
+
+  /**
+   * Stops the iterator at the first vertex that does not match the condition. That vertex is not
+   * returned.
+   *
+   * @param condition The condition every returned vertex must match.
+   * @return This iterator.
+   */
+  public TraversalIterator<T> takeWhile(Predicate<? super T> condition) {
+    Predicate<T> previous = this.condition;
+    this.condition = vertex -> previous.test(vertex) && condition.test(vertex);
+    return this;
+  }
+
+  /**
+   * Stops the iterator once the target vertex has been returned.
+   *
+   * @param target The vertex to search for.
+   * @return This iterator.
+   */
+  public TraversalIterator<T> until(T target) {
+    this.target = target;
+    return this;
+  }
+
+  /**
+   * Checks if the target given to {@link #until(Comparable)} has been found.
+   *
+   * @return True if the target was returned by this iterator, false otherwise.
+   */
+  public boolean isTargetFound() {
+    return targetFound;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (stopped || remaining == 0) {
+      return false;
+    }
+    if (next == null) {
+      next = advance();
+      if (next == null) {
+        return false;
+      }
+      // The vertex that fails the condition is used up, just like Stream.takeWhile.
+      if (!condition.test(next)) {
+        next = null;
+        stopped = true;
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    T vertex = next;
+    next = null;
+    remaining--;
+    if (vertex.equals(target)) {
+      targetFound = true;
+      stopped = true;
+    }
+    return vertex;
+  }
+}
@@ -0,0 +1,40 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Comparator;
+
+/**
+ * Orders verticies the way the searches visit them. The elements are compared based on their
+ * types: - If both elements are strings, they are parsed into integers and compared. - If both
+ * elements are integers, they are compared directly.
+ *
+ * @param <T> The type of each vertex.
+ */
+class VertexComparator<T> implements Comparator<T> {
+
+  /**
+   * Compares two verticies.
+   *
+   * @throws IllegalArgumentException if the elements are not of type String or Integer
+   */
+  @Override
+  public int compare(T obj1, T obj2) {
+    // Compare elements based on their types
+    if (obj1 instanceof String && obj2 instanceof String) {
+      // If both elements are strings, parse them into integers and compare
+      String str1 = (String) obj1;
+      String str2 = (String) obj2;
+      Integer int1 = Integer.parseInt(str1);
+      Integer int2 = Integer.parseInt(str2);
+      return int1.compareTo(int2);
+    } else if (obj1 instanceof Integer && obj2 instanceof Integer) {
+      // If both elements are integers, compare them directly
+      Integer int1 = (Integer) obj1;
+      Integer int2 = (Integer) obj2;
+      return int1.compareTo(int2);
+    } else {
+      // Throw an exception if the elements are not of type String or Integer
+      throw new IllegalArgumentException(
+          "Invalid type comparison: " + obj1.getClass() + " and " + obj2.getClass());
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * The ways the verticies of a graph can be renumbered so that the searches touch memory that is
+ * close together. Verticies that are visited one after another get numbers that are close, so their
+ * entries in the visited arrays and their runs of neighbors share cache lines. Every ordering
+ * treats the edges as if they had no direction.
+ */
+public enum VertexOrdering {
+  /** The order the searches compare the verticies in, which is how graphs are first numbered. */
+  SEARCH {
+    @Override
+    public Permutation permutation(Adjacency adjacency) {
+      int[] order = new int[adjacency.vertexCount()];
+      Arrays.setAll(order, v -> v);
+      return Permutation.fromOrder(order);
+    }
+  },
+
+  /** The order a breadth first search from the lowest unvisited vertex reaches the verticies. */
+  BFS {
+    @Override
+    public Permutation permutation(Adjacency adjacency) {
+      int vertexCount = adjacency.vertexCount();
+      int[] starts = new int[vertexCount];
+      Arrays.setAll(starts, v -> v);
+      return Permutation.fromOrder(breadthFirst(adjacency, starts, null));
+    }
+  },
+
+  /** Descending degree, so the verticies with the most edges share the first cache lines. */
+  DEGREE {
+    @Override
+    public Permutation permutation(Adjacency adjacency) {
+      int[] degrees = undirectedDegrees(adjacency);
+      return Permutation.fromOrder(byDegree(degrees, true));
+    }
+  },
+
+  /**
+   * Reverse Cuthill-McKee, a breadth first search from a vertex of lowest degree that queues the
+   * neighbors of each vertex from lowest to highest degree, and is then reversed. It keeps the
+   * numbers at both ends of each edge close together.
+   */
+  RCM {
+    @Override
+    public Permutation permutation(Adjacency adjacency) {
+      int[] degrees = undirectedDegrees(adjacency);
+      int[] order = breadthFirst(adjacency, byDegree(degrees, false), degrees);
+      for (int i = 0, j = order.length - 1; i < j; i++, j--) {
+        int swap = order[i];
+        order[i] = order[j];
+        order[j] = swap;
+      }
+      return Permutation.fromOrder(order);
+    }
+  };
+
+  /**
+   * Works out the new number of every vertex of a graph.
+   *
+   * @param adjacency The edges of the graph.
+   * @return The permutation from the current numbers to the new ones.
+   */
+  public abstract Permutation permutation(Adjacency adjacency);
+
+  /**
+   * Counts the edges at each vertex, in either direction.
+   *
+   * @param adjacency The edges of the graph.
+   * @return The number of edges that start or end at each vertex.
+   */
+  private static int[] undirectedDegrees(Adjacency adjacency) {
+    int[] degrees = adjacency.inDegrees();
+    for (int v = 0; v < degrees.length; v++) {
+      degrees[v] += adjacency.degree(v);
+    }
+    return degrees;
+  }
+
+  /**
+   * Sorts the verticies by their degree, breaking ties by their number.
+   *
+   * @param degrees The degree of each vertex.
+   * @param descending True to put the highest degrees first.
+   * @return The verticies in order.
+   */
+  private static int[] byDegree(int[] degrees, boolean descending) {
+    long[] keys = new long[degrees.length];
+    for (int v = 0; v < degrees.length; v++) {
+      long degree = descending ? Integer.MAX_VALUE - degrees[v] : degrees[v];
+      keys[v] = (degree << 32) | v;
+    }
+    Arrays.sort(keys);
+    int[] order = new int[degrees.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = (int) keys[i];
+    }
+    return order;
+  }
+
+  /**
+   * Visits every vertex with breadth first searches over the edges in both directions, starting a
+   * new search from the next unvisited vertex in the given order whenever one runs out.
+   *
+   * @param adjacency The edges of the graph.
+   * @param starts Every vertex, in the order they are tried as the start of a search.
+   * @param degrees The degree of each vertex to queue the neighbors of a vertex from lowest to
+   *     highest degree, or null to queue them in the order of their numbers.
+   * @return The verticies in the order they were queued.
+   */
+  private static int[] breadthFirst(Adjacency adjacency, int[] starts, int[] degrees) {
+    int vertexCount = adjacency.vertexCount();
+    NeighborCursor forward = adjacency.cursor();
+    NeighborCursor backward = CsrGraph.reverseOf(adjacency).cursor();
+    boolean[] queued = new boolean[vertexCount];
+    int[] queue = new int[vertexCount];
+    long[] keys = new long[0];
+    int head = 0;
+    int tail = 0;
+
+    for (int start : starts) {
+      if (queued[start]) {
+        continue;
+      }
+      queued[start] = true;
+      queue[tail++] = start;
+
+      while (head < tail) {
+        int vertex = queue[head++];
+        int first = tail;
+        tail = queueNeighbors(forward, vertex, queued, queue, tail);
+        tail = queueNeighbors(backward, vertex, queued, queue, tail);
+
+        // The two directions are merged, so sort the newly queued neighbors either way.
+        int count = tail - first;
+        if (degrees == null) {
+          Arrays.sort(queue, first, tail);
+          continue;
+        }
+        if (keys.length < count) {
+          keys = new long[Math.max(count, keys.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+          keys[i] = ((long) degrees[queue[first + i]] << 32) | queue[first + i];
+        }
+        Arrays.sort(keys, 0, count);
+        for (int i = 0; i < count; i++) {
+          queue[first + i] = (int) keys[i];
+        }
+      }
+    }
+    return queue;
+  }
+
+  /**
+   * Queues the neighbors of a vertex that have not been queued yet.
+   *
+   * @param neighbors The cursor over the edges in one direction.
+   * @param vertex The vertex whose neighbors are queued.
+   * @param queued Whether each vertex has been queued.
+   * @param queue The queue of verticies.
+   * @param tail Where the next vertex is queued.
+   * @return Where the next vertex is queued after the neighbors.
+   */
+  private static int queueNeighbors(
+      NeighborCursor neighbors, int vertex, boolean[] queued, int[] queue, int tail) {
+    neighbors.moveTo(vertex);
+    while (neighbors.hasNext()) {
+      int neighbor = neighbors.next();
+      if (!queued[neighbor]) {
+        queued[neighbor] = true;
+        queue[tail++] = neighbor;
+      }
+    }
+    return tail;
+  }
+}
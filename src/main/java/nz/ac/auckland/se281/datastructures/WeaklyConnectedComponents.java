@@ -0,0 +1,142 @@
+package nz.ac.auckland.se281.datastructures;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.stream.IntStream;
+
+/**
+ * The weakly connected components of an {@link Adjacency}, which are the components the graph would
+ * have if its edges had no direction. They are found with a lock-free union-find over a plain int
+ * array: every edge joins the sets of its two verticies, and the edges of different verticies are
+ * joined by different threads at once.
+ *
+ * <p>Sets are only ever joined by pointing the root with the higher number at the root with the
+ * lower number, with a compare-and-set that fails if another thread moved the root first. Since
+ * parents only ever get smaller, no thread can create a cycle, and the root of every component ends
+ * up being its lowest numbered vertex. Components are numbered in the order of those verticies.
+ */
+public final class WeaklyConnectedComponents {
+  private static final VarHandle PARENT = MethodHandles.arrayElementVarHandle(int[].class);
+
+  // Graphs with fewer verticies than this are not worth splitting between threads.
+  private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+  private final int[] componentOf;
+  private final int[] sizes;
+
+  /**
+   * Finds the weakly connected components of an adjacency.
+   *
+   * @param adjacency The edges of the graph.
+   */
+  public WeaklyConnectedComponents(Adjacency adjacency) {
+    int n = adjacency.vertexCount();
+    int[] parent = new int[n];
+    for (int v = 0; v < n; v++) {
+      parent[v] = v;
+    }
+
+    // Join the ends of every edge, splitting the verticies between threads. Each thread keeps its
+    // own cursor, since a cursor cannot be shared.
+    ThreadLocal<NeighborCursor> cursors = ThreadLocal.withInitial(adjacency::cursor);
+    IntStream sources = IntStream.range(0, n);
+    if (n >= PARALLEL_THRESHOLD) {
+      sources = sources.parallel();
+    }
+    sources.forEach(
+        v -> {
+          NeighborCursor neighbors = cursors.get();
+          neighbors.moveTo(v);
+          while (neighbors.hasNext()) {
+            union(parent, v, neighbors.next());
+          }
+        });
+
+    // Every root is the lowest vertex of its component, so it is numbered before the rest of it.
+    componentOf = new int[n];
+    int count = 0;
+    for (int v = 0; v < n; v++) {
+      int root = find(parent, v);
+      componentOf[v] = root == v ? count++ : componentOf[root];
+    }
+    sizes = new int[count];
+    for (int v = 0; v < n; v++) {
+      sizes[componentOf[v]]++;
+    }
+  }
+
+  /**
+   * Finds the root of the set a vertex is in, halving the path to it along the way. Each vertex on
+   * the path is pointed at its grandparent, and a failed compare-and-set only means another thread
+   * already shortened the path.
+   *
+   * @param parent The parent of every vertex.
+   * @param vertex The vertex to find the root of.
+   * @return The root of the set.
+   */
+  private static int find(int[] parent, int vertex) {
+    int current = vertex;
+    while (true) {
+      int next = (int) PARENT.getVolatile(parent, current);
+      if (next == current) {
+        return current;
+      }
+      int grandparent = (int) PARENT.getVolatile(parent, next);
+      if (grandparent != next) {
+        PARENT.compareAndSet(parent, current, next, grandparent);
+      }
+      current = grandparent;
+    }
+  }
+
+  /**
+   * Joins the sets of two verticies, retrying if another thread changes either root first.
+   *
+   * @param parent The parent of every vertex.
+   * @param first One of the verticies.
+   * @param second The other vertex.
+   */
+  private static void union(int[] parent, int first, int second) {
+    while (true) {
+      int firstRoot = find(parent, first);
+      int secondRoot = find(parent, second);
+      if (firstRoot == secondRoot) {
+        return;
+      }
+      int higher = Math.max(firstRoot, secondRoot);
+      int lower = Math.min(firstRoot, secondRoot);
+      if (PARENT.compareAndSet(parent, higher, higher, lower)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Gets the number of components.
+   *
+   * @return The number of components.
+   */
+  public int componentCount() {
+    return sizes.length;
+  }
+
+  /**
+   * Gets the component a vertex belongs to.
+   *
+   * @param vertex The number of the vertex.
+   * @return The number of its component, in the order of the lowest vertex of each component.
+   */
+  public int componentOf(int vertex) {
+    return componentOf[vertex];
+  }
+
+  /**
+   * Gets the number of verticies in a component.
+   *
+   * @param component The number of the component.
+   * @return The size of the component.
+   */
+  public int componentSize(int component) {
+    return sizes[component];
+  }
+}
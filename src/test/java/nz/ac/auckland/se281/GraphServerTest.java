@@ -0,0 +1,119 @@
+package nz.ac.auckland.se281;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+public class GraphServerTest {
+  @Rule public Timeout timeout = new Timeout(10, TimeUnit.SECONDS);
+
+  private GraphServer server;
+
+  private Thread serverThread;
+
+  @Before
+  public void setUp() throws IOException {
+    server = new GraphServer(0);
+    serverThread = new Thread(this::serveQuietly);
+    serverThread.start();
+  }
+
+  private void serveQuietly() {
+    try {
+      server.serve();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.close();
+    serverThread.join();
+  }
+
+  /**
+   * Sends a command to the server and reads its response.
+   *
+   * @param in The stream of responses from the server.
+   * @param out The stream of commands to the server.
+   * @param command The command to send.
+   * @return The lines of the response, without the end of response marker.
+   */
+  private String send(BufferedReader in, PrintWriter out, String command) throws IOException {
+    out.println(command);
+    out.flush();
+
+    StringBuilder sb = new StringBuilder();
+    String line;
+
+    while (!(line = in.readLine()).equals(GraphServer.END_OF_RESPONSE)) {
+      sb.append(line).append(System.lineSeparator());
+    }
+
+    return sb.toString();
+  }
+
+  @Test
+  public void commandsUseTheClientsOpenFile() throws IOException {
+    try (Socket a = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        Socket b = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+      BufferedReader inA =
+          new BufferedReader(new InputStreamReader(a.getInputStream(), StandardCharsets.UTF_8));
+      PrintWriter outA = new PrintWriter(a.getOutputStream(), true, StandardCharsets.UTF_8);
+      BufferedReader inB =
+          new BufferedReader(new InputStreamReader(b.getInputStream(), StandardCharsets.UTF_8));
+      PrintWriter outB = new PrintWriter(b.getOutputStream(), true, StandardCharsets.UTF_8);
+
+      assertTrue(send(inA, outA, "open_file a.txt").contains("Successfully opened graph"));
+      assertTrue(send(inB, outB, "open_file c.txt").contains("Successfully opened graph"));
+
+      assertEquals("[0]" + System.lineSeparator(), send(inA, outA, "LIST_ROOT_VERTICIES"));
+      assertEquals("[0, 1]" + System.lineSeparator(), send(inB, outB, "LIST_ROOT_VERTICIES"));
+      assertTrue(send(inA, outA, "exit").contains("Goodbye"));
+    }
+  }
+
+  @Test
+  public void failedCommandsKeepTheClientConnected() throws Exception {
+    server.close();
+    serverThread.join();
+    server =
+        new GraphServer(0) {
+          @Override
+          GraphCalculator load(String filename) {
+            throw new IllegalStateException("broken " + filename);
+          }
+        };
+    serverThread = new Thread(this::serveQuietly);
+    serverThread.start();
+
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+      BufferedReader in =
+          new BufferedReader(
+              new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+      PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+
+      assertTrue(send(in, out, "open_file a.txt").contains("failed: broken a.txt"));
+      assertTrue(send(in, out, "exit").contains("Goodbye"));
+    }
+  }
+
+  @Test
+  public void loadedGraphsAreShared() throws IOException {
+    assertTrue(server.load("a.txt") == server.load("a.txt"));
+  }
+}
@@ -1,7 +1,11 @@
 package nz.ac.auckland.se281;
 
 import static nz.ac.auckland.se281.Command.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -519,5 +523,378 @@ public class MainTest {
       assertContains("Successfully opened graph from file i.txt");
       assertContains("[0, 1, 2, 3, 10, 11, 12, 13, 20, 21, 100, 101]");
     }
+
+    // lazy searches from a single vertex, stopped after a number of verticies
+    @Test
+    public void TY_01_G_BFS_from_vertex() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", GRAPH_SEARCH_BFS_FROM, 2, 3);
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("[2, 4, 8]");
+    }
+
+    @Test
+    public void TY_02_G_DFS_from_vertex() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", GRAPH_SEARCH_DFS_FROM, 1, 5);
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("[1, 3, 5, 7, 6]");
+    }
+
+    @Test
+    public void TY_03_G_BFS_from_vertex_whole_order() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", GRAPH_SEARCH_BFS_FROM, 1, 100);
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("[1, 3, 5, 6, 9, 11, 7, 2, 12, 4, 8, 10]");
+    }
+
+    @Test
+    public void TY_04_G_search_from_missing_vertex() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", GRAPH_SEARCH_DFS_FROM, 42, 5);
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("Error: vertex '42' is not in the graph");
+    }
+
+    // weighted shortest paths, with positions guiding A* search
+    @Test
+    public void TY_05_J_shortest_distances() throws Exception {
+      runCommands(OPEN_FILE, "j.txt", SHORTEST_DISTANCES, 0);
+      assertContains("Successfully opened graph from file j.txt");
+      assertContains("{0=0.0, 1=1.0, 2=2.5, 3=3.75, 4=6.75}");
+    }
+
+    @Test
+    public void TY_06_J_shortest_path() throws Exception {
+      runCommands(OPEN_FILE, "j.txt", SHORTEST_PATH, 0, 4);
+      assertContains("Successfully opened graph from file j.txt");
+      assertContains("The shortest path from 0 to 4 has length 6.75: [0, 1, 2, 3, 4]");
+    }
+
+    @Test
+    public void TY_07_J_no_path() throws Exception {
+      runCommands(OPEN_FILE, "j.txt", SHORTEST_PATH, 0, 5);
+      assertContains("Successfully opened graph from file j.txt");
+      assertContains("There is no path from 0 to 5");
+    }
+
+    // fewest hops between two verticies, searching from both ends
+    @Test
+    public void TY_08_G_hop_path() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", HOP_PATH, 1, 10);
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("1 reaches 10 in 4 hops: [1, 6, 2, 4, 10]");
+    }
+
+    @Test
+    public void TY_09_G_hop_path_unreachable() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", HOP_PATH, 4, 12);
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("There is no path from 4 to 12");
+    }
+
+    // reachability answered by the index kept with the loaded graph
+    @Test
+    public void TY_10_G_reachability_index() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", REACHABILITY_INDEX, REACHES, 4, 5, REACHES, 4, 12);
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("Built a bitset reachability index over 3 strongly connected components");
+      assertContains("4 can reach 5");
+      assertContains("4 cannot reach 12");
+    }
+
+    // topological order and levels of acyclic graphs
+    @Test
+    public void TY_11_A_topological_order() throws Exception {
+      runCommands(OPEN_FILE, "a.txt", CHECK_ACYCLIC, TOPOLOGICAL_ORDER);
+      assertContains("Successfully opened graph from file a.txt");
+      assertContains("The graph is acyclic");
+      assertContains("[0, 1, 2, 3, 4, 5]");
+    }
+
+    @Test
+    public void TY_12_H_topological_levels() throws Exception {
+      runCommands(OPEN_FILE, "h.txt", TOPOLOGICAL_LEVELS);
+      assertContains("Successfully opened graph from file h.txt");
+      assertContains(
+          "[[0], [1, 2], [3, 4, 5, 6], [7, 8, 9, 10, 11, 12, 13, 14], [15, 16, 17, 18],"
+              + " [19, 20, 21], [22, 23], [24]]");
+    }
+
+    @Test
+    public void TY_13_G_topological_order_of_cycle() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", CHECK_ACYCLIC, TOPOLOGICAL_ORDER);
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("The graph is NOT acyclic");
+      assertContains("The graph has a cycle, so it has no topological order");
+    }
+
+    // weakly connected components, ignoring the direction of the edges
+    @Test
+    public void TY_14_I_weak_components() throws Exception {
+      runCommands(OPEN_FILE, "i.txt", WEAK_COMPONENTS);
+      assertContains("Successfully opened graph from file i.txt");
+      assertContains("The graph has 6 weakly connected components");
+      assertContains("[[0, 1], [2, 3], [10, 11], [12, 13], [20, 21], [100, 101]]");
+    }
+
+    @Test
+    public void TY_15_E_weak_components() throws Exception {
+      runCommands(OPEN_FILE, "e.txt", WEAK_COMPONENTS);
+      assertContains("Successfully opened graph from file e.txt");
+      assertContains("The graph has 3 weakly connected components");
+      assertContains("[[0, 1], [2], [3, 4]]");
+    }
+
+    @Test
+    public void TY_16_G_vertex_orderings() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", VERTEX_ORDERINGS);
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("SEARCH ordering: average gap 4.06, 2.17 bits per gap, bandwidth 10");
+      assertContains("RCM ordering: average gap 2.17, 1.83 bits per gap, bandwidth 4");
+    }
+
+    @Test
+    public void TY_17_G_hop_distances() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", HOP_DISTANCES, "1,9");
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains(
+          "1 reaches 12 verticies in at most 4 hops: {1=0, 2=2, 3=1, 4=3, 5=1, 6=1, 7=2, 8=3, 9=1,"
+              + " 10=4, 11=1, 12=2}");
+      assertContains("9 reaches 3 verticies in at most 2 hops: {9=0, 11=1, 12=2}");
+    }
+
+    @Test
+    public void TY_18_G_diameter() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", DIAMETER, "100");
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("The graph has diameter 5 and radius 3");
+    }
+
+    @Test
+    public void TY_19_G_betweenness() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", BETWEENNESS, "4", "0");
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains(
+          "The 4 verticies with the highest exact betweenness are: {6=30.00, 2=29.00, 3=25.50,"
+              + " 8=12.50}");
+    }
+
+    @Test
+    public void TY_20_G_page_rank() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", PAGE_RANK, "4");
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains(
+          "The 4 verticies with the highest PageRank are: {3=0.1294, 6=0.1260, 2=0.1196,"
+              + " 11=0.0935}");
+      assertContains("PageRank converged after 107 iterations");
+    }
+
+    @Test
+    public void TY_21_G_predecessors() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", PREDECESSORS, "6", PREDECESSORS, "1", PREDECESSORS, "99");
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("6 has 3 predecessors: [1, 3, 10]");
+      assertContains("1 has 0 predecessors: []");
+      assertContains("Error: vertex '99' is not in the graph");
+    }
+
+    @Test
+    public void TY_22_G_estimate_property() throws Exception {
+      runCommands(
+          OPEN_FILE,
+          "g.txt",
+          ESTIMATE_PROPERTY,
+          "symmetry",
+          "100",
+          "10",
+          ESTIMATE_PROPERTY,
+          "antisymmetry",
+          "100",
+          "10",
+          ESTIMATE_PROPERTY,
+          "reflexivity",
+          "100",
+          "10");
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("The graph is not symmetric: 4 -> 10 has no edge back");
+      assertContains("The graph is antisymmetric, checked on every edge");
+      assertContains("Error: 'reflexivity' is not a property that can be checked");
+    }
+
+    @Test
+    public void TY_23_G_find_violations() throws Exception {
+      runCommands(
+          OPEN_FILE,
+          "g.txt",
+          FIND_VIOLATIONS,
+          "symmetry",
+          "2",
+          FIND_VIOLATIONS,
+          "antisymmetry",
+          "2",
+          FIND_VIOLATIONS,
+          "transitivity",
+          "1");
+      assertContains("Successfully opened graph from file g.txt");
+      assertContains("The graph has 18 violations of being symmetric");
+      assertContains("1 -> 3 has no edge back");
+      assertContains("1 -> 5 has no edge back");
+      assertDoesNotContain("1 -> 6 has no edge back");
+      assertContains("The graph has 0 violations of being antisymmetric");
+      assertContains("The graph has 19 violations of being transitive");
+      assertContains("1 -> 5 -> 7 has no edge from 1 to 7");
+    }
+
+    @Test
+    public void TY_24_G_equivalence_closure() throws Exception {
+      final Path file = Files.createTempFile(Path.of("testcases"), "closure", ".txt");
+      final String filename = file.getFileName().toString();
+
+      try {
+        runCommands(
+            OPEN_FILE,
+            "g.txt",
+            CLOSURE,
+            "equivalence",
+            filename,
+            OPEN_FILE,
+            filename,
+            CHECK_EQUIVALENCE,
+            COMPUTE_EQUIVALENCE,
+            "4");
+        assertContains("Successfully opened graph from file g.txt");
+        assertContains("The equivalence closure has 144 edges, 126 of them added");
+        assertContains("Successfully opened graph from file " + filename);
+        assertContains("The graph is an equivalence relation");
+        assertContains("[1, 10, 11, 12, 2, 3, 4, 5, 6, 7, 8, 9]");
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+
+    @Test
+    public void TY_25_G_transitive_reduction() throws Exception {
+      final Path reduction = Files.createTempFile(Path.of("testcases"), "reduction", ".bin");
+      final Path condensation = Files.createTempFile(Path.of("testcases"), "condensation", ".txt");
+
+      try {
+        runCommands(
+            OPEN_FILE,
+            "g.txt",
+            TRANSITIVE_REDUCTION,
+            reduction.getFileName().toString(),
+            OPEN_FILE,
+            reduction.getFileName().toString(),
+            CONDENSATION,
+            condensation.getFileName().toString(),
+            OPEN_FILE,
+            condensation.getFileName().toString(),
+            LIST_VERTICIES_EDGES);
+        assertContains("Successfully opened graph from file g.txt");
+        assertContains("The transitive reduction has 13 edges, 5 of them removed");
+        assertContains("Successfully opened graph from file " + reduction.getFileName());
+        assertContains("The condensation has 3 components and 2 edges");
+        assertContains("1 -> 2");
+        assertContains("1 -> 9");
+      } finally {
+        Files.deleteIfExists(reduction);
+        Files.deleteIfExists(condensation);
+      }
+    }
+
+    @Test
+    public void TY_26_malformed_weight() throws Exception {
+      final Path file = Files.createTempFile(Path.of("testcases"), "malformed", ".txt");
+
+      try {
+        Files.writeString(file, "digraph malformed {\n  0 -> 1 [weight=heavy];\n}\n");
+        runCommands(OPEN_FILE, file.getFileName().toString(), OPEN_FILE, "a.txt");
+        assertContains("is not a valid graph, as the weight of 0 -> 1 is not a number: heavy");
+        assertContains("Successfully opened graph from file a.txt");
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+
+    @Test
+    public void TY_27_writes_only_in_testcases() throws Exception {
+      final Path outside = Files.createTempFile("outside", ".txt");
+      Files.writeString(outside, "kept");
+
+      try {
+        runCommands(
+            OPEN_FILE,
+            "g.txt",
+            CLOSURE,
+            "reflexive",
+            outside.toString(),
+            TRANSITIVE_REDUCTION,
+            "../reduction.txt",
+            CONDENSATION,
+            "testcases/../../condensation.bin");
+        assertContains("Error: could not write '" + outside + "' in `testcases` folder");
+        assertContains("Error: could not write '../reduction.txt' in `testcases` folder");
+        assertContains(
+            "Error: could not write 'testcases/../../condensation.bin' in `testcases` folder");
+        assertEquals("kept", Files.readString(outside));
+        assertFalse(Files.exists(Path.of("reduction.txt")));
+      } finally {
+        Files.deleteIfExists(outside);
+      }
+    }
+
+    @Test
+    public void TY_28_unknown_vertex_ordering() throws Exception {
+      runCommands(OPEN_FILE, "a.txt");
+      Main.main(new String[] {"--order=zigzag"});
+      assertContains(
+          "Error: 'zigzag' is not a vertex ordering, which are search, bfs, degree, rcm");
+    }
+
+    @Test
+    public void TY_29_E_searches_without_roots() throws Exception {
+      runCommands(
+          OPEN_FILE, "e.txt", GRAPH_SEARCH_IDFS, GRAPH_SEARCH_RBFS, GRAPH_SEARCH_RDFS);
+      assertContains("There are no roots in this graph");
+      assertContains("There are no root vertices in the graph");
+    }
+
+    @Test
+    public void TY_30_G_verticies_edges_in_file_order() throws Exception {
+      runCommands(OPEN_FILE, "g.txt", LIST_VERTICIES_EDGES);
+      assertContains("\t1" + NEW_LINE + "\t10" + NEW_LINE + "\t11" + NEW_LINE + "\t12" + NEW_LINE);
+      assertContains("\t1 -> 9" + NEW_LINE + "\t10 -> 6" + NEW_LINE);
+    }
+
+    @Test
+    public void TY_31_J_reduction_keeps_weights() throws Exception {
+      final Path reduction = Files.createTempFile(Path.of("testcases"), "reduction", ".txt");
+      final Path condensation = Files.createTempFile(Path.of("testcases"), "condensation", ".bin");
+
+      try {
+        runCommands(
+            OPEN_FILE,
+            "j.txt",
+            TRANSITIVE_REDUCTION,
+            reduction.getFileName().toString(),
+            CONDENSATION,
+            condensation.getFileName().toString(),
+            OPEN_FILE,
+            reduction.getFileName().toString(),
+            SHORTEST_PATH,
+            0,
+            4,
+            OPEN_FILE,
+            condensation.getFileName().toString(),
+            SHORTEST_PATH,
+            0,
+            4);
+        assertContains("The transitive reduction has 5 edges, 2 of them removed");
+        assertContains("The condensation has 6 components and 7 edges");
+        assertContains("The shortest path from 0 to 4 has length 6.75: [0, 1, 2, 3, 4]");
+        assertDoesNotContain("has length 4.0");
+      } finally {
+        Files.deleteIfExists(reduction);
+        Files.deleteIfExists(condensation);
+      }
+    }
   }
 }
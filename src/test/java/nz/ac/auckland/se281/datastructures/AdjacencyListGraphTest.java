@@ -0,0 +1,41 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class AdjacencyListGraphTest {
+
+  @Test
+  public void sortedNeighborsAreViewsInSearchOrder() {
+    AdjacencyListGraph<String> graph = new AdjacencyListGraph<>();
+    graph.addEdge("1", "10");
+    graph.addEdge("1", "9");
+    graph.addEdge("1", "2");
+
+    List<String> neighbors = graph.getSortedNeighbors("1");
+    assertEquals(List.of("2", "9", "10"), neighbors);
+    // The same view is handed out every time, and follows later changes to the graph.
+    assertSame(neighbors, graph.getSortedNeighbors("1"));
+    graph.addEdge("1", "3");
+    graph.removeEdge("1", "9");
+    assertEquals(List.of("2", "3", "10"), graph.getSortedNeighbors("1"));
+    assertTrue(graph.getSortedNeighbors("10").isEmpty());
+
+    List<String> visited = new ArrayList<>();
+    graph.forEachNeighbor("1", visited::add);
+    assertEquals(List.of("2", "3", "10"), visited);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void sortedNeighborsCannotBeModified() {
+    AdjacencyListGraph<String> graph = new AdjacencyListGraph<>();
+    graph.addEdge("1", "2");
+
+    graph.getSortedNeighbors("1").add("3");
+  }
+}
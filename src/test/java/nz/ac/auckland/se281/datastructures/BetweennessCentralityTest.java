@@ -0,0 +1,136 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class BetweennessCentralityTest {
+
+  @Test
+  public void matchesCountingEveryShortestPath() {
+    Random random = new Random(281);
+    int vertexCount = 80;
+    int edgeCount = 240;
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      sources[i] = random.nextInt(vertexCount);
+      destinations[i] = random.nextInt(vertexCount);
+    }
+    CsrGraph graph = CsrGraph.fromEdges(vertexCount, sources, destinations, edgeCount);
+
+    // The hops and number of shortest paths between every pair, one search per source.
+    int[][] hops = new int[vertexCount][];
+    long[][] paths = new long[vertexCount][];
+    for (int s = 0; s < vertexCount; s++) {
+      hops[s] = new int[vertexCount];
+      paths[s] = new long[vertexCount];
+      Arrays.fill(hops[s], -1);
+      int[] queue = new int[vertexCount];
+      int tail = 0;
+      hops[s][s] = 0;
+      paths[s][s] = 1;
+      queue[tail++] = s;
+      NeighborCursor neighbors = graph.cursor();
+      for (int head = 0; head < tail; head++) {
+        int v = queue[head];
+        neighbors.moveTo(v);
+        while (neighbors.hasNext()) {
+          int w = neighbors.next();
+          if (hops[s][w] < 0) {
+            hops[s][w] = hops[s][v] + 1;
+            queue[tail++] = w;
+          }
+          if (hops[s][w] == hops[s][v] + 1) {
+            paths[s][w] += paths[s][v];
+          }
+        }
+      }
+    }
+
+    BetweennessCentrality centrality = BetweennessCentrality.exact(graph);
+    for (int v = 0; v < vertexCount; v++) {
+      double expected = 0.0;
+      for (int s = 0; s < vertexCount; s++) {
+        for (int t = 0; t < vertexCount; t++) {
+          if (s != v && t != v && s != t && hops[s][t] > 0 && hops[s][v] > 0 && hops[v][t] > 0
+              && hops[s][v] + hops[v][t] == hops[s][t]) {
+            expected += (double) paths[s][v] * paths[v][t] / paths[s][t];
+          }
+        }
+      }
+      assertEquals(expected, centrality.centralityOf(v), 1e-9);
+    }
+  }
+
+  @Test
+  public void samplingIsRepeatableAndCoversWholeGraph() {
+    Random random = new Random(281);
+    int vertexCount = 500;
+    int edgeCount = 2000;
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      sources[i] = random.nextInt(vertexCount);
+      destinations[i] = random.nextInt(vertexCount);
+    }
+    CsrGraph graph = CsrGraph.fromEdges(vertexCount, sources, destinations, edgeCount);
+    int[] rank = new int[vertexCount];
+    Arrays.setAll(rank, v -> v);
+
+    BetweennessCentrality first = BetweennessCentrality.sampled(graph, 50, 7);
+    BetweennessCentrality second = BetweennessCentrality.sampled(graph, 50, 7);
+    assertEquals(50, first.getSourceCount());
+    assertArrayEquals(first.top(10, rank), second.top(10, rank));
+
+    // A sample as large as the graph is the exact answer.
+    BetweennessCentrality exact = BetweennessCentrality.exact(graph);
+    BetweennessCentrality whole = BetweennessCentrality.sampled(graph, vertexCount, 7);
+    assertArrayEquals(exact.top(vertexCount, rank), whole.top(vertexCount, rank));
+  }
+
+  @Test
+  public void renumberingKeepsTiesInTheSameOrder() {
+    // A 12 by 12 grid with edges both ways, where many verticies tie on shares of several paths.
+    int side = 12;
+    int vertexCount = side * side;
+    int[] sources = new int[4 * vertexCount];
+    int[] destinations = new int[4 * vertexCount];
+    int count = 0;
+    for (int v = 0; v < vertexCount; v++) {
+      if (v % side + 1 < side) {
+        sources[count] = v;
+        destinations[count++] = v + 1;
+        sources[count] = v + 1;
+        destinations[count++] = v;
+      }
+      if (v + side < vertexCount) {
+        sources[count] = v;
+        destinations[count++] = v + side;
+        sources[count] = v + side;
+        destinations[count++] = v;
+      }
+    }
+    CsrGraph graph = CsrGraph.fromEdges(vertexCount, sources, destinations, count);
+    int[] rank = new int[vertexCount];
+    Arrays.setAll(rank, v -> v);
+    int[] expected = BetweennessCentrality.exact(graph).top(vertexCount, rank);
+
+    for (VertexOrdering ordering : VertexOrdering.values()) {
+      Permutation permutation = ordering.permutation(graph);
+      int[] renumberedRank = new int[vertexCount];
+      for (int v = 0; v < vertexCount; v++) {
+        renumberedRank[permutation.newNumber(v)] = v;
+      }
+      int[] top =
+          BetweennessCentrality.exact(permutation.relabel(graph)).top(vertexCount, renumberedRank);
+      for (int i = 0; i < top.length; i++) {
+        top[i] = permutation.oldNumber(top[i]);
+      }
+      assertArrayEquals(expected, top);
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class BitMatrixGraphTest {
+
+  @Test
+  public void transposesBlocks() {
+    Random random = new Random(281);
+    long[] block = new long[64];
+    for (int k = 0; k < 64; k++) {
+      block[k] = random.nextLong();
+    }
+    long[] transposed = block.clone();
+    BitMatrixGraph.transpose(transposed);
+    for (int row = 0; row < 64; row++) {
+      for (int column = 0; column < 64; column++) {
+        assertEquals((block[row] >>> column) & 1, (transposed[column] >>> row) & 1);
+      }
+    }
+  }
+
+  @Test
+  public void checksPropertiesOfVerticiesThatAreNotNumbers() {
+    Graph<String> letters =
+        new Graph<>(
+            new HashSet<>(Set.of("a", "b")),
+            new HashSet<>(
+                Set.of(
+                    new Edge<>("a", "a"),
+                    new Edge<>("b", "b"),
+                    new Edge<>("a", "b"),
+                    new Edge<>("b", "a"))));
+    assertTrue(letters.isReflexive());
+    assertTrue(letters.isSymmetric());
+    assertTrue(letters.isTransitive());
+    assertFalse(letters.isAntiSymmetric());
+    assertTrue(letters.isEquivalence());
+
+    Graph<Character> characters =
+        new Graph<>(
+            new HashSet<>(Set.of('x', 'y', 'z')),
+            new HashSet<>(Set.of(new Edge<>('x', 'y'), new Edge<>('y', 'z'))));
+    assertFalse(characters.isReflexive());
+    assertFalse(characters.isSymmetric());
+    assertFalse(characters.isTransitive());
+    assertTrue(characters.isAntiSymmetric());
+  }
+
+  @Test
+  public void matchesListsOfNeighbors() {
+    Random random = new Random(281);
+    // Sizes that leave part of the last block empty, each as a random relation, a symmetric one
+    // and an equivalence relation, and each with one edge taken out of its closure.
+    for (int vertexCount : new int[] {1, 63, 64, 150}) {
+      for (int shape = 0; shape < 3; shape++) {
+        for (boolean broken : new boolean[] {false, true}) {
+          CsrGraph lists = relation(random, vertexCount, shape, broken);
+          BitMatrixGraph matrix = BitMatrixGraph.copyOf(lists);
+
+          assertEquals(lists.edgeCount(), matrix.edgeCount());
+          NeighborCursor expected = lists.cursor();
+          NeighborCursor actual = matrix.cursor();
+          for (int v = 0; v < vertexCount; v++) {
+            assertEquals(lists.degree(v), matrix.degree(v));
+            expected.moveTo(v);
+            actual.moveTo(v);
+            while (expected.hasNext()) {
+              assertTrue(actual.hasNext());
+              assertEquals(expected.next(), actual.next());
+            }
+            assertFalse(actual.hasNext());
+          }
+
+          assertEquals(GraphAlgorithms.isReflexive(lists), matrix.isReflexive());
+          assertEquals(GraphAlgorithms.isSymmetric(lists), matrix.isSymmetric());
+          assertEquals(GraphAlgorithms.isAntiSymmetric(lists), matrix.isAntiSymmetric());
+          assertEquals(GraphAlgorithms.isTransitive(lists), matrix.isTransitive());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void storesDenseGraphsAsMatrices() {
+    CsrGraph sparse = CsrGraph.fromEdges(1000, new int[] {0}, new int[] {1}, 1);
+    assertFalse(BitMatrixGraph.isDense(sparse));
+    assertTrue(AdjacencyStorage.AUTO.store(sparse) instanceof CsrGraph);
+
+    CsrGraph dense = relation(new Random(281), 200, 2, false);
+    assertTrue(BitMatrixGraph.isDense(dense));
+    assertTrue(AdjacencyStorage.AUTO.store(dense) instanceof BitMatrixGraph);
+    assertTrue(AdjacencyStorage.HEAP.store(dense) instanceof CsrGraph);
+  }
+
+  /**
+   * Builds a random relation.
+   *
+   * @param random The source of the edges.
+   * @param vertexCount The number of verticies.
+   * @param shape 0 for any relation, 1 for a symmetric one, 2 for an equivalence relation.
+   * @param broken True to leave out one edge between two different verticies.
+   * @return The edges of the relation.
+   */
+  private static CsrGraph relation(Random random, int vertexCount, int shape, boolean broken) {
+    int[] classes = new int[vertexCount];
+    for (int v = 0; v < vertexCount; v++) {
+      classes[v] = random.nextInt(3);
+    }
+    int[] sources = new int[vertexCount * vertexCount];
+    int[] destinations = new int[sources.length];
+    int count = 0;
+    boolean skipped = !broken;
+    for (int u = 0; u < vertexCount; u++) {
+      for (int v = 0; v < vertexCount; v++) {
+        boolean edge;
+        if (shape == 2) {
+          edge = classes[u] == classes[v];
+        } else if (shape == 1) {
+          edge = (u * 31 + v * 31 + u * v) % 5 == 0;
+        } else {
+          edge = random.nextInt(4) == 0;
+        }
+        if (edge && !skipped && u != v) {
+          skipped = true;
+          continue;
+        }
+        if (edge) {
+          sources[count] = u;
+          destinations[count++] = v;
+        }
+      }
+    }
+    return CsrGraph.fromEdges(vertexCount, sources, destinations, count);
+  }
+}
@@ -0,0 +1,176 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class ClosureTest {
+
+  @Test
+  public void addsLoopsAndEdgesBack() {
+    CsrGraph graph = randomGraph(new Random(281), 100, 300);
+    Adjacency reflexive = Closure.REFLEXIVE.of(graph);
+    Adjacency symmetric = Closure.SYMMETRIC.of(graph);
+
+    for (int u = 0; u < 100; u++) {
+      for (int v = 0; v < 100; v++) {
+        assertEquals(graph.containsEdge(u, v) || u == v, reflexive.containsEdge(u, v));
+        assertEquals(
+            graph.containsEdge(u, v) || graph.containsEdge(v, u), symmetric.containsEdge(u, v));
+      }
+    }
+    assertTrue(GraphAlgorithms.isReflexive(reflexive));
+    assertTrue(GraphAlgorithms.isSymmetric(symmetric));
+  }
+
+  @Test
+  public void keepsTheWeightsOfCopiedEdges() {
+    CsrGraph graph =
+        CsrGraph.fromEdges(
+            3, new int[] {0, 1, 2, 2}, new int[] {1, 0, 0, 2}, new double[] {2, 3, 4, 5}, 4);
+    Adjacency reflexive = Closure.REFLEXIVE.of(graph);
+    Adjacency symmetric = Closure.SYMMETRIC.of(graph);
+
+    assertEquals(1, weightOf(reflexive, 0, 0), 0);
+    assertEquals(2, weightOf(reflexive, 0, 1), 0);
+    assertEquals(5, weightOf(reflexive, 2, 2), 0);
+    assertEquals(4, weightOf(reflexive, 2, 0), 0);
+    assertEquals(2, weightOf(symmetric, 0, 1), 0);
+    assertEquals(3, weightOf(symmetric, 1, 0), 0);
+    assertEquals(4, weightOf(symmetric, 0, 2), 0);
+    assertEquals(5, weightOf(symmetric, 2, 2), 0);
+    assertEquals(5, symmetric.edgeCount());
+  }
+
+  @Test
+  public void reachesWhatTheGraphReaches() {
+    // Few enough components for a bitset each, and too many, with the closure in either storage.
+    Random random = new Random(281);
+    for (int[] size : new int[][] {{200, 150}, {200, 600}, {20000, 15000}}) {
+      CsrGraph graph = randomGraph(random, size[0], size[1]);
+      Adjacency closure = Closure.TRANSITIVE.of(graph);
+
+      long edgeCount = 0;
+      for (int v = 0; v < graph.vertexCount(); v++) {
+        boolean[] reached = reachedFrom(graph, v);
+        NeighborCursor neighbors = closure.cursor();
+        neighbors.moveTo(v);
+        int previous = -1;
+        int degree = 0;
+        while (neighbors.hasNext()) {
+          int neighbor = neighbors.next();
+          assertTrue(neighbor > previous && reached[neighbor]);
+          previous = neighbor;
+          degree++;
+        }
+        int expected = 0;
+        for (boolean isReached : reached) {
+          expected += isReached ? 1 : 0;
+        }
+        assertEquals(expected, degree);
+        assertEquals(expected, closure.degree(v));
+        edgeCount += degree;
+      }
+      assertEquals(edgeCount, closure.edgeCount());
+    }
+  }
+
+  @Test
+  public void joinsEveryConnectedVertex() {
+    CsrGraph graph = randomGraph(new Random(281), 300, 200);
+    Adjacency closure = Closure.EQUIVALENCE.of(graph);
+    WeaklyConnectedComponents components = new WeaklyConnectedComponents(graph);
+
+    for (int u = 0; u < 300; u++) {
+      for (int v = 0; v < 300; v++) {
+        assertEquals(
+            components.componentOf(u) == components.componentOf(v), closure.containsEdge(u, v));
+      }
+    }
+    assertTrue(GraphAlgorithms.isEquivalence(closure));
+  }
+
+  @Test
+  public void sharesRowsOfLargeClasses() {
+    // A single path joins every vertex into one class, which takes one row instead of a million
+    // edges.
+    int vertexCount = 1000;
+    int[] sources = new int[vertexCount - 1];
+    int[] destinations = new int[vertexCount - 1];
+    for (int v = 0; v + 1 < vertexCount; v++) {
+      sources[v] = v;
+      destinations[v] = v + 1;
+    }
+    CsrGraph path = CsrGraph.fromEdges(vertexCount, sources, destinations, vertexCount - 1);
+    Adjacency closure = Closure.EQUIVALENCE.of(path);
+
+    assertTrue(closure instanceof BitMatrixGraph);
+    assertEquals((long) vertexCount * vertexCount, closure.edgeCount());
+    assertTrue(closure.sizeInBytes() < 8 * vertexCount);
+  }
+
+  /**
+   * Finds every vertex that a path of at least one edge reaches from a vertex.
+   *
+   * @param graph The edges of the graph.
+   * @param start The vertex to start from.
+   * @return Whether each vertex is reached.
+   */
+  private static boolean[] reachedFrom(CsrGraph graph, int start) {
+    boolean[] reached = new boolean[graph.vertexCount()];
+    int[] stack = new int[graph.vertexCount()];
+    int top = 0;
+    stack[top++] = start;
+    NeighborCursor neighbors = graph.cursor();
+    while (top > 0) {
+      neighbors.moveTo(stack[--top]);
+      while (neighbors.hasNext()) {
+        int next = neighbors.next();
+        if (!reached[next]) {
+          reached[next] = true;
+          stack[top++] = next;
+        }
+      }
+    }
+    return reached;
+  }
+
+  /**
+   * Builds a random graph.
+   *
+   * @param random The source of the edges.
+   * @param vertexCount The number of verticies.
+   * @param edgeCount The number of edges.
+   * @return The edges of the graph.
+   */
+  private static CsrGraph randomGraph(Random random, int vertexCount, int edgeCount) {
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      sources[i] = random.nextInt(vertexCount);
+      destinations[i] = random.nextInt(vertexCount);
+    }
+    return CsrGraph.fromEdges(vertexCount, sources, destinations, edgeCount);
+  }
+
+  /**
+   * Finds the weight of an edge.
+   *
+   * @param adjacency The edges to look in.
+   * @param source The vertex the edge starts from.
+   * @param destination The vertex the edge ends at.
+   * @return The weight of the edge, or NaN if there is no such edge.
+   */
+  private static double weightOf(Adjacency adjacency, int source, int destination) {
+    NeighborCursor neighbors = adjacency.cursor();
+    neighbors.moveTo(source);
+    while (neighbors.hasNext()) {
+      if (neighbors.next() == destination) {
+        return neighbors.weight();
+      }
+    }
+    return Double.NaN;
+  }
+}
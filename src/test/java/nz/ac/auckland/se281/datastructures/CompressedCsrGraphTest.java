@@ -0,0 +1,71 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class CompressedCsrGraphTest {
+
+  private static void assertSameEdges(Adjacency expected, Adjacency actual) {
+    assertEquals(expected.vertexCount(), actual.vertexCount());
+    assertEquals(expected.edgeCount(), actual.edgeCount());
+    assertEquals(expected.isWeighted(), actual.isWeighted());
+    NeighborCursor expectedNeighbors = expected.cursor();
+    NeighborCursor actualNeighbors = actual.cursor();
+    for (int v = 0; v < expected.vertexCount(); v++) {
+      assertEquals(expected.degree(v), actual.degree(v));
+      expectedNeighbors.moveTo(v);
+      actualNeighbors.moveTo(v);
+      while (expectedNeighbors.hasNext()) {
+        assertTrue(actualNeighbors.hasNext());
+        assertEquals(expectedNeighbors.next(), actualNeighbors.next());
+        assertEquals(expectedNeighbors.weight(), actualNeighbors.weight(), 0.0);
+      }
+      assertFalse(actualNeighbors.hasNext());
+    }
+  }
+
+  @Test
+  public void decodesNeighborsOnEitherSideOfTheVertex() {
+    // Neighbors anywhere in a large range, so that gaps take several bytes and the first neighbor
+    // is often below the vertex.
+    Random random = new Random(281);
+    int vertexCount = 1 << 20;
+    int edgeCount = 5000;
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    double[] weights = new double[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      sources[i] = random.nextInt(64);
+      destinations[i] = random.nextInt(vertexCount);
+      weights[i] = random.nextDouble();
+    }
+
+    CsrGraph plain = CsrGraph.fromEdges(vertexCount, sources, destinations, edgeCount);
+    assertSameEdges(plain, CompressedCsrGraph.copyOf(plain));
+    CsrGraph weighted = CsrGraph.fromEdges(vertexCount, sources, destinations, weights, edgeCount);
+    assertSameEdges(weighted, CompressedCsrGraph.copyOf(weighted));
+  }
+
+  @Test
+  public void localNeighborsTakeAboutOneBytePerEdge() {
+    // Each vertex points at the next few verticies, as in a graph that has been reordered.
+    int vertexCount = 10000;
+    int edgeCount = vertexCount * 8;
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      sources[i] = i / 8;
+      destinations[i] = (i / 8 + i % 8 + 1) % vertexCount;
+    }
+    CsrGraph plain = CsrGraph.fromEdges(vertexCount, sources, destinations, edgeCount);
+    CompressedCsrGraph compressed = CompressedCsrGraph.copyOf(plain);
+
+    assertSameEdges(plain, compressed);
+    assertTrue(compressed.bytesPerEdge() < 2.0);
+    assertTrue(compressed.sizeInBytes() * 2 < plain.sizeInBytes());
+  }
+}
@@ -0,0 +1,123 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class ConcurrentGraphTest {
+
+  @Test
+  public void snapshotsMatchRebuiltGraph() {
+    Random random = new Random(281);
+    ConcurrentGraph<String> graph =
+        new ConcurrentGraph<>(new HashSet<String>(), new HashSet<Edge<String>>(), 7);
+    Set<String> verticies = new HashSet<>();
+    Set<Edge<String>> edges = new HashSet<>();
+
+    for (int i = 0; i < 300; i++) {
+      String source = String.valueOf(random.nextInt(10));
+      String destination = String.valueOf(random.nextInt(10));
+
+      if (random.nextInt(3) == 0) {
+        edges.remove(new Edge<>(source, destination));
+        graph.removeEdge(source, destination);
+      } else {
+        verticies.add(source);
+        verticies.add(destination);
+        edges.add(new Edge<>(source, destination));
+        graph.addEdge(source, destination);
+      }
+
+      if (i % 10 == 0) {
+        CompactGraph<String> snapshot = graph.publish();
+        Graph<String> rebuilt = new Graph<>(new HashSet<>(verticies), new HashSet<>(edges));
+
+        assertEquals(List.copyOf(rebuilt.getRoots()), List.copyOf(snapshot.getRoots()));
+        assertEquals(rebuilt.isReflexive(), snapshot.isReflexive());
+        assertEquals(rebuilt.isSymmetric(), snapshot.isSymmetric());
+        assertEquals(rebuilt.isAntiSymmetric(), snapshot.isAntiSymmetric());
+        assertEquals(rebuilt.isTransitive(), snapshot.isTransitive());
+        assertEquals(rebuilt.iterativeBreadthFirstSearch(), snapshot.iterativeBreadthFirstSearch());
+        assertEquals(rebuilt.iterativeDepthFirstSearch(), snapshot.iterativeDepthFirstSearch());
+      }
+    }
+  }
+
+  @Test
+  public void updatesWaitForTheBatch() {
+    ConcurrentGraph<String> graph = new ConcurrentGraph<>(Set.of("1"), Set.<Edge<String>>of(), 100);
+    graph.addEdge("1", "2");
+
+    assertFalse(graph.snapshot().containsEdge("1", "2"));
+    assertEquals(0, graph.snapshot().getVersion());
+
+    CompactGraph<String> snapshot = graph.publish();
+    assertTrue(snapshot.containsEdge("1", "2"));
+    assertEquals(1, snapshot.getVersion());
+    assertEquals(List.of("1", "2"), snapshot.iterativeBreadthFirstSearch());
+  }
+
+  @Test
+  public void addingAnExistingEdgeKeepsItsWeight() {
+    ConcurrentGraph<String> graph =
+        new ConcurrentGraph<>(Set.of("1", "2"), Set.of(new Edge<>("1", "2", 5.0)), 100);
+    graph.addEdge("1", "2");
+    graph.removeEdge("1", "2");
+    graph.addEdge("1", "2");
+    graph.addEdge("2", "1");
+
+    NeighborCursor neighbors = graph.publish().getAdjacency().cursor();
+    neighbors.moveTo(0);
+    assertEquals(1, neighbors.next());
+    assertEquals(5.0, neighbors.weight(), 0);
+    assertFalse(neighbors.hasNext());
+  }
+
+  @Test
+  public void readersOnlySeeWholeBatches() throws InterruptedException {
+    ConcurrentGraph<String> graph =
+        new ConcurrentGraph<>(Set.of("0"), Set.<Edge<String>>of(), 1000);
+    AtomicBoolean done = new AtomicBoolean();
+    AtomicReference<String> failure = new AtomicReference<>();
+
+    Thread[] readers = new Thread[4];
+    for (int r = 0; r < readers.length; r++) {
+      readers[r] =
+          new Thread(
+              () -> {
+                long lastVersion = 0;
+                while (!done.get()) {
+                  CompactGraph<String> snapshot = graph.snapshot();
+                  if (snapshot.getVersion() < lastVersion || !snapshot.isSymmetric()) {
+                    failure.set("Saw a partial batch at version " + snapshot.getVersion());
+                  }
+                  lastVersion = snapshot.getVersion();
+                  snapshot.iterativeBreadthFirstSearch();
+                }
+              });
+      readers[r].start();
+    }
+
+    // Every batch adds an edge together with its reverse, so every snapshot is symmetric.
+    for (int i = 1; i < 500; i++) {
+      graph.addEdge("0", String.valueOf(i));
+      graph.addEdge(String.valueOf(i), "0");
+      graph.publish();
+    }
+    done.set(true);
+    for (Thread reader : readers) {
+      reader.join();
+    }
+
+    assertEquals(null, failure.get());
+    assertEquals(499, graph.snapshot().getVersion());
+  }
+}
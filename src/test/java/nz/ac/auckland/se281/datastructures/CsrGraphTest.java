@@ -0,0 +1,63 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class CsrGraphTest {
+
+  @Test
+  public void reversesLargeGraphsInParallel() {
+    // Enough edges to be reversed in parallel, with a few verticies that many edges end at.
+    Random random = new Random(281);
+    int vertexCount = 5000;
+    int edgeCount = 200000;
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    double[] weights = new double[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      sources[i] = random.nextInt(vertexCount);
+      destinations[i] = i % 4 == 0 ? random.nextInt(8) : random.nextInt(vertexCount);
+      weights[i] = random.nextInt(100);
+    }
+    CsrGraph graph = CsrGraph.fromEdges(vertexCount, sources, destinations, weights, edgeCount);
+
+    // The same edges swapped round, which keep their weights since the graph has no repeats.
+    int count = 0;
+    NeighborCursor neighbors = graph.cursor();
+    for (int v = 0; v < vertexCount; v++) {
+      neighbors.moveTo(v);
+      while (neighbors.hasNext()) {
+        destinations[count] = v;
+        sources[count] = neighbors.next();
+        weights[count] = neighbors.weight();
+        count++;
+      }
+    }
+    CsrGraph expected = CsrGraph.fromEdges(vertexCount, sources, destinations, weights, count);
+
+    // Also split into a fixed number of ranges, so the split is tested on a machine of any size.
+    for (CsrGraph reverse :
+        new CsrGraph[] {CsrGraph.reverseOf(graph), CsrGraph.reverseInParallel(graph, 7)}) {
+      assertSameEdges(expected, reverse);
+    }
+  }
+
+  private static void assertSameEdges(CsrGraph expected, CsrGraph reverse) {
+    int vertexCount = expected.vertexCount();
+    assertEquals(vertexCount, reverse.vertexCount());
+    assertEquals(expected.edgeCount(), reverse.edgeCount());
+    NeighborCursor expectedNeighbors = expected.cursor();
+    NeighborCursor reverseNeighbors = reverse.cursor();
+    for (int v = 0; v < vertexCount; v++) {
+      assertEquals(expected.degree(v), reverse.degree(v));
+      expectedNeighbors.moveTo(v);
+      reverseNeighbors.moveTo(v);
+      while (expectedNeighbors.hasNext()) {
+        assertEquals(expectedNeighbors.next(), reverseNeighbors.next());
+        assertEquals(expectedNeighbors.weight(), reverseNeighbors.weight(), 0.0);
+      }
+    }
+  }
+}
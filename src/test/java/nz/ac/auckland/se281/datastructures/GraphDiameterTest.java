@@ -0,0 +1,46 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class GraphDiameterTest {
+
+  @Test
+  public void boundsMatchSearchingFromEveryVertex() {
+    Random random = new Random(281);
+    for (int round = 0; round < 5; round++) {
+      // Sparse enough to have several components and long paths.
+      int vertexCount = 3000;
+      int edgeCount = 3300;
+      int[] sources = new int[edgeCount];
+      int[] destinations = new int[edgeCount];
+      for (int i = 0; i < edgeCount; i++) {
+        sources[i] = random.nextInt(vertexCount);
+        destinations[i] = random.nextInt(vertexCount);
+      }
+      CsrGraph graph = CsrGraph.fromEdges(vertexCount, sources, destinations, edgeCount);
+
+      GraphDiameter exact = GraphDiameter.measure(graph, 0, vertexCount);
+      assertTrue(exact.isExact());
+      assertEquals(vertexCount, exact.getSearches());
+
+      // With time to finish, the bounds meet at the same answer after far fewer searches.
+      GraphDiameter bounded = GraphDiameter.measure(graph, Long.MAX_VALUE / 2, 0);
+      assertTrue(bounded.isExact());
+      assertEquals(exact.getDiameterLower(), bounded.getDiameterLower());
+      assertEquals(exact.getRadiusLower(), bounded.getRadiusLower());
+      assertTrue(bounded.getSearches() < vertexCount);
+
+      // Without time, the double sweep alone still gives bounds around the answer.
+      GraphDiameter sweep = GraphDiameter.measure(graph, 0, 0);
+      assertEquals(2, sweep.getSearches());
+      assertTrue(sweep.getDiameterLower() <= exact.getDiameterLower());
+      assertTrue(sweep.getDiameterUpper() >= exact.getDiameterUpper());
+      assertTrue(sweep.getRadiusLower() <= exact.getRadiusLower());
+      assertTrue(sweep.getRadiusUpper() >= exact.getRadiusUpper());
+    }
+  }
+}
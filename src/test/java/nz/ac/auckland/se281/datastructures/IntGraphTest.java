@@ -0,0 +1,171 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class IntGraphTest {
+
+  @Test
+  public void matchesGraphOfStrings() {
+    Random random = new Random(281);
+    for (int round = 0; round < 50; round++) {
+      // Every few rounds the graph is closed into an equivalence, so the classes are not trivial.
+      boolean equivalence = round % 5 == 0;
+
+      // Ids spread over several digits, so text order and numeric order disagree.
+      int vertexCount = 1 + random.nextInt(equivalence ? 12 : 40);
+      int[] ids = new int[vertexCount];
+      Set<String> verticies = new HashSet<>();
+      for (int i = 0; i < vertexCount; i++) {
+        ids[i] = random.nextInt(200);
+        verticies.add(Integer.toString(ids[i]));
+      }
+
+      int edgeCount = random.nextInt(3 * vertexCount);
+      List<int[]> pairs = new ArrayList<>();
+      for (int i = 0; i < edgeCount; i++) {
+        pairs.add(new int[] {ids[random.nextInt(vertexCount)], ids[random.nextInt(vertexCount)]});
+      }
+      if (equivalence) {
+        pairs = equivalenceOf(ids, pairs);
+      }
+
+      int[] sources = new int[pairs.size()];
+      int[] destinations = new int[pairs.size()];
+      Set<Edge<String>> edges = new HashSet<>();
+      for (int i = 0; i < pairs.size(); i++) {
+        sources[i] = pairs.get(i)[0];
+        destinations[i] = pairs.get(i)[1];
+        edges.add(new Edge<>(Integer.toString(sources[i]), Integer.toString(destinations[i])));
+      }
+
+      IntGraph ints = new IntGraph(ids, sources, destinations, pairs.size());
+      Graph<String> strings = new Graph<>(verticies, edges);
+
+      assertEquals(new ArrayList<>(strings.getRoots()).toString(), toText(ints.getRoots()));
+      assertEquals(strings.isReflexive(), ints.isReflexive());
+      assertEquals(strings.isSymmetric(), ints.isSymmetric());
+      assertEquals(strings.isAntiSymmetric(), ints.isAntiSymmetric());
+      assertEquals(strings.isTransitive(), ints.isTransitive());
+      assertEquals(strings.isEquivalence(), ints.isEquivalence());
+      if (equivalence) {
+        assertTrue(ints.isEquivalence());
+      }
+      assertEquals(
+          strings.iterativeBreadthFirstSearch().toString(),
+          toText(ints.iterativeBreadthFirstSearch()));
+      assertEquals(
+          strings.iterativeDepthFirstSearch().toString(),
+          toText(ints.iterativeDepthFirstSearch()));
+      for (int id : ints.getVerticies()) {
+        assertEquals(
+            strings.getEquivalenceClass(Integer.toString(id)),
+            toSet(ints.getEquivalenceClass(id)));
+      }
+
+      CompactGraph<String> compact = ints.toCompactGraph();
+      assertSame(ints.getAdjacency(), compact.getAdjacency());
+      assertEquals(strings.toCompactGraph().getVerticies(), compact.getVerticies());
+      assertEquals(strings.getRoots().toString(), compact.getRoots().toString());
+      assertEquals(strings.iterativeDepthFirstSearch(), compact.iterativeDepthFirstSearch());
+    }
+  }
+
+  @Test
+  public void compactGraphKeepsTheWeights() {
+    IntGraph graph =
+        new IntGraph(
+            new int[] {2, 10, 1},
+            new int[] {1, 2, 1},
+            new int[] {2, 10, 10},
+            new double[] {1.5, 2, 5},
+            3,
+            AdjacencyStorage.AUTO);
+    CompactGraph<String> compact = graph.toCompactGraph();
+
+    assertEquals(List.of("1", "2", "10"), compact.getVerticies());
+    assertEquals("{1=0.0, 2=1.5, 10=3.5}", compact.shortestDistances("1").toString());
+    assertSame(compact, graph.toCompactGraph());
+  }
+
+  @Test
+  public void acceptsOnlyCanonicalIntIds() {
+    assertTrue(IntGraph.isIntId("0"));
+    assertTrue(IntGraph.isIntId("-12"));
+    assertTrue(IntGraph.isIntId("2147483647"));
+    assertTrue(IntGraph.isIntId("-2147483648"));
+    assertFalse(IntGraph.isIntId("07"));
+    assertFalse(IntGraph.isIntId("-0"));
+    assertFalse(IntGraph.isIntId("+1"));
+    assertFalse(IntGraph.isIntId("2147483648"));
+    assertFalse(IntGraph.isIntId("A"));
+    assertFalse(IntGraph.isIntId(""));
+  }
+
+  @Test
+  public void equivalenceClassOfMissingVertexIsEmpty() {
+    IntGraph graph = new IntGraph(new int[] {1, 10}, new int[] {1}, new int[] {10}, 1);
+
+    assertArrayEquals(new int[0], graph.getEquivalenceClass(10));
+    assertFalse(graph.containsVertex(2));
+  }
+
+  /**
+   * Closes a list of edges into the smallest equivalence relation that contains them.
+   *
+   * @param ids The verticies of the graph.
+   * @param pairs The edges to close.
+   * @return Every edge of the equivalence relation.
+   */
+  private static List<int[]> equivalenceOf(int[] ids, List<int[]> pairs) {
+    int[] parent = new int[200];
+    for (int v = 0; v < parent.length; v++) {
+      parent[v] = v;
+    }
+    for (int[] pair : pairs) {
+      parent[find(parent, pair[0])] = find(parent, pair[1]);
+    }
+    List<int[]> closed = new ArrayList<>();
+    for (int a : ids) {
+      for (int b : ids) {
+        if (find(parent, a) == find(parent, b)) {
+          closed.add(new int[] {a, b});
+        }
+      }
+    }
+    return closed;
+  }
+
+  private static int find(int[] parent, int vertex) {
+    while (parent[vertex] != vertex) {
+      vertex = parent[vertex];
+    }
+    return vertex;
+  }
+
+  private static String toText(int[] verticies) {
+    List<Integer> list = new ArrayList<>();
+    for (int vertex : verticies) {
+      list.add(vertex);
+    }
+    return list.toString();
+  }
+
+  private static Set<String> toSet(int[] verticies) {
+    Set<String> set = new HashSet<>();
+    for (int vertex : verticies) {
+      set.add(Integer.toString(vertex));
+    }
+    return set;
+  }
+}
@@ -0,0 +1,63 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class MultiSourceBfsTest {
+
+  @Test
+  public void matchesOneSearchPerSource() {
+    Random random = new Random(281);
+    int vertexCount = 2000;
+    int edgeCount = 3000;
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      sources[i] = random.nextInt(vertexCount);
+      destinations[i] = random.nextInt(vertexCount);
+    }
+    CsrGraph graph = CsrGraph.fromEdges(vertexCount, sources, destinations, edgeCount);
+
+    // More sources than one pass holds, including a repeated source.
+    int[] starts = new int[MultiSourceBfs.SOURCES_PER_PASS + 45];
+    for (int i = 0; i < starts.length; i++) {
+      starts[i] = random.nextInt(vertexCount);
+    }
+    starts[starts.length - 1] = starts[0];
+
+    int[][] distances = MultiSourceBfs.distances(graph, starts);
+    int[] eccentricities = MultiSourceBfs.eccentricities(graph, starts);
+    for (int i = 0; i < starts.length; i++) {
+      int[] expected = breadthFirstSearch(graph, starts[i]);
+      assertArrayEquals(expected, distances[i]);
+      assertEquals(Arrays.stream(expected).max().getAsInt(), eccentricities[i]);
+    }
+  }
+
+  private static int[] breadthFirstSearch(Adjacency graph, int source) {
+    int[] hops = new int[graph.vertexCount()];
+    Arrays.fill(hops, MultiSourceBfs.UNREACHED);
+    int[] queue = new int[graph.vertexCount()];
+    int head = 0;
+    int tail = 0;
+    hops[source] = 0;
+    queue[tail++] = source;
+    NeighborCursor neighbors = graph.cursor();
+    while (head < tail) {
+      int vertex = queue[head++];
+      neighbors.moveTo(vertex);
+      while (neighbors.hasNext()) {
+        int neighbor = neighbors.next();
+        if (hops[neighbor] == MultiSourceBfs.UNREACHED) {
+          hops[neighbor] = hops[vertex] + 1;
+          queue[tail++] = neighbor;
+        }
+      }
+    }
+    return hops;
+  }
+}
@@ -0,0 +1,89 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class MutableGraphTest {
+
+  /**
+   * Checks that the incrementally maintained properties match a graph built from scratch.
+   *
+   * @param graph The graph that was updated.
+   * @param verticies The verticies that should be in the graph.
+   * @param edges The edges that should be in the graph.
+   */
+  private void assertMatchesRebuiltGraph(
+      MutableGraph<String> graph, Set<String> verticies, Set<Edge<String>> edges) {
+    Graph<String> rebuilt = new Graph<>(new HashSet<>(verticies), new HashSet<>(edges));
+
+    assertEquals(List.copyOf(rebuilt.getRoots()), List.copyOf(graph.getRoots()));
+    assertEquals(rebuilt.isReflexive(), graph.isReflexive());
+    assertEquals(rebuilt.isSymmetric(), graph.isSymmetric());
+    assertEquals(rebuilt.isAntiSymmetric(), graph.isAntiSymmetric());
+    assertEquals(rebuilt.isTransitive(), graph.isTransitive());
+    assertEquals(rebuilt.isEquivalence(), graph.isEquivalence());
+    assertEquals(rebuilt.iterativeBreadthFirstSearch(), graph.iterativeBreadthFirstSearch());
+    assertEquals(rebuilt.iterativeDepthFirstSearch(), graph.iterativeDepthFirstSearch());
+  }
+
+  @Test
+  public void propertiesFollowAddedAndRemovedEdges() {
+    MutableGraph<String> graph = new MutableGraph<>();
+    graph.addVertex("0");
+    graph.addVertex("1");
+
+    assertTrue(graph.isSymmetric());
+    assertFalse(graph.isReflexive());
+
+    assertTrue(graph.addEdge("0", "1"));
+    assertFalse(graph.addEdge("0", "1"));
+    assertFalse(graph.isSymmetric());
+    assertTrue(graph.isAntiSymmetric());
+    assertEquals(1, graph.getInDegree("1"));
+
+    graph.addEdge("1", "0");
+    assertTrue(graph.isSymmetric());
+    assertFalse(graph.isAntiSymmetric());
+
+    graph.addEdge("0", "0");
+    graph.addEdge("1", "1");
+    assertTrue(graph.isEquivalence());
+    assertEquals(List.of("0"), List.copyOf(graph.getRoots()));
+
+    assertTrue(graph.removeEdge("1", "0"));
+    assertFalse(graph.removeEdge("1", "0"));
+    assertFalse(graph.isSymmetric());
+    assertTrue(graph.isAntiSymmetric());
+  }
+
+  @Test
+  public void randomUpdatesMatchRebuiltGraph() {
+    Random random = new Random(281);
+    MutableGraph<String> graph = new MutableGraph<>();
+    Set<String> verticies = new HashSet<>();
+    Set<Edge<String>> edges = new HashSet<>();
+
+    for (int i = 0; i < 300; i++) {
+      String source = String.valueOf(random.nextInt(8));
+      String destination = String.valueOf(random.nextInt(8));
+      Edge<String> edge = new Edge<>(source, destination);
+
+      if (random.nextInt(3) == 0) {
+        assertEquals(edges.remove(edge), graph.removeEdge(source, destination));
+      } else {
+        verticies.add(source);
+        verticies.add(destination);
+        assertEquals(edges.add(edge), graph.addEdge(source, destination));
+      }
+
+      assertMatchesRebuiltGraph(graph, verticies, edges);
+    }
+  }
+}
@@ -0,0 +1,196 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class OffHeapCsrGraphTest {
+
+  @Test
+  public void copyMatchesHeapAdjacencyAcrossChunks() {
+    Random random = new Random(281);
+    int vertexCount = 100;
+    int edgeCount = 700;
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    double[] weights = new double[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      sources[i] = random.nextInt(vertexCount);
+      destinations[i] = random.nextInt(vertexCount);
+      weights[i] = random.nextInt(10);
+    }
+    CsrGraph heap = CsrGraph.fromEdges(vertexCount, sources, destinations, weights, edgeCount);
+
+    // Chunks of 16 values, so that runs of neighbors cross from one chunk to the next.
+    try (OffHeapCsrGraph offHeap = OffHeapCsrGraph.copyOf(heap, 4)) {
+      assertEquals(heap.vertexCount(), offHeap.vertexCount());
+      assertEquals(heap.edgeCount(), offHeap.edgeCount());
+      NeighborCursor expected = heap.cursor();
+      NeighborCursor actual = offHeap.cursor();
+      for (int v = 0; v < vertexCount; v++) {
+        assertEquals(heap.degree(v), offHeap.degree(v));
+        expected.moveTo(v);
+        actual.moveTo(v);
+        while (expected.hasNext()) {
+          assertEquals(expected.next(), actual.next());
+          assertEquals(expected.weight(), actual.weight(), 0.0);
+        }
+        assertFalse(actual.hasNext());
+      }
+    }
+  }
+
+  @Test
+  public void compactGraphGivesSameResultsOffHeap() {
+    Set<Edge<String>> edges = new HashSet<>();
+    Set<String> verticies = new HashSet<>();
+    Random random = new Random(2810);
+    for (int i = 0; i < 60; i++) {
+      String source = String.valueOf(random.nextInt(30));
+      String destination = String.valueOf(random.nextInt(30));
+      verticies.add(source);
+      verticies.add(destination);
+      edges.add(new Edge<>(source, destination));
+    }
+    CompactGraph<String> heap = CompactGraph.of(verticies, edges, 0);
+
+    try (OffHeapCsrGraph storage = OffHeapCsrGraph.copyOf(heap.getAdjacency())) {
+      CompactGraph<String> offHeap = heap.withAdjacency(storage);
+      assertEquals(heap.getRoots(), offHeap.getRoots());
+      assertEquals(heap.iterativeBreadthFirstSearch(), offHeap.iterativeBreadthFirstSearch());
+      assertEquals(heap.iterativeDepthFirstSearch(), offHeap.iterativeDepthFirstSearch());
+      assertEquals(heap.weaklyConnectedComponents(), offHeap.weaklyConnectedComponents());
+    }
+  }
+
+  @Test
+  public void offHeapGraphSearchesLikeTheGraph() {
+    Random random = new Random(281);
+    List<String> verticies = new ArrayList<>();
+    for (int v = 0; v < 40; v++) {
+      verticies.add(String.valueOf(v));
+    }
+    int[] sources = new int[80];
+    int[] destinations = new int[80];
+    Set<Edge<String>> edges = new HashSet<>();
+    for (int i = 0; i < sources.length; i++) {
+      sources[i] = random.nextInt(40);
+      destinations[i] = random.nextInt(40);
+      edges.add(new Edge<>(verticies.get(sources[i]), verticies.get(destinations[i])));
+    }
+    Graph<String> graph = new Graph<>(new HashSet<>(verticies), edges);
+    CompactGraph<String> heap =
+        CompactGraph.of(verticies, sources, destinations, null, sources.length, 0);
+
+    try (OffHeapCsrGraph storage = OffHeapCsrGraph.copyOf(heap.getAdjacency())) {
+      CompactGraph<String> offHeap = heap.withAdjacency(storage);
+      assertEquals(graph.getRoots().toString(), offHeap.getRoots().toString());
+      List<String> visited = new ArrayList<>();
+      offHeap.recursiveBreadthFirstSearch(visited::add);
+      assertEquals(graph.recursiveBreadthFirstSearch(), visited);
+      visited.clear();
+      offHeap.recursiveDepthFirstSearch(visited::add);
+      assertEquals(graph.recursiveDepthFirstSearch(), visited);
+
+      for (String root : verticies) {
+        List<String> expected = new ArrayList<>();
+        graph.bfsIterator(root).limit(10).forEachRemaining(expected::add);
+        visited.clear();
+        offHeap.breadthFirstSearchFrom(root, 10, visited::add);
+        assertEquals(expected, visited);
+        expected.clear();
+        graph.dfsIterator(root).limit(10).forEachRemaining(expected::add);
+        visited.clear();
+        offHeap.depthFirstSearchFrom(root, 10, visited::add);
+        assertEquals(expected, visited);
+      }
+    }
+  }
+
+  @Test
+  public void fullChunksOfOffsetsFitInABuffer() {
+    // 2^28 verticies with no edges, so the offsets fill whole chunks of longs.
+    Adjacency empty =
+        new Adjacency() {
+          @Override
+          public int vertexCount() {
+            return 1 << 28;
+          }
+
+          @Override
+          public long edgeCount() {
+            return 0;
+          }
+
+          @Override
+          public long sizeInBytes() {
+            return 0;
+          }
+
+          @Override
+          public int degree(int vertex) {
+            return 0;
+          }
+
+          @Override
+          public NeighborCursor cursor() {
+            return new NeighborCursor() {
+              @Override
+              public void moveTo(int vertex) {}
+
+              @Override
+              public boolean hasNext() {
+                return false;
+              }
+
+              @Override
+              public int next() {
+                throw new NoSuchElementException();
+              }
+            };
+          }
+        };
+
+    try (OffHeapCsrGraph offHeap = OffHeapCsrGraph.copyOf(empty)) {
+      assertEquals(0, offHeap.degree((1 << 28) - 1));
+    } catch (OutOfMemoryError e) {
+      // The 2 GiB of offsets may not fit in the direct memory the tests run with, but a chunk that
+      // overflows its size fails before any memory is reserved.
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void closedAdjacencyCannotBeRead() {
+    OffHeapCsrGraph offHeap =
+        OffHeapCsrGraph.copyOf(CsrGraph.fromEdges(2, new int[] {0}, new int[] {1}, 1));
+    offHeap.close();
+    offHeap.cursor();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void cursorFromBeforeCloseCannotMove() {
+    OffHeapCsrGraph offHeap =
+        OffHeapCsrGraph.copyOf(CsrGraph.fromEdges(2, new int[] {0}, new int[] {1}, 1));
+    NeighborCursor neighbors = offHeap.cursor();
+    offHeap.close();
+    neighbors.moveTo(0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void cursorMovedBeforeCloseCannotBeRead() {
+    OffHeapCsrGraph offHeap =
+        OffHeapCsrGraph.copyOf(CsrGraph.fromEdges(2, new int[] {0}, new int[] {1}, 1));
+    NeighborCursor neighbors = offHeap.cursor();
+    neighbors.moveTo(0);
+    offHeap.close();
+    offHeap.close();
+    neighbors.next();
+  }
+}
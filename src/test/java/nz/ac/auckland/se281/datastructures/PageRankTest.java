@@ -0,0 +1,76 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class PageRankTest {
+
+  @Test
+  public void matchesPushingRankAlongEveryEdge() {
+    // Enough verticies to be split between tasks, with some that have no edges out.
+    Random random = new Random(281);
+    int vertexCount = 10000;
+    int edgeCount = 30000;
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      sources[i] = random.nextInt(vertexCount / 2) * 2;
+      destinations[i] = random.nextInt(vertexCount);
+    }
+    CsrGraph graph = CsrGraph.fromEdges(vertexCount, sources, destinations, edgeCount);
+
+    PageRank ranks = PageRank.compute(graph, CsrGraph.reverseOf(graph));
+    assertTrue(ranks.isConverged());
+
+    // The same number of iterations, pushing each vertex's rank along its edges one at a time.
+    double damping = PageRank.DEFAULT_DAMPING;
+    double[] expected = new double[vertexCount];
+    Arrays.fill(expected, 1.0 / vertexCount);
+    NeighborCursor neighbors = graph.cursor();
+    for (int iteration = 0; iteration < ranks.getIterations(); iteration++) {
+      double[] next = new double[vertexCount];
+      double dangling = 0.0;
+      for (int v = 0; v < vertexCount; v++) {
+        if (graph.degree(v) == 0) {
+          dangling += expected[v];
+        }
+        neighbors.moveTo(v);
+        while (neighbors.hasNext()) {
+          next[neighbors.next()] += damping * expected[v] / graph.degree(v);
+        }
+      }
+      for (int v = 0; v < vertexCount; v++) {
+        next[v] += (1.0 - damping + damping * dangling) / vertexCount;
+      }
+      expected = next;
+    }
+
+    double total = 0.0;
+    for (int v = 0; v < vertexCount; v++) {
+      assertEquals(expected[v], ranks.rankOf(v), 1e-12);
+      total += ranks.rankOf(v);
+    }
+    assertEquals(1.0, total, 1e-9);
+  }
+
+  @Test
+  public void stopsAtTheMostIterations() {
+    // Every vertex of a cycle keeps the even rank it starts with, so the first iteration converges.
+    CsrGraph cycle = CsrGraph.fromEdges(3, new int[] {0, 1, 2}, new int[] {1, 2, 0}, 3);
+    PageRank ranks = PageRank.compute(cycle, CsrGraph.reverseOf(cycle));
+    assertTrue(ranks.isConverged());
+    assertEquals(1, ranks.getIterations());
+    assertEquals(1.0 / 3, ranks.rankOf(0), 1e-15);
+
+    CsrGraph star = CsrGraph.fromEdges(4, new int[] {1, 2, 3}, new int[] {0, 0, 0}, 3);
+    PageRank capped = PageRank.compute(star, CsrGraph.reverseOf(star), 0.85, 0.0, 5);
+    assertEquals(5, capped.getIterations());
+    assertFalse(capped.isConverged());
+    assertTrue(capped.rankOf(0) > capped.rankOf(1));
+  }
+}
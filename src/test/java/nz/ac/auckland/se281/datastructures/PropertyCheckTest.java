@@ -0,0 +1,92 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class PropertyCheckTest {
+
+  @Test
+  public void checksSmallGraphsExactly() {
+    CsrGraph cycle = CsrGraph.fromEdges(3, new int[] {0, 1, 2}, new int[] {1, 2, 0}, 3);
+
+    PropertyCheck antiSymmetry =
+        PropertyCheck.check(cycle, RelationProperty.ANTI_SYMMETRY, 10, 281, Long.MAX_VALUE / 2);
+    assertTrue(antiSymmetry.holds());
+    assertTrue(antiSymmetry.isCertain());
+    assertNull(antiSymmetry.getViolation());
+
+    PropertyCheck symmetry =
+        PropertyCheck.check(cycle, RelationProperty.SYMMETRY, 0, 281, Long.MAX_VALUE / 2);
+    assertFalse(symmetry.holds());
+    assertTrue(symmetry.isCertain());
+    assertArrayEquals(new int[] {0, 1}, symmetry.getViolation());
+  }
+
+  @Test
+  public void findsViolationsBySampling() {
+    // Almost no path of two edges in a random sparse graph has an edge that skips it.
+    CsrGraph graph = randomGraph(new Random(281), 1000, 5000);
+    PropertyCheck check = PropertyCheck.check(graph, RelationProperty.TRANSITIVITY, 100, 281, 0);
+    assertFalse(check.holds());
+    assertTrue(check.isCertain());
+
+    int[] violation = check.getViolation();
+    assertTrue(graph.containsEdge(violation[0], violation[1]));
+    assertTrue(graph.containsEdge(violation[1], violation[2]));
+    assertFalse(graph.containsEdge(violation[0], violation[2]));
+
+    PropertyCheck again = PropertyCheck.check(graph, RelationProperty.TRANSITIVITY, 100, 281, 0);
+    assertArrayEquals(violation, again.getViolation());
+    assertEquals(check.getSamples(), again.getSamples());
+  }
+
+  @Test
+  public void estimatesWhenOutOfTime() {
+    // A symmetric graph has no violations to find, so only the samples bound the answer.
+    Random random = new Random(281);
+    int vertexCount = 1000;
+    int edgeCount = 20000;
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    for (int i = 0; i < edgeCount; i += 2) {
+      sources[i] = destinations[i + 1] = random.nextInt(vertexCount);
+      destinations[i] = sources[i + 1] = random.nextInt(vertexCount);
+    }
+    CsrGraph graph = CsrGraph.fromEdges(vertexCount, sources, destinations, edgeCount);
+
+    PropertyCheck estimate = PropertyCheck.check(graph, RelationProperty.SYMMETRY, 1000, 281, 0);
+    assertTrue(estimate.holds());
+    assertFalse(estimate.isCertain());
+    assertEquals(1000, estimate.getSamples());
+    assertEquals(-Math.log(0.05) / 1000, estimate.getErrorBound(), 1e-12);
+
+    PropertyCheck exact =
+        PropertyCheck.check(graph, RelationProperty.SYMMETRY, 1000, 281, Long.MAX_VALUE / 2);
+    assertTrue(exact.holds());
+    assertTrue(exact.isCertain());
+  }
+
+  /**
+   * Builds a random graph.
+   *
+   * @param random The source of the edges.
+   * @param vertexCount The number of verticies.
+   * @param edgeCount The number of edges.
+   * @return The edges of the graph.
+   */
+  private static CsrGraph randomGraph(Random random, int vertexCount, int edgeCount) {
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      sources[i] = random.nextInt(vertexCount);
+      destinations[i] = random.nextInt(vertexCount);
+    }
+    return CsrGraph.fromEdges(vertexCount, sources, destinations, edgeCount);
+  }
+}
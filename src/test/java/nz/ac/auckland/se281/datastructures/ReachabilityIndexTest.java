@@ -0,0 +1,78 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class ReachabilityIndexTest {
+
+  private static CsrGraph randomGraph(Random random, int vertexCount, int edgeCount) {
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      sources[i] = random.nextInt(vertexCount);
+      destinations[i] = random.nextInt(vertexCount);
+    }
+    return CsrGraph.fromEdges(vertexCount, sources, destinations, edgeCount);
+  }
+
+  private static boolean[] reachedFrom(Adjacency adjacency, int source) {
+    boolean[] reached = new boolean[adjacency.vertexCount()];
+    int[] queue = new int[adjacency.vertexCount()];
+    int head = 0;
+    int tail = 0;
+    reached[source] = true;
+    queue[tail++] = source;
+    NeighborCursor neighbors = adjacency.cursor();
+    while (head < tail) {
+      neighbors.moveTo(queue[head++]);
+      while (neighbors.hasNext()) {
+        int neighbor = neighbors.next();
+        if (!reached[neighbor]) {
+          reached[neighbor] = true;
+          queue[tail++] = neighbor;
+        }
+      }
+    }
+    return reached;
+  }
+
+  @Test
+  public void bitsetsAndIntervalsMatchSearch() {
+    Random random = new Random(281);
+
+    for (int round = 0; round < 20; round++) {
+      CsrGraph graph = randomGraph(random, 60, 20 + random.nextInt(80));
+      ReachabilityIndex bitsets = new ReachabilityIndex(graph);
+      ReachabilityIndex intervals = new ReachabilityIndex(graph, 0);
+      assertTrue(bitsets.usesBitsets());
+      assertFalse(intervals.usesBitsets());
+
+      for (int source = 0; source < graph.vertexCount(); source++) {
+        boolean[] reached = reachedFrom(graph, source);
+        for (int destination = 0; destination < graph.vertexCount(); destination++) {
+          assertEquals(reached[destination], bitsets.reaches(source, destination));
+          assertEquals(reached[destination], intervals.reaches(source, destination));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void componentsAreNumberedInReverseTopologicalOrder() {
+    CsrGraph graph = randomGraph(new Random(2810), 200, 260);
+    StronglyConnectedComponents components = new StronglyConnectedComponents(graph);
+    NeighborCursor neighbors = graph.cursor();
+
+    for (int v = 0; v < graph.vertexCount(); v++) {
+      neighbors.moveTo(v);
+      while (neighbors.hasNext()) {
+        int neighbor = neighbors.next();
+        assertTrue(components.componentOf(neighbor) <= components.componentOf(v));
+      }
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class RelationPropertyTest {
+
+  @Test
+  public void countsEveryViolationInOnePass() {
+    Random random = new Random(281);
+    for (int vertexCount : new int[] {1, 10, 100}) {
+      int edgeCount = vertexCount * vertexCount / 3;
+      int[] sources = new int[edgeCount];
+      int[] destinations = new int[edgeCount];
+      for (int i = 0; i < edgeCount; i++) {
+        sources[i] = random.nextInt(vertexCount);
+        destinations[i] = random.nextInt(vertexCount);
+      }
+      CsrGraph lists = CsrGraph.fromEdges(vertexCount, sources, destinations, edgeCount);
+      BitMatrixGraph matrix = BitMatrixGraph.copyOf(lists);
+
+      // Count the violations by testing every pair and every triple of verticies.
+      long symmetry = 0;
+      long antiSymmetry = 0;
+      long transitivity = 0;
+      for (int u = 0; u < vertexCount; u++) {
+        for (int v = 0; v < vertexCount; v++) {
+          if (!lists.containsEdge(u, v)) {
+            continue;
+          }
+          symmetry += lists.containsEdge(v, u) ? 0 : 1;
+          antiSymmetry += u < v && lists.containsEdge(v, u) ? 1 : 0;
+          for (int w = 0; w < vertexCount; w++) {
+            transitivity += lists.containsEdge(v, w) && !lists.containsEdge(u, w) ? 1 : 0;
+          }
+        }
+      }
+
+      for (Adjacency adjacency : new Adjacency[] {lists, matrix}) {
+        assertCounts(adjacency, RelationProperty.SYMMETRY, symmetry);
+        assertCounts(adjacency, RelationProperty.ANTI_SYMMETRY, antiSymmetry);
+        assertCounts(adjacency, RelationProperty.TRANSITIVITY, transitivity);
+        assertEquals(symmetry == 0, GraphAlgorithms.isSymmetric(adjacency));
+        assertEquals(antiSymmetry == 0, GraphAlgorithms.isAntiSymmetric(adjacency));
+        assertEquals(transitivity == 0, GraphAlgorithms.isTransitive(adjacency));
+      }
+    }
+  }
+
+  /**
+   * Checks that a property counts the expected violations, and gives only the first few of them to
+   * the sink, each of which really is a violation.
+   *
+   * @param adjacency The edges of the graph.
+   * @param property The property to count the violations of.
+   * @param expected The number of violations the graph has.
+   */
+  private static void assertCounts(Adjacency adjacency, RelationProperty property, long expected) {
+    List<int[]> violations = new ArrayList<>();
+    assertEquals(expected, property.streamViolations(adjacency, 5, violations::add));
+    assertEquals(Math.min(expected, 5), violations.size());
+
+    for (int[] violation : violations) {
+      int u = violation[0];
+      int v = violation[1];
+      assertTrue(adjacency.containsEdge(u, v));
+      if (property == RelationProperty.SYMMETRY) {
+        assertFalse(adjacency.containsEdge(v, u));
+      } else if (property == RelationProperty.ANTI_SYMMETRY) {
+        assertTrue(u != v && adjacency.containsEdge(v, u));
+      } else {
+        assertTrue(adjacency.containsEdge(v, violation[2]));
+        assertFalse(adjacency.containsEdge(u, violation[2]));
+      }
+    }
+  }
+}
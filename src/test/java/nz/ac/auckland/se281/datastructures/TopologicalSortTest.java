@@ -0,0 +1,59 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class TopologicalSortTest {
+
+  @Test
+  public void parallelLevelsMatchSequentialLevels() {
+    // Edges only go from lower to higher numbers, so the graph has no cycles.
+    Random random = new Random(281);
+    int vertexCount = 20000;
+    int edgeCount = 60000;
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      sources[i] = random.nextInt(vertexCount - 1);
+      destinations[i] = sources[i] + 1 + random.nextInt(vertexCount - 1 - sources[i]);
+    }
+    CsrGraph graph = CsrGraph.fromEdges(vertexCount, sources, destinations, edgeCount);
+
+    TopologicalSort sequential = TopologicalSort.sort(graph, graph.inDegrees());
+    TopologicalSort parallel = TopologicalSort.sortInParallel(graph, graph.inDegrees());
+    assertTrue(sequential.isAcyclic());
+    assertTrue(parallel.isAcyclic());
+    assertEquals(sequential.levelCount(), parallel.levelCount());
+
+    for (int level = 0; level < sequential.levelCount(); level++) {
+      int[] expected = sequential.level(level);
+      Arrays.sort(expected);
+      assertArrayEquals(expected, parallel.level(level));
+    }
+
+    int[] position = new int[vertexCount];
+    int[] order = sequential.order();
+    for (int i = 0; i < order.length; i++) {
+      position[order[i]] = i;
+    }
+    for (int i = 0; i < edgeCount; i++) {
+      assertTrue(position[sources[i]] < position[destinations[i]]);
+    }
+  }
+
+  @Test
+  public void cycleLeavesVerticiesUnsorted() {
+    CsrGraph graph = CsrGraph.fromEdges(4, new int[] {0, 1, 2, 3}, new int[] {1, 2, 1, 2}, 4);
+
+    TopologicalSort sort = TopologicalSort.sort(graph, graph.inDegrees());
+    assertFalse(sort.isAcyclic());
+    assertArrayEquals(new int[] {0, 3}, sort.order());
+    assertFalse(TopologicalSort.sortInParallel(graph, graph.inDegrees()).isAcyclic());
+  }
+}
@@ -0,0 +1,156 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class TransitiveReductionTest {
+
+  @Test
+  public void keepsWhatEveryVertexReaches() {
+    Random random = new Random(281);
+    for (int[] size : new int[][] {{200, 150}, {200, 800}, {300, 2000}}) {
+      CsrGraph graph = randomGraph(random, size[0], size[1], false);
+      CsrGraph reduction = TransitiveReduction.of(graph);
+
+      assertTrue(reduction.edgeCount() <= graph.edgeCount() + graph.vertexCount());
+      assertSameReach(graph, reduction);
+    }
+  }
+
+  @Test
+  public void removesOnlyCoveredEdgesOfAcyclicGraphs() {
+    // Enough verticies that the graph of the components is reduced by searching, not bitsets.
+    Random random = new Random(281);
+    for (int[] size : new int[][] {{300, 3000}, {20000, 60000}}) {
+      CsrGraph graph = randomGraph(random, size[0], size[1], true);
+      CsrGraph reduction = TransitiveReduction.of(graph);
+      Adjacency closure = Closure.TRANSITIVE.of(graph);
+      if (size[0] <= 300) {
+        assertSameReach(graph, reduction);
+      }
+
+      // Every kept edge is an edge of the graph that no other kept edge covers, and every edge
+      // that was removed is covered.
+      NeighborCursor neighbors = graph.cursor();
+      NeighborCursor others = reduction.cursor();
+      for (int u = 0; u < graph.vertexCount(); u++) {
+        neighbors.moveTo(u);
+        while (neighbors.hasNext()) {
+          int v = neighbors.next();
+          boolean covered = false;
+          others.moveTo(u);
+          while (others.hasNext()) {
+            int w = others.next();
+            covered |= w != v && closure.containsEdge(w, v);
+          }
+          assertEquals(!covered, reduction.containsEdge(u, v));
+        }
+        others.moveTo(u);
+        while (others.hasNext()) {
+          assertTrue(graph.containsEdge(u, others.next()));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void joinsComponentsWithCycles() {
+    // 0, 1 and 2 are a component with every edge between them, and 3 only has a loop.
+    CsrGraph graph =
+        CsrGraph.fromEdges(
+            4, new int[] {0, 0, 1, 1, 2, 2, 2, 3}, new int[] {1, 2, 0, 2, 0, 1, 3, 3}, 8);
+    CsrGraph reduction = TransitiveReduction.of(graph);
+
+    assertEquals(5, reduction.edgeCount());
+    assertTrue(reduction.containsEdge(0, 1));
+    assertTrue(reduction.containsEdge(1, 2));
+    assertTrue(reduction.containsEdge(2, 0));
+    assertTrue(reduction.containsEdge(2, 3));
+    assertTrue(reduction.containsEdge(3, 3));
+    assertFalse(reduction.containsEdge(0, 2));
+  }
+
+  @Test
+  public void keepsTheWeightsOfKeptEdges() {
+    // 0, 1 and 2 are joined by edges both ways between neighbors, so the cycle 0 -> 1 -> 2 -> 0
+    // that replaces them has one edge that is not in the graph.
+    CsrGraph graph =
+        CsrGraph.fromEdges(
+            4,
+            new int[] {0, 1, 1, 2, 2, 3},
+            new int[] {1, 0, 2, 1, 3, 3},
+            new double[] {2, 9, 3, 8, 5, 6},
+            6);
+    CsrGraph reduction = TransitiveReduction.of(graph);
+
+    assertTrue(reduction.isWeighted());
+    assertEquals(5, reduction.edgeCount());
+    assertEquals(2, weightOf(reduction, 0, 1), 0);
+    assertEquals(3, weightOf(reduction, 1, 2), 0);
+    assertEquals(1, weightOf(reduction, 2, 0), 0);
+    assertEquals(5, weightOf(reduction, 2, 3), 0);
+    assertEquals(6, weightOf(reduction, 3, 3), 0);
+  }
+
+  /**
+   * Finds the weight of an edge.
+   *
+   * @param adjacency The edges to look in.
+   * @param source The vertex the edge starts from.
+   * @param destination The vertex the edge ends at.
+   * @return The weight of the edge, or NaN if there is no such edge.
+   */
+  private static double weightOf(Adjacency adjacency, int source, int destination) {
+    NeighborCursor neighbors = adjacency.cursor();
+    neighbors.moveTo(source);
+    while (neighbors.hasNext()) {
+      if (neighbors.next() == destination) {
+        return neighbors.weight();
+      }
+    }
+    return Double.NaN;
+  }
+
+  /**
+   * Checks that two graphs have the same transitive closure.
+   *
+   * @param expected The edges of the first graph.
+   * @param actual The edges of the second graph.
+   */
+  private static void assertSameReach(Adjacency expected, Adjacency actual) {
+    Adjacency expectedClosure = Closure.TRANSITIVE.of(expected);
+    Adjacency actualClosure = Closure.TRANSITIVE.of(actual);
+    assertEquals(expectedClosure.edgeCount(), actualClosure.edgeCount());
+    for (int u = 0; u < expected.vertexCount(); u++) {
+      for (int v = 0; v < expected.vertexCount(); v++) {
+        assertEquals(expectedClosure.containsEdge(u, v), actualClosure.containsEdge(u, v));
+      }
+    }
+  }
+
+  /**
+   * Builds a random graph.
+   *
+   * @param random The source of the edges.
+   * @param vertexCount The number of verticies.
+   * @param edgeCount The number of edges.
+   * @param acyclic True to only have edges from a lower vertex to a higher one.
+   * @return The edges of the graph.
+   */
+  private static CsrGraph randomGraph(
+      Random random, int vertexCount, int edgeCount, boolean acyclic) {
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      int u = random.nextInt(vertexCount);
+      int v = random.nextInt(vertexCount);
+      sources[i] = acyclic ? Math.min(u, v) : u;
+      destinations[i] = acyclic && u == v ? (u + 1) % vertexCount : acyclic ? Math.max(u, v) : v;
+    }
+    return CsrGraph.fromEdges(vertexCount, sources, destinations, edgeCount);
+  }
+}
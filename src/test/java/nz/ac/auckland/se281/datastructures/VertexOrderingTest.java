@@ -0,0 +1,92 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class VertexOrderingTest {
+
+  @Test
+  public void reorderedGraphGivesSameResults() {
+    Random random = new Random(281);
+    Set<Integer> verticies = new HashSet<>();
+    Set<Edge<Integer>> edges = new HashSet<>();
+    for (int v = 0; v < 300; v++) {
+      verticies.add(v);
+    }
+    for (int i = 0; i < 400; i++) {
+      // Edges only go forwards, so the graph is acyclic and has topological levels.
+      int source = random.nextInt(299);
+      int destination = source + 1 + random.nextInt(299 - source);
+      edges.add(new Edge<>(source, destination, 1 + random.nextInt(9)));
+    }
+    CompactGraph<Integer> graph = CompactGraph.of(verticies, edges, 0);
+
+    for (VertexOrdering ordering : VertexOrdering.values()) {
+      CompactGraph<Integer> reordered = graph.reordered(ordering);
+      assertEquals(ordering == VertexOrdering.SEARCH, reordered.isSearchOrdered());
+      assertEquals(graph.getAdjacency().edgeCount(), reordered.getAdjacency().edgeCount());
+      for (Edge<Integer> edge : edges) {
+        assertTrue(reordered.containsEdge(edge.getSource(), edge.getDestination()));
+      }
+      assertEquals(graph.getRoots().toString(), reordered.getRoots().toString());
+      assertEquals(graph.weaklyConnectedComponents(), reordered.weaklyConnectedComponents());
+      assertEquals(graph.topologicalLevels(), reordered.topologicalLevels());
+      assertEquals(
+          graph.shortestDistances(0).toString(), reordered.shortestDistances(0).toString());
+      assertEquals(graph.reaches(0, 299), reordered.reaches(0, 299));
+
+      CompactGraph<Integer> restored = reordered.reordered(VertexOrdering.SEARCH);
+      assertTrue(restored.isSearchOrdered());
+      assertEquals(graph.getVerticies(), restored.getVerticies());
+      assertEquals(graph.iterativeDepthFirstSearch(), restored.iterativeDepthFirstSearch());
+    }
+  }
+
+  @Test
+  public void reverseCuthillMcKeeNarrowsShuffledGrid() {
+    // A 40 by 40 grid with its verticies numbered at random.
+    int side = 40;
+    int vertexCount = side * side;
+    int[] shuffled = new int[vertexCount];
+    for (int v = 0; v < vertexCount; v++) {
+      shuffled[v] = v;
+    }
+    Random random = new Random(281);
+    for (int v = vertexCount - 1; v > 0; v--) {
+      int other = random.nextInt(v + 1);
+      int swap = shuffled[v];
+      shuffled[v] = shuffled[other];
+      shuffled[other] = swap;
+    }
+    int[] sources = new int[2 * vertexCount];
+    int[] destinations = new int[2 * vertexCount];
+    int count = 0;
+    for (int row = 0; row < side; row++) {
+      for (int column = 0; column < side; column++) {
+        int v = row * side + column;
+        if (column + 1 < side) {
+          sources[count] = shuffled[v];
+          destinations[count++] = shuffled[v + 1];
+        }
+        if (row + 1 < side) {
+          sources[count] = shuffled[v];
+          destinations[count++] = shuffled[v + side];
+        }
+      }
+    }
+    CsrGraph grid = CsrGraph.fromEdges(vertexCount, sources, destinations, count);
+
+    LocalityMetrics before = LocalityMetrics.of(grid);
+    LocalityMetrics after = LocalityMetrics.of(VertexOrdering.RCM.permutation(grid).relabel(grid));
+
+    // Reverse Cuthill-McKee numbers the grid by its diagonals, so no edge spans more than a side.
+    assertTrue(after.getBandwidth() <= 2 * side);
+    assertTrue(after.getAverageGap() * 10 < before.getAverageGap());
+    assertTrue(after.getAverageLogGap() < before.getAverageLogGap());
+  }
+}
@@ -0,0 +1,57 @@
+package nz.ac.auckland.se281.datastructures;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class WeaklyConnectedComponentsTest {
+
+  @Test
+  public void parallelUnionFindMatchesSequentialLabels() {
+    Random random = new Random(281);
+    int vertexCount = 50000;
+    int edgeCount = 30000;
+    int[] sources = new int[edgeCount];
+    int[] destinations = new int[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      sources[i] = random.nextInt(vertexCount);
+      destinations[i] = random.nextInt(vertexCount);
+    }
+    CsrGraph graph = CsrGraph.fromEdges(vertexCount, sources, destinations, edgeCount);
+
+    // Label the components one edge at a time, merging the higher label into the lower one.
+    int[] label = new int[vertexCount];
+    for (int v = 0; v < vertexCount; v++) {
+      label[v] = v;
+    }
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int i = 0; i < edgeCount; i++) {
+        int low = Math.min(label[sources[i]], label[destinations[i]]);
+        if (label[sources[i]] != low || label[destinations[i]] != low) {
+          label[sources[i]] = low;
+          label[destinations[i]] = low;
+          changed = true;
+        }
+      }
+    }
+
+    WeaklyConnectedComponents components = new WeaklyConnectedComponents(graph);
+    int[] expectedSizes = new int[vertexCount];
+    for (int v = 0; v < vertexCount; v++) {
+      expectedSizes[label[v]]++;
+    }
+    assertEquals(
+        Arrays.stream(expectedSizes).filter(size -> size > 0).count(),
+        components.componentCount());
+
+    for (int v = 0; v < vertexCount; v++) {
+      // The component of each vertex is the component of the lowest vertex connected to it.
+      assertEquals(components.componentOf(label[v]), components.componentOf(v));
+      assertEquals(expectedSizes[label[v]], components.componentSize(components.componentOf(v)));
+    }
+  }
+}